@@ -0,0 +1,45 @@
+package com.unveil.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Email hashing: the original per-call MessageDigest + Integer.toHexString
+ * implementation against HashUtils. Run with the GC profiler to compare
+ * allocation per operation (gc.alloc.rate.norm):
+ *
+ *   ./gradlew jmh -Pjmh.includes=HashUtilsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashUtilsBenchmark {
+
+    @Param({"jane.doe@example.com", "a.very.long.mailbox.name+newsletter@subdomain.example.co.uk"})
+    public String email;
+
+    @Benchmark
+    public String legacyHashEmail() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = digest.digest(email.getBytes("UTF-8"));
+        StringBuilder hexString = new StringBuilder();
+        for (byte b : hash) {
+            String hex = Integer.toHexString(0xff & b);
+            if (hex.length() == 1) {
+                hexString.append('0');
+            }
+            hexString.append(hex);
+        }
+        return hexString.toString();
+    }
+
+    @Benchmark
+    public String hashUtilsSha256Hex() {
+        return HashUtils.sha256Hex(email);
+    }
+}
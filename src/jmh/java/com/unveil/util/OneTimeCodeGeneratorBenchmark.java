@@ -0,0 +1,46 @@
+package com.unveil.util;
+
+import com.unveil.service.OneTimeCodeGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Code generation under 8 concurrent threads: a new SecureRandom +
+ * String.format per call (previous OtpService) against the pooled generator.
+ *
+ *   ./gradlew jmh -Pjmh.includes=OneTimeCodeGeneratorBenchmark
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class OneTimeCodeGeneratorBenchmark {
+
+    private OneTimeCodeGenerator generator;
+
+    @Setup
+    public void setUp() {
+        generator = new OneTimeCodeGenerator(4096, 1024);
+    }
+
+    @TearDown
+    public void tearDown() {
+        generator.shutdown();
+    }
+
+    @Benchmark
+    public String newSecureRandomPerCall() {
+        SecureRandom random = new SecureRandom();
+        return String.format("%06d", random.nextInt(1000000));
+    }
+
+    @Benchmark
+    public String pooledGenerator() {
+        return generator.nextCode();
+    }
+}
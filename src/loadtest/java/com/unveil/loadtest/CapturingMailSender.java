@@ -0,0 +1,45 @@
+package com.unveil.loadtest;
+
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mail sender of the load test: nothing leaves the machine, and the code of
+ * each OTP mail is kept per recipient so the workload can verify it.
+ */
+class CapturingMailSender extends JavaMailSenderImpl {
+
+    private static final Pattern CODE = Pattern.compile("\\b(\\d{6})\\b");
+
+    private final Map<String, String> codes = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+        if (originalMessages == null) {
+            return;
+        }
+        for (Object original : originalMessages) {
+            if (original instanceof SimpleMailMessage message && message.getTo() != null && message.getText() != null) {
+                Matcher code = CODE.matcher(message.getText());
+                if (code.find()) {
+                    for (String recipient : message.getTo()) {
+                        codes.put(recipient.toLowerCase(), code.group(1));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The last code mailed to {@code email}, removed once taken
+     */
+    String takeCode(String email) {
+        return codes.remove(email.toLowerCase());
+    }
+}
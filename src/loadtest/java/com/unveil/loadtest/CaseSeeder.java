@@ -0,0 +1,219 @@
+package com.unveil.loadtest;
+
+import com.unveil.util.ContactKeys;
+import com.unveil.util.VerdictRanking;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds synthetic cases modelled on the sample rows in data.sql: each case
+ * copies a random sample row's scam category (actions), company and
+ * description, and gets a unique name, email and phone, a skewed email
+ * domain, vote tallies and a creation time increasing with its id.
+ *
+ * Rows are generated from the seed alone, so every run with the same
+ * --cases and --seed starts from the same data. Written with COPY in
+ * chunks, derived columns (ranking keys, email domain, phone digits)
+ * computed by the same helpers the entity uses. Vote rows are not seeded.
+ */
+class CaseSeeder {
+
+    private static final String COPY_CASES = "COPY cases (name, email, phone, company, description, reported_by, " +
+            "actions, verdict_score, total_votes, guilty_votes, not_guilty_votes, created_at, last_voted_at, " +
+            "verdict_sign, verdict_wilson, controversy_score, email_domain, phone_digits) FROM STDIN (FORMAT csv)";
+
+    private static final int CHUNK = 50_000;
+    private static final LocalDateTime FIRST_CASE = LocalDateTime.of(2022, 1, 1, 0, 0);
+    private static final long SPAN_SECONDS = 3L * 365 * 24 * 3600;
+
+    private final DataSource dataSource;
+    private final List<SampleCase> samples;
+
+    CaseSeeder(DataSource dataSource) throws IOException {
+        this.dataSource = dataSource;
+        this.samples = readSamples();
+    }
+
+    List<SampleCase> samples() {
+        return samples;
+    }
+
+    /**
+     * Insert {@code count} cases into an empty cases table
+     */
+    void seed(long count, long seed) throws SQLException, IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        // Roughly 50 cases per domain, a few domains much larger than that
+        long domains = Math.max(1, count / 50);
+
+        try (Connection connection = dataSource.getConnection()) {
+            CopyManager copy = connection.unwrap(PGConnection.class).getCopyAPI();
+            StringBuilder rows = new StringBuilder(CHUNK * 400);
+            for (long i = 1; i <= count; i++) {
+                appendRow(rows, i, count, domains, random);
+                if (i % CHUNK == 0 || i == count) {
+                    copy.copyIn(COPY_CASES, new StringReader(rows.toString()));
+                    rows.setLength(0);
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE cases");
+            }
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void appendRow(StringBuilder rows, long i, long count, long domains, SplittableRandom random) {
+        SampleCase sample = samples.get(random.nextInt(samples.size()));
+
+        String name = sample.name() != null ? sample.name() + " " + i : null;
+        String email = null;
+        if (sample.email() != null) {
+            long domain = (long) (domains * Math.pow(random.nextDouble(), 3));
+            email = sample.emailLocalPart() + i + "@" + sample.emailDomainStem() + domain + sample.emailDomainSuffix();
+        }
+        String phone = sample.phone() != null
+                ? String.format("+1-8%02d-%03d-%04d", random.nextInt(100), random.nextInt(1000), i % 10_000)
+                : null;
+
+        // Most cases have a few votes, some many; guilty usually leads
+        int total = (int) (60 * Math.pow(random.nextDouble(), 4));
+        int guilty = (int) Math.round(total * (0.3 + 0.7 * random.nextDouble()));
+        int notGuilty = total - guilty;
+
+        LocalDateTime createdAt = FIRST_CASE.plusSeconds(SPAN_SECONDS * i / count);
+        LocalDateTime lastVotedAt = total > 0 ? createdAt.plusHours(1 + random.nextInt(24 * 30)) : null;
+
+        csv(rows, name).append(',');
+        csv(rows, email).append(',');
+        csv(rows, phone).append(',');
+        csv(rows, sample.company()).append(',');
+        csv(rows, sample.description()).append(',');
+        csv(rows, sample.reportedBy()).append(',');
+        csv(rows, sample.actions()).append(',');
+        rows.append(guilty - notGuilty).append(',')
+                .append(total).append(',')
+                .append(guilty).append(',')
+                .append(notGuilty).append(',')
+                .append(createdAt).append(',');
+        if (lastVotedAt != null) {
+            rows.append(lastVotedAt);
+        }
+        rows.append(',')
+                .append(VerdictRanking.sign(guilty, notGuilty)).append(',')
+                .append(VerdictRanking.confidence(guilty, notGuilty)).append(',')
+                .append(VerdictRanking.controversy(guilty, notGuilty)).append(',');
+        csv(rows, ContactKeys.emailDomain(email)).append(',');
+        csv(rows, ContactKeys.phoneDigits(phone)).append('\n');
+    }
+
+    // Quoted CSV field; null is the unquoted empty field
+    private static StringBuilder csv(StringBuilder rows, String value) {
+        if (value == null) {
+            return rows;
+        }
+        return rows.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    // The sample cases of data.sql (the VALUES rows of its cases inserts)
+    private static List<SampleCase> readSamples() throws IOException {
+        String sql = new ClassPathResource("data.sql").getContentAsString(StandardCharsets.UTF_8);
+        List<SampleCase> samples = new ArrayList<>();
+        boolean inCases = false;
+        for (String line : sql.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("INSERT INTO")) {
+                inCases = trimmed.startsWith("INSERT INTO cases");
+            } else if (inCases && trimmed.startsWith("(")) {
+                List<String> fields = fields(trimmed);
+                if (fields.size() >= 7 && fields.get(5) != null) {
+                    samples.add(new SampleCase(fields.get(0), fields.get(1), fields.get(2), fields.get(3),
+                            fields.get(4), fields.get(5), fields.get(6)));
+                }
+            } else if (!trimmed.startsWith("--") && !trimmed.isEmpty()) {
+                inCases = false;
+            }
+        }
+        if (samples.isEmpty()) {
+            throw new IllegalStateException("No sample cases found in data.sql");
+        }
+        return samples;
+    }
+
+    // Values of one "(...)," tuple: quoted strings unescaped, NULL as null
+    private static List<String> fields(String tuple) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        String body = tuple.substring(1, tuple.lastIndexOf(')'));
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (quoted) {
+                if (c == '\'' && i + 1 < body.length() && body.charAt(i + 1) == '\'') {
+                    current.append('\'');
+                    i++;
+                } else if (c == '\'') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\'') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == ',') {
+                fields.add(value(current, wasQuoted));
+                current.setLength(0);
+                wasQuoted = false;
+            } else if (!Character.isWhitespace(c)) {
+                current.append(c);
+            }
+        }
+        fields.add(value(current, wasQuoted));
+        return fields;
+    }
+
+    private static String value(StringBuilder field, boolean wasQuoted) {
+        String value = field.toString();
+        return !wasQuoted && value.equalsIgnoreCase("NULL") ? null : value;
+    }
+
+    /**
+     * One sample row of data.sql
+     */
+    record SampleCase(String name, String email, String phone, String company, String description,
+                      String actions, String reportedBy) {
+
+        String emailLocalPart() {
+            return email.substring(0, email.indexOf('@'));
+        }
+
+        // "fake-microsoft" of support@fake-microsoft.com
+        String emailDomainStem() {
+            String domain = email.substring(email.indexOf('@') + 1);
+            int dot = domain.lastIndexOf('.');
+            return dot > 0 ? domain.substring(0, dot) : domain;
+        }
+
+        // ".com" of support@fake-microsoft.com
+        String emailDomainSuffix() {
+            String domain = email.substring(email.indexOf('@') + 1);
+            int dot = domain.lastIndexOf('.');
+            return dot > 0 ? domain.substring(dot) : ".com";
+        }
+    }
+}
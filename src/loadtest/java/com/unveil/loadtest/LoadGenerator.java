@@ -0,0 +1,145 @@
+package com.unveil.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the workload from --concurrency threads for --warmup plus
+ * --duration seconds and keeps a latency histogram (microseconds) and
+ * status counts per operation, for requests started in the measured part.
+ *
+ * With --rate, each thread issues requests on a fixed schedule and latency
+ * is measured from the scheduled start, so a stalled server shows up as
+ * queueing delay instead of as fewer, faster requests (no coordinated
+ * omission). Without it, threads send back to back (closed loop).
+ */
+class LoadGenerator {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Workload workload;
+    private final LoadTestOptions options;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+
+    private volatile long measureFromNanos;
+    private volatile long measureUntilNanos;
+
+    LoadGenerator(Workload workload, LoadTestOptions options) {
+        this.workload = workload;
+        this.options = options;
+    }
+
+    /**
+     * Run the warm-up and measured phases
+     * @return statistics per operation, by name
+     */
+    Map<String, OperationStats> run() throws InterruptedException {
+        long start = System.nanoTime();
+        measureFromNanos = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        measureUntilNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        Mix mix = new Mix(options.mix());
+        long intervalNanos = options.rate() > 0 ? (long) (1e9 * options.concurrency() / options.rate()) : 0;
+
+        Thread[] threads = new Thread[options.concurrency()];
+        for (int t = 0; t < threads.length; t++) {
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + t);
+            // Paced threads are spread evenly over one interval
+            long firstStart = start + (intervalNanos * t) / threads.length;
+            threads[t] = new Thread(() -> drive(mix, random, firstStart, intervalNanos), "loadtest-" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return new TreeMap<>(operations);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void drive(Mix mix, SplittableRandom random, long firstStart, long intervalNanos) {
+        long scheduled = firstStart;
+        while (true) {
+            long startNanos;
+            if (intervalNanos > 0) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                startNanos = scheduled;
+                scheduled += intervalNanos;
+            } else {
+                startNanos = System.nanoTime();
+            }
+            if (startNanos >= measureUntilNanos) {
+                return;
+            }
+            workload.run(mix.pick(random), random, startNanos, this::record);
+        }
+    }
+
+    private void record(String operation, long startNanos, int status) {
+        if (startNanos < measureFromNanos || startNanos >= measureUntilNanos) {
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        operations.computeIfAbsent(operation, name -> new OperationStats()).record(micros, status);
+    }
+
+    /**
+     * Latency histogram and outcome counts of one operation
+     */
+    static final class OperationStats {
+
+        final Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        final LongAdder ok = new LongAdder();         // 2xx
+        final LongAdder rejected = new LongAdder();   // 4xx: validation, limits, duplicate votes
+        final LongAdder errors = new LongAdder();     // 5xx, timeouts, connection failures
+
+        private void record(long micros, int status) {
+            latencyMicros.recordValue(Math.min(Math.max(micros, 1), HIGHEST_MICROS));
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else if (status >= 400 && status < 500) {
+                rejected.increment();
+            } else {
+                errors.increment();
+            }
+        }
+    }
+
+    // Weighted choice of the next request kind
+    private static final class Mix {
+
+        private final Workload.Kind[] kinds;
+        private final int[] cumulative;
+
+        Mix(Map<Workload.Kind, Integer> weights) {
+            kinds = weights.keySet().toArray(Workload.Kind[]::new);
+            cumulative = new int[kinds.length];
+            int total = 0;
+            for (int i = 0; i < kinds.length; i++) {
+                total += weights.get(kinds[i]);
+                cumulative[i] = total;
+            }
+        }
+
+        Workload.Kind pick(SplittableRandom random) {
+            int r = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (r < cumulative[i]) {
+                    return kinds[i];
+                }
+            }
+            return kinds[kinds.length - 1];
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.unveil.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Load test: seeds a throw-away embedded PostgreSQL with synthetic cases,
+ * starts the application on it, replays the configured request mix over
+ * HTTP and writes throughput and latency histograms per operation.
+ *
+ * ./gradlew loadTest -Ploadtest.args="--cases=2000000 --duration=120 --compare=results/<run>/report.json"
+ *
+ * Runs are comparable when they use the same settings on the same machine:
+ * the data and the request sequence only depend on --cases and --seed, the
+ * database starts fresh every time, and each report records the commit and
+ * settings it was made with. The load generator shares the JVM and CPUs
+ * with the application, so compare runs with each other, not with
+ * production figures.
+ *
+ * See LoadTestOptions for the options.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        LoadTestReport report = new LoadTestReport(options);
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(options, report::setup,
+                options.applicationArgs())) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newCachedThreadPool())
+                    .build();
+            Workload workload = new Workload(client, new ObjectMapper(), "http://localhost:" + environment.port(),
+                    environment.samples(), options.cases(), LoadTestEnvironment.JWT_SECRET,
+                    environment.mailSender());
+
+            System.out.printf("Running %s for %ds (+%ds warm-up) with %d threads%n",
+                    options.mix(), options.durationSeconds(), options.warmupSeconds(), options.concurrency());
+            Map<String, LoadGenerator.OperationStats> results = new LoadGenerator(workload, options).run();
+
+            Path reportFile = report.write(results);
+            report.print(reportFile, options.compare(), System.out);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.unveil.loadtest;
+
+import com.unveil.UnveilApplication;
+import com.unveil.service.EmailDomainStatsService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * A throw-away embedded PostgreSQL, migrated and seeded with synthetic
+ * cases, and the application started on it (see LoadTest).
+ */
+class LoadTestEnvironment implements AutoCloseable {
+
+    // Only ever signs tokens for this throw-away instance
+    static final String JWT_SECRET = "loadtest-only-secret-0123456789abcdefghijklmnopqrstuvwxyz";
+
+    private final EmbeddedPostgres postgres;
+    private final CaseSeeder seeder;
+    private final CapturingMailSender mailSender = new CapturingMailSender();
+    private ConfigurableApplicationContext context;
+
+    private LoadTestEnvironment(EmbeddedPostgres postgres, CaseSeeder seeder) {
+        this.postgres = postgres;
+        this.seeder = seeder;
+    }
+
+    /**
+     * Start the database, migrate and seed it, then start the application
+     * @param setup receives the seed and startup times
+     * @param applicationArgs extra application arguments (override the defaults)
+     */
+    static LoadTestEnvironment start(LoadTestOptions options, BiConsumer<String, Object> setup,
+                                     List<String> applicationArgs) throws Exception {
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        LoadTestEnvironment environment = null;
+        try {
+            String url = postgres.getJdbcUrl("postgres", "postgres");
+
+            long started = System.nanoTime();
+            Flyway.configure()
+                    .dataSource(url, "postgres", "postgres")
+                    .locations("classpath:db/migration/postgresql")
+                    .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                    .load()
+                    .migrate();
+            CaseSeeder seeder = new CaseSeeder(postgres.getPostgresDatabase());
+            seeder.seed(options.cases(), options.seed());
+            setup.accept("seedSeconds", seconds(started));
+            System.out.printf("Seeded %d cases from %d sample rows%n", options.cases(), seeder.samples().size());
+
+            environment = new LoadTestEnvironment(postgres, seeder);
+            started = System.nanoTime();
+            environment.startApplication(url, applicationArgs);
+            setup.accept("startupSeconds", seconds(started));
+            return environment;
+        } catch (Exception | Error e) {
+            if (environment != null) {
+                environment.close();
+            } else {
+                postgres.close();
+            }
+            throw e;
+        }
+    }
+
+    ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    List<CaseSeeder.SampleCase> samples() {
+        return seeder.samples();
+    }
+
+    CapturingMailSender mailSender() {
+        return mailSender;
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (context != null) {
+                context.close();
+            }
+        } finally {
+            postgres.close();
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void startApplication(String url, List<String> extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.mail.username=loadtest",
+                "--spring.mail.password=loadtest",
+                "--app.mail.from=loadtest@localhost",
+                "--app.jwt.secret=" + JWT_SECRET,
+                "--server.port=0",
+                "--app.warmup.enabled=false"));
+        // Given last, so they win
+        args.addAll(extraArgs);
+
+        context = new SpringApplicationBuilder(UnveilApplication.class)
+                .initializers(applicationContext -> applicationContext.getBeanFactory()
+                        .registerSingleton("mailSender", mailSender))
+                .run(args.toArray(String[]::new));
+
+        // Seeded rows bypassed the application: bring the domain aggregate up to date
+        context.getBean(EmailDomainStatsService.class).resync();
+    }
+
+    private static double seconds(long startedNanos) {
+        return Math.round((System.nanoTime() - startedNanos) / 1e7) / 100.0;
+    }
+}
@@ -0,0 +1,101 @@
+package com.unveil.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of the load test: --name=value options, everything else
+ * (e.g. --spring.profiles.active=prod, --app.cache.cases.enabled=false)
+ * is passed on to the application.
+ *
+ * --cases=1000000         synthetic cases seeded before the run
+ * --seed=42               data and request sequence seed (same seed, same data and requests)
+ * --duration=60           measured seconds
+ * --warmup=15             unmeasured seconds before that
+ * --concurrency=32        client threads
+ * --rate=0                target requests/second over all threads (0 = as fast as possible)
+ * --mix=search:40,browse:35,vote:20,submit:3,otp:2
+ * --output=results        report directory (one sub-directory per run)
+ * --compare=<report.json> print the difference to an earlier run
+ */
+record LoadTestOptions(long cases, long seed, int durationSeconds, int warmupSeconds, int concurrency,
+                       double rate, Map<Workload.Kind, Integer> mix, Path output, Path compare,
+                       List<String> applicationArgs) {
+
+    static final String DEFAULT_MIX = "search:40,browse:35,vote:20,submit:3,otp:2";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (name != null && !name.contains(".")) {
+                options.put(name, arg.substring(separator + 1));
+            } else if (!arg.isBlank()) {
+                applicationArgs.add(arg);
+            }
+        }
+
+        LoadTestOptions parsed = new LoadTestOptions(
+                Long.parseLong(options.getOrDefault("cases", "1000000")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("duration", "60")),
+                Integer.parseInt(options.getOrDefault("warmup", "15")),
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Double.parseDouble(options.getOrDefault("rate", "0")),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Path.of(options.getOrDefault("output", "results")),
+                options.containsKey("compare") ? Path.of(options.get("compare")) : null,
+                List.copyOf(applicationArgs));
+
+        options.keySet().removeAll(List.of("cases", "seed", "duration", "warmup", "concurrency", "rate",
+                "mix", "output", "compare"));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + options.keySet());
+        }
+        if (parsed.cases < 1 || parsed.durationSeconds < 1 || parsed.concurrency < 1) {
+            throw new IllegalArgumentException("cases, duration and concurrency must be positive");
+        }
+        return parsed;
+    }
+
+    private static Map<Workload.Kind, Integer> parseMix(String value) {
+        Map<Workload.Kind, Integer> mix = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            if (weight.length != 2) {
+                throw new IllegalArgumentException("Mix entries are <kind>:<weight>, got '" + part + "'");
+            }
+            int share = Integer.parseInt(weight[1].trim());
+            if (share > 0) {
+                mix.put(Workload.Kind.valueOf(weight[0].trim().toUpperCase()), share);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    /**
+     * Settings that must match for two runs to be comparable
+     */
+    Map<String, Object> describe() {
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("cases", cases);
+        config.put("seed", seed);
+        config.put("durationSeconds", durationSeconds);
+        config.put("warmupSeconds", warmupSeconds);
+        config.put("concurrency", concurrency);
+        config.put("rate", rate);
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        mix.forEach((kind, weight) -> weights.put(kind.key(), weight));
+        config.put("mix", weights);
+        config.put("applicationArgs", applicationArgs);
+        return config;
+    }
+}
@@ -0,0 +1,156 @@
+package com.unveil.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes a run's results to <output>/<time>-<commit>/: report.json
+ * (settings, environment, throughput and latency percentiles per
+ * operation) and one HdrHistogram percentile distribution (.hgrm) per
+ * operation, and prints the summary, compared to an earlier report.json
+ * when --compare is given.
+ */
+class LoadTestReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final LoadTestOptions options;
+    private final Map<String, Object> setup = new LinkedHashMap<>();
+
+    LoadTestReport(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Record a setup figure (seed and startup times)
+     */
+    void setup(String name, Object value) {
+        setup.put(name, value);
+    }
+
+    Path write(Map<String, LoadGenerator.OperationStats> operations) throws IOException {
+        String commit = System.getProperty("loadtest.commit", "unknown");
+        String run = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-" + commit;
+        Path directory = Files.createDirectories(options.output().resolve(run));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commit", commit);
+        report.put("startedAt", LocalDateTime.now().toString());
+        report.put("environment", Map.of(
+                "java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"),
+                "os", System.getProperty("os.name") + " " + System.getProperty("os.arch"),
+                "cpus", Runtime.getRuntime().availableProcessors(),
+                "maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        report.put("config", options.describe());
+        report.put("setup", setup);
+
+        long total = 0;
+        long errors = 0;
+        Map<String, Object> byOperation = new LinkedHashMap<>();
+        for (Map.Entry<String, LoadGenerator.OperationStats> entry : operations.entrySet()) {
+            LoadGenerator.OperationStats stats = entry.getValue();
+            byOperation.put(entry.getKey(), summarize(stats));
+            total += stats.latencyMicros.getTotalCount();
+            errors += stats.errors.sum();
+            try (PrintStream out = new PrintStream(directory.resolve(entry.getKey() + ".hgrm").toFile())) {
+                stats.latencyMicros.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("requests", total);
+        totals.put("throughput", round((double) total / options.durationSeconds()));
+        totals.put("errors", errors);
+        report.put("totals", totals);
+        report.put("operations", byOperation);
+
+        Path file = directory.resolve("report.json");
+        objectMapper.writeValue(file.toFile(), report);
+        return file;
+    }
+
+    /**
+     * Print a report, with the change against a baseline report if given
+     */
+    void print(Path reportFile, Path baselineFile, PrintStream out) throws IOException {
+        JsonNode report = objectMapper.readTree(reportFile.toFile());
+        JsonNode baseline = baselineFile != null ? objectMapper.readTree(baselineFile.toFile()) : null;
+
+        if (baseline != null && !baseline.path("config").equals(report.path("config"))) {
+            out.println("WARNING: settings differ from the baseline, results are not directly comparable");
+        }
+        out.printf("%-18s %9s %10s %8s %8s %8s %8s %9s %7s%n",
+                "operation", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9ms", "max ms", "errors");
+        Iterator<Map.Entry<String, JsonNode>> fields = report.path("operations").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> entry = fields.next();
+            JsonNode op = entry.getValue();
+            JsonNode latency = op.path("latencyMs");
+            out.printf("%-18s %9d %10.1f %8.2f %8.2f %8.2f %8.2f %9.2f %7d%n", entry.getKey(),
+                    op.path("count").asLong(), op.path("throughput").asDouble(),
+                    latency.path("p50").asDouble(), latency.path("p90").asDouble(), latency.path("p99").asDouble(),
+                    latency.path("p99.9").asDouble(), latency.path("max").asDouble(), op.path("errors").asLong());
+
+            JsonNode before = baseline != null ? baseline.path("operations").path(entry.getKey()) : null;
+            if (before != null && !before.isMissingNode()) {
+                JsonNode beforeLatency = before.path("latencyMs");
+                out.printf("%-18s %9s %10s %8s %8s %8s %8s %9s%n", "  vs baseline", "",
+                        change(op.path("throughput"), before.path("throughput")),
+                        change(latency.path("p50"), beforeLatency.path("p50")),
+                        change(latency.path("p90"), beforeLatency.path("p90")),
+                        change(latency.path("p99"), beforeLatency.path("p99")),
+                        change(latency.path("p99.9"), beforeLatency.path("p99.9")),
+                        change(latency.path("max"), beforeLatency.path("max")));
+            }
+        }
+        out.printf("total: %d requests, %.1f req/s, %d errors (%s)%n",
+                report.path("totals").path("requests").asLong(), report.path("totals").path("throughput").asDouble(),
+                report.path("totals").path("errors").asLong(), reportFile);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private Map<String, Object> summarize(LoadGenerator.OperationStats stats) {
+        Histogram histogram = stats.latencyMicros;
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("mean", round(histogram.getMean() / 1000.0));
+        for (double percentile : PERCENTILES) {
+            String name = "p" + (percentile == Math.rint(percentile) ? String.valueOf((int) percentile) : String.valueOf(percentile));
+            latency.put(name, round(histogram.getValueAtPercentile(percentile) / 1000.0));
+        }
+        latency.put("max", round(histogram.getMaxValue() / 1000.0));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughput", round((double) histogram.getTotalCount() / options.durationSeconds()));
+        summary.put("ok", stats.ok.sum());
+        summary.put("rejected", stats.rejected.sum());
+        summary.put("errors", stats.errors.sum());
+        summary.put("latencyMs", latency);
+        return summary;
+    }
+
+    private static String change(JsonNode now, JsonNode before) {
+        if (!now.isNumber() || !before.isNumber() || before.asDouble() == 0) {
+            return "-";
+        }
+        return String.format("%+.1f%%", (now.asDouble() / before.asDouble() - 1) * 100);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
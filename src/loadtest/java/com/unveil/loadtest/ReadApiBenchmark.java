@@ -0,0 +1,220 @@
+package com.unveil.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.unveil.reactive.ReactiveApiServer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares the servlet read API (/api/v1) with the non-blocking one
+ * (/api/v2) on the same seeded database: the same searches and verdict
+ * lookups are replayed against each, with a fixed number of requests in
+ * flight, at every --levels value.
+ *
+ * ./gradlew readApiBenchmark -Ploadtest.args="--cases=1000000 --levels=64,256,1024 --duration=30"
+ *
+ * Requests are sent asynchronously, so a level of 1024 means 1024
+ * concurrent connections, not 1024 client threads. The case cache is
+ * disabled unless --app.cache.cases.enabled=true is given, since v2 does
+ * not use it. Options are those of LoadTestOptions (--concurrency and
+ * --mix are ignored), plus --levels.
+ */
+public class ReadApiBenchmark {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(2);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> levels = new ArrayList<>(List.of(64, 256, 1024));
+        List<String> remaining = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--levels=")) {
+                levels.clear();
+                for (String level : arg.substring("--levels=".length()).split(",")) {
+                    levels.add(Integer.parseInt(level.trim()));
+                }
+            } else {
+                remaining.add(arg);
+            }
+        }
+        LoadTestOptions options = LoadTestOptions.parse(remaining.toArray(String[]::new));
+
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--app.cache.cases.enabled=false",
+                "--app.reactive.enabled=true",
+                "--app.reactive.port=0",
+                // Same database connections for both APIs
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--app.reactive.pool.max-size=10"));
+        applicationArgs.addAll(options.applicationArgs());
+
+        Map<String, Object> setup = new LinkedHashMap<>();
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(options, setup::put, applicationArgs)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()))
+                    .build();
+            ReadApiBenchmark benchmark = new ReadApiBenchmark(client, environment.samples(), options);
+            Map<String, String> baseUrls = Map.of(
+                    "v1", "http://localhost:" + environment.port() + "/api/v1",
+                    "v2", "http://localhost:" + environment.context().getBean(ReactiveApiServer.class).getPort()
+                            + "/api/v2");
+
+            Map<String, Object> results = new LinkedHashMap<>();
+            for (int level : levels) {
+                Map<String, Object> byApi = new LinkedHashMap<>();
+                for (String api : List.of("v1", "v2")) {
+                    System.out.printf("%s with %d requests in flight for %ds (+%ds warm-up)%n",
+                            api, level, options.durationSeconds(), options.warmupSeconds());
+                    byApi.put(api, benchmark.run(baseUrls.get(api), level));
+                }
+                results.put(String.valueOf(level), byApi);
+            }
+
+            Path file = benchmark.write(levels, setup, results);
+            benchmark.print(results);
+            System.out.println("Report: " + file.toAbsolutePath());
+        }
+    }
+
+    private final HttpClient client;
+    private final List<CaseSeeder.SampleCase> samples;
+    private final LoadTestOptions options;
+
+    private ReadApiBenchmark(HttpClient client, List<CaseSeeder.SampleCase> samples, LoadTestOptions options) {
+        this.client = client;
+        this.samples = samples;
+        this.options = options;
+    }
+
+    /**
+     * Keep {@code inFlight} requests outstanding for the warm-up and measured phases
+     */
+    private Map<String, Object> run(String baseUrl, int inFlight) throws InterruptedException {
+        Histogram latencyMicros = new ConcurrentHistogram(HIGHEST_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long measureUntil = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        CountDownLatch finished = new CountDownLatch(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            // Same seeds for both APIs, so both get the same requests
+            SplittableRandom random = new SplittableRandom(options.seed() * 31 + i);
+            next(baseUrl, random, measureFrom, measureUntil, latencyMicros, errors, finished);
+        }
+        finished.await();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", latencyMicros.getTotalCount());
+        result.put("throughput", round((double) latencyMicros.getTotalCount() / options.durationSeconds()));
+        result.put("errors", errors.sum());
+        result.put("p50Ms", millis(latencyMicros.getValueAtPercentile(50)));
+        result.put("p99Ms", millis(latencyMicros.getValueAtPercentile(99)));
+        result.put("p999Ms", millis(latencyMicros.getValueAtPercentile(99.9)));
+        result.put("maxMs", millis(latencyMicros.getMaxValue()));
+        return result;
+    }
+
+    // Issue one request, and the next one from its completion, until the measured phase is over
+    private void next(String baseUrl, SplittableRandom random, long measureFrom, long measureUntil,
+                      Histogram latencyMicros, LongAdder errors, CountDownLatch finished) {
+        long start = System.nanoTime();
+        if (start >= measureUntil) {
+            finished.countDown();
+            return;
+        }
+        client.sendAsync(request(baseUrl, random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (start >= measureFrom) {
+                        if (failure != null || response.statusCode() >= 500) {
+                            errors.increment();
+                        } else {
+                            latencyMicros.recordValue(Math.min(HIGHEST_MICROS,
+                                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+                        }
+                    }
+                    next(baseUrl, random, measureFrom, measureUntil, latencyMicros, errors, finished);
+                });
+    }
+
+    // Two thirds searches, one third verdict lookups
+    private HttpRequest request(String baseUrl, SplittableRandom random) {
+        long id = 1 + random.nextLong(options.cases());
+        String path;
+        if (random.nextInt(3) < 2) {
+            String[] query = Workload.searchQuery(samples.get(random.nextInt(samples.size())), id, random);
+            path = "/search?filter=" + query[0] + "&value=" + Workload.encode(query[1]);
+        } else {
+            path = "/case/" + id + "/verdict";
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private Path write(List<Integer> levels, Map<String, Object> setup, Map<String, Object> results)
+            throws Exception {
+        String commit = System.getProperty("loadtest.commit", "unknown");
+        String run = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + "-" + commit
+                + "-read-api";
+        Path directory = Files.createDirectories(options.output().resolve(run));
+
+        Map<String, Object> config = new LinkedHashMap<>(options.describe());
+        config.remove("concurrency");
+        config.remove("rate");
+        config.remove("mix");
+        config.put("levels", levels);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commit", commit);
+        report.put("environment", Map.of(
+                "java", System.getProperty("java.vm.name") + " " + System.getProperty("java.version"),
+                "os", System.getProperty("os.name") + " " + System.getProperty("os.arch"),
+                "cpus", Runtime.getRuntime().availableProcessors(),
+                "maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024)));
+        report.put("config", config);
+        report.put("setup", setup);
+        report.put("results", results);
+
+        Path file = directory.resolve("report.json");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), report);
+        return file;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void print(Map<String, Object> results) {
+        System.out.printf("%n%-10s %-4s %12s %10s %10s %10s %8s%n",
+                "in flight", "api", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        results.forEach((level, byApi) -> ((Map<String, Map<String, Object>>) byApi).forEach((api, result) ->
+                System.out.printf("%-10s %-4s %12.1f %10.2f %10.2f %10.2f %8d%n", level, api,
+                        result.get("throughput"), result.get("p50Ms"), result.get("p99Ms"), result.get("p999Ms"),
+                        result.get("errors"))));
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,237 @@
+package com.unveil.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests of the synthetic workload, by kind:
+ *
+ * - search: /search with the name, email, phone, company, domain and all filters
+ * - browse: case by id, verdict, latest / verdict / controversial listings, stats
+ * - vote: IP-based vote on a case, skewed towards the newest cases
+ * - submit: case submission with a valid verification token
+ * - otp: OTP send followed by verify with the mailed code
+ *
+ * Values are drawn from the seeded data (the same sample rows, ids and
+ * domains), so most searches hit. Submissions use fresh reporter emails
+ * and addresses so the per-reporter limits do not reject them; their
+ * tokens are signed with the application's JWT secret, the OTP round trip
+ * being measured by the otp kind instead.
+ */
+class Workload {
+
+    enum Kind {
+        SEARCH, BROWSE, VOTE, SUBMIT, OTP;
+
+        String key() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Receives every finished request (nanoTime at start, response status or -1)
+     */
+    interface Recorder {
+        void record(String operation, long startNanos, int status);
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final List<CaseSeeder.SampleCase> samples;
+    private final long seededCases;
+    private final SecretKey jwtKey;
+    private final CapturingMailSender mailSender;
+    private final AtomicLong uniques = new AtomicLong();
+
+    Workload(HttpClient client, ObjectMapper objectMapper, String baseUrl, List<CaseSeeder.SampleCase> samples,
+             long seededCases, String jwtSecret, CapturingMailSender mailSender) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.samples = samples;
+        this.seededCases = seededCases;
+        this.jwtKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Issue one request of {@code kind} (two for otp)
+     * @param startNanos when the request should have started (paced runs) or now
+     */
+    void run(Kind kind, SplittableRandom random, long startNanos, Recorder recorder) {
+        switch (kind) {
+            case SEARCH -> search(random, startNanos, recorder);
+            case BROWSE -> browse(random, startNanos, recorder);
+            case VOTE -> vote(random, startNanos, recorder);
+            case SUBMIT -> submit(random, startNanos, recorder);
+            case OTP -> otp(random, startNanos, recorder);
+        }
+    }
+
+    // ============ REQUESTS ============
+
+    private void search(SplittableRandom random, long startNanos, Recorder recorder) {
+        String[] query = searchQuery(sample(random), caseId(random), random);
+        get("search_" + query[0], "/api/v1/search?filter=" + query[0] + "&value=" + encode(query[1]),
+                startNanos, recorder);
+    }
+
+    private void browse(SplittableRandom random, long startNanos, Recorder recorder) {
+        long id = caseId(random);
+        switch (random.nextInt(7)) {
+            case 0 -> get("case", "/api/v1/case/case/" + id, startNanos, recorder);
+            case 1 -> get("verdict", "/api/v1/case/" + id + "/verdict", startNanos, recorder);
+            case 2 -> get("latest", "/api/v1/cases/latest?page=" + random.nextInt(5), startNanos, recorder);
+            case 3 -> get("verdict_listing", "/api/v1/cases/verdict/guilty?sort=confidence&page=" + random.nextInt(5),
+                    startNanos, recorder);
+            case 4 -> get("controversial", "/api/v1/cases/controversial", startNanos, recorder);
+            case 5 -> get("top_domains", "/api/v1/domains/top", startNanos, recorder);
+            default -> get("stats", "/api/v1/stats", startNanos, recorder);
+        }
+    }
+
+    private void vote(SplittableRandom random, long startNanos, Recorder recorder) {
+        // Newest cases get most votes; one fresh address per vote
+        long id = Math.max(1, seededCases - (long) (seededCases * Math.pow(random.nextDouble(), 3)));
+        String body = "{\"vote\":\"" + (random.nextInt(10) < 7 ? "guilty" : "not_guilty") + "\"}";
+        send("vote", post("/api/v1/case/" + id + "/vote", body)
+                .header("X-Forwarded-For", address()), startNanos, recorder);
+    }
+
+    private void submit(SplittableRandom random, long startNanos, Recorder recorder) {
+        CaseSeeder.SampleCase sample = sample(random);
+        long unique = uniques.incrementAndGet();
+        String reporter = "reporter" + unique + "-" + random.nextInt(1_000_000) + "@loadtest.example";
+        String token = Jwts.builder()
+                .subject(reporter)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(jwtKey, Jwts.SIG.HS256)
+                .compact();
+
+        Map<String, String> report = Map.of(
+                "name", "Loadtest Submitter " + unique + " " + random.nextInt(1_000_000),
+                "email", "submitted" + unique + "-" + random.nextInt(1_000_000) + "@loadtest-scam.example",
+                "company", sample.company() != null ? sample.company() : "Unknown Company",
+                "actions", sample.actions(),
+                "description", sample.description() != null && sample.description().length() >= 20
+                        ? sample.description()
+                        : "Synthetic load test report of a " + sample.actions() + " scam.",
+                "reporterName", "Load Test",
+                "reporterEmail", reporter);
+        send("submit", post("/api/v1/case/submit", write(report))
+                .header("Authorization", "Bearer " + token)
+                .header("X-Forwarded-For", address()), startNanos, recorder);
+    }
+
+    private void otp(SplittableRandom random, long startNanos, Recorder recorder) {
+        String email = "voter" + uniques.incrementAndGet() + "-" + random.nextInt(1_000_000) + "@loadtest.example";
+        String address = address();
+        int status = send("otp_send", post("/api/v1/otp/send", write(Map.of("email", email)))
+                .header("X-Forwarded-For", address), startNanos, recorder);
+        String code = status == 200 ? mailSender.takeCode(email) : null;
+        if (code == null) {
+            return;
+        }
+        send("otp_verify", post("/api/v1/otp/verify", write(Map.of("email", email, "otp", code)))
+                .header("X-Forwarded-For", address), System.nanoTime(), recorder);
+    }
+
+    // ============ HELPER METHODS ============
+
+    /**
+     * Filter and value of a search matching the seeded data (also used by ReadApiBenchmark)
+     * @param id a seeded case id, made part of email searches
+     */
+    static String[] searchQuery(CaseSeeder.SampleCase sample, long id, SplittableRandom random) {
+        return switch (random.nextInt(6)) {
+            case 0 -> sample.name() != null ? new String[]{"name", sample.name().split(" ")[0]} : new String[]{"all", "scam"};
+            case 1 -> sample.email() != null
+                    ? new String[]{"email", sample.emailLocalPart() + id + "@" + sample.emailDomainStem()
+                            + random.nextInt(20) + sample.emailDomainSuffix()}
+                    : new String[]{"all", "support"};
+            case 2 -> new String[]{"phone", "+1-8" + String.format("%02d", random.nextInt(100))};
+            case 3 -> sample.company() != null ? new String[]{"company", sample.company()} : new String[]{"all", "fake"};
+            case 4 -> sample.email() != null
+                    ? new String[]{"domain", sample.emailDomainStem() + random.nextInt(20) + sample.emailDomainSuffix()}
+                    : new String[]{"all", "security"};
+            default -> new String[]{"all", sample.actions()};
+        };
+    }
+
+
+    private void get(String operation, String path, long startNanos, Recorder recorder) {
+        send(operation, HttpRequest.newBuilder(uri(path)).GET(), startNanos, recorder);
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private int send(String operation, HttpRequest.Builder request, long startNanos, Recorder recorder) {
+        int status;
+        try {
+            HttpResponse<byte[]> response = client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+        } catch (IOException e) {
+            status = -1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = -1;
+        }
+        recorder.record(operation, startNanos, status);
+        return status;
+    }
+
+    private CaseSeeder.SampleCase sample(SplittableRandom random) {
+        return samples.get(random.nextInt(samples.size()));
+    }
+
+    private long caseId(SplittableRandom random) {
+        return 1 + random.nextLong(seededCases);
+    }
+
+    // A client address nobody has used yet (10.0.0.0/8, 16M of them)
+    private String address() {
+        long n = uniques.incrementAndGet();
+        return "10." + ((n >> 16) & 255) + "." + ((n >> 8) & 255) + "." + (n & 255);
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.unveil.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.unveil.entity.Case;
+import com.unveil.state.StateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of Case entities by id, for the read-only getCaseById paths.
+ *
+ * - near tier: bounded LRU map in this instance; entries are trusted for
+ *   near-ttl-ms, then revalidated against the shared tier's version
+ * - shared tier: the configured StateStore (app.state.store, e.g. the jdbc
+ *   store shared by all instances), holding "version|json" per case
+ *
+ * Every vote, update and delete calls invalidate(id), which drops the near
+ * entry and writes a new random version token for the case. Values carry the
+ * token they were loaded under and are only used while it is still current,
+ * so a load racing an invalidation can never be served afterwards, and other
+ * instances stop serving their copy within near-ttl-ms.
+ *
+ * Cached Case instances are detached copies shared between requests: read
+ * them, never modify them. Writes keep loading entities from the repository.
+ *
+ * Metrics: unveil.cache.cases (result = near_hit, shared_hit, miss),
+ * unveil.cache.cases.evictions (cause = size, invalidated) and
+ * unveil.cache.cases.near.size.
+ */
+@Component
+public class CaseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseCache.class);
+
+    private static final String VALUE_KEY = "case-cache:";            // + id, value: "<version>|<json>"
+    private static final String VERSION_KEY = "case-cache-version:";  // + id, value: version token
+    private static final String NO_VERSION = "0";
+
+    // Invalidation counters by id stripe: a load only fills the near tier if
+    // no invalidation of its stripe happened while it ran
+    private static final int STRIPES = 1024;
+
+    private final StateStore stateStore;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader caseReader;
+    private final boolean enabled;
+    private final boolean sharedEnabled;
+    private final int maxEntries;
+    private final long nearTtlMillis;
+    private final Duration sharedTtl;
+    private final Duration versionTtl;
+
+    private final Map<Long, NearEntry> near;
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private final Counter nearHits;
+    private final Counter sharedHits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter invalidatedEvictions;
+
+    public CaseCache(StateStore stateStore, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                     @Value("${app.cache.cases.enabled:true}") boolean enabled,
+                     @Value("${app.cache.cases.near.max-entries:10000}") int maxEntries,
+                     @Value("${app.cache.cases.near.ttl-ms:2000}") long nearTtlMillis,
+                     @Value("${app.cache.cases.shared.enabled:false}") boolean sharedEnabled,
+                     @Value("${app.cache.cases.shared.ttl-ms:300000}") long sharedTtlMillis) {
+        this.stateStore = stateStore;
+        this.objectMapper = objectMapper;
+        this.caseReader = objectMapper.readerFor(Case.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.enabled = enabled;
+        this.sharedEnabled = enabled && sharedEnabled;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.nearTtlMillis = nearTtlMillis;
+        this.sharedTtl = Duration.ofMillis(sharedTtlMillis);
+        // Outlives every value loaded under a token, so an expired token is never mistaken for a current one
+        this.versionTtl = sharedTtl.multipliedBy(2).plusMillis(nearTtlMillis);
+
+        this.near = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, NearEntry> eldest) {
+                if (size() > CaseCache.this.maxEntries) {
+                    sizeEvictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.nearHits = requests(meterRegistry, "near_hit");
+        this.sharedHits = requests(meterRegistry, "shared_hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.sizeEvictions = evictions(meterRegistry, "size");
+        this.invalidatedEvictions = evictions(meterRegistry, "invalidated");
+        Gauge.builder("unveil.cache.cases.near.size", this, CaseCache::nearSize)
+                .description("Cases held in this instance's near cache")
+                .register(meterRegistry);
+
+        if (this.sharedEnabled) {
+            log.info("Case cache: near tier of {} entries, shared tier on the '{}' state store",
+                    this.maxEntries, stateStore.name());
+        }
+    }
+
+    /**
+     * Cached case, loading it with {@code loader} on a miss (missing cases are not cached)
+     */
+    public Optional<Case> get(Long id, Function<Long, Optional<Case>> loader) {
+        if (!enabled || id == null) {
+            return loader.apply(id);
+        }
+
+        long now = System.currentTimeMillis();
+        NearEntry nearEntry;
+        synchronized (near) {
+            nearEntry = near.get(id);
+        }
+        if (nearEntry != null && now < nearEntry.validUntil) {
+            nearHits.increment();
+            return Optional.of(nearEntry.value);
+        }
+
+        long stamp = invalidations.get(stripe(id));
+        String version = NO_VERSION;
+
+        if (sharedEnabled) {
+            Map<String, String> shared = stateStore.getAll(List.of(VERSION_KEY + id, VALUE_KEY + id));
+            version = shared.getOrDefault(VERSION_KEY + id, NO_VERSION);
+
+            // Near copy still current: revalidated without decoding anything
+            if (nearEntry != null && nearEntry.version.equals(version)) {
+                putNear(id, new NearEntry(nearEntry.value, version, now + nearTtlMillis), stamp);
+                sharedHits.increment();
+                return Optional.of(nearEntry.value);
+            }
+
+            Case sharedValue = decode(shared.get(VALUE_KEY + id), version);
+            if (sharedValue != null) {
+                putNear(id, new NearEntry(sharedValue, version, now + nearTtlMillis), stamp);
+                sharedHits.increment();
+                return Optional.of(sharedValue);
+            }
+        }
+
+        misses.increment();
+        Optional<Case> loaded = loader.apply(id);
+        if (loaded.isEmpty()) {
+            return loaded;
+        }
+
+        // Cache a detached copy, never the caller's (possibly managed) entity
+        String json = encode(loaded.get());
+        Case copy = json != null ? decode(version + "|" + json, version) : null;
+        if (copy == null) {
+            return loaded;
+        }
+        putNear(id, new NearEntry(copy, version, now + nearTtlMillis), stamp);
+        if (sharedEnabled) {
+            // Tagged with the version read before loading: if an invalidation
+            // happened meanwhile, readers see a stale tag and ignore it
+            stateStore.put(VALUE_KEY + id, version + "|" + json, sharedTtl);
+        }
+        return Optional.of(copy);
+    }
+
+    /**
+     * Invalidate a case now and again after the current transaction commits
+     */
+    public void invalidate(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Invalidate every case (bulk tally rewrites such as journal replay)
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < STRIPES; i++) {
+            invalidations.incrementAndGet(i);
+        }
+        int cleared;
+        synchronized (near) {
+            cleared = near.size();
+            near.clear();
+        }
+        invalidatedEvictions.increment(cleared);
+        if (sharedEnabled) {
+            stateStore.removeByPrefix(VALUE_KEY);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void evict(Long id) {
+        invalidations.incrementAndGet(stripe(id));
+        NearEntry removed;
+        synchronized (near) {
+            removed = near.remove(id);
+        }
+        if (removed != null) {
+            invalidatedEvictions.increment();
+        }
+        if (sharedEnabled) {
+            stateStore.put(VERSION_KEY + id, UUID.randomUUID().toString(), versionTtl);
+        }
+    }
+
+    private void putNear(Long id, NearEntry entry, long stamp) {
+        synchronized (near) {
+            // An invalidation since the load started wins over the loaded value
+            if (invalidations.get(stripe(id)) == stamp) {
+                near.put(id, entry);
+            }
+        }
+    }
+
+    private String encode(Case caseEntity) {
+        try {
+            return objectMapper.writeValueAsString(caseEntity);
+        } catch (JsonProcessingException e) {
+            log.warn("Case {} could not be cached: {}", caseEntity.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    // Value of "<version>|<json>" if tagged with the current version
+    private Case decode(String value, String version) {
+        if (value == null || !value.startsWith(version + "|")) {
+            return null;
+        }
+        try {
+            return caseReader.readValue(value.substring(version.length() + 1));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private int nearSize() {
+        synchronized (near) {
+            return near.size();
+        }
+    }
+
+    private static int stripe(Long id) {
+        return (int) (Long.hashCode(id) & (STRIPES - 1));
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("unveil.cache.cases")
+                .description("Case cache lookups by result")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictions(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("unveil.cache.cases.evictions")
+                .description("Case cache near-tier evictions by cause")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    private record NearEntry(Case value, String version, long validUntil) {
+    }
+}
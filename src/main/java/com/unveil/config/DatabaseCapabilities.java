@@ -0,0 +1,58 @@
+package com.unveil.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detects database features at startup. The PostgreSQL-only search indexes
+ * (pg_trgm) come from migration V13, which skips them when the extension
+ * cannot be installed. Other databases (H2 in dev) simply report the
+ * features as unavailable so callers can fall back.
+ */
+@Component
+public class DatabaseCapabilities implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCapabilities.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile boolean postgres;
+    private volatile boolean trigramSearchAvailable;
+
+    public DatabaseCapabilities(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String productName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = productName != null && productName.toLowerCase().contains("postgres");
+
+        if (!postgres) {
+            log.info("Database '{}' has no trigram support, fuzzy search uses prefix fallback", productName);
+            return;
+        }
+
+        Integer installed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_extension WHERE extname = 'pg_trgm'", Integer.class);
+        trigramSearchAvailable = installed != null && installed > 0;
+        if (!trigramSearchAvailable) {
+            // Typically missing CREATE EXTENSION privileges when V13 ran
+            log.warn("pg_trgm not installed, fuzzy search uses prefix fallback");
+        }
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    public boolean isTrigramSearchAvailable() {
+        return trigramSearchAvailable;
+    }
+}
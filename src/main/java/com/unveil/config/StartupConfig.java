@@ -0,0 +1,45 @@
+package com.unveil.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.Schedules;
+
+import java.util.Set;
+
+/**
+ * Startup tuning for the prod profile (spring.main.lazy-initialization=true).
+ *
+ * With lazy initialization, beans are created on first use, so rarely used
+ * ones (OTP/mail, admin endpoints, actuator extras) no longer cost startup
+ * time; WarmupRunner creates the hot ones before readiness. Beans that only
+ * work when created at startup are kept eager: startup runners, singletons
+ * relying on afterSingletonsInstantiated, and beans with @Scheduled methods
+ * (a lazy bean's schedules would never be registered).
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter startupCriticalBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && (ApplicationRunner.class.isAssignableFrom(beanType)
+                || CommandLineRunner.class.isAssignableFrom(beanType)
+                || SmartInitializingSingleton.class.isAssignableFrom(beanType)
+                || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        return !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Set<Scheduled>>) method -> {
+            Set<Scheduled> scheduled = AnnotatedElementUtils.getMergedRepeatableAnnotations(
+                    method, Scheduled.class, Schedules.class);
+            return scheduled.isEmpty() ? null : scheduled;
+        }).isEmpty();
+    }
+}
@@ -0,0 +1,166 @@
+package com.unveil.config;
+
+import com.unveil.entity.Case;
+import com.unveil.repository.CaseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pre-touches the hot read endpoints before the instance takes traffic.
+ *
+ * Runs as the last ApplicationRunner, i.e. after the web server started but
+ * before ApplicationReadyEvent, so the readiness probe
+ * (/actuator/health/readiness) only reports UP once it finished. Requests
+ * go through the real HTTP stack on the local port, which creates the lazy
+ * beans on those paths, fills the connection pool and statement caches and
+ * gets the JSON / JPA code paths through the JIT's first compilation tiers.
+ *
+ * Bounded by app.warmup.iterations and app.warmup.max-duration-ms; failures
+ * are logged and never stop startup. Paths may contain {caseId}, which is
+ * replaced by each of the newest cases in turn.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final String CASE_ID = "{caseId}";
+
+    private final ApplicationContext applicationContext;
+    private final CaseRepository caseRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final List<String> paths;
+    private final int iterations;
+    private final int threads;
+    private final long maxDurationMillis;
+
+    public WarmupRunner(ApplicationContext applicationContext, CaseRepository caseRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.warmup.enabled:false}") boolean enabled,
+                        @Value("${app.warmup.paths:}") List<String> paths,
+                        @Value("${app.warmup.iterations:200}") int iterations,
+                        @Value("${app.warmup.threads:4}") int threads,
+                        @Value("${app.warmup.max-duration-ms:30000}") long maxDurationMillis) {
+        this.applicationContext = applicationContext;
+        this.caseRepository = caseRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.paths = paths;
+        this.iterations = iterations;
+        this.threads = Math.max(1, threads);
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        if (!enabled || paths.isEmpty()) {
+            return;
+        }
+        if (!(applicationContext instanceof WebServerApplicationContext webContext)
+                || webContext.getWebServer() == null || webContext.getWebServer().getPort() <= 0) {
+            log.info("Warm-up skipped: no web server port");
+            return;
+        }
+
+        List<URI> targets = targets(webContext.getWebServer().getPort());
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    for (int i = 0; i < iterations && System.nanoTime() < deadline; i++) {
+                        for (URI target : targets) {
+                            requests.incrementAndGet();
+                            if (!get(client, target)) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            if (!pool.awaitTermination(maxDurationMillis + 5000, TimeUnit.MILLISECONDS)) {
+                pool.shutdownNow();
+            }
+        }
+        long nanos = sample.stop(Timer.builder("unveil.startup.warmup")
+                .description("Time spent warming up before readiness")
+                .register(meterRegistry));
+
+        log.info("Warm-up: {} requests over {} paths in {} ms ({} failed)",
+                requests.get(), targets.size(), TimeUnit.NANOSECONDS.toMillis(nanos), failures.get());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private List<URI> targets(int port) {
+        List<Long> caseIds = paths.stream().anyMatch(path -> path.contains(CASE_ID))
+                ? caseRepository.findAllByOrderByCreatedAtDesc(PageRequest.of(0, 10))
+                        .map(Case::getId).getContent()
+                : List.of();
+
+        List<URI> targets = new ArrayList<>();
+        for (String path : paths) {
+            if (!path.contains(CASE_ID)) {
+                targets.add(URI.create("http://localhost:" + port + path.trim()));
+                continue;
+            }
+            for (Long caseId : caseIds) {
+                targets.add(URI.create("http://localhost:" + port + path.trim().replace(CASE_ID, caseId.toString())));
+            }
+        }
+        return targets;
+    }
+
+    private boolean get(HttpClient client, URI target) {
+        try {
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(10)).GET().build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) {
+                log.debug("Warm-up {} returned {}", target.getPath(), response.statusCode());
+                return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.debug("Warm-up {} failed: {}", target.getPath(), e.getMessage());
+            return false;
+        }
+    }
+}
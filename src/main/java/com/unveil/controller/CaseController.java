@@ -91,20 +91,18 @@ public class CaseController {
             errorResponse.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
 
-        } catch (RuntimeException e) {
-            if (e.getMessage().contains("duplicate") || e.getMessage().contains("already exists")) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "A similar case already exists in our database");
-                errorResponse.put("errorType", "DUPLICATE_CASE");
-                return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
-            }
+        } catch (CaseService.DuplicateCaseException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "A similar case already exists in our database");
+            errorResponse.put("errorType", "DUPLICATE_CASE");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
 
-            if (e.getMessage().contains("rate limit")) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", e.getMessage());
-                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
-            }
+        } catch (CaseService.SubmissionRateLimitException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
 
+        } catch (RuntimeException e) {
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("error", "Failed to submit case: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
@@ -232,6 +230,23 @@ public class CaseController {
         }
     }
 
+    /**
+     * Get case submission and vote trends (rolling counters)
+     * GET /api/v1/case/trends
+     */
+    @GetMapping("/trends")
+    public ResponseEntity<Map<String, Object>> getSubmissionTrends() {
+        try {
+            Map<String, Object> trends = caseService.getSubmissionTrends();
+            return ResponseEntity.ok(trends);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to get submission trends: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Get recent case submissions
      * GET /api/v1/case/recent?page=0&size=10
@@ -1,7 +1,10 @@
 package com.unveil.controller;
 
+import com.unveil.dto.CaseLookupRequestDto;
 import com.unveil.entity.Case;
+import com.unveil.service.CaseLookupService;
 import com.unveil.service.SearchService;
+import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +21,11 @@ import java.util.Optional;
 public class SearchController {
 
     private final SearchService service;
+    private final CaseLookupService lookupService;
 
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, CaseLookupService lookupService) {
         this.service = searchService;
+        this.lookupService = lookupService;
     }
 
     /**
@@ -30,13 +35,17 @@ public class SearchController {
      * GET /api/v1/search?filter=phone&value=+1234567890
      * GET /api/v1/search?filter=company&value=Microsoft
      * GET /api/v1/search?filter=all&value=scammer
+     * GET /api/v1/search?filter=domain&value=fake-microsoft.com
+     * GET /api/v1/search?filter=company&value=Micros0ft&mode=fuzzy&threshold=0.4
      */
     @GetMapping("/search")
     public ResponseEntity<Map<String, Object>> search(
             @RequestParam("filter") String filter,
             @RequestParam("value") String value,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "mode", defaultValue = "contains") String mode,
+            @RequestParam(value = "threshold", required = false) Double threshold) {
 
         try {
             // Validate input
@@ -57,17 +66,23 @@ public class SearchController {
             }
 
             // Perform search with pagination
-            Page<Case> searchResults = service.searchByFilter(filter, value, page, size);
+            Page<Case> searchResults = service.searchByFilter(filter, value, page, size, mode, threshold);
 
             // Build response
             Map<String, Object> response = new HashMap<>();
             response.put("filter", filter);
             response.put("value", value);
+            response.put("mode", mode);
             response.put("results", searchResults.getContent());
             response.put("pagination", buildPaginationInfo(searchResults));
             response.put("found", searchResults.getTotalElements() > 0);
             response.put("message", buildSearchMessage(filter, value, searchResults));
 
+            // Domain reputation from the maintained aggregate
+            if ("domain".equalsIgnoreCase(filter.trim())) {
+                response.put("domainStats", service.getDomainStats(value).orElse(null));
+            }
+
             return ResponseEntity.ok(response);
 
         } catch (IllegalArgumentException e) {
@@ -87,14 +102,16 @@ public class SearchController {
 
     /**
      * Get Cases by verdict status
-     * GET /api/v1/cases/verdict/{status}?page=0&size=20
+     * GET /api/v1/cases/verdict/{status}?page=0&size=20&sort=score
      * Status can be: guilty, not_guilty, pending
+     * Sort can be: score (raw verdict score), confidence (Wilson lower bound)
      */
     @GetMapping("/cases/verdict/{status}")
     public ResponseEntity<Map<String, Object>> getCasesByVerdict(
             @PathVariable String status,
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "20") int size) {
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @RequestParam(value = "sort", defaultValue = "score") String sort) {
 
         try {
             // Validate status
@@ -109,15 +126,23 @@ public class SearchController {
                 return ResponseEntity.badRequest().body(errorResponse);
             }
 
+            if (!sort.equals("score") && !sort.equals("confidence")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Invalid sort");
+                errorResponse.put("allowedSorts", List.of("score", "confidence"));
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
             if (size > 100) size = 100;
             if (size < 1) size = 20;
 
-            Page<Case> cases = service.getCasesByVerdictStatus(normalizedStatus, page, size);
+            Page<Case> cases = service.getCasesByVerdictStatus(normalizedStatus, page, size, sort);
 
             Map<String, Object> response = new HashMap<>();
             response.put("results", cases.getContent());
             response.put("pagination", buildPaginationInfo(cases));
             response.put("verdictStatus", normalizedStatus);
+            response.put("sort", sort);
             response.put("message", String.format("Cases with verdict: %s", normalizedStatus));
 
             return ResponseEntity.ok(response);
@@ -131,22 +156,32 @@ public class SearchController {
 
     /**
      * Get most controversial Cases (those with close guilty/not guilty votes)
-     * GET /api/v1/cases/controversial?page=0&size=10
+     * GET /api/v1/cases/controversial?page=0&size=10&sort=votes
+     * Sort can be: votes (close score, most votes first), controversy (controversy score)
      */
     @GetMapping("/cases/controversial")
     public ResponseEntity<Map<String, Object>> getControversialCases(
             @RequestParam(value = "page", defaultValue = "0") int page,
-            @RequestParam(value = "size", defaultValue = "10") int size) {
+            @RequestParam(value = "size", defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "votes") String sort) {
 
         try {
+            if (!sort.equals("votes") && !sort.equals("controversy")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Invalid sort");
+                errorResponse.put("allowedSorts", List.of("votes", "controversy"));
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
             if (size > 50) size = 50;
             if (size < 1) size = 10;
 
-            Page<Case> controversialCases = service.getControversialCases(page, size);
+            Page<Case> controversialCases = service.getControversialCases(page, size, sort);
 
             Map<String, Object> response = new HashMap<>();
             response.put("results", controversialCases.getContent());
             response.put("pagination", buildPaginationInfo(controversialCases));
+            response.put("sort", sort);
             response.put("message", "Most controversial cases (close votes)");
 
             return ResponseEntity.ok(response);
@@ -187,6 +222,63 @@ public class SearchController {
         }
     }
 
+    /**
+     * Get the scammer email domains with the most reported cases
+     * GET /api/v1/domains/top?limit=10&sort=guilty
+     * Sort can be: guilty (most guilty cases), cases (most cases)
+     */
+    @GetMapping("/domains/top")
+    public ResponseEntity<Map<String, Object>> getTopDomains(
+            @RequestParam(value = "limit", defaultValue = "10") int limit,
+            @RequestParam(value = "sort", defaultValue = "guilty") String sort) {
+
+        try {
+            if (!sort.equals("guilty") && !sort.equals("cases")) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("error", "Invalid sort");
+                errorResponse.put("allowedSorts", List.of("guilty", "cases"));
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
+            if (limit > 100) limit = 100;
+            if (limit < 1) limit = 10;
+
+            List<Map<String, Object>> domains = service.getTopDomains(limit, sort);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", domains);
+            response.put("count", domains.size());
+            response.put("sort", sort);
+            response.put("message", "guilty".equals(sort)
+                    ? "Email domains with the most guilty cases"
+                    : "Email domains with the most cases");
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to get top domains: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * Look up many identifiers at once (exact match after normalization)
+     * POST /api/v1/lookup
+     * Body: {"emails": ["john@example.com"], "phones": ["+1 555-010-9999"], "domains": ["example.com"]}
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<Map<String, Object>> lookup(@Valid @RequestBody CaseLookupRequestDto request) {
+        try {
+            return ResponseEntity.ok(lookupService.lookup(request.getEmails(), request.getPhones(), request.getDomains()));
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Lookup failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Get supported filter types
      * GET /api/v1/search/filters
@@ -196,6 +288,9 @@ public class SearchController {
         Map<String, Object> response = new HashMap<>();
         response.put("supportedFilters", getSupportedFiltersMap());
         response.put("examples", getFilterExamples());
+        response.put("modes", Map.of(
+                "contains", "Substring match (default)",
+                "fuzzy", "Similarity ranked, tolerates typos (name and company only, optional threshold 0.0-1.0)"));
         return ResponseEntity.ok(response);
     }
 
@@ -223,6 +318,7 @@ public class SearchController {
 
         Map<String, Object> response = new HashMap<>();
         response.put("actions", actions);
+        response.put("categories", service.getAllScamTypes());
         response.put("count", actions.size());
 
         return ResponseEntity.ok(response);
@@ -249,7 +345,7 @@ public class SearchController {
 
     // Helper methods
     private List<String> getSupportedFiltersMap() {
-        return List.of("name", "email", "phone", "company", "actions", "all");
+        return List.of("name", "email", "phone", "company", "actions", "domain", "all");
     }
 
     private Map<String, String> getFilterExamples() {
@@ -259,7 +355,9 @@ public class SearchController {
         examples.put("phone", "/api/v1/search?filter=phone&value=+1234567890");
         examples.put("company", "/api/v1/search?filter=company&value=Microsoft");
         examples.put("actions", "/api/v1/search?filter=actions&value=Tech Support");
+        examples.put("domain", "/api/v1/search?filter=domain&value=fake-microsoft.com");
         examples.put("all", "/api/v1/search?filter=all&value=scammer");
+        examples.put("fuzzy", "/api/v1/search?filter=company&value=Micros0ft Support&mode=fuzzy&threshold=0.3");
         return examples;
     }
 
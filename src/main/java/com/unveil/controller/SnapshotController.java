@@ -0,0 +1,141 @@
+package com.unveil.controller;
+
+import com.unveil.snapshot.VerdictSnapshot;
+import com.unveil.snapshot.VerdictSnapshotReader;
+import com.unveil.snapshot.VerdictSnapshotService;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+@RestController
+@RequestMapping("/api/v1/snapshot")
+@CrossOrigin(origins = "*") // Allow all origins for MVP (configure properly for production)
+public class SnapshotController {
+
+    private static final String GENERATION_HEADER = "X-Snapshot-Generation";
+
+    private final VerdictSnapshotService snapshotService;
+
+    public SnapshotController(VerdictSnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Download the latest full verdict snapshot (binary, see VerdictSnapshot)
+     * GET /api/v1/snapshot
+     * Headers: If-None-Match: W/"<generation>" (optional, 304 when unchanged)
+     * The ETag is weak: the same generation built by another instance differs only in its build time
+     */
+    @GetMapping
+    public ResponseEntity<Resource> getSnapshot(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Optional<VerdictSnapshotReader> latest = snapshotService.latest();
+        if (latest.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        VerdictSnapshotReader reader = latest.get();
+        String generation = VerdictSnapshot.formatGeneration(reader.header().generation());
+        String etag = "W/\"" + generation + "\"";
+        if (matchesEtag(ifNoneMatch, generation)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        // Streamed from the reader's mapping, which stays valid if the file is pruned meanwhile
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(GENERATION_HEADER, generation)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + reader.path().getFileName() + "\"")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(reader.sizeBytes())
+                .body(new InputStreamResource(reader.openStream()));
+    }
+
+    /**
+     * Download the changes since a generation the client already has
+     * GET /api/v1/snapshot/delta?since=00c0ffee12345678
+     * 304 when already current, 410 when that generation is not kept here (download the full snapshot)
+     */
+    @GetMapping("/delta")
+    public ResponseEntity<byte[]> getDelta(@RequestParam("since") String since) {
+        Optional<VerdictSnapshotReader> latest = snapshotService.latest();
+        if (latest.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        long current = latest.get().header().generation();
+        String generation = VerdictSnapshot.formatGeneration(current);
+        OptionalLong base = VerdictSnapshot.parseGeneration(since);
+        if (base.isPresent() && base.getAsLong() == current) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .header(GENERATION_HEADER, generation)
+                    .build();
+        }
+
+        Optional<byte[]> delta = base.isPresent() ? snapshotService.deltaSince(base.getAsLong()) : Optional.empty();
+        return delta
+                .map(body -> ResponseEntity.ok()
+                        .header(GENERATION_HEADER, generation)
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(body))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE)
+                        .header(GENERATION_HEADER, generation)
+                        .build());
+    }
+
+    /**
+     * Latest snapshot metadata
+     * GET /api/v1/snapshot/info
+     */
+    @GetMapping("/info")
+    public ResponseEntity<Map<String, Object>> getInfo() {
+        Optional<VerdictSnapshotReader> latest = snapshotService.latest();
+        if (latest.isEmpty()) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "No verdict snapshot has been built yet");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+        }
+
+        VerdictSnapshot.Header header = latest.get().header();
+        Map<String, Object> response = new HashMap<>();
+        response.put("generation", VerdictSnapshot.formatGeneration(header.generation()));
+        response.put("builtAt", Instant.ofEpochMilli(header.builtAtMillis()).toString());
+        response.put("entries", header.entryCount());
+        response.put("sizeBytes", latest.get().sizeBytes());
+        response.put("formatVersion", VerdictSnapshot.VERSION);
+        response.put("key", "first 16 bytes of SHA-256(\"<email|phone|domain>:<normalized identifier>\")");
+
+        return ResponseEntity.ok(response);
+    }
+
+    // ============ HELPER METHODS ============
+
+    // Weak comparison (RFC 9110): W/ prefixes are ignored; "*" matches any snapshot
+    private static boolean matchesEtag(String ifNoneMatch, String generation) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals("\"" + generation + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
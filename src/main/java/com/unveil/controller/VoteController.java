@@ -1,8 +1,10 @@
 package com.unveil.controller;
 
+import com.unveil.dto.BatchVoteRequestDto;
 import com.unveil.entity.Case;
 import com.unveil.service.OtpService;
 import com.unveil.service.VoteService;
+import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -51,50 +53,14 @@ public class VoteController {
             }
 
             // Determine voter identifier
-            String voterIdentifier;
-            boolean isEmailVerified = false;
-
-            // Check for OTP verification token
-            if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                try {
-                    String token = authHeader.substring(7);
-
-                    if (otpService.isTokenValid(token)) {  // Use simplified OTP service
-                        String tokenEmail = otpService.getEmailFromToken(token);
-
-                        // If email provided in body, verify it matches token
-                        if (email != null && !email.equalsIgnoreCase(tokenEmail)) {
-                            Map<String, Object> errorResponse = new HashMap<>();
-                            errorResponse.put("error", "Email in request does not match verified email");
-                            return ResponseEntity.badRequest().body(errorResponse);
-                        }
-
-                        voterIdentifier = "email:" + tokenEmail;
-                        isEmailVerified = true;
-                    } else {
-                        Map<String, Object> errorResponse = new HashMap<>();
-                        errorResponse.put("error", "Invalid or expired verification token. Please verify your email again.");
-                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-                    }
-                } catch (Exception e) {
-                    Map<String, Object> errorResponse = new HashMap<>();
-                    errorResponse.put("error", "Invalid verification token format");
-                    return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-                }
-            } else if (email != null && !email.trim().isEmpty()) {
-                // Email provided but no verification token
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("error", "Email verification required. Please verify your email address to vote.");
-                errorResponse.put("requiresVerification", true);
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-            } else {
-                // Fall back to IP-based voting
-                String ipAddress = clientIp != null ? clientIp : "unknown";
-                voterIdentifier = "ip:" + ipAddress;
+            Voter voter = identifyVoter(authHeader, email, clientIp);
+            if (voter.rejection() != null) {
+                return voter.rejection();
             }
+            boolean isEmailVerified = voter.emailVerified();
 
             // Cast vote
-            Case updatedCase = voteService.castVoteWithVerification(id, vote, voterIdentifier, isEmailVerified);
+            Case updatedCase = voteService.castVoteWithVerification(id, vote, voter.identifier(), isEmailVerified);
 
             if (updatedCase == null) {
                 Map<String, Object> errorResponse = new HashMap<>();
@@ -126,6 +92,43 @@ public class VoteController {
         }
     }
 
+    /**
+     * Cast votes on several cases at once (one token check, one result per item)
+     * POST /api/v1/votes/batch
+     * Body: {"votes": [{"caseId": 1, "vote": "guilty"}, {"caseId": 2, "vote": "not_guilty"}], "email": "user@example.com"}
+     * Headers: Authorization: Bearer <verification-token> (optional, but recommended)
+     */
+    @PostMapping("/votes/batch")
+    public ResponseEntity<Map<String, Object>> voteBatch(
+            @Valid @RequestBody BatchVoteRequestDto request,
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestHeader(value = "X-Forwarded-For", required = false) String clientIp) {
+
+        try {
+            // Determine voter identifier, same rules as single votes
+            Voter voter = identifyVoter(authHeader, request.getEmail(), clientIp);
+            if (voter.rejection() != null) {
+                return voter.rejection();
+            }
+            boolean isEmailVerified = voter.emailVerified();
+
+            List<Map<String, Object>> results = voteService.castVotes(request.getVotes(), voter.identifier(), isEmailVerified);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("verificationMethod", isEmailVerified ? "email" : "ip");
+            response.put("accepted", results.stream().filter(result -> "accepted".equals(result.get("status"))).count());
+            response.put("results", results);
+
+            return ResponseEntity.ok(response);
+
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to cast votes: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     /**
      * Get verdict statistics for a Case
      * GET /api/v1/case/{id}/verdict
@@ -266,4 +269,43 @@ public class VoteController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
+
+    /**
+     * Resolve who is voting: a verified email (Bearer token) or else the client IP.
+     * An email without a token, or a token that is invalid or names another email,
+     * yields the error response to return instead.
+     */
+    private Voter identifyVoter(String authHeader, String email, String clientIp) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            Optional<String> tokenEmail = otpService.getVerifiedEmail(authHeader.substring(7));
+            if (tokenEmail.isEmpty()) {
+                return Voter.rejected(HttpStatus.UNAUTHORIZED,
+                        "Invalid or expired verification token. Please verify your email again.", false);
+            }
+            // If email provided in body, verify it matches token
+            if (email != null && !email.equalsIgnoreCase(tokenEmail.get())) {
+                return Voter.rejected(HttpStatus.BAD_REQUEST, "Email in request does not match verified email", false);
+            }
+            return new Voter("email:" + tokenEmail.get(), true, null);
+        }
+        if (email != null && !email.trim().isEmpty()) {
+            // Email provided but no verification token
+            return Voter.rejected(HttpStatus.UNAUTHORIZED,
+                    "Email verification required. Please verify your email address to vote.", true);
+        }
+        // Fall back to IP-based voting
+        return new Voter("ip:" + (clientIp != null ? clientIp : "unknown"), false, null);
+    }
+
+    private record Voter(String identifier, boolean emailVerified, ResponseEntity<Map<String, Object>> rejection) {
+
+        static Voter rejected(HttpStatus status, String error, boolean requiresVerification) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", error);
+            if (requiresVerification) {
+                errorResponse.put("requiresVerification", true);
+            }
+            return new Voter(null, false, ResponseEntity.status(status).body(errorResponse));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.unveil.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchVoteRequestDto {
+
+    // Items are checked one by one; an invalid item is reported, not rejected
+    @NotEmpty(message = "At least one vote is required")
+    @Size(max = 100, message = "At most 100 votes per batch")
+    private List<Item> votes;
+
+    // Optional; must match the verification token when given
+    private String email;
+
+    @Data
+    public static class Item {
+        private Long caseId;
+        private String vote; // "guilty" or "not_guilty"
+    }
+}
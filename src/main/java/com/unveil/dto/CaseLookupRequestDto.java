@@ -0,0 +1,21 @@
+package com.unveil.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CaseLookupRequestDto {
+
+    // Any formatting; values are normalized before matching
+    @Size(max = 500, message = "At most 500 emails per lookup")
+    private List<String> emails;
+
+    @Size(max = 500, message = "At most 500 phone numbers per lookup")
+    private List<String> phones;
+
+    // Bare domains or email addresses ("example.com", "@example.com")
+    @Size(max = 500, message = "At most 500 domains per lookup")
+    private List<String> domains;
+}
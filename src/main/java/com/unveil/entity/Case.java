@@ -1,9 +1,12 @@
 package com.unveil.entity;
 
 import jakarta.persistence.*;
+import com.unveil.util.ContactKeys;
+import com.unveil.util.VerdictRanking;
 import jakarta.validation.constraints.Email;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -11,13 +14,22 @@ import java.time.LocalDateTime;
         @Index(name = "idx_case_name", columnList = "name"),
         @Index(name = "idx_case_email", columnList = "email"),
         @Index(name = "idx_case_phone", columnList = "phone"),
-        @Index(name = "idx_case_verdict", columnList = "verdict_score")
+        @Index(name = "idx_case_verdict", columnList = "verdict_score"),
+        @Index(name = "idx_case_scam_type", columnList = "scam_type_id, created_at"),
+        @Index(name = "idx_case_verdict_rank", columnList = "verdict_sign, verdict_wilson DESC, id DESC"),
+        @Index(name = "idx_case_controversy", columnList = "controversy_score DESC, id DESC"),
+        @Index(name = "idx_case_created_at", columnList = "created_at DESC"),
+        @Index(name = "idx_case_email_domain_created", columnList = "email_domain, created_at DESC"),
+        @Index(name = "idx_case_phone_digits", columnList = "phone_digits")
+        // Partial listing indexes (recently voted, needing votes, most voted, close votes)
+        // are defined in db/migration/postgresql/V6__case_listing_indexes.sql
 })
 @NoArgsConstructor
 @AllArgsConstructor
 @ToString
 @Getter
 @Setter
+@DynamicUpdate // Edits write changed columns only, never tallies folded in meanwhile (VoteTallyShards)
 public class Case {
 
     @Id
@@ -46,6 +58,10 @@ public class Case {
     @Column(length = 300)
     private String actions;
 
+    // Normalized scam type (see ScamType), kept alongside the free-text actions
+    @Column(name = "scam_type_id")
+    private Integer scamTypeId;
+
     // Verdict System Fields
     @Column(name = "verdict_score", nullable = false)
     private Integer verdictScore = 0;
@@ -59,6 +75,13 @@ public class Case {
     @Column(name = "not_guilty_votes", nullable = false)
     private Integer notGuiltyVotes = 0;
 
+    // Part of the tallies from before the votes table, without vote rows (see VoteTallyReconciler)
+    @Column(name = "legacy_guilty_votes", nullable = false)
+    private Integer legacyGuiltyVotes = 0;
+
+    @Column(name = "legacy_not_guilty_votes", nullable = false)
+    private Integer legacyNotGuiltyVotes = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -66,6 +89,27 @@ public class Case {
     @Column(name = "last_voted_at")
     private LocalDateTime lastVotedAt;
 
+    // Journaled votes from before this are not replayed (see VoteJournalReplayer)
+    @Column(name = "votes_reset_at")
+    private LocalDateTime votesResetAt;
+
+    // Ranking keys (see VerdictRanking), recomputed whenever the tallies are saved
+    @Column(name = "verdict_sign")
+    private Integer verdictSign = 0;
+
+    @Column(name = "verdict_wilson")
+    private Double verdictWilson = 0.0;
+
+    @Column(name = "controversy_score")
+    private Double controversyScore = 0.0;
+
+    // Lookup keys (see ContactKeys), recomputed from email / phone on every save
+    @Column(name = "email_domain")
+    private String emailDomain;
+
+    @Column(name = "phone_digits", length = 50)
+    private String phoneDigits;
+
     // Computed verdict status based on score
     @Transient
     public String getVerdictStatus() {
@@ -105,6 +149,22 @@ public class Case {
         this.lastVotedAt = LocalDateTime.now();
     }
 
+    // Keep derived columns in step (one callback per event is allowed)
+    @PrePersist
+    @PreUpdate
+    public void updateDerivedColumns() {
+        updateRanking();
+        this.emailDomain = ContactKeys.emailDomain(email);
+        this.phoneDigits = ContactKeys.phoneDigits(phone);
+    }
+
+    // Keep ranking keys in step with the tallies
+    public void updateRanking() {
+        this.verdictSign = VerdictRanking.sign(guiltyVotes, notGuiltyVotes);
+        this.verdictWilson = VerdictRanking.confidence(guiltyVotes, notGuiltyVotes);
+        this.controversyScore = VerdictRanking.controversy(guiltyVotes, notGuiltyVotes);
+    }
+
     // Get verdict summary for API responses
     @Transient
     public VerdictSummary getVerdictSummary() {
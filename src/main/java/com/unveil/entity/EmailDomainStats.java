@@ -0,0 +1,44 @@
+package com.unveil.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintained aggregate of cases per scammer email domain (Case.emailDomain),
+ * so per-domain reputation and top domains never scan cases
+ */
+@Entity
+@Table(name = "email_domain_stats", indexes = {
+        @Index(name = "idx_domain_stats_guilty", columnList = "guilty_count DESC, case_count DESC"),
+        @Index(name = "idx_domain_stats_cases", columnList = "case_count DESC")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Getter
+@Setter
+public class EmailDomainStats {
+
+    // Normalized domain (see ContactKeys.emailDomain)
+    @Id
+    @Column(name = "domain", length = 255)
+    private String domain;
+
+    @Column(name = "case_count", nullable = false)
+    private Long caseCount = 0L;
+
+    // Cases currently judged guilty (verdict score > 0)
+    @Column(name = "guilty_count", nullable = false)
+    private Long guiltyCount = 0L;
+
+    @Column(name = "latest_case_id")
+    private Long latestCaseId;
+
+    @Column(name = "latest_case_at")
+    private LocalDateTime latestCaseAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,53 @@
+package com.unveil.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Dictionary of scam types (the normalized form of Case.actions)
+ * with a maintained count of cases per type
+ */
+@Entity
+@Table(name = "scam_types", indexes = {
+        @Index(name = "idx_scam_type_normalized_name", columnList = "normalized_name", unique = true),
+        @Index(name = "idx_scam_type_case_count", columnList = "case_count")
+})
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+@Getter
+@Setter
+public class ScamType {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    // Display name, as first reported
+    @Column(name = "name", nullable = false, length = 300)
+    private String name;
+
+    // Lookup key: trimmed, single-spaced, lowercase
+    @Column(name = "normalized_name", nullable = false, length = 300, unique = true)
+    private String normalizedName;
+
+    @Column(name = "case_count", nullable = false)
+    private Long caseCount = 0L;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Normalize a free-text scam type into its dictionary key
+    public static String normalize(String actions) {
+        if (actions == null) {
+            return null;
+        }
+        String normalized = actions.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+}
@@ -6,8 +6,6 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
-import java.util.Set;
 
 @Entity
 @Table(name = "users", indexes = {
@@ -16,7 +14,7 @@ import java.util.Set;
 })
 @NoArgsConstructor
 @AllArgsConstructor
-@ToString(exclude = {"votes"})
+@ToString
 @Getter
 @Setter
 public class User {
@@ -57,10 +55,6 @@ public class User {
     @Column(name = "last_login_at")
     private LocalDateTime lastLoginAt;
 
-    // Relationship with votes
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-    private Set<Vote> votes = new HashSet<>();
-
     // Helper methods
     public String getFullName() {
         return firstName + " " + lastName;
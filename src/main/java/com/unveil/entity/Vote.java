@@ -8,9 +8,9 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "votes", indexes = {
-        @Index(name = "idx_vote_user_case", columnList = "user_id, case_id", unique = true),
-        @Index(name = "idx_vote_case", columnList = "case_id"),
-        @Index(name = "idx_vote_user", columnList = "user_id")
+        // One vote per voter per case; inserts rely on this constraint for de-duplication
+        @Index(name = "idx_vote_case_voter", columnList = "case_id, voter_kind, voter_hash", unique = true),
+        @Index(name = "idx_vote_created_at", columnList = "created_at")
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,14 +23,18 @@ public class Vote {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    private User user;
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "case_id", nullable = false)
     private Case caseEntity;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "voter_kind", nullable = false, length = 16)
+    private VoterKind voterKind;
+
+    // Hex SHA-256 of the voter's email or IP address (same hash as the vote journal)
+    @Column(name = "voter_hash", nullable = false, length = 64)
+    private String voterHash;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "vote_type", nullable = false)
     private VoteType voteType;
@@ -47,6 +51,11 @@ public class Vote {
         GUILTY, NOT_GUILTY
     }
 
+    // Voter kind enum (ANONYMOUS: bulk test votes, random hash)
+    public enum VoterKind {
+        EMAIL, IP, ANONYMOUS
+    }
+
     // Helper methods
     public boolean isGuilty() {
         return voteType == VoteType.GUILTY;
@@ -55,23 +64,4 @@ public class Vote {
     public boolean isNotGuilty() {
         return voteType == VoteType.NOT_GUILTY;
     }
-
-    // Factory methods
-    public static Vote createGuiltyVote(User user, Case caseEntity, String ipAddress) {
-        Vote vote = new Vote();
-        vote.setUser(user);
-        vote.setCaseEntity(caseEntity);
-        vote.setVoteType(VoteType.GUILTY);
-        vote.setIpAddress(ipAddress);
-        return vote;
-    }
-
-    public static Vote createNotGuiltyVote(User user, Case caseEntity, String ipAddress) {
-        Vote vote = new Vote();
-        vote.setUser(user);
-        vote.setCaseEntity(caseEntity);
-        vote.setVoteType(VoteType.NOT_GUILTY);
-        vote.setIpAddress(ipAddress);
-        return vote;
-    }
 }
\ No newline at end of file
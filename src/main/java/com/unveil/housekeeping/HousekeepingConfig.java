@@ -0,0 +1,23 @@
+package com.unveil.housekeeping;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.time.Duration;
+
+/**
+ * Background housekeeping: scheduled sweeps and the shared expiry wheel.
+ * Scheduled jobs run on spring.task.scheduling.pool.size threads, so an
+ * hour-long reconciliation never delays the one-second jobs.
+ */
+@Configuration
+@EnableScheduling
+public class HousekeepingConfig {
+
+    @Bean
+    public TimingWheel expiryWheel(@Value("${app.housekeeping.wheel-tick-ms:1000}") long tickMillis) {
+        return new TimingWheel(Duration.ofMillis(tickMillis), System.currentTimeMillis());
+    }
+}
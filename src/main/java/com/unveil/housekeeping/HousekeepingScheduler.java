@@ -0,0 +1,154 @@
+package com.unveil.housekeeping;
+
+import com.unveil.repository.VerificationCodeRepository;
+import com.unveil.service.EmailDomainStatsService;
+import com.unveil.state.StateStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
+
+/**
+ * Background sweeps, off the request threads.
+ *
+ * - expiry wheel: fires due expirations of in-memory rate-limit / OTP entries
+ * - verification codes: deletes expired rows in LIMIT-bounded batches, each
+ *   in its own short transaction, so no sweep holds locks for long
+ * - state store: deletes expired shared state (no-op for the in-memory store)
+ * - vote tallies: recomputes case tallies from the votes table (see VoteTallyReconciler)
+ * - domain stats: rebuilds the per-domain aggregate from cases (see EmailDomainStatsService)
+ *
+ * Every sweep records unveil.housekeeping.sweep (duration) and
+ * unveil.housekeeping.items (items removed), tagged by task.
+ */
+@Component
+public class HousekeepingScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(HousekeepingScheduler.class);
+
+    private final TimingWheel expiryWheel;
+    private final VerificationCodeRepository verificationCodeRepository;
+    private final StateStore stateStore;
+    private final VoteTallyReconciler voteTallyReconciler;
+    private final EmailDomainStatsService emailDomainStatsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.housekeeping.verification-codes.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.housekeeping.verification-codes.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${app.housekeeping.vote-tallies.enabled:true}")
+    private boolean voteTalliesEnabled;
+
+    @Value("${app.housekeeping.domain-stats.enabled:true}")
+    private boolean domainStatsEnabled;
+
+    public HousekeepingScheduler(TimingWheel expiryWheel,
+                                 VerificationCodeRepository verificationCodeRepository,
+                                 StateStore stateStore,
+                                 VoteTallyReconciler voteTallyReconciler,
+                                 EmailDomainStatsService emailDomainStatsService,
+                                 MeterRegistry meterRegistry) {
+        this.expiryWheel = expiryWheel;
+        this.verificationCodeRepository = verificationCodeRepository;
+        this.stateStore = stateStore;
+        this.voteTallyReconciler = voteTallyReconciler;
+        this.emailDomainStatsService = emailDomainStatsService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Advance the expiry wheel to now
+     */
+    @Scheduled(fixedDelayString = "${app.housekeeping.wheel-tick-ms:1000}")
+    public void advanceExpiryWheel() {
+        sweep("expiry_wheel", () -> expiryWheel.advance(System.currentTimeMillis()));
+    }
+
+    /**
+     * Delete expired verification codes in bounded batches
+     */
+    @Scheduled(fixedDelayString = "${app.housekeeping.verification-codes.interval-ms:300000}",
+            initialDelayString = "${app.housekeeping.verification-codes.initial-delay-ms:60000}")
+    public void purgeExpiredVerificationCodes() {
+        sweep("verification_codes", () -> {
+            LocalDateTime now = LocalDateTime.now();
+            int total = 0;
+            for (int batch = 0; batch < maxBatches; batch++) {
+                int deleted = verificationCodeRepository.deleteExpiredCodesBatch(now, batchSize);
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+            if (total > 0) {
+                log.info("Purged {} expired verification codes", total);
+            }
+            return total;
+        });
+    }
+
+    /**
+     * Delete expired shared state entries
+     */
+    @Scheduled(fixedDelayString = "${app.housekeeping.state-store.interval-ms:60000}",
+            initialDelayString = "${app.housekeeping.state-store.initial-delay-ms:60000}")
+    public void purgeExpiredState() {
+        sweep("state_store", stateStore::purgeExpired);
+    }
+
+    /**
+     * Recompute case vote tallies from the votes table
+     */
+    @Scheduled(fixedDelayString = "${app.housekeeping.vote-tallies.interval-ms:3600000}",
+            initialDelayString = "${app.housekeeping.vote-tallies.initial-delay-ms:600000}")
+    public void reconcileVoteTallies() {
+        if (voteTalliesEnabled) {
+            sweep("vote_tallies", voteTallyReconciler::reconcile);
+        }
+    }
+
+    /**
+     * Rebuild the per-domain aggregate from cases (one grouped query; only drifted rows are written)
+     */
+    @Scheduled(fixedDelayString = "${app.housekeeping.domain-stats.interval-ms:21600000}",
+            initialDelayString = "${app.housekeeping.domain-stats.initial-delay-ms:900000}")
+    public void resyncDomainStats() {
+        if (domainStatsEnabled) {
+            sweep("domain_stats", emailDomainStatsService::resync);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void sweep(String task, IntSupplier work) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            int items = work.getAsInt();
+            Counter.builder("unveil.housekeeping.items")
+                    .description("Items removed by housekeeping sweeps")
+                    .tag("task", task)
+                    .register(meterRegistry)
+                    .increment(items);
+        } catch (RuntimeException e) {
+            outcome = "error";
+            log.warn("Housekeeping sweep '{}' failed: {}", task, e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("unveil.housekeeping.sweep")
+                    .description("Housekeeping sweep duration")
+                    .tag("task", task)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
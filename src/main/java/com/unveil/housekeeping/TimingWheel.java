@@ -0,0 +1,164 @@
+package com.unveil.housekeeping;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel for expiring in-memory entries.
+ *
+ * Four levels of 64 slots; level 0 advances one slot per tick and each
+ * higher level covers 64x the span of the one below (1s ticks: ~1 minute,
+ * ~1 hour, ~3 days, ~6 months). Scheduling and cancelling are O(1); an
+ * advance touches only the slots that came due, cascading entries from a
+ * higher level down when a lower level wraps.
+ *
+ * Timers are keyed: scheduling an existing key replaces its timer.
+ * Callbacks run on the advancing thread, outside the wheel's lock.
+ */
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final ArrayDeque<Entry>[][] wheels;
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(Duration tick, long startEpochMillis) {
+        if (tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Tick must be at least 1ms");
+        }
+        this.tickMillis = tick.toMillis();
+        this.currentTick = startEpochMillis / tickMillis;
+        this.wheels = new ArrayDeque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Run {@code onExpiry} once the deadline passes, replacing any timer with the same key
+     */
+    public synchronized void schedule(String key, long deadlineEpochMillis, Runnable onExpiry) {
+        // Round up so an entry never fires before its deadline
+        long expiryTick = Math.max((deadlineEpochMillis + tickMillis - 1) / tickMillis, currentTick + 1);
+        Entry entry = new Entry(key, expiryTick, onExpiry);
+
+        Entry previous = byKey.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        place(entry);
+    }
+
+    /**
+     * Cancel a pending timer
+     * @return true if a timer was pending
+     */
+    public synchronized boolean cancel(String key) {
+        Entry entry = byKey.remove(key);
+        if (entry != null) {
+            entry.cancelled = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Fire every timer whose deadline is at or before {@code nowEpochMillis}
+     * @return number of callbacks run
+     */
+    public int advance(long nowEpochMillis) {
+        List<Entry> due = collectDue(nowEpochMillis / tickMillis);
+        for (Entry entry : due) {
+            entry.onExpiry.run();
+        }
+        return due.size();
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    public long tickMillis() {
+        return tickMillis;
+    }
+
+    // ============ HELPER METHODS ============
+
+    private synchronized List<Entry> collectDue(long targetTick) {
+        List<Entry> due = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade();
+
+            ArrayDeque<Entry> slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+            for (int i = slot.size(); i > 0; i--) {
+                Entry entry = slot.poll();
+                if (entry.cancelled) {
+                    continue;
+                }
+                if (entry.expiryTick <= currentTick) {
+                    byKey.remove(entry.key, entry);
+                    due.add(entry);
+                } else {
+                    place(entry);
+                }
+            }
+        }
+        return due;
+    }
+
+    // When a level wraps, redistribute the next slot of the level above
+    private void cascade() {
+        for (int level = 1; level < LEVELS; level++) {
+            if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) != 0) {
+                return;
+            }
+            ArrayDeque<Entry> slot = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+            for (int i = slot.size(); i > 0; i--) {
+                Entry entry = slot.poll();
+                if (!entry.cancelled) {
+                    place(entry);
+                }
+            }
+        }
+    }
+
+    private void place(Entry entry) {
+        long delta = entry.expiryTick - currentTick;
+        // Beyond the wheel's span: park in the top level and re-cascade later
+        long tick = delta > MAX_DELTA ? currentTick + MAX_DELTA : entry.expiryTick;
+        delta = tick - currentTick;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(entry);
+    }
+
+    private static final class Entry {
+        final String key;
+        final long expiryTick;
+        final Runnable onExpiry;
+        boolean cancelled;
+
+        Entry(String key, long expiryTick, Runnable onExpiry) {
+            this.key = key;
+            this.expiryTick = expiryTick;
+            this.onExpiry = onExpiry;
+        }
+    }
+}
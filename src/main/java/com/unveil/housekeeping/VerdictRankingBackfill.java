@@ -0,0 +1,60 @@
+package com.unveil.housekeeping;
+
+import com.unveil.repository.CaseRepository;
+import com.unveil.util.VerdictRanking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes verdict ranking keys for cases saved before the columns existed.
+ * Runs at startup in batches until no unranked case is left; afterwards
+ * every tally write keeps the keys current.
+ */
+@Component
+public class VerdictRankingBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VerdictRankingBackfill.class);
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String UPDATE_RANKING =
+            "UPDATE cases SET verdict_sign = ?, verdict_wilson = ?, controversy_score = ? WHERE id = ?";
+
+    private final CaseRepository caseRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    public VerdictRankingBackfill(CaseRepository caseRepository, JdbcTemplate jdbcTemplate) {
+        this.caseRepository = caseRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int total = 0;
+        List<Object[]> rows;
+        // Updated rows drop out of the query, so always read the first page
+        while (!(rows = caseRepository.findUnrankedTallies(PageRequest.of(0, BATCH_SIZE))).isEmpty()) {
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                long guilty = row[1] != null ? ((Number) row[1]).longValue() : 0;
+                long notGuilty = row[2] != null ? ((Number) row[2]).longValue() : 0;
+                updates.add(new Object[]{VerdictRanking.sign(guilty, notGuilty),
+                        VerdictRanking.confidence(guilty, notGuilty),
+                        VerdictRanking.controversy(guilty, notGuilty),
+                        ((Number) row[0]).longValue()});
+            }
+            jdbcTemplate.batchUpdate(UPDATE_RANKING, updates);
+            total += rows.size();
+        }
+        if (total > 0) {
+            log.info("Computed verdict ranking keys for {} case(s)", total);
+        }
+    }
+}
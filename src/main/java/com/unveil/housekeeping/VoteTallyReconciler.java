@@ -0,0 +1,198 @@
+package com.unveil.housekeeping;
+
+import com.unveil.cache.CaseCache;
+import com.unveil.repository.CaseRepository;
+import com.unveil.repository.VoteRepository;
+import com.unveil.util.VerdictRanking;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes case vote tallies from the votes table.
+ *
+ * A case's expected tallies are its legacy baseline (votes from before the
+ * votes table, which have no rows; see migration V14) plus its vote rows.
+ *
+ * The id space of cases is split into fixed ranges that a small pool of
+ * workers claims one at a time. Each range costs one grouped aggregate
+ * (only cases whose stored tallies differ from their vote rows come back)
+ * and one batched UPDATE. Updates compare-and-set on the tallies that were
+ * read, so a vote committed in between is never overwritten; cases voted on
+ * within the quiet period are skipped and picked up by the next run.
+ *
+ * Throttling: worker count, range size and a pause after every range bound
+ * the connections and load the job takes. With apply=false drift is only
+ * counted and logged.
+ *
+ * Cases without vote rows are never touched: their tallies predate the
+ * votes table entirely. Nor are cases with tally shards not yet folded
+ * (VoteTallyShards): their stored tallies are about to change.
+ */
+@Component
+public class VoteTallyReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteTallyReconciler.class);
+
+    private static final String UPDATE_TALLY =
+            "UPDATE cases SET guilty_votes = ?, not_guilty_votes = ?, total_votes = ?, verdict_score = ?, " +
+            "verdict_sign = ?, verdict_wilson = ?, controversy_score = ? " +
+            "WHERE id = ? AND guilty_votes = ? AND not_guilty_votes = ? " +
+            "AND NOT EXISTS (SELECT 1 FROM case_vote_shards s WHERE s.case_id = cases.id)";
+    private static final String PENDING_IN_RANGE =
+            "SELECT DISTINCT case_id FROM case_vote_shards WHERE case_id BETWEEN ? AND ?";
+
+    private final CaseRepository caseRepository;
+    private final VoteRepository voteRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CaseCache caseCache;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${app.housekeeping.vote-tallies.apply:false}")
+    private boolean apply;
+
+    @Value("${app.housekeeping.vote-tallies.threads:2}")
+    private int threads = 2;
+
+    @Value("${app.housekeeping.vote-tallies.range-size:1000}")
+    private int rangeSize = 1000;
+
+    @Value("${app.housekeeping.vote-tallies.pause-ms:50}")
+    private long pauseMillis = 50;
+
+    @Value("${app.housekeeping.vote-tallies.quiet-seconds:60}")
+    private long quietSeconds = 60;
+
+    public VoteTallyReconciler(CaseRepository caseRepository, VoteRepository voteRepository,
+                               JdbcTemplate jdbcTemplate, CaseCache caseCache) {
+        this.caseRepository = caseRepository;
+        this.voteRepository = voteRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.caseCache = caseCache;
+    }
+
+    /**
+     * Reconcile all cases
+     * @return number of cases corrected (or found drifting, when not applying)
+     */
+    public int reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Vote tally reconciliation already running, skipped");
+            return 0;
+        }
+        try {
+            return reconcileRanges();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private int reconcileRanges() {
+        Object[] bounds = caseRepository.findIdBounds().get(0);
+        if (bounds[0] == null) {
+            return 0;
+        }
+        long minId = ((Number) bounds[0]).longValue();
+        long maxId = ((Number) bounds[1]).longValue();
+        LocalDateTime quietSince = LocalDateTime.now().minusSeconds(quietSeconds);
+
+        AtomicLong nextFrom = new AtomicLong(minId);
+        AtomicInteger drifting = new AtomicInteger();
+        AtomicInteger corrected = new AtomicInteger();
+
+        int workers = Math.max(1, threads);
+        ExecutorService executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "vote-tally-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    long from;
+                    while ((from = nextFrom.getAndAdd(rangeSize)) <= maxId) {
+                        int[] result = reconcileRange(from, from + rangeSize - 1, quietSince);
+                        drifting.addAndGet(result[0]);
+                        corrected.addAndGet(result[1]);
+                        pause();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            throw new IllegalStateException("Vote tally reconciliation failed", e.getCause() != null ? e.getCause() : e);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (drifting.get() > 0) {
+            log.info("Vote tallies: {} case(s) drifted from the votes table, {} corrected{}",
+                    drifting.get(), corrected.get(), apply ? "" : " (report only)");
+        }
+        return apply ? corrected.get() : drifting.get();
+    }
+
+    // @return [drifting cases, corrected cases]
+    private int[] reconcileRange(long fromId, long toId, LocalDateTime quietSince) {
+        // Rows of [caseId, storedGuilty, storedNotGuilty, expectedGuilty, expectedNotGuilty]
+        List<Object[]> drift = new ArrayList<>(voteRepository.findTallyDriftInRange(fromId, toId, quietSince));
+        if (!drift.isEmpty()) {
+            Set<Long> pending = new HashSet<>(jdbcTemplate.queryForList(PENDING_IN_RANGE, Long.class, fromId, toId));
+            drift.removeIf(row -> pending.contains(((Number) row[0]).longValue()));
+        }
+        if (drift.isEmpty() || !apply) {
+            return new int[]{drift.size(), 0};
+        }
+
+        List<Object[]> updates = new ArrayList<>(drift.size());
+        for (Object[] row : drift) {
+            int guilty = ((Number) row[3]).intValue();
+            int notGuilty = ((Number) row[4]).intValue();
+            updates.add(new Object[]{guilty, notGuilty, guilty + notGuilty, guilty - notGuilty,
+                    VerdictRanking.sign(guilty, notGuilty), VerdictRanking.confidence(guilty, notGuilty),
+                    VerdictRanking.controversy(guilty, notGuilty),
+                    ((Number) row[0]).longValue(), ((Number) row[1]).intValue(), ((Number) row[2]).intValue()});
+        }
+
+        int corrected = 0;
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_TALLY, updates);
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) still means the statement ran
+            if (counts[i] != 0) {
+                corrected++;
+                caseCache.invalidate(((Number) drift.get(i)[0]).longValue());
+            }
+        }
+        return new int[]{drift.size(), corrected};
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMillis > 0) {
+            TimeUnit.MILLISECONDS.sleep(pauseMillis);
+        }
+    }
+}
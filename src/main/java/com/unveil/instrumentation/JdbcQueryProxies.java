@@ -0,0 +1,185 @@
+package com.unveil.instrumentation;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.Set;
+
+/**
+ * JDK dynamic proxies over DataSource / Connection / Statement / ResultSet
+ * that time each statement execution and count fetched rows.
+ *
+ * Only installed when query instrumentation is enabled; otherwise the
+ * pool's DataSource is used as-is.
+ */
+final class JdbcQueryProxies {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private JdbcQueryProxies() {
+    }
+
+    static DataSource wrap(DataSource dataSource, QueryStatsRecorder recorder) {
+        return (DataSource) Proxy.newProxyInstance(
+                JdbcQueryProxies.class.getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                new DataSourceHandler(dataSource, recorder));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    // unwrap / isWrapperFor must see through the proxy (Hikari metrics, health checks)
+    private static Object handleWrapper(Object target, Method method, Object[] args) throws Throwable {
+        Class<?> iface = (Class<?>) args[0];
+        if ("unwrap".equals(method.getName())) {
+            return iface.isInstance(target) ? target : invoke(target, method, args);
+        }
+        return iface.isInstance(target) || (Boolean) invoke(target, method, args);
+    }
+
+    private static boolean isWrapperMethod(Method method) {
+        return ("unwrap".equals(method.getName()) || "isWrapperFor".equals(method.getName()))
+                && method.getParameterCount() == 1;
+    }
+
+    private record DataSourceHandler(DataSource target, QueryStatsRecorder recorder) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isWrapperMethod(method)) {
+                return handleWrapper(target, method, args);
+            }
+            Object result = JdbcQueryProxies.invoke(target, method, args);
+            if (result instanceof Connection connection) {
+                return Proxy.newProxyInstance(JdbcQueryProxies.class.getClassLoader(),
+                        new Class<?>[]{Connection.class},
+                        new ConnectionHandler(connection, recorder));
+            }
+            return result;
+        }
+    }
+
+    private record ConnectionHandler(Connection target, QueryStatsRecorder recorder) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isWrapperMethod(method)) {
+                return handleWrapper(target, method, args);
+            }
+            Object result = JdbcQueryProxies.invoke(target, method, args);
+            String name = method.getName();
+
+            if (result instanceof CallableStatement statement) {
+                return statementProxy(statement, CallableStatement.class, (String) args[0]);
+            } else if (result instanceof PreparedStatement statement && "prepareStatement".equals(name)) {
+                return statementProxy(statement, PreparedStatement.class, (String) args[0]);
+            } else if (result instanceof Statement statement && "createStatement".equals(name)) {
+                return statementProxy(statement, Statement.class, null);
+            }
+            return result;
+        }
+
+        private Object statementProxy(Statement statement, Class<?> type, String sql) {
+            return Proxy.newProxyInstance(JdbcQueryProxies.class.getClassLoader(),
+                    new Class<?>[]{type},
+                    new StatementHandler(statement, recorder, sql));
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final QueryStatsRecorder recorder;
+        private final String preparedSql;
+        private String lastBatchSql;
+        private QueryStatsRecorder.QuerySample lastSample;
+
+        StatementHandler(Statement target, QueryStatsRecorder recorder, String preparedSql) {
+            this.target = target;
+            this.recorder = recorder;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isWrapperMethod(method)) {
+                return handleWrapper(target, method, args);
+            }
+
+            String name = method.getName();
+            if ("addBatch".equals(name) && args != null && args.length == 1) {
+                lastBatchSql = (String) args[0];
+            }
+            if (!EXECUTE_METHODS.contains(name)) {
+                Object result = JdbcQueryProxies.invoke(target, method, args);
+                // Result of a plain execute(): attribute fetched rows to that execution
+                if (result instanceof ResultSet resultSet && "getResultSet".equals(name) && lastSample != null) {
+                    return resultSetProxy(resultSet, lastSample);
+                }
+                return result;
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String text
+                    ? text
+                    : preparedSql != null ? preparedSql : lastBatchSql;
+
+            long start = System.nanoTime();
+            Object result = JdbcQueryProxies.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            lastSample = recorder.record(sql, elapsed, affectedRows(result));
+            if (result instanceof ResultSet resultSet) {
+                return resultSetProxy(resultSet, lastSample);
+            }
+            return result;
+        }
+
+        private Object resultSetProxy(ResultSet resultSet, QueryStatsRecorder.QuerySample sample) {
+            return Proxy.newProxyInstance(JdbcQueryProxies.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(resultSet, sample));
+        }
+
+        private long affectedRows(Object result) {
+            if (result instanceof Integer count) {
+                return Math.max(0, count);
+            } else if (result instanceof Long count) {
+                return Math.max(0, count);
+            } else if (result instanceof int[] counts) {
+                long total = 0;
+                for (int count : counts) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            } else if (result instanceof long[] counts) {
+                long total = 0;
+                for (long count : counts) {
+                    total += Math.max(0, count);
+                }
+                return total;
+            }
+            return 0;
+        }
+    }
+
+    private record ResultSetHandler(ResultSet target, QueryStatsRecorder.QuerySample sample) implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (isWrapperMethod(method)) {
+                return handleWrapper(target, method, args);
+            }
+            Object result = JdbcQueryProxies.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                sample.addFetchedRow();
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.unveil.instrumentation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource with the timing proxy when
+ * app.instrumentation.queries.enabled=true. Disabled: nothing is wrapped.
+ */
+@Component
+public class QueryCaptureDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCaptureDataSourcePostProcessor.class);
+
+    private final Environment environment;
+    private final ObjectProvider<QueryStatsRecorder> recorder;
+
+    public QueryCaptureDataSourcePostProcessor(Environment environment, ObjectProvider<QueryStatsRecorder> recorder) {
+        this.environment = environment;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource
+                && environment.getProperty("app.instrumentation.queries.enabled", Boolean.class, false)) {
+            log.info("Query instrumentation enabled for DataSource '{}'", beanName);
+            return JdbcQueryProxies.wrap(dataSource, recorder.getObject());
+        }
+        return bean;
+    }
+}
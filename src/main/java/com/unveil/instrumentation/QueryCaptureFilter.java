@@ -0,0 +1,39 @@
+package com.unveil.instrumentation;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Scopes N+1 detection to one HTTP request
+ */
+@Component
+public class QueryCaptureFilter extends OncePerRequestFilter {
+
+    private final QueryStatsRecorder recorder;
+
+    public QueryCaptureFilter(QueryStatsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !recorder.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        recorder.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            recorder.endRequest();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.unveil.instrumentation;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * /actuator/queries - slowest statements, recent samples, N+1 suspects
+ * and Hibernate statistics.
+ *
+ * JDBC capture requires app.instrumentation.queries.enabled=true;
+ * Hibernate statistics require hibernate.generate_statistics=true.
+ */
+@Component
+@Endpoint(id = "queries")
+public class QueryEndpoint {
+
+    private static final int DEFAULT_TOP = 20;
+
+    private final QueryStatsRecorder recorder;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public QueryEndpoint(QueryStatsRecorder recorder, EntityManagerFactory entityManagerFactory) {
+        this.recorder = recorder;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * GET /actuator/queries?top=20
+     */
+    @ReadOperation
+    public Map<String, Object> queries(@Nullable Integer top) {
+        int limit = top != null && top > 0 ? Math.min(top, 200) : DEFAULT_TOP;
+
+        Map<String, Object> jdbc = new HashMap<>();
+        jdbc.put("enabled", recorder.isEnabled());
+        jdbc.put("distinctStatements", recorder.distinctStatements());
+        jdbc.put("topByTotalTime", recorder.topByTotalTime(limit));
+        jdbc.put("recentSamples", recorder.recentSamples(limit));
+        jdbc.put("nPlusOneSuspects", recorder.nPlusOneSuspects());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("jdbc", jdbc);
+        response.put("hibernate", hibernateStatistics(limit));
+        return response;
+    }
+
+    /**
+     * DELETE /actuator/queries - start a fresh capture window
+     */
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        recorder.reset();
+        Statistics statistics = statistics();
+        if (statistics.isStatisticsEnabled()) {
+            statistics.clear();
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Query statistics reset");
+        return response;
+    }
+
+    // ============ HELPER METHODS ============
+
+    private Map<String, Object> hibernateStatistics(int limit) {
+        Statistics statistics = statistics();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        if (!statistics.isStatisticsEnabled()) {
+            return result;
+        }
+
+        result.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        result.put("queryExecutionMaxTimeQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        result.put("entityLoadCount", statistics.getEntityLoadCount());
+        result.put("entityFetchCount", statistics.getEntityFetchCount());        // Lazy loads: N+1 indicator
+        result.put("collectionFetchCount", statistics.getCollectionFetchCount());
+        result.put("transactionCount", statistics.getTransactionCount());
+        result.put("flushCount", statistics.getFlushCount());
+
+        List<Map<String, Object>> queries = new ArrayList<>();
+        for (String query : statistics.getQueries()) {
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(query);
+            long count = queryStatistics.getExecutionCount();
+
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("query", query);
+            entry.put("executions", count);
+            entry.put("totalMs", queryStatistics.getExecutionTotalTime());
+            entry.put("avgMs", queryStatistics.getExecutionAvgTime());
+            entry.put("maxMs", queryStatistics.getExecutionMaxTime());
+            entry.put("rows", queryStatistics.getExecutionRowCount());
+            queries.add(entry);
+        }
+        queries.sort(Comparator.comparingLong((Map<String, Object> entry) -> (Long) entry.get("totalMs")).reversed());
+        result.put("topQueries", queries.subList(0, Math.min(limit, queries.size())));
+        return result;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
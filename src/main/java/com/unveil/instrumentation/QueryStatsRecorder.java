@@ -0,0 +1,241 @@
+package com.unveil.instrumentation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Aggregates JDBC statement timings captured by the DataSource proxy:
+ * per-SQL totals, a ring buffer of recent samples, and N+1 suspects
+ * (the same statement repeated many times within one request).
+ * Repetitions are only counted inside a request scope (QueryCaptureFilter):
+ * scheduled jobs and other background threads run many statements over
+ * their lifetime and would all look like N+1.
+ */
+@Component
+public class QueryStatsRecorder {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)+\\s*\\)");
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    @Value("${app.instrumentation.queries.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.instrumentation.queries.recent-samples:500}")
+    private int recentSampleCapacity;
+
+    @Value("${app.instrumentation.queries.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    private final Map<String, QueryStats> statsBySql = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> nPlusOneSuspects = new ConcurrentHashMap<>();
+    private final AtomicLong sampleCursor = new AtomicLong();
+    private volatile AtomicReferenceArray<QuerySample> recentSamples;
+
+    // Statement repetition counts for the current request thread; unset outside a request
+    private final ThreadLocal<Map<String, Integer>> requestStatementCounts = new ThreadLocal<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record one statement execution
+     * @return the sample, so result-set rows can be added as they are read
+     */
+    public QuerySample record(String rawSql, long elapsedNanos, long rows) {
+        String sql = normalize(rawSql);
+
+        QueryStats stats = statsBySql.computeIfAbsent(sql, key -> new QueryStats());
+        stats.executions.increment();
+        stats.totalNanos.add(elapsedNanos);
+        stats.rows.add(rows);
+        stats.maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+
+        QuerySample sample = new QuerySample(sql, System.currentTimeMillis(), elapsedNanos, stats);
+        sample.addRows(rows);
+        samples().set((int) (sampleCursor.getAndIncrement() % samples().length()), sample);
+
+        trackRepetition(sql);
+        return sample;
+    }
+
+    /**
+     * Start of a request: forget statement repetition counts
+     */
+    public void beginRequest() {
+        requestStatementCounts.set(new HashMap<>());
+    }
+
+    /**
+     * End of a request: release thread-local state
+     */
+    public void endRequest() {
+        requestStatementCounts.remove();
+    }
+
+    /**
+     * Slowest statements by total time spent
+     */
+    public List<Map<String, Object>> topByTotalTime(int limit) {
+        return statsBySql.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStats> entry) ->
+                        entry.getValue().totalNanos.sum()).reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().toMap(entry.getKey()))
+                .toList();
+    }
+
+    /**
+     * Most recent samples, newest first
+     */
+    public List<Map<String, Object>> recentSamples(int limit) {
+        AtomicReferenceArray<QuerySample> buffer = samples();
+        long end = sampleCursor.get();
+        long start = Math.max(0, end - Math.min(limit, buffer.length()));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (long i = end - 1; i >= start; i--) {
+            QuerySample sample = buffer.get((int) (i % buffer.length()));
+            if (sample != null) {
+                result.add(sample.toMap());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Statements seen repeated past the N+1 threshold within a single request
+     */
+    public List<Map<String, Object>> nPlusOneSuspects() {
+        return nPlusOneSuspects.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) ->
+                        entry.getValue().sum()).reversed())
+                .map(entry -> {
+                    Map<String, Object> suspect = new HashMap<>();
+                    suspect.put("sql", entry.getKey());
+                    suspect.put("requests", entry.getValue().sum());
+                    suspect.put("threshold", nPlusOneThreshold);
+                    return suspect;
+                })
+                .toList();
+    }
+
+    public int distinctStatements() {
+        return statsBySql.size();
+    }
+
+    public void reset() {
+        statsBySql.clear();
+        nPlusOneSuspects.clear();
+        recentSamples = null;
+        sampleCursor.set(0);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void trackRepetition(String sql) {
+        Map<String, Integer> counts = requestStatementCounts.get();
+        if (counts == null) {
+            return;
+        }
+        int count = counts.merge(sql, 1, Integer::sum);
+        if (count == nPlusOneThreshold) {
+            nPlusOneSuspects.computeIfAbsent(sql, key -> new LongAdder()).increment();
+        }
+    }
+
+    private AtomicReferenceArray<QuerySample> samples() {
+        AtomicReferenceArray<QuerySample> buffer = recentSamples;
+        if (buffer == null) {
+            synchronized (this) {
+                if (recentSamples == null) {
+                    recentSamples = new AtomicReferenceArray<>(Math.max(1, recentSampleCapacity));
+                }
+                buffer = recentSamples;
+            }
+        }
+        return buffer;
+    }
+
+    // Collapse whitespace and IN lists so the same query shape aggregates together
+    static String normalize(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String normalized = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?...)");
+        return normalized.length() > MAX_SQL_LENGTH ? normalized.substring(0, MAX_SQL_LENGTH) + "..." : normalized;
+    }
+
+    // Aggregate for one statement shape
+    static class QueryStats {
+        final LongAdder executions = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final AtomicLong maxNanos = new AtomicLong();
+
+        Map<String, Object> toMap(String sql) {
+            long count = executions.sum();
+            long total = totalNanos.sum();
+            Map<String, Object> map = new HashMap<>();
+            map.put("sql", sql);
+            map.put("executions", count);
+            map.put("totalMs", total / 1_000_000.0);
+            map.put("avgMs", count > 0 ? total / 1_000_000.0 / count : 0.0);
+            map.put("maxMs", maxNanos.get() / 1_000_000.0);
+            map.put("rows", rows.sum());
+            map.put("avgRows", count > 0 ? (double) rows.sum() / count : 0.0);
+            return map;
+        }
+    }
+
+    /**
+     * One captured execution
+     */
+    public static class QuerySample {
+        private final String sql;
+        private final long timestamp;
+        private final long elapsedNanos;
+        private final QueryStats stats;
+        private final AtomicLong rows = new AtomicLong();
+
+        QuerySample(String sql, long timestamp, long elapsedNanos, QueryStats stats) {
+            this.sql = sql;
+            this.timestamp = timestamp;
+            this.elapsedNanos = elapsedNanos;
+            this.stats = stats;
+        }
+
+        /**
+         * Count rows read from the result set after execution
+         */
+        public void addRows(long count) {
+            if (count > 0) {
+                rows.addAndGet(count);
+            }
+        }
+
+        void addFetchedRow() {
+            rows.incrementAndGet();
+            stats.rows.increment();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("sql", sql);
+            map.put("timestamp", Instant.ofEpochMilli(timestamp).toString());
+            map.put("elapsedMs", elapsedNanos / 1_000_000.0);
+            map.put("rows", rows.get());
+            return map;
+        }
+    }
+}
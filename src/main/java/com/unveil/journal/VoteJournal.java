@@ -0,0 +1,388 @@
+package com.unveil.journal;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only vote journal: fixed-size records written into memory-mapped
+ * segment files (votes-000000.log, votes-000001.log, ...).
+ *
+ * Appends only copy 64 bytes into the mapping under a short lock. A single
+ * flusher thread forces the mapping to disk and completes every waiter
+ * covered by that force (group commit), so one fsync is shared by all votes
+ * that arrived while the previous one was in flight.
+ *
+ * On open, the tail of the last segment is scanned: the first slot that is
+ * empty, torn or fails its CRC is the write position, and anything after it
+ * is zeroed so a later replay cannot pick up records that were never
+ * acknowledged.
+ */
+@Component
+public class VoteJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteJournal.class);
+
+    private static final String SEGMENT_PREFIX = "votes-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentBytes;
+    private final long flushIntervalMillis;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+    private final byte[] scratch = new byte[VoteRecord.SIZE];
+    private final CRC32C crc = new CRC32C();
+
+    // Guarded by lock
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private int segmentIndex;
+    private int position;
+    private long appendedSeq;
+    private long durableSeq;
+    private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+    private boolean closed;
+
+    private final Thread flusher;
+    private volatile long forces;
+
+    public VoteJournal(@Value("${app.journal.enabled:true}") boolean enabled,
+                       @Value("${app.journal.dir:data/vote-journal}") String directory,
+                       @Value("${app.journal.segment-size-mb:64}") int segmentSizeMb,
+                       @Value("${app.journal.flush-interval-ms:2}") long flushIntervalMillis) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        // Whole records only, so a record never straddles two segments
+        long bytes = Math.max(1, segmentSizeMb) * 1024L * 1024L;
+        this.segmentBytes = (int) Math.min(bytes - bytes % VoteRecord.SIZE,
+                Integer.MAX_VALUE - Integer.MAX_VALUE % VoteRecord.SIZE);
+        this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+
+        if (!enabled) {
+            this.flusher = null;
+            return;
+        }
+
+        openTail();
+        this.flusher = new Thread(this::flushLoop, "vote-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * True if nothing has been written yet (first start with the journal)
+     */
+    public boolean isEmpty() {
+        lock.lock();
+        try {
+            return enabled && segmentIndex == 0 && position == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of times the flusher forced the journal to disk (each covers every append before it)
+     */
+    long forces() {
+        return forces;
+    }
+
+    /**
+     * Append a record
+     * @return completes once the record (and everything before it) is on disk
+     */
+    public CompletableFuture<Void> append(VoteRecord record) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Vote journal is closed");
+            }
+            if (position + VoteRecord.SIZE > segmentBytes) {
+                roll();
+            }
+            record.encode(scratch, crc);
+            mapped.put(position, scratch, 0, VoteRecord.SIZE);
+            position += VoteRecord.SIZE;
+
+            waiters.addLast(new Waiter(++appendedSeq, durable));
+            flushRequested.signal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to vote journal", e);
+        } finally {
+            lock.unlock();
+        }
+        return durable;
+    }
+
+    /**
+     * Append and wait until the record is durable
+     * @throws UncheckedIOException if the record could not be made durable in time
+     */
+    public void appendAndAwait(VoteRecord record, long timeoutMillis) {
+        try {
+            append(record).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Interrupted while writing vote journal"));
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new UncheckedIOException(new IOException("Vote journal write failed", e));
+        }
+    }
+
+    /**
+     * Read every valid record in order, stopping at the first invalid one
+     */
+    public ReadResult read(Consumer<VoteRecord> consumer) {
+        if (!enabled) {
+            return new ReadResult(0, 0, false);
+        }
+        return read(directory, consumer);
+    }
+
+    /**
+     * Read every valid record in a journal directory (usable without Spring)
+     * @return records read, segments visited and whether reading stopped on a corrupt record
+     */
+    public static ReadResult read(Path directory, Consumer<VoteRecord> consumer) {
+        List<Path> segments = listSegments(directory);
+        byte[] scratch = new byte[VoteRecord.SIZE];
+        CRC32C crc = new CRC32C();
+        long records = 0;
+
+        for (int i = 0; i < segments.size(); i++) {
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                int size = (int) (channel.size() - channel.size() % VoteRecord.SIZE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                for (int offset = 0; offset < size; offset += VoteRecord.SIZE) {
+                    VoteRecord record = VoteRecord.decode(buffer, offset, scratch, crc);
+                    if (record == null) {
+                        boolean corrupt = !VoteRecord.isEmpty(buffer, offset) || i < segments.size() - 1;
+                        return new ReadResult(records, i + 1, corrupt);
+                    }
+                    consumer.accept(record);
+                    records++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read vote journal segment " + segments.get(i), e);
+            }
+        }
+        return new ReadResult(records, segments.size(), false);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushRequested.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            mapped.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close vote journal: {}", e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long targetSeq;
+            lock.lock();
+            try {
+                while (appendedSeq == durableSeq && !closed) {
+                    flushRequested.awaitUninterruptibly();
+                }
+                if (appendedSeq == durableSeq && closed) {
+                    return;
+                }
+                target = mapped;
+                targetSeq = appendedSeq;
+            } finally {
+                lock.unlock();
+            }
+
+            // Let concurrent appends join this force
+            if (flushIntervalMillis > 0) {
+                try {
+                    Thread.sleep(flushIntervalMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                lock.lock();
+                try {
+                    target = mapped;
+                    targetSeq = appendedSeq;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            // Earlier segments were forced when they were rolled
+            Throwable failure = null;
+            try {
+                target.force();
+                forces++;
+            } catch (Throwable e) {
+                failure = e;
+                log.error("Vote journal fsync failed", e);
+            }
+
+            List<Waiter> done = new ArrayList<>();
+            lock.lock();
+            try {
+                while (!waiters.isEmpty() && waiters.peekFirst().seq() <= targetSeq) {
+                    done.add(waiters.pollFirst());
+                }
+                // On failure the covered waiters are failed instead of acknowledged
+                durableSeq = Math.max(durableSeq, targetSeq);
+            } finally {
+                lock.unlock();
+            }
+            for (Waiter waiter : done) {
+                if (failure == null) {
+                    waiter.durable().complete(null);
+                } else {
+                    waiter.durable().completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    private void openTail() {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = listSegments(directory);
+            segmentIndex = segments.isEmpty() ? 0 : segmentIndex(segments.get(segments.size() - 1));
+            map(segmentIndex);
+
+            byte[] buffer = new byte[VoteRecord.SIZE];
+            CRC32C check = new CRC32C();
+            while (position + VoteRecord.SIZE <= segmentBytes
+                    && VoteRecord.decode(mapped, position, buffer, check) != null) {
+                position += VoteRecord.SIZE;
+            }
+
+            // Zero a torn / unacknowledged tail
+            int zeroed = 0;
+            byte[] zeros = new byte[VoteRecord.SIZE];
+            for (int offset = position; offset + VoteRecord.SIZE <= segmentBytes
+                    && !VoteRecord.isEmpty(mapped, offset); offset += VoteRecord.SIZE) {
+                mapped.put(offset, zeros);
+                zeroed++;
+            }
+            if (zeroed > 0) {
+                mapped.force();
+                log.warn("Vote journal: discarded {} torn record(s) at the tail of segment {}", zeroed, segmentIndex);
+            }
+            log.info("Vote journal opened at {} (segment {}, {} record(s) in tail segment)",
+                    directory.toAbsolutePath(), segmentIndex, position / VoteRecord.SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open vote journal in " + directory.toAbsolutePath(), e);
+        }
+    }
+
+    // Called with the lock held
+    private void roll() throws IOException {
+        mapped.force();
+        channel.close();
+        map(segmentIndex + 1);
+    }
+
+    private void map(int index) throws IOException {
+        Path segment = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentIndex = index;
+        position = 0;
+    }
+
+    private static List<Path> listSegments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list vote journal segments in " + directory, e);
+        }
+    }
+
+    private static int segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Waiter(long seq, CompletableFuture<Void> durable) {
+    }
+
+    /**
+     * Outcome of reading a journal
+     */
+    public record ReadResult(long records, int segments, boolean corrupt) {
+    }
+}
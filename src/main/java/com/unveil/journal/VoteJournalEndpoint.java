@@ -0,0 +1,56 @@
+package com.unveil.journal;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * /actuator/votejournal - state of this instance's vote journal, and the
+ * explicit admin step that records a baseline of the current tallies for
+ * the offline check (VoteJournalReplayer#main).
+ */
+@Component
+@Endpoint(id = "votejournal")
+public class VoteJournalEndpoint {
+
+    private final VoteJournal journal;
+    private final VoteJournalReplayer replayer;
+
+    public VoteJournalEndpoint(VoteJournal journal, VoteJournalReplayer replayer) {
+        this.journal = journal;
+        this.replayer = replayer;
+    }
+
+    /**
+     * GET /actuator/votejournal
+     */
+    @ReadOperation
+    public Map<String, Object> journal() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", journal.isEnabled());
+        response.put("directory", journal.directory().toAbsolutePath().toString());
+        response.put("empty", journal.isEmpty());
+        return response;
+    }
+
+    /**
+     * POST /actuator/votejournal - append a BASELINE record per case (one record per case)
+     */
+    @WriteOperation
+    public Map<String, Object> baseline() {
+        Map<String, Object> response = new HashMap<>();
+        if (!journal.isEnabled()) {
+            response.put("success", false);
+            response.put("message", "Vote journal is disabled");
+            return response;
+        }
+        int cases = replayer.writeBaseline();
+        response.put("success", true);
+        response.put("message", "Baseline written for " + cases + " case(s)");
+        return response;
+    }
+}
@@ -0,0 +1,349 @@
+package com.unveil.journal;
+
+import com.unveil.cache.CaseCache;
+import com.unveil.entity.Case;
+import com.unveil.entity.Vote;
+import com.unveil.repository.CaseRepository;
+import com.unveil.service.VoteService;
+import com.unveil.service.VoteTallyShards;
+import com.unveil.service.VoteWriter;
+import com.unveil.util.HashUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Restores journaled votes that the database is missing.
+ *
+ * With app.journal.replay-on-startup=true it replays the journal as a diff
+ * against the database once all singletons exist, before the web server
+ * accepts votes. BASELINE records (the tallies that predate the journal,
+ * used only by the offline check) are written on request through
+ * /actuator/votejournal, not at startup: they cost one record per case.
+ *
+ * The database stays the source of truth. Each node journals only the votes
+ * it accepted, so replay never overwrites shared state (case tallies, other
+ * nodes' tally shards, the shared vote markers): every committed journaled
+ * vote of an identified voter that is still current is inserted with
+ * ON CONFLICT DO NOTHING, and only the rows that actually went in are added
+ * to the case's tally shards. Replaying twice, or on several nodes, restores
+ * nothing the second time. Anonymous (bulk) votes carry no voter and cannot
+ * be matched, so they are only counted.
+ *
+ * A vote counts as committed once its COMMIT record follows it; votes whose
+ * transaction rolled back (or was cut short by a crash) have none and are
+ * skipped. A vote is current if no RESET of this node's journal follows it
+ * and it is newer than the case's votes_reset_at, which also covers resets
+ * made on other nodes (up to clock skew between them).
+ *
+ * {@link #main(String[])} folds a journal directory offline and prints the
+ * result, for checking a journal against the database after a crash.
+ */
+@Component
+public class VoteJournalReplayer implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(VoteJournalReplayer.class);
+
+    private final VoteJournal journal;
+    private final CaseRepository caseRepository;
+    private final VoteService voteService;
+    private final VoteWriter voteWriter;
+    private final VoteTallyShards voteTallyShards;
+    private final CaseCache caseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean replayOnStartup;
+
+    public VoteJournalReplayer(VoteJournal journal, CaseRepository caseRepository, VoteService voteService,
+                               VoteWriter voteWriter, VoteTallyShards voteTallyShards, CaseCache caseCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.journal.replay-on-startup:false}") boolean replayOnStartup) {
+        this.journal = journal;
+        this.caseRepository = caseRepository;
+        this.voteService = voteService;
+        this.voteWriter = voteWriter;
+        this.voteTallyShards = voteTallyShards;
+        this.caseCache = caseCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayOnStartup = replayOnStartup;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (journal.isEnabled() && replayOnStartup && !journal.isEmpty()) {
+            replay();
+        }
+    }
+
+    /**
+     * Record current tallies of every case (including votes still in tally shards) as the
+     * journal's starting point for the offline check
+     * @return number of cases recorded
+     */
+    public int writeBaseline() {
+        if (!journal.isEnabled()) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+        int cases = 0;
+        // Rows of [id, guiltyVotes, notGuiltyVotes]
+        for (Object[] row : caseRepository.findAllVoteTallies()) {
+            last = journal.append(VoteRecord.baseline(((Number) row[0]).longValue(),
+                    row[1] != null ? ((Number) row[1]).longValue() : 0,
+                    row[2] != null ? ((Number) row[2]).longValue() : 0, now));
+            cases++;
+        }
+        // Durable in order, so the last one covers them all
+        last.join();
+        log.info("Vote journal: wrote baseline for {} case(s)", cases);
+        return cases;
+    }
+
+    /**
+     * Insert journaled votes missing from the votes table, one transaction per case
+     */
+    Replay replay() {
+        Replay replay = fold(journal::read);
+        if (replay.result().corrupt()) {
+            log.warn("Vote journal: stopped at a corrupt record after {} record(s); later records were ignored",
+                    replay.result().records());
+        }
+
+        long restored = 0;
+        long anonymous = 0;
+        long reset = 0;
+        int missing = 0;
+        for (Map.Entry<Long, CaseTally> entry : replay.cases().entrySet()) {
+            Long caseId = entry.getKey();
+            CaseTally tally = entry.getValue();
+            anonymous += tally.anonymousVotes;
+            if (tally.votes.isEmpty()) {
+                continue;
+            }
+
+            Restored result = transactionTemplate.execute(status -> restore(caseId, tally.votes.values()));
+            if (result == null) {
+                missing++;
+                continue;
+            }
+            reset += result.reset();
+            if (!result.voters().isEmpty()) {
+                // Tracked once committed, like live votes
+                voteService.trackRestoredVotes(caseId, result.voters());
+                caseCache.invalidate(caseId);
+                restored += result.voters().size();
+            }
+        }
+
+        log.info("Vote journal: replayed {} record(s) over {} case(s): {} missing vote(s) restored, " +
+                        "{} duplicate vote(s) skipped, {} uncommitted vote(s) skipped, {} vote(s) from before " +
+                        "a reset skipped, {} anonymous vote(s) not matchable, {} case(s) no longer exist",
+                replay.result().records(), replay.cases().size(), restored, replay.duplicates(),
+                replay.uncommitted(), reset, anonymous, missing);
+        return replay;
+    }
+
+    /**
+     * Offline check: {@code VoteJournalReplayer [journal-dir] [--cases]}
+     * Exits with status 1 if the journal contains a corrupt record.
+     */
+    public static void main(String[] args) {
+        Path directory = Path.of(args.length > 0 && !args[0].startsWith("--") ? args[0] : "data/vote-journal");
+        boolean listCases = Set.of(args).contains("--cases");
+
+        Replay replay = fold(consumer -> VoteJournal.read(directory, consumer));
+        long guilty = 0;
+        long notGuilty = 0;
+        for (CaseTally tally : replay.cases().values()) {
+            guilty += tally.guilty;
+            notGuilty += tally.notGuilty;
+        }
+
+        System.out.printf("Journal:    %s%n", directory.toAbsolutePath());
+        System.out.printf("Segments:   %d%n", replay.result().segments());
+        System.out.printf("Records:    %d%s%n", replay.result().records(),
+                replay.result().corrupt() ? " (stopped at a corrupt record)" : "");
+        System.out.printf("Cases:      %d%n", replay.cases().size());
+        System.out.printf("Votes:      %d guilty, %d not guilty%n", guilty, notGuilty);
+        System.out.printf("Duplicates: %d%n", replay.duplicates());
+        System.out.printf("Uncommitted: %d%n", replay.uncommitted());
+        if (listCases) {
+            System.out.println();
+            System.out.println("caseId\tguilty\tnotGuilty\tscore\tvoters");
+            replay.cases().forEach((caseId, tally) -> System.out.printf("%d\t%d\t%d\t%d\t%d%n",
+                    caseId, tally.guilty, tally.notGuilty, tally.guilty - tally.notGuilty, tally.votes.size()));
+        }
+        if (replay.result().corrupt()) {
+            System.exit(1);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    /**
+     * Insert a case's journaled votes newer than its last reset; the unique index skips those already stored
+     * @return the votes that were restored, null if the case no longer exists
+     */
+    private Restored restore(Long caseId, Collection<VoteRecord> votes) {
+        Case caseEntity = caseRepository.findById(caseId).orElse(null);
+        if (caseEntity == null) {
+            return null;
+        }
+        // Reset on any node, possibly after this node journaled the votes
+        long resetAt = caseEntity.getVotesResetAt() != null
+                ? Timestamp.valueOf(caseEntity.getVotesResetAt()).getTime()
+                : Long.MIN_VALUE;
+        List<VoteRecord> current = new ArrayList<>(votes.size());
+        List<VoteWriter.NewVote> newVotes = new ArrayList<>(votes.size());
+        for (VoteRecord vote : votes) {
+            if (vote.timestampMillis() > resetAt) {
+                current.add(vote);
+                newVotes.add(new VoteWriter.NewVote(caseId, toVoterKind(vote.voterKind()),
+                        HashUtils.toHex(vote.voterHash()), vote.guilty()));
+            }
+        }
+        List<VoteWriter.Outcome> outcomes = voteWriter.insertAll(newVotes);
+
+        List<String> restored = new ArrayList<>();
+        int guilty = 0;
+        int notGuilty = 0;
+        int i = 0;
+        for (VoteRecord vote : current) {
+            if (outcomes.get(i++) == VoteWriter.Outcome.INSERTED) {
+                restored.add(vote.voterRef());
+                if (vote.guilty()) {
+                    guilty++;
+                } else {
+                    notGuilty++;
+                }
+            }
+        }
+        if (!restored.isEmpty()) {
+            voteTallyShards.add(caseId, guilty, notGuilty);
+        }
+        return new Restored(restored, votes.size() - current.size());
+    }
+
+    private static Vote.VoterKind toVoterKind(VoteRecord.VoterKind voterKind) {
+        return switch (voterKind) {
+            case EMAIL -> Vote.VoterKind.EMAIL;
+            case IP -> Vote.VoterKind.IP;
+            case NONE -> Vote.VoterKind.ANONYMOUS;
+        };
+    }
+
+    static Replay fold(JournalReader reader) {
+        Map<Long, CaseTally> cases = new TreeMap<>();
+        long[] duplicates = new long[1];
+
+        VoteJournal.ReadResult result = reader.read(record -> {
+            switch (record.type()) {
+                case BASELINE -> {
+                    CaseTally baseline = new CaseTally(record.baselineGuilty(), record.baselineNotGuilty());
+                    // Votes not committed when the baseline was taken are not in it; their COMMIT follows
+                    CaseTally previous = cases.put(record.caseId(), baseline);
+                    if (previous != null) {
+                        baseline.pending.putAll(previous.pending);
+                        baseline.pendingAnonymous[0] = previous.pendingAnonymous[0];
+                        baseline.pendingAnonymous[1] = previous.pendingAnonymous[1];
+                    }
+                }
+                case RESET -> cases.put(record.caseId(), new CaseTally(0, 0));
+                case VOTE -> {
+                    CaseTally tally = cases.computeIfAbsent(record.caseId(), id -> new CaseTally(0, 0));
+                    String voter = record.voterRef();
+                    if (voter == null) {
+                        tally.pendingAnonymous[record.guilty() ? 0 : 1]++;
+                    } else if (tally.votes.containsKey(voter)) {
+                        duplicates[0]++;
+                    } else {
+                        // Counted once its COMMIT follows
+                        tally.pending.put(voter, record);
+                    }
+                }
+                case COMMIT -> {
+                    CaseTally tally = cases.get(record.caseId());
+                    if (tally == null) {
+                        return;
+                    }
+                    String voter = record.voterRef();
+                    if (voter == null) {
+                        if (tally.pendingAnonymous[record.guilty() ? 0 : 1] == 0) {
+                            return;
+                        }
+                        tally.pendingAnonymous[record.guilty() ? 0 : 1]--;
+                        tally.anonymousVotes++;
+                    } else {
+                        VoteRecord vote = tally.pending.remove(voter);
+                        if (vote == null) {
+                            return;
+                        }
+                        tally.votes.put(voter, vote);
+                    }
+                    if (record.guilty()) {
+                        tally.guilty++;
+                    } else {
+                        tally.notGuilty++;
+                    }
+                }
+            }
+        });
+
+        long uncommitted = 0;
+        for (CaseTally tally : cases.values()) {
+            uncommitted += tally.pending.size() + tally.pendingAnonymous[0] + tally.pendingAnonymous[1];
+        }
+        return new Replay(result, cases, duplicates[0], uncommitted);
+    }
+
+    @FunctionalInterface
+    interface JournalReader {
+        VoteJournal.ReadResult read(Consumer<VoteRecord> consumer);
+    }
+
+    // Running tally for one case since its last BASELINE or RESET
+    static final class CaseTally {
+        long guilty;
+        long notGuilty;
+        long anonymousVotes;
+        // Current committed vote per identified voter, in journal order
+        final Map<String, VoteRecord> votes = new LinkedHashMap<>();
+        // Journaled votes without a COMMIT yet: identified by voter, anonymous as [guilty, notGuilty]
+        final Map<String, VoteRecord> pending = new HashMap<>();
+        final long[] pendingAnonymous = new long[2];
+
+        CaseTally(long guilty, long notGuilty) {
+            this.guilty = guilty;
+            this.notGuilty = notGuilty;
+        }
+    }
+
+    /**
+     * Result of folding the journal
+     */
+    record Replay(VoteJournal.ReadResult result, Map<Long, CaseTally> cases, long duplicates, long uncommitted) {
+    }
+
+    /**
+     * Voter references restored for one case, and the journaled votes skipped as older than its last reset
+     */
+    record Restored(List<String> voters, int reset) {
+    }
+}
@@ -0,0 +1,245 @@
+package com.unveil.journal;
+
+import com.unveil.util.HashUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+
+/**
+ * One fixed-size (64 byte) vote journal record.
+ *
+ * <pre>
+ *  0  int    magic "VOTE"
+ *  4  byte   type        1 vote, 2 reset, 3 baseline, 4 commit
+ *  5  byte   voter kind  0 none, 1 email, 2 ip
+ *  6  byte   vote type   0 none, 1 guilty, 2 not guilty
+ *  7  byte   reserved
+ *  8  long   case id
+ * 16  long   timestamp (epoch millis)
+ * 24  32B    vote, commit: SHA-256 of the voter identifier
+ *            baseline: guilty count (long), not guilty count (long)
+ * 56  int    reserved
+ * 60  int    CRC32C of bytes 0-59
+ * </pre>
+ *
+ * Baseline records carry the tallies that existed before the journal was
+ * started, so replay = baseline + votes, with a reset clearing a case.
+ * A vote is written before its transaction commits; a commit record with
+ * the same case, voter and verdict follows once it has committed, so votes
+ * whose transaction rolled back are never replayed.
+ */
+public record VoteRecord(Type type, long caseId, VoterKind voterKind, boolean guilty,
+                         byte[] voterHash, long timestampMillis, long baselineGuilty, long baselineNotGuilty) {
+
+    public static final int SIZE = 64;
+    public static final int HASH_BYTES = 32;
+
+    private static final int MAGIC = 0x564F5445;
+    private static final int CRC_OFFSET = 60;
+
+    public enum Type {
+        VOTE(1), RESET(2), BASELINE(3), COMMIT(4);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum VoterKind {
+        NONE(0), EMAIL(1), IP(2);
+
+        final byte code;
+
+        VoterKind(int code) {
+            this.code = (byte) code;
+        }
+
+        static VoterKind of(byte code) {
+            for (VoterKind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Kind of a voter identifier ("email:..." / "ip:...")
+         */
+        public static VoterKind ofIdentifier(String voterIdentifier) {
+            if (voterIdentifier == null) {
+                return NONE;
+            }
+            return voterIdentifier.startsWith("email:") ? EMAIL : IP;
+        }
+
+        public String prefix() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * SHA-256 of a voter identifier without its kind prefix
+     */
+    public static byte[] hashVoter(String voterIdentifier) {
+        int colon = voterIdentifier.indexOf(':');
+        String value = colon >= 0 && (voterIdentifier.startsWith("email:") || voterIdentifier.startsWith("ip:"))
+                ? voterIdentifier.substring(colon + 1)
+                : voterIdentifier;
+        return HashUtils.sha256(value);
+    }
+
+    /**
+     * Stable pseudonymous voter reference: "email:{hex}" or "ip:{hex}"
+     */
+    public static String voterRef(VoterKind voterKind, byte[] voterHash) {
+        return voterKind.prefix() + ":" + HashUtils.toHex(voterHash);
+    }
+
+    /**
+     * Voter reference of a vote or commit record, null for anonymous (bulk) votes and other record types
+     */
+    public String voterRef() {
+        return (type == Type.VOTE || type == Type.COMMIT) && voterKind != VoterKind.NONE
+                ? voterRef(voterKind, voterHash) : null;
+    }
+
+    public static VoteRecord vote(long caseId, VoterKind voterKind, byte[] voterHash, boolean guilty, long timestampMillis) {
+        return new VoteRecord(Type.VOTE, caseId, voterKind, guilty, voterHash, timestampMillis, 0, 0);
+    }
+
+    /**
+     * Marks a vote's transaction as committed
+     */
+    public static VoteRecord commit(VoteRecord vote, long timestampMillis) {
+        return new VoteRecord(Type.COMMIT, vote.caseId, vote.voterKind, vote.guilty, vote.voterHash, timestampMillis,
+                0, 0);
+    }
+
+    public static VoteRecord reset(long caseId, long timestampMillis) {
+        return new VoteRecord(Type.RESET, caseId, VoterKind.NONE, false, null, timestampMillis, 0, 0);
+    }
+
+    public static VoteRecord baseline(long caseId, long guiltyVotes, long notGuiltyVotes, long timestampMillis) {
+        return new VoteRecord(Type.BASELINE, caseId, VoterKind.NONE, false, null, timestampMillis,
+                guiltyVotes, notGuiltyVotes);
+    }
+
+    // Records compare by value, including the voter hash bytes
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof VoteRecord record)) {
+            return false;
+        }
+        return type == record.type && caseId == record.caseId && voterKind == record.voterKind
+                && guilty == record.guilty && timestampMillis == record.timestampMillis
+                && baselineGuilty == record.baselineGuilty && baselineNotGuilty == record.baselineNotGuilty
+                && Arrays.equals(voterHash, record.voterHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(type, caseId, voterKind, guilty, timestampMillis, baselineGuilty, baselineNotGuilty)
+                + Arrays.hashCode(voterHash);
+    }
+
+    @Override
+    public String toString() {
+        return "VoteRecord[type=" + type + ", caseId=" + caseId + ", voter=" + voterRef()
+                + ", guilty=" + guilty + ", timestampMillis=" + timestampMillis
+                + ", baselineGuilty=" + baselineGuilty + ", baselineNotGuilty=" + baselineNotGuilty + "]";
+    }
+
+    /**
+     * Encode into {@code scratch} (64 bytes) including the CRC
+     */
+    void encode(byte[] scratch, CRC32C crc) {
+        ByteBuffer buffer = ByteBuffer.wrap(scratch);
+        buffer.putInt(0, MAGIC);
+        buffer.put(4, type.code);
+        buffer.put(5, voterKind.code);
+        buffer.put(6, type == Type.VOTE || type == Type.COMMIT ? (byte) (guilty ? 1 : 2) : 0);
+        buffer.put(7, (byte) 0);
+        buffer.putLong(8, caseId);
+        buffer.putLong(16, timestampMillis);
+        if (type == Type.BASELINE) {
+            buffer.putLong(24, baselineGuilty);
+            buffer.putLong(32, baselineNotGuilty);
+            buffer.put(40, new byte[16]);
+        } else if (voterHash != null) {
+            buffer.put(24, voterHash, 0, HASH_BYTES);
+        } else {
+            buffer.put(24, new byte[HASH_BYTES]);
+        }
+        buffer.putInt(56, 0);
+
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        buffer.putInt(CRC_OFFSET, (int) crc.getValue());
+    }
+
+    /**
+     * Decode the record at {@code offset}
+     * @return null for an unwritten slot, a torn write or a checksum mismatch
+     */
+    static VoteRecord decode(ByteBuffer buffer, int offset, byte[] scratch, CRC32C crc) {
+        buffer.get(offset, scratch, 0, SIZE);
+        ByteBuffer record = ByteBuffer.wrap(scratch);
+        if (record.getInt(0) != MAGIC) {
+            return null;
+        }
+
+        crc.reset();
+        crc.update(scratch, 0, CRC_OFFSET);
+        if ((int) crc.getValue() != record.getInt(CRC_OFFSET)) {
+            return null;
+        }
+
+        Type type = Type.of(record.get(4));
+        VoterKind voterKind = VoterKind.of(record.get(5));
+        if (type == null || voterKind == null) {
+            return null;
+        }
+
+        long caseId = record.getLong(8);
+        long timestamp = record.getLong(16);
+        return switch (type) {
+            case VOTE, COMMIT -> {
+                byte[] hash = new byte[HASH_BYTES];
+                record.get(24, hash);
+                yield new VoteRecord(type, caseId, voterKind, record.get(6) == 1, hash, timestamp, 0, 0);
+            }
+            case RESET -> reset(caseId, timestamp);
+            case BASELINE -> baseline(caseId, record.getLong(24), record.getLong(32), timestamp);
+        };
+    }
+
+    /**
+     * True if the slot at {@code offset} was never written
+     */
+    static boolean isEmpty(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < SIZE; i += 8) {
+            if (buffer.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.unveil.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unveil.service.ScamTypeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+/**
+ * Non-blocking read API (/api/v2) on its own Reactor Netty port, with its
+ * own R2DBC pool on the application database. Enabled with
+ * app.reactive.enabled; the servlet API (/api/v1) is unaffected.
+ *
+ * The R2DBC URL is derived from spring.datasource.url unless
+ * app.reactive.r2dbc-url is set. Boot's R2DBC auto-configuration is
+ * excluded in application.yaml: its connection factory would need its own
+ * URL, and its transaction manager would replace the JPA one.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "app.reactive.enabled", havingValue = "true")
+public class ReactiveApiConfig {
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool reactiveConnectionPool(DataSourceProperties dataSourceProperties,
+                                          @Value("${app.reactive.r2dbc-url:}") String r2dbcUrl,
+                                          @Value("${app.reactive.pool.max-size:10}") int maxSize) {
+        String url = r2dbcUrl.isBlank() ? toR2dbcUrl(dataSourceProperties.determineUrl()) : r2dbcUrl;
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (dataSourceProperties.determineUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword());
+        }
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("unveil-r2dbc")
+                .initialSize(Math.min(2, maxSize))
+                .maxSize(maxSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .maxLifeTime(Duration.ofMinutes(30))
+                .build());
+    }
+
+    @Bean
+    ReactiveCaseRepository reactiveCaseRepository(ConnectionPool reactiveConnectionPool,
+                                                  @Value("${app.reactive.fetch-size:256}") int fetchSize) {
+        return new ReactiveCaseRepository(DatabaseClient.create(reactiveConnectionPool), fetchSize);
+    }
+
+    @Bean
+    ReactiveReadHandler reactiveReadHandler(ReactiveCaseRepository reactiveCaseRepository,
+                                            ScamTypeService scamTypeService, MeterRegistry meterRegistry,
+                                            @Value("${app.reactive.stream.max-rows:100000}") int maxStreamRows) {
+        return new ReactiveReadHandler(reactiveCaseRepository, scamTypeService, meterRegistry, maxStreamRows);
+    }
+
+    @Bean
+    ReactiveApiServer reactiveApiServer(ReactiveReadHandler handler, ObjectMapper objectMapper,
+                                        @Value("${app.reactive.address:0.0.0.0}") String address,
+                                        @Value("${app.reactive.port:8081}") int port) {
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/api/v2/search", handler::search)
+                .GET("/api/v2/case/{id}/verdict", handler::verdict)
+                .build();
+
+        // Same JSON as the servlet API
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+        return new ReactiveApiServer(httpHandler, address, port);
+    }
+
+    // jdbc:postgresql://host:5432/db?sslmode=require -> r2dbc:postgresql://host:5432/db?sslMode=require
+    static String toR2dbcUrl(String jdbcUrl) {
+        if (jdbcUrl == null || !jdbcUrl.matches("^(jdbc:)?postgresql://.+")) {
+            throw new IllegalStateException("Cannot derive an R2DBC URL from '" + jdbcUrl
+                    + "', set app.reactive.r2dbc-url");
+        }
+        String url = jdbcUrl.startsWith("jdbc:") ? jdbcUrl.substring("jdbc:".length()) : jdbcUrl;
+        return "r2dbc:" + url.replace("sslmode=", "sslMode=");
+    }
+}
@@ -0,0 +1,201 @@
+package com.unveil.reactive;
+
+import com.unveil.entity.Case;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Non-blocking (R2DBC) counterparts of the CaseRepository read queries used
+ * by search and verdict lookups. Same SQL predicates and ordering as the
+ * JPA queries, so the same indexes apply; rows are mapped onto detached
+ * Case instances, which serialize exactly like the v1 responses.
+ */
+public class ReactiveCaseRepository {
+
+    private static final String COLUMNS = "c.id, c.name, c.email, c.phone, c.company, c.description, " +
+            "c.reported_by, c.actions, c.scam_type_id, c.verdict_score, c.total_votes, c.guilty_votes, " +
+            "c.not_guilty_votes, c.created_at, c.last_voted_at, c.verdict_sign, c.verdict_wilson, " +
+            "c.controversy_score, c.email_domain, c.phone_digits";
+    // Votes still in tally shards (VoteTallyShards), read in the same statement as the case row
+    private static final String FIND_CURRENT = "SELECT " + COLUMNS + ", s.guilty AS pending_guilty, " +
+            "s.not_guilty AS pending_not_guilty, s.voted_at AS pending_voted_at FROM cases c LEFT JOIN " +
+            "(SELECT case_id, SUM(guilty_votes) AS guilty, SUM(not_guilty_votes) AS not_guilty, " +
+            "MAX(last_voted_at) AS voted_at FROM case_vote_shards WHERE case_id = :id GROUP BY case_id) s " +
+            "ON s.case_id = c.id WHERE c.id = :id";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ReactiveCaseRepository(DatabaseClient databaseClient, int fetchSize) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Mirrors CaseRepository.findById, with the current tallies of VoteTallyShards.withCurrentTally
+     */
+    public Mono<Case> findById(Long id) {
+        return databaseClient.sql(FIND_CURRENT)
+                .bind("id", id)
+                .map(row -> {
+                    Case caseEntity = toCase(row);
+                    Long pendingGuilty = row.get("pending_guilty", Long.class);
+                    if (pendingGuilty != null) {
+                        int guilty = caseEntity.getGuiltyVotes() + pendingGuilty.intValue();
+                        int notGuilty = caseEntity.getNotGuiltyVotes()
+                                + row.get("pending_not_guilty", Long.class).intValue();
+                        caseEntity.setGuiltyVotes(guilty);
+                        caseEntity.setNotGuiltyVotes(notGuilty);
+                        caseEntity.setTotalVotes(guilty + notGuilty);
+                        caseEntity.setVerdictScore(guilty - notGuilty);
+                        caseEntity.setLastVotedAt(row.get("pending_voted_at", LocalDateTime.class));
+                        caseEntity.updateRanking();
+                    }
+                    return caseEntity;
+                })
+                .one();
+    }
+
+    /**
+     * One page of matches, newest first
+     */
+    public Flux<Case> findPage(CaseQuery query, long offset, int limit) {
+        return select(query, "LIMIT :limit OFFSET :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveCaseRepository::toCase)
+                .all();
+    }
+
+    /**
+     * Up to {@code limit} matches, newest first, read from the database in
+     * batches of fetch-size rows as the subscriber requests them
+     */
+    public Flux<Case> stream(CaseQuery query, int limit) {
+        return select(query, "LIMIT :limit")
+                .bind("limit", limit)
+                .filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveCaseRepository::toCase)
+                .all();
+    }
+
+    public Mono<Long> count(CaseQuery query) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT count(*) FROM cases c WHERE " + query.where());
+        for (Map.Entry<String, Object> bind : query.binds().entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec.map(row -> row.get(0, Long.class)).one();
+    }
+
+    // ============ HELPER METHODS ============
+
+    private DatabaseClient.GenericExecuteSpec select(CaseQuery query, String limit) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("SELECT " + COLUMNS + " FROM cases c WHERE "
+                + query.where() + " ORDER BY " + query.orderBy() + " " + limit);
+        for (Map.Entry<String, Object> bind : query.binds().entrySet()) {
+            spec = spec.bind(bind.getKey(), bind.getValue());
+        }
+        return spec;
+    }
+
+    private static Case toCase(Readable row) {
+        Case caseEntity = new Case();
+        caseEntity.setId(row.get("id", Long.class));
+        caseEntity.setName(row.get("name", String.class));
+        caseEntity.setEmail(row.get("email", String.class));
+        caseEntity.setPhone(row.get("phone", String.class));
+        caseEntity.setCompany(row.get("company", String.class));
+        caseEntity.setDescription(row.get("description", String.class));
+        caseEntity.setReportedBy(row.get("reported_by", String.class));
+        caseEntity.setActions(row.get("actions", String.class));
+        caseEntity.setScamTypeId(row.get("scam_type_id", Integer.class));
+        caseEntity.setVerdictScore(row.get("verdict_score", Integer.class));
+        caseEntity.setTotalVotes(row.get("total_votes", Integer.class));
+        caseEntity.setGuiltyVotes(row.get("guilty_votes", Integer.class));
+        caseEntity.setNotGuiltyVotes(row.get("not_guilty_votes", Integer.class));
+        caseEntity.setCreatedAt(row.get("created_at", LocalDateTime.class));
+        caseEntity.setLastVotedAt(row.get("last_voted_at", LocalDateTime.class));
+        caseEntity.setVerdictSign(row.get("verdict_sign", Integer.class));
+        caseEntity.setVerdictWilson(row.get("verdict_wilson", Double.class));
+        caseEntity.setControversyScore(row.get("controversy_score", Double.class));
+        caseEntity.setEmailDomain(row.get("email_domain", String.class));
+        caseEntity.setPhoneDigits(row.get("phone_digits", String.class));
+        return caseEntity;
+    }
+
+    /**
+     * WHERE clause, ordering and named parameters of one search
+     */
+    public record CaseQuery(String where, String orderBy, Map<String, Object> binds) {
+
+        private static final String NEWEST_FIRST = "c.created_at DESC, c.id DESC";
+
+        /**
+         * Mirrors CaseRepository.findByNameContainingIgnoreCase (idx_case_name_trgm)
+         */
+        public static CaseQuery byName(String name) {
+            return new CaseQuery("LOWER(c.name) LIKE LOWER(:pattern) ESCAPE '\\'", NEWEST_FIRST,
+                    Map.of("pattern", containsPattern(name)));
+        }
+
+        /**
+         * Mirrors CaseRepository.findByEmailContainingIgnoreCase
+         */
+        public static CaseQuery byEmail(String email) {
+            return new CaseQuery("UPPER(c.email) LIKE UPPER(:pattern) ESCAPE '\\'", NEWEST_FIRST,
+                    Map.of("pattern", containsPattern(email)));
+        }
+
+        /**
+         * Mirrors CaseRepository.findByPhoneContainingIgnoreCase
+         */
+        public static CaseQuery byPhone(String phone) {
+            return new CaseQuery("UPPER(c.phone) LIKE UPPER(:pattern) ESCAPE '\\'", NEWEST_FIRST,
+                    Map.of("pattern", containsPattern(phone)));
+        }
+
+        /**
+         * Mirrors CaseRepository.findByCompanyContainingIgnoreCase (idx_case_company_trgm)
+         */
+        public static CaseQuery byCompany(String company) {
+            return new CaseQuery("LOWER(c.company) LIKE LOWER(:pattern) ESCAPE '\\'", NEWEST_FIRST,
+                    Map.of("pattern", containsPattern(company)));
+        }
+
+        /**
+         * Mirrors CaseRepository.findByScamTypeId (idx_case_scam_type)
+         */
+        public static CaseQuery byScamType(Integer scamTypeId) {
+            return new CaseQuery("c.scam_type_id = :scamTypeId", NEWEST_FIRST, Map.of("scamTypeId", scamTypeId));
+        }
+
+        /**
+         * Mirrors CaseRepository.findByEmailDomain (idx_case_email_domain_created)
+         */
+        public static CaseQuery byEmailDomain(String domain) {
+            return new CaseQuery("c.email_domain = :domain", NEWEST_FIRST, Map.of("domain", domain));
+        }
+
+        /**
+         * Mirrors CaseRepository.searchCases
+         */
+        public static CaseQuery search(String term) {
+            return new CaseQuery("LOWER(c.name) LIKE LOWER(CONCAT('%', :value, '%')) OR " +
+                    "LOWER(c.email) LIKE LOWER(CONCAT('%', :value, '%')) OR " +
+                    "c.phone LIKE CONCAT('%', :value, '%') OR " +
+                    "LOWER(c.company) LIKE LOWER(CONCAT('%', :value, '%')) OR " +
+                    "LOWER(c.actions) LIKE LOWER(CONCAT('%', :value, '%'))",
+                    NEWEST_FIRST, Map.of("value", term));
+        }
+
+        // Like the derived "Containing" queries, LIKE wildcards in the value match literally
+        private static String containsPattern(String value) {
+            return "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.unveil.reactive;
+
+import com.unveil.entity.Case;
+import com.unveil.reactive.ReactiveCaseRepository.CaseQuery;
+import com.unveil.service.ScamTypeService;
+import com.unveil.util.ContactKeys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Handlers of the non-blocking read API (/api/v2), served by ReactiveApiServer.
+ *
+ * GET /api/v2/search?filter=name&value=John&page=0&size=20
+ *   Same filters, paging and response as /api/v1/search (contains mode only)
+ * GET /api/v2/search?filter=domain&value=gmail.com&limit=50000  (Accept: application/x-ndjson)
+ *   Every match up to limit, newest first, one case per line; rows are read
+ *   from the database only as fast as the client consumes them
+ * GET /api/v2/case/{id}/verdict
+ *   Same response as /api/v1/case/{id}/verdict
+ *
+ * Reads go straight to the database (the case cache is blocking and stays
+ * with v1).
+ */
+public class ReactiveReadHandler {
+
+    private static final List<String> SUPPORTED_FILTERS =
+            List.of("name", "email", "phone", "company", "actions", "domain", "all");
+
+    private final ReactiveCaseRepository repository;
+    private final ScamTypeService scamTypeService;
+    private final MeterRegistry meterRegistry;
+    private final int maxStreamRows;
+
+    public ReactiveReadHandler(ReactiveCaseRepository repository, ScamTypeService scamTypeService,
+                               MeterRegistry meterRegistry, int maxStreamRows) {
+        this.repository = repository;
+        this.scamTypeService = scamTypeService;
+        this.meterRegistry = meterRegistry;
+        this.maxStreamRows = maxStreamRows;
+    }
+
+    public Mono<ServerResponse> search(ServerRequest request) {
+        String filter = request.queryParam("filter").orElse("");
+        String value = request.queryParam("value").orElse("").trim();
+        String mode = request.queryParam("mode").orElse("contains");
+
+        Optional<CaseQuery> query;
+        try {
+            if (!"contains".equalsIgnoreCase(mode.trim())) {
+                throw new IllegalArgumentException("Unsupported mode: " + mode + ". Supported modes: contains");
+            }
+            query = toQuery(filter.toLowerCase().trim(), value);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            errorResponse.put("filter", filter);
+            errorResponse.put("value", value);
+            errorResponse.put("supportedFilters", SUPPORTED_FILTERS);
+            return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(errorResponse);
+        }
+
+        if (request.headers().accept().contains(MediaType.APPLICATION_NDJSON)) {
+            int limit = Math.min(intParam(request, "limit", 1000), maxStreamRows);
+            return ServerResponse.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(query.map(q -> repository.stream(q, Math.max(limit, 1)))
+                            .orElseGet(Flux::empty), Case.class);
+        }
+
+        int page = Math.max(intParam(request, "page", 0), 0);
+        int requestedSize = intParam(request, "size", 20);
+        int size = requestedSize > 100 ? 100 : requestedSize < 1 ? 20 : requestedSize;
+
+        Mono<List<Case>> results = query.map(q -> repository.findPage(q, (long) page * size, size).collectList())
+                .orElseGet(() -> Mono.just(List.of()));
+        Mono<Long> total = query.map(repository::count).orElseGet(() -> Mono.just(0L));
+
+        return timed("search", Mono.zip(results, total).flatMap(found -> {
+            long totalElements = found.getT2();
+            int totalPages = (int) ((totalElements + size - 1) / size);
+
+            Map<String, Object> pagination = new HashMap<>();
+            pagination.put("currentPage", page);
+            pagination.put("pageSize", size);
+            pagination.put("totalPages", totalPages);
+            pagination.put("totalElements", totalElements);
+            pagination.put("hasNext", page + 1 < totalPages);
+            pagination.put("hasPrevious", page > 0);
+            pagination.put("isFirst", page == 0);
+            pagination.put("isLast", page + 1 >= totalPages);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("filter", filter);
+            response.put("value", value);
+            response.put("mode", mode);
+            response.put("results", found.getT1());
+            response.put("pagination", pagination);
+            response.put("found", totalElements > 0);
+            response.put("message", totalElements == 0
+                    ? String.format("No results found for %s: %s", filter, value)
+                    : totalElements == 1
+                    ? String.format("1 result found for %s: %s", filter, value)
+                    : String.format("%d results found for %s: %s", totalElements, filter, value));
+            return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(response);
+        }));
+    }
+
+    public Mono<ServerResponse> verdict(ServerRequest request) {
+        Long id;
+        try {
+            id = Long.valueOf(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            return ServerResponse.badRequest().build();
+        }
+
+        return timed("verdict", repository.findById(id)
+                .flatMap(caseEntity -> {
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("caseId", id);
+                    response.put("verdict", caseEntity.getVerdictSummary());
+                    return ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(response);
+                })
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.notFound().build())));
+    }
+
+    // ============ HELPER METHODS ============
+
+    // Same validation as SearchService; empty when nothing can match (unknown scam type)
+    private Optional<CaseQuery> toQuery(String filter, String value) {
+        if (!SUPPORTED_FILTERS.contains(filter)) {
+            throw new IllegalArgumentException("Unsupported filter: " + filter +
+                    ". Supported filters: name, email, phone, company, actions, domain, all");
+        }
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Search value cannot be empty");
+        }
+        return switch (filter) {
+            case "name" -> Optional.of(CaseQuery.byName(value));
+            case "email" -> {
+                if (!value.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$")) {
+                    throw new IllegalArgumentException("Invalid email format: " + value);
+                }
+                yield Optional.of(CaseQuery.byEmail(value));
+            }
+            case "phone" -> Optional.of(CaseQuery.byPhone(value));
+            case "company" -> Optional.of(CaseQuery.byCompany(value));
+            case "actions" -> scamTypeService.findId(value).map(CaseQuery::byScamType);
+            case "domain" -> {
+                String domain = ContactKeys.domain(value);
+                if (domain == null) {
+                    throw new IllegalArgumentException("Invalid domain: " + value);
+                }
+                yield Optional.of(CaseQuery.byEmailDomain(domain));
+            }
+            default -> Optional.of(CaseQuery.search(value));
+        };
+    }
+
+    // Time from subscription until the response is ready (queries done, body not yet written)
+    private Mono<ServerResponse> timed(String route, Mono<ServerResponse> response) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response.doFinally(signalType -> sample.stop(Timer.builder("unveil.reactive.requests")
+                    .description("Non-blocking read API latency")
+                    .tag("route", route)
+                    .tag("outcome", switch (signalType) {
+                        case ON_COMPLETE -> "ok";
+                        case CANCEL -> "cancelled";
+                        default -> "error";
+                    })
+                    .register(meterRegistry)));
+        });
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        try {
+            return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
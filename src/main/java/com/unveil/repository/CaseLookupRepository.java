@@ -0,0 +1,23 @@
+package com.unveil.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batch lookup of cases by normalized contact keys (see ContactKeys),
+ * mixed into CaseRepository.
+ */
+public interface CaseLookupRepository {
+
+    String EMAIL = "email";
+    String PHONE = "phone";
+    String DOMAIN = "domain";
+
+    /**
+     * Matching cases per key, in one query over whichever key lists are non-empty
+     * Rows of [kind, key, caseCount, guiltyVotes, notGuiltyVotes, verdictScore] for matched keys only;
+     * kind is EMAIL, PHONE or DOMAIN
+     */
+    List<Object[]> summarizeByContactKeys(Collection<String> emails, Collection<String> phoneDigits,
+                                          Collection<String> domains);
+}
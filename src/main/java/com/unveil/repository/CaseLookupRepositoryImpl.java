@@ -0,0 +1,60 @@
+package com.unveil.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds the lookup as a UNION ALL of one grouped branch per non-empty key
+ * list (an empty IN list is not valid SQL). Each branch is an IN (...)
+ * probe of its index: lower(email), phone_digits or email_domain.
+ */
+class CaseLookupRepositoryImpl implements CaseLookupRepository {
+
+    private static final String SUMMARY = "COUNT(c), SUM(c.guiltyVotes), SUM(c.notGuiltyVotes), SUM(c.verdictScore)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Object[]> summarizeByContactKeys(Collection<String> emails, Collection<String> phoneDigits,
+                                                 Collection<String> domains) {
+        List<String> branches = new ArrayList<>();
+        if (!emails.isEmpty()) {
+            branches.add(branch(EMAIL, "lower(c.email)", "emails"));
+        }
+        if (!phoneDigits.isEmpty()) {
+            branches.add(branch(PHONE, "c.phoneDigits", "phones"));
+        }
+        if (!domains.isEmpty()) {
+            branches.add(branch(DOMAIN, "c.emailDomain", "domains"));
+        }
+        if (branches.isEmpty()) {
+            return List.of();
+        }
+
+        Query query = entityManager.createQuery(String.join(" UNION ALL ", branches));
+        if (!emails.isEmpty()) {
+            query.setParameter("emails", emails);
+        }
+        if (!phoneDigits.isEmpty()) {
+            query.setParameter("phones", phoneDigits);
+        }
+        if (!domains.isEmpty()) {
+            query.setParameter("domains", domains);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query.getResultList();
+        return rows;
+    }
+
+    private String branch(String kind, String keyExpression, String parameter) {
+        return "SELECT '" + kind + "', " + keyExpression + ", " + SUMMARY + " FROM Case c " +
+                "WHERE " + keyExpression + " IN :" + parameter + " GROUP BY " + keyExpression;
+    }
+}
@@ -4,11 +4,14 @@ import com.unveil.entity.Case;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface CaseRepository extends JpaRepository<Case, Long> {
+public interface CaseRepository extends JpaRepository<Case, Long>, CaseLookupRepository {
 
     /**
      * Search with pagination for better performance
@@ -33,24 +36,108 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
 
     /**
      * Find by name containing (case insensitive)
+     * Uses LOWER(...) so the idx_case_name_trgm expression index applies on PostgreSQL;
+     * %, _ and \ in the name match literally, as in the derived Containing queries
      */
-    Page<Case> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("SELECT c FROM Case c WHERE LOWER(c.name) LIKE LOWER(CONCAT('%', :#{escape(#name)}, '%')) ESCAPE '\\'")
+    Page<Case> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
 
     /**
      * Find by company containing (case insensitive)
+     * Uses LOWER(...) so the idx_case_company_trgm expression index applies on PostgreSQL;
+     * %, _ and \ in the company match literally, as in the derived Containing queries
+     */
+    @Query("SELECT c FROM Case c WHERE LOWER(c.company) LIKE LOWER(CONCAT('%', :#{escape(#company)}, '%')) " +
+            "ESCAPE '\\'")
+    Page<Case> findByCompanyContainingIgnoreCase(@Param("company") String company, Pageable pageable);
+
+    // ============ FUZZY (TRIGRAM) QUERIES ============
+
+    /**
+     * Set the pg_trgm similarity threshold for the current transaction only
+     */
+    @Query(value = "SELECT set_config('pg_trgm.similarity_threshold', :threshold, true)", nativeQuery = true)
+    String applySimilarityThreshold(@Param("threshold") String threshold);
+
+    /**
+     * Find by name similarity, best match first (PostgreSQL pg_trgm, uses idx_case_name_trgm)
+     */
+    @Query(value = "SELECT * FROM cases c WHERE lower(c.name) % lower(:value) " +
+            "ORDER BY similarity(lower(c.name), lower(:value)) DESC, c.created_at DESC",
+            countQuery = "SELECT COUNT(*) FROM cases c WHERE lower(c.name) % lower(:value)",
+            nativeQuery = true)
+    Page<Case> findByNameSimilarTo(@Param("value") String value, Pageable pageable);
+
+    /**
+     * Find by company similarity, best match first (PostgreSQL pg_trgm, uses idx_case_company_trgm)
+     */
+    @Query(value = "SELECT * FROM cases c WHERE lower(c.company) % lower(:value) " +
+            "ORDER BY similarity(lower(c.company), lower(:value)) DESC, c.created_at DESC",
+            countQuery = "SELECT COUNT(*) FROM cases c WHERE lower(c.company) % lower(:value)",
+            nativeQuery = true)
+    Page<Case> findByCompanySimilarTo(@Param("value") String value, Pageable pageable);
+
+    /**
+     * Fuzzy fallback candidates by name prefix (plain LIKE 'x%' can use idx_case_name)
+     */
+    @Query("SELECT c FROM Case c WHERE c.name LIKE :asTyped ESCAPE '\\' OR c.name LIKE :capitalized ESCAPE '\\' " +
+            "OR c.name LIKE :lower ESCAPE '\\'")
+    List<Case> findNamePrefixCandidates(@Param("asTyped") String asTyped,
+                                        @Param("capitalized") String capitalized,
+                                        @Param("lower") String lower,
+                                        Pageable limit);
+
+    /**
+     * Fuzzy fallback candidates by company prefix
+     */
+    @Query("SELECT c FROM Case c WHERE c.company LIKE :asTyped ESCAPE '\\' " +
+            "OR c.company LIKE :capitalized ESCAPE '\\' OR c.company LIKE :lower ESCAPE '\\'")
+    List<Case> findCompanyPrefixCandidates(@Param("asTyped") String asTyped,
+                                           @Param("capitalized") String capitalized,
+                                           @Param("lower") String lower,
+                                           Pageable limit);
+
+    /**
+     * Find by scam type id (equality on idx_case_scam_type)
+     */
+    Page<Case> findByScamTypeId(Integer scamTypeId, Pageable pageable);
+
+    /**
+     * Find by normalized email domain (equality on idx_case_email_domain_created)
+     */
+    Page<Case> findByEmailDomain(String emailDomain, Pageable pageable);
+
+    // ============ SCAM TYPE DICTIONARY MAINTENANCE ============
+
+    /**
+     * Distinct actions not yet linked to a scam type, with case counts
+     * Returns rows of [actions, count]
      */
-    Page<Case> findByCompanyContainingIgnoreCase(String company, Pageable pageable);
+    @Query("SELECT c.actions, COUNT(c) FROM Case c WHERE c.actions IS NOT NULL AND c.scamTypeId IS NULL GROUP BY c.actions")
+    List<Object[]> countUnlinkedActions();
 
     /**
-     * Find by scam type
+     * Link unlinked cases with the given actions text to a scam type
      */
-    Page<Case> findByActionsContainingIgnoreCase(String actions, Pageable pageable);
+    @Modifying
+    @Query("UPDATE Case c SET c.scamTypeId = :scamTypeId WHERE c.actions = :actions AND c.scamTypeId IS NULL")
+    int linkScamType(@Param("actions") String actions, @Param("scamTypeId") Integer scamTypeId);
 
     /**
-     * Get all distinct scam types for filtering
+     * Case counts per scam type
+     * Returns rows of [scamTypeId, count]
      */
-    @Query("SELECT DISTINCT c.actions FROM Case c WHERE c.actions IS NOT NULL ORDER BY c.actions")
-    List<String> findAllActions();
+    @Query("SELECT c.scamTypeId, COUNT(c) FROM Case c WHERE c.scamTypeId IS NOT NULL GROUP BY c.scamTypeId")
+    List<Object[]> countCasesByScamType();
+
+    /**
+     * Submissions per minute since a point in time (seeds the rolling activity counters)
+     * Returns rows of [year, month, day, hour, minute, count]
+     */
+    @Query("SELECT year(c.createdAt), month(c.createdAt), day(c.createdAt), hour(c.createdAt), minute(c.createdAt), COUNT(c) " +
+            "FROM Case c WHERE c.createdAt >= :since " +
+            "GROUP BY year(c.createdAt), month(c.createdAt), day(c.createdAt), hour(c.createdAt), minute(c.createdAt)")
+    List<Object[]> countSubmissionsPerMinuteSince(@Param("since") LocalDateTime since);
 
     // ============ VERDICT-RELATED QUERIES ============
 
@@ -80,6 +167,25 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
     @Query("SELECT c FROM Case c WHERE c.totalVotes >= 5 AND ABS(c.verdictScore) <= 2 ORDER BY c.totalVotes DESC")
     Page<Case> findControversialCases(Pageable pageable);
 
+    /**
+     * Cases with a verdict sign (+1 guilty, -1 not guilty, 0 pending), most confident first
+     * Index-ordered scan of idx_case_verdict_rank
+     */
+    @Query("SELECT c FROM Case c WHERE c.verdictSign = :sign ORDER BY c.verdictWilson DESC, c.id DESC")
+    Page<Case> findByVerdictSignRanked(@Param("sign") Integer sign, Pageable pageable);
+
+    /**
+     * Split cases, highest controversy score first (index-ordered scan of idx_case_controversy)
+     */
+    @Query("SELECT c FROM Case c WHERE c.controversyScore > 0 ORDER BY c.controversyScore DESC, c.id DESC")
+    Page<Case> findByControversyRanked(Pageable pageable);
+
+    /**
+     * Cases whose ranking keys were never computed, as [id, guiltyVotes, notGuiltyVotes]
+     */
+    @Query("SELECT c.id, c.guiltyVotes, c.notGuiltyVotes FROM Case c WHERE c.verdictWilson IS NULL ORDER BY c.id")
+    List<Object[]> findUnrankedTallies(Pageable pageable);
+
 //    @Query("SELECT c FROM Case c ORDER BY c.createdAt DESC")
     Page<Case> findAllByOrderByCreatedAtDesc(Pageable pageable);
     /**
@@ -159,4 +265,37 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
             "LOWER(c.company) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(c.actions) LIKE LOWER(CONCAT('%', :query, '%')))")
     Page<Case> searchPendingCases(@Param("query") String query, Pageable pageable);
+
+    /**
+     * Lowest and highest case id as [min, max] (nulls when there are no cases)
+     */
+    @Query("SELECT MIN(c.id), MAX(c.id) FROM Case c")
+    List<Object[]> findIdBounds();
+
+    // ============ VERDICT SNAPSHOT ============
+
+    /**
+     * Every contact key with its case count and summed verdict score
+     * Rows of [kind ("email" / "phone" / "domain"), key, caseCount, verdictScore]
+     */
+    @Query("SELECT 'email', lower(c.email), COUNT(c), SUM(c.verdictScore) FROM Case c " +
+            "WHERE c.email IS NOT NULL GROUP BY lower(c.email) " +
+            "UNION ALL SELECT 'phone', c.phoneDigits, COUNT(c), SUM(c.verdictScore) FROM Case c " +
+            "WHERE c.phoneDigits IS NOT NULL GROUP BY c.phoneDigits " +
+            "UNION ALL SELECT 'domain', c.emailDomain, COUNT(c), SUM(c.verdictScore) FROM Case c " +
+            "WHERE c.emailDomain IS NOT NULL GROUP BY c.emailDomain")
+    List<Object[]> summarizeAllContactKeys();
+
+    // ============ VOTE JOURNAL ============
+
+    /**
+     * Current tallies of every case as [id, guiltyVotes, notGuiltyVotes] (journal baseline),
+     * including votes still in tally shards; one statement, so both come from the same snapshot
+     */
+    @Query(value = "SELECT c.id, c.guilty_votes + COALESCE(SUM(s.guilty_votes), 0), " +
+            "c.not_guilty_votes + COALESCE(SUM(s.not_guilty_votes), 0) " +
+            "FROM cases c LEFT JOIN case_vote_shards s ON s.case_id = c.id " +
+            "GROUP BY c.id, c.guilty_votes, c.not_guilty_votes",
+            nativeQuery = true)
+    List<Object[]> findAllVoteTallies();
 }
\ No newline at end of file
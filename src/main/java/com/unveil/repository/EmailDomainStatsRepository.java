@@ -0,0 +1,105 @@
+package com.unveil.repository;
+
+import com.unveil.entity.EmailDomainStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmailDomainStatsRepository extends JpaRepository<EmailDomainStats, String> {
+
+    /**
+     * Count a new case for its domain, creating the row if needed (single-statement upsert)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO email_domain_stats AS s " +
+            "(domain, case_count, guilty_count, latest_case_id, latest_case_at, updated_at) " +
+            "VALUES (:domain, 1, :guilty, :caseId, :createdAt, now()) " +
+            "ON CONFLICT (domain) DO UPDATE SET " +
+            "case_count = s.case_count + 1, " +
+            "guilty_count = s.guilty_count + EXCLUDED.guilty_count, " +
+            "latest_case_id = CASE WHEN s.latest_case_at IS NULL OR EXCLUDED.latest_case_at >= s.latest_case_at " +
+            "THEN EXCLUDED.latest_case_id ELSE s.latest_case_id END, " +
+            "latest_case_at = GREATEST(s.latest_case_at, EXCLUDED.latest_case_at), " +
+            "updated_at = now()",
+            nativeQuery = true)
+    int addCase(@Param("domain") String domain, @Param("guilty") long guilty, @Param("caseId") Long caseId,
+                @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * Uncount a case that was deleted or moved to another domain; the latest case
+     * is looked up again (one row from idx_case_email_domain_created)
+     * Must run after the case row itself was deleted or updated
+     */
+    @Modifying
+    @Query(value = "UPDATE email_domain_stats SET " +
+            "case_count = case_count - 1, " +
+            "guilty_count = guilty_count - :guilty, " +
+            "latest_case_id = (SELECT c.id FROM cases c WHERE c.email_domain = :domain " +
+            "ORDER BY c.created_at DESC, c.id DESC LIMIT 1), " +
+            "latest_case_at = (SELECT max(c.created_at) FROM cases c WHERE c.email_domain = :domain), " +
+            "updated_at = now() " +
+            "WHERE domain = :domain",
+            nativeQuery = true)
+    int removeCase(@Param("domain") String domain, @Param("guilty") long guilty);
+
+    /**
+     * Adjust the guilty count when a case's verdict crosses zero (delta may be negative)
+     */
+    @Modifying
+    @Query("UPDATE EmailDomainStats s SET s.guiltyCount = s.guiltyCount + :delta, s.updatedAt = LOCAL DATETIME " +
+            "WHERE s.domain = :domain")
+    int adjustGuiltyCount(@Param("domain") String domain, @Param("delta") long delta);
+
+    /**
+     * Drop domains left without cases
+     */
+    @Modifying
+    @Query("DELETE FROM EmailDomainStats s WHERE s.caseCount <= 0")
+    int deleteEmpty();
+
+    /**
+     * Domains with the most guilty cases (index order on idx_domain_stats_guilty)
+     */
+    @Query("SELECT s FROM EmailDomainStats s WHERE s.caseCount > 0 ORDER BY s.guiltyCount DESC, s.caseCount DESC")
+    List<EmailDomainStats> findTopByGuilty(Pageable pageable);
+
+    /**
+     * Domains with the most cases (index order on idx_domain_stats_cases)
+     */
+    @Query("SELECT s FROM EmailDomainStats s WHERE s.caseCount > 0 ORDER BY s.caseCount DESC")
+    List<EmailDomainStats> findTopByCases(Pageable pageable);
+
+    // ============ RESYNC ============
+
+    /**
+     * Overwrite every row that differs from a grouped aggregate over cases
+     */
+    @Modifying
+    @Query(value = "INSERT INTO email_domain_stats AS s " +
+            "(domain, case_count, guilty_count, latest_case_id, latest_case_at, updated_at) " +
+            "SELECT email_domain, count(*), count(*) FILTER (WHERE verdict_score > 0), " +
+            "(array_agg(id ORDER BY created_at DESC, id DESC))[1], max(created_at), now() " +
+            "FROM cases WHERE email_domain IS NOT NULL GROUP BY email_domain " +
+            "ON CONFLICT (domain) DO UPDATE SET " +
+            "case_count = EXCLUDED.case_count, guilty_count = EXCLUDED.guilty_count, " +
+            "latest_case_id = EXCLUDED.latest_case_id, latest_case_at = EXCLUDED.latest_case_at, " +
+            "updated_at = now() " +
+            "WHERE (s.case_count, s.guilty_count, s.latest_case_id) IS DISTINCT FROM " +
+            "(EXCLUDED.case_count, EXCLUDED.guilty_count, EXCLUDED.latest_case_id)",
+            nativeQuery = true)
+    int resyncFromCases();
+
+    /**
+     * Delete rows for domains no case has any more
+     */
+    @Modifying
+    @Query(value = "DELETE FROM email_domain_stats s " +
+            "WHERE NOT EXISTS (SELECT 1 FROM cases c WHERE c.email_domain = s.domain)",
+            nativeQuery = true)
+    int deleteOrphans();
+}
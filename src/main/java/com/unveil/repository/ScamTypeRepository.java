@@ -0,0 +1,41 @@
+package com.unveil.repository;
+
+import com.unveil.entity.ScamType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ScamTypeRepository extends JpaRepository<ScamType, Integer> {
+
+    /**
+     * Find scam type by its normalized name
+     */
+    Optional<ScamType> findByNormalizedName(String normalizedName);
+
+    /**
+     * Create a scam type unless its normalized name exists (a concurrent creator on
+     * another instance wins without failing this transaction)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO scam_types (name, normalized_name, case_count, created_at) " +
+            "VALUES (:name, :normalizedName, 0, now()) ON CONFLICT (normalized_name) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name, @Param("normalizedName") String normalizedName);
+
+    /**
+     * Adjust the maintained case count (delta may be negative)
+     */
+    @Modifying
+    @Query("UPDATE ScamType s SET s.caseCount = s.caseCount + :delta WHERE s.id = :id")
+    int adjustCaseCount(@Param("id") Integer id, @Param("delta") long delta);
+
+    /**
+     * Overwrite the maintained case count (startup resync)
+     */
+    @Modifying
+    @Query("UPDATE ScamType s SET s.caseCount = :caseCount WHERE s.id = :id")
+    int updateCaseCount(@Param("id") Integer id, @Param("caseCount") long caseCount);
+}
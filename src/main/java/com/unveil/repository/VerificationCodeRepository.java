@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface VerificationCodeRepository extends JpaRepository<VerificationCode, Long> {
@@ -31,6 +32,44 @@ public interface VerificationCodeRepository extends JpaRepository<VerificationCo
         return findActiveCodeByEmailHash(emailHash, LocalDateTime.now());
     }
 
+    /**
+     * Active codes for an email hash, newest first (tolerates leftover duplicates)
+     */
+    @Query("SELECT vc FROM VerificationCode vc WHERE vc.emailHash = :emailHash " +
+            "AND vc.expiresAt > :now AND vc.verified = false " +
+            "ORDER BY vc.createdAt DESC")
+    List<VerificationCode> findActiveCodesByEmailHash(
+            @Param("emailHash") String emailHash,
+            @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Count one attempt, unless the code is used up or already verified
+     */
+    @Modifying
+    @Query("UPDATE VerificationCode vc SET vc.attempts = vc.attempts + 1 " +
+            "WHERE vc.id = :id AND vc.verified = false AND vc.attempts < vc.maxAttempts")
+    int incrementAttempts(@Param("id") Long id);
+
+    /**
+     * Mark a code verified (counting the attempt), unless it is used up or already verified
+     */
+    @Modifying
+    @Query("UPDATE VerificationCode vc SET vc.verified = true, vc.verifiedAt = :verifiedAt, " +
+            "vc.attempts = vc.attempts + 1 " +
+            "WHERE vc.id = :id AND vc.verified = false AND vc.attempts < vc.maxAttempts")
+    int markVerified(
+            @Param("id") Long id,
+            @Param("verifiedAt") LocalDateTime verifiedAt
+    );
+
+    /**
+     * Delete a code by id without loading it first
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationCode vc WHERE vc.id = :id")
+    int deleteCodeById(@Param("id") Long id);
+
     /**
      * Find verification code by email hash and code
      */
@@ -76,6 +115,19 @@ public interface VerificationCodeRepository extends JpaRepository<VerificationCo
     @Query("DELETE FROM VerificationCode vc WHERE vc.expiresAt <= :now")
     int deleteExpiredCodes(@Param("now") LocalDateTime now);
 
+    /**
+     * Delete up to :batchSize expired codes (bounded lock time per statement)
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM verification_codes WHERE id IN (" +
+            "SELECT id FROM verification_codes WHERE expires_at <= :now LIMIT :batchSize)",
+            nativeQuery = true)
+    int deleteExpiredCodesBatch(
+            @Param("now") LocalDateTime now,
+            @Param("batchSize") int batchSize
+    );
+
     /**
      * Delete expired codes for specific email hash
      */
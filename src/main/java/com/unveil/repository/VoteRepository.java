@@ -2,23 +2,26 @@ package com.unveil.repository;
 
 import com.unveil.entity.Vote;
 import com.unveil.entity.Vote.VoteType;
+import com.unveil.entity.Vote.VoterKind;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
 
     /**
-     * Find existing vote by user and case
+     * Check if a voter has already voted on a case
      */
-    Optional<Vote> findByUserIdAndCaseEntityId(Long userId, Long caseId);
+    boolean existsByCaseEntityIdAndVoterKindAndVoterHash(Long caseId, VoterKind voterKind, String voterHash);
 
     /**
-     * Check if user has already voted on a case
+     * Count votes on a case by voter kind
      */
-    boolean existsByUserIdAndCaseEntityId(Long userId, Long caseId);
+    long countByCaseEntityIdAndVoterKind(Long caseId, VoterKind voterKind);
 
     /**
      * Count votes by case and vote type
@@ -33,21 +36,43 @@ public interface VoteRepository extends JpaRepository<Vote, Long> {
     Long countByCaseId(@Param("caseId") Long caseId);
 
     /**
-     * Count votes by user
+     * Votes and distinct voters by voter kind, rows of [voterKind, votes, voters] (voter statistics)
      */
-    @Query("SELECT COUNT(v) FROM Vote v WHERE v.user.id = :userId")
-    Long countByUserId(@Param("userId") Long userId);
+    @Query("SELECT v.voterKind, COUNT(v), COUNT(DISTINCT v.voterHash) FROM Vote v GROUP BY v.voterKind")
+    List<Object[]> countVotesAndVotersByKind();
 
     /**
-     * Get user's vote on a specific case
+     * Remove all votes on a case (vote reset, case deletion)
      */
-    @Query("SELECT v FROM Vote v WHERE v.user.id = :userId AND v.caseEntity.id = :caseId")
-    Optional<Vote> findUserVoteOnCase(@Param("userId") Long userId, @Param("caseId") Long caseId);
+    @Modifying
+    @Query("DELETE FROM Vote v WHERE v.caseEntity.id = :caseId")
+    int deleteByCaseId(@Param("caseId") Long caseId);
 
     /**
-     * Delete user's vote on a case (for vote changes)
+     * Votes per minute since a point in time, for seeding the rolling vote counters
+     * Rows of [year, month, day, hour, minute, count]
      */
-    void deleteByUserIdAndCaseEntityId(Long userId, Long caseId);
+    @Query("SELECT year(v.createdAt), month(v.createdAt), day(v.createdAt), hour(v.createdAt), minute(v.createdAt), COUNT(v) " +
+            "FROM Vote v WHERE v.createdAt >= :since " +
+            "GROUP BY year(v.createdAt), month(v.createdAt), day(v.createdAt), hour(v.createdAt), minute(v.createdAt)")
+    List<Object[]> countVotesPerMinuteSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Cases in an id range whose stored tallies differ from their legacy baseline plus their vote rows
+     * Rows of [caseId, storedGuilty, storedNotGuilty, expectedGuilty, expectedNotGuilty];
+     * cases voted on since quietSince (possibly mid-transaction) are left out
+     */
+    @Query("SELECT c.id, c.guiltyVotes, c.notGuiltyVotes, " +
+            "c.legacyGuiltyVotes + SUM(CASE WHEN v.voteType = 'GUILTY' THEN 1 ELSE 0 END), " +
+            "c.legacyNotGuiltyVotes + SUM(CASE WHEN v.voteType = 'NOT_GUILTY' THEN 1 ELSE 0 END) " +
+            "FROM Vote v JOIN v.caseEntity c " +
+            "WHERE c.id BETWEEN :fromId AND :toId " +
+            "AND (c.lastVotedAt IS NULL OR c.lastVotedAt < :quietSince) " +
+            "GROUP BY c.id, c.guiltyVotes, c.notGuiltyVotes, c.legacyGuiltyVotes, c.legacyNotGuiltyVotes " +
+            "HAVING c.legacyGuiltyVotes + SUM(CASE WHEN v.voteType = 'GUILTY' THEN 1 ELSE 0 END) <> c.guiltyVotes " +
+            "OR c.legacyNotGuiltyVotes + SUM(CASE WHEN v.voteType = 'NOT_GUILTY' THEN 1 ELSE 0 END) <> c.notGuiltyVotes")
+    List<Object[]> findTallyDriftInRange(@Param("fromId") Long fromId, @Param("toId") Long toId,
+                                         @Param("quietSince") LocalDateTime quietSince);
 
     /**
      * Get voting statistics
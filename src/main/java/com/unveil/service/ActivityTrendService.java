@@ -0,0 +1,150 @@
+package com.unveil.service;
+
+import com.unveil.repository.CaseRepository;
+import com.unveil.repository.VoteRepository;
+import com.unveil.util.RollingCounter;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolling time series of case submissions and votes.
+ *
+ * Fed by the submit and vote paths and held in minute / hour / day ring
+ * buffers, so windowed counts and trend charts are answered from memory
+ * in O(buckets). Submissions and votes are seeded at startup from one
+ * grouped query each.
+ */
+@Service
+public class ActivityTrendService implements ApplicationRunner {
+
+    private static final int MINUTE_BUCKETS = 60;       // Last hour
+    private static final int HOUR_BUCKETS = 24 * 7;     // Last 7 days
+    private static final int DAY_BUCKETS = 90;          // Last 90 days
+
+    private final CaseRepository caseRepository;
+    private final VoteRepository voteRepository;
+
+    private final ActivitySeries submissions = new ActivitySeries();
+    private final ActivitySeries votes = new ActivitySeries();
+
+    public ActivityTrendService(CaseRepository caseRepository, VoteRepository voteRepository) {
+        this.caseRepository = caseRepository;
+        this.voteRepository = voteRepository;
+    }
+
+    /**
+     * Seed submission buckets from existing cases and vote buckets from stored votes
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        LocalDateTime since = LocalDateTime.now().minusDays(DAY_BUCKETS);
+        seed(submissions, caseRepository.countSubmissionsPerMinuteSince(since));
+        seed(votes, voteRepository.countVotesPerMinuteSince(since));
+    }
+
+    /**
+     * Record a new case submission
+     */
+    public void recordSubmission() {
+        submissions.add(System.currentTimeMillis(), 1);
+    }
+
+    /**
+     * Record cast votes
+     */
+    public void recordVotes(int count) {
+        votes.add(System.currentTimeMillis(), count);
+    }
+
+    /**
+     * Count submissions in a trailing window (bucket granularity)
+     */
+    public long countSubmissions(Duration window) {
+        return submissions.count(System.currentTimeMillis(), window);
+    }
+
+    /**
+     * Count votes in a trailing window (bucket granularity)
+     */
+    public long countVotes(Duration window) {
+        return votes.count(System.currentTimeMillis(), window);
+    }
+
+    /**
+     * Submission trend chart data
+     * @param resolution "minute" (last hour), "hour" (last 24h) or "day" (last 30 days)
+     */
+    public List<Map<String, Object>> getSubmissionTrend(String resolution) {
+        return submissions.trend(System.currentTimeMillis(), resolution);
+    }
+
+    /**
+     * Vote trend chart data
+     * @param resolution "minute" (last hour), "hour" (last 24h) or "day" (last 30 days)
+     */
+    public List<Map<String, Object>> getVoteTrend(String resolution) {
+        return votes.trend(System.currentTimeMillis(), resolution);
+    }
+
+    // Rows of [year, month, day, hour, minute, count]
+    private void seed(ActivitySeries series, List<Object[]> rows) {
+        ZoneId zone = ZoneId.systemDefault();
+        for (Object[] row : rows) {
+            LocalDateTime minute = LocalDateTime.of(
+                    ((Number) row[0]).intValue(),
+                    ((Number) row[1]).intValue(),
+                    ((Number) row[2]).intValue(),
+                    ((Number) row[3]).intValue(),
+                    ((Number) row[4]).intValue());
+            series.add(minute.atZone(zone).toInstant().toEpochMilli(), ((Number) row[5]).longValue());
+        }
+    }
+
+    // Minute, hour and day buffers for one activity type
+    private static class ActivitySeries {
+        final RollingCounter byMinute = new RollingCounter(Duration.ofMinutes(1), MINUTE_BUCKETS);
+        final RollingCounter byHour = new RollingCounter(Duration.ofHours(1), HOUR_BUCKETS);
+        final RollingCounter byDay = new RollingCounter(Duration.ofDays(1), DAY_BUCKETS);
+
+        void add(long epochMillis, long amount) {
+            byMinute.add(epochMillis, amount);
+            byHour.add(epochMillis, amount);
+            byDay.add(epochMillis, amount);
+        }
+
+        long count(long nowMillis, Duration window) {
+            // Finest resolution that still covers the window
+            if (window.compareTo(Duration.ofMinutes(MINUTE_BUCKETS)) <= 0) {
+                return byMinute.sum(nowMillis, window);
+            } else if (window.compareTo(Duration.ofHours(HOUR_BUCKETS)) <= 0) {
+                return byHour.sum(nowMillis, window);
+            }
+            return byDay.sum(nowMillis, window);
+        }
+
+        List<Map<String, Object>> trend(long nowMillis, String resolution) {
+            List<RollingCounter.Bucket> buckets = switch (resolution) {
+                case "minute" -> byMinute.series(nowMillis, MINUTE_BUCKETS);
+                case "hour" -> byHour.series(nowMillis, 24);
+                case "day" -> byDay.series(nowMillis, 30);
+                default -> throw new IllegalArgumentException("Invalid resolution: " + resolution);
+            };
+
+            return buckets.stream().map(bucket -> {
+                Map<String, Object> point = new HashMap<>();
+                point.put("bucketStart", Instant.ofEpochMilli(bucket.startEpochMillis()).toString());
+                point.put("count", bucket.count());
+                return point;
+            }).toList();
+        }
+    }
+}
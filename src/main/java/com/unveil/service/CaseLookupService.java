@@ -0,0 +1,115 @@
+package com.unveil.service;
+
+import com.unveil.repository.CaseLookupRepository;
+import com.unveil.repository.CaseRepository;
+import com.unveil.util.ContactKeys;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Multi-get of verdicts for many emails / phones / domains at once (browser
+ * extension page scans).
+ *
+ * Identifiers are normalized (see ContactKeys) and deduplicated, all keys
+ * are resolved with one query, and each distinct key is summarized once
+ * per request however many raw spellings of it were sent.
+ */
+@Service
+public class CaseLookupService {
+
+    private final CaseRepository repository;
+
+    public CaseLookupService(CaseRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Look up emails, phones and domains
+     * @return "results": raw identifier -> verdict summary (matched identifiers only),
+     *         "invalid": identifiers that could not be normalized, plus checked / matched counts
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> lookup(Collection<String> emails, Collection<String> phones, Collection<String> domains) {
+        // raw identifier -> normalized key, per kind
+        Map<String, String> emailKeys = normalize(emails, ContactKeys::email);
+        Map<String, String> phoneKeys = normalize(phones, ContactKeys::phoneDigits);
+        Map<String, String> domainKeys = normalize(domains, ContactKeys::domain);
+
+        Set<String> distinctEmails = distinctKeys(emailKeys);
+        Set<String> distinctPhones = distinctKeys(phoneKeys);
+        Set<String> distinctDomains = distinctKeys(domainKeys);
+
+        // (kind, key) -> summary, computed once per distinct key
+        Map<String, Map<String, Object>> summaries = new HashMap<>();
+        for (Object[] row : repository.summarizeByContactKeys(distinctEmails, distinctPhones, distinctDomains)) {
+            summaries.put(row[0] + ":" + row[1], summarize((String) row[0], row));
+        }
+
+        Map<String, Object> results = new LinkedHashMap<>();
+        List<String> invalid = new ArrayList<>();
+        collect(CaseLookupRepository.EMAIL, emailKeys, summaries, results, invalid);
+        collect(CaseLookupRepository.PHONE, phoneKeys, summaries, results, invalid);
+        collect(CaseLookupRepository.DOMAIN, domainKeys, summaries, results, invalid);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("checked", distinctEmails.size() + distinctPhones.size() + distinctDomains.size());
+        response.put("matched", summaries.size());
+        response.put("results", results);
+        response.put("invalid", invalid);
+        return response;
+    }
+
+    // ============ HELPER METHODS ============
+
+    private Map<String, String> normalize(Collection<String> identifiers, UnaryOperator<String> normalizer) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        if (identifiers != null) {
+            for (String identifier : identifiers) {
+                if (identifier != null && !keys.containsKey(identifier)) {
+                    keys.put(identifier, normalizer.apply(identifier));
+                }
+            }
+        }
+        return keys;
+    }
+
+    private Set<String> distinctKeys(Map<String, String> keys) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String key : keys.values()) {
+            if (key != null) {
+                distinct.add(key);
+            }
+        }
+        return distinct;
+    }
+
+    private void collect(String kind, Map<String, String> keys, Map<String, Map<String, Object>> summaries,
+                         Map<String, Object> results, List<String> invalid) {
+        keys.forEach((identifier, key) -> {
+            if (key == null) {
+                invalid.add(identifier);
+                return;
+            }
+            Map<String, Object> summary = summaries.get(kind + ":" + key);
+            if (summary != null) {
+                results.put(identifier, summary);
+            }
+        });
+    }
+
+    // Row of [kind, key, caseCount, guiltyVotes, notGuiltyVotes, verdictScore]
+    private Map<String, Object> summarize(String kind, Object[] row) {
+        long score = ((Number) row[5]).longValue();
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("type", kind);
+        summary.put("cases", ((Number) row[2]).longValue());
+        summary.put("guiltyVotes", ((Number) row[3]).longValue());
+        summary.put("notGuiltyVotes", ((Number) row[4]).longValue());
+        summary.put("status", score > 0 ? "Guilty" : score < 0 ? "Not Guilty" : "Pending");
+        return summary;
+    }
+}
@@ -1,8 +1,13 @@
 package com.unveil.service;
 
+import com.unveil.cache.CaseCache;
 import com.unveil.dto.CaseReportDto;
 import com.unveil.entity.Case;
 import com.unveil.repository.CaseRepository;
+import com.unveil.repository.VoteRepository;
+import com.unveil.state.StateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -10,34 +15,78 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
 public class CaseService {
 
     private final CaseRepository caseRepository;
-
-    // Rate limiting for case submissions (use Redis in production)
-    private final Map<String, LocalDateTime> emailSubmissionLimit = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> ipSubmissionLimit = new ConcurrentHashMap<>();
-    private final Map<String, Integer> dailySubmissionCount = new ConcurrentHashMap<>();
+    private final VoteRepository voteRepository;
+    private final ScamTypeService scamTypeService;
+    private final EmailDomainStatsService emailDomainStatsService;
+    private final CaseCache caseCache;
+    private final VoteTallyShards voteTallyShards;
+    private final ActivityTrendService activityTrendService;
+    private final MeterRegistry meterRegistry;
+    private final StateStore stateStore;
+
+    // Rate limiting for case submissions, shared across instances via the state store
+    private static final String LAST_EMAIL_SUBMISSION_KEY = "case:last-email:";   // value: LocalDateTime
+    private static final String LAST_IP_SUBMISSION_KEY = "case:last-ip:";         // value: LocalDateTime
+    private static final String DAILY_SUBMISSION_KEY = "case:daily:";             // + "<email|ip>:<date>", value: count
 
     // Configuration
     private static final int MAX_SUBMISSIONS_PER_EMAIL_PER_DAY = 5;
     private static final int MAX_SUBMISSIONS_PER_IP_PER_HOUR = 3;
     private static final int MIN_MINUTES_BETWEEN_SUBMISSIONS = 5;
+    private static final Duration LIMIT_RETENTION = Duration.ofDays(2);
 
-    public CaseService(CaseRepository caseRepository) {
+    public CaseService(CaseRepository caseRepository, VoteRepository voteRepository, ScamTypeService scamTypeService,
+                       EmailDomainStatsService emailDomainStatsService, CaseCache caseCache,
+                       VoteTallyShards voteTallyShards, ActivityTrendService activityTrendService,
+                       MeterRegistry meterRegistry, StateStore stateStore) {
         this.caseRepository = caseRepository;
+        this.voteRepository = voteRepository;
+        this.scamTypeService = scamTypeService;
+        this.emailDomainStatsService = emailDomainStatsService;
+        this.caseCache = caseCache;
+        this.voteTallyShards = voteTallyShards;
+        this.activityTrendService = activityTrendService;
+        this.meterRegistry = meterRegistry;
+        this.stateStore = stateStore;
     }
 
     /**
      * Submit a new case report
      */
     public Case submitCase(CaseReportDto request, String verifiedEmail, String ipAddress) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Case savedCase = doSubmitCase(request, verifiedEmail, ipAddress);
+            outcome = "submitted";
+            return savedCase;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (DuplicateCaseException e) {
+            outcome = "duplicate";
+            throw e;
+        } catch (SubmissionRateLimitException e) {
+            outcome = "rate_limited";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("unveil.case.submit")
+                    .description("Case submission latency by outcome")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Case doSubmitCase(CaseReportDto request, String verifiedEmail, String ipAddress) {
         // Validate the case data
         validateCaseSubmission(request, verifiedEmail, ipAddress);
 
@@ -46,21 +95,27 @@ public class CaseService {
 
         // Create new case entity
         Case newCase = createCaseFromDto(request, verifiedEmail);
+        newCase.setScamTypeId(scamTypeService.assignToNewCase(newCase.getActions()));
 
         // Save the case
         Case savedCase = caseRepository.save(newCase);
+        emailDomainStatsService.caseAdded(savedCase);
 
         // Update rate limiting
         updateSubmissionLimits(verifiedEmail, ipAddress);
 
+        // Feed the rolling submission counters
+        activityTrendService.recordSubmission();
+
         return savedCase;
     }
 
     /**
-     * Get a case by ID
+     * Get a case by ID (cached, read-only)
      */
+    @Transactional(readOnly = true)
     public Optional<Case> getCaseById(Long id) {
-        return caseRepository.findById(id);
+        return caseCache.get(id, caseId -> caseRepository.findById(caseId).map(voteTallyShards::withCurrentTally));
     }
 
     /**
@@ -74,6 +129,7 @@ public class CaseService {
         }
 
         Case existingCase = caseOpt.get();
+        String previousDomain = existingCase.getEmailDomain();
 
         // Validate the update data
         if (!request.hasAtLeastOneContactMethod()) {
@@ -87,19 +143,31 @@ public class CaseService {
         existingCase.setCompany(request.getCleanCompany());
         existingCase.setActions(request.getCleanActions());
         existingCase.setDescription(request.getCleanDescription());
+        existingCase.setScamTypeId(scamTypeService.reassign(existingCase.getScamTypeId(), existingCase.getActions()));
 
-        return caseRepository.save(existingCase);
+        // Flushed first: the domain aggregate re-reads the previous domain's latest case
+        Case savedCase = caseRepository.saveAndFlush(existingCase);
+        emailDomainStatsService.caseUpdated(previousDomain, savedCase);
+        caseCache.invalidate(id);
+        return savedCase;
     }
 
     /**
-     * Delete a case
+     * Delete a case (and its votes)
      */
     public boolean deleteCase(Long id) {
-        if (caseRepository.existsById(id)) {
-            caseRepository.deleteById(id);
-            return true;
+        Optional<Case> caseOpt = caseRepository.findById(id);
+        if (caseOpt.isEmpty()) {
+            return false;
         }
-        return false;
+
+        voteRepository.deleteByCaseId(id);
+        caseRepository.delete(caseOpt.get());
+        caseRepository.flush();
+        scamTypeService.removeCase(caseOpt.get().getScamTypeId());
+        emailDomainStatsService.caseRemoved(caseOpt.get());
+        caseCache.invalidate(id);
+        return true;
     }
 
     /**
@@ -119,20 +187,15 @@ public class CaseService {
         stats.put("notGuiltyCount", notGuiltyCount);
         stats.put("pendingCount", pendingCount);
 
-        // Recent submissions (last 24 hours, 7 days, 30 days)
-        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-        LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
-        LocalDateTime monthAgo = LocalDateTime.now().minusDays(30);
-
-        // Note: These would need custom repository queries in production
-        stats.put("submissionsLast24h", 0); // Placeholder
-        stats.put("submissionsLast7d", 0);  // Placeholder
-        stats.put("submissionsLast30d", 0); // Placeholder
+        // Recent submissions (last 24 hours, 7 days, 30 days) from the rolling counters
+        stats.put("submissionsLast24h", activityTrendService.countSubmissions(Duration.ofDays(1)));
+        stats.put("submissionsLast7d", activityTrendService.countSubmissions(Duration.ofDays(7)));
+        stats.put("submissionsLast30d", activityTrendService.countSubmissions(Duration.ofDays(30)));
 
-        // Top scam types
-        List<String> topScamTypes = caseRepository.findAllActions();
-        stats.put("topScamTypes", topScamTypes.size() > 10 ?
-                topScamTypes.subList(0, 10) : topScamTypes);
+        // Top scam types (by maintained case count)
+        List<Map<String, Object>> topScamTypes = scamTypeService.getTopScamTypes(10);
+        stats.put("topScamTypes", topScamTypes.stream().map(type -> type.get("name")).toList());
+        stats.put("topScamTypeCounts", topScamTypes);
 
         // Verification stats
         Long totalVotes = caseRepository.getTotalVotesCount();
@@ -281,63 +344,81 @@ public class CaseService {
 
     private void checkRateLimits(String email, String ipAddress) {
         LocalDateTime now = LocalDateTime.now();
+        String today = now.toLocalDate().toString();
+
+        String lastEmailKey = LAST_EMAIL_SUBMISSION_KEY + email;
+        String lastIpKey = LAST_IP_SUBMISSION_KEY + ipAddress;
+        String dailyIpKey = DAILY_SUBMISSION_KEY + ipAddress + ":" + today;
+        String dailyEmailKey = DAILY_SUBMISSION_KEY + email + ":" + today;
+
+        // One batched read for all limit state
+        Map<String, String> limits = stateStore.getAll(List.of(lastEmailKey, lastIpKey, dailyIpKey, dailyEmailKey));
 
         // Check email submission limit
-        LocalDateTime lastEmailSubmission = emailSubmissionLimit.get(email);
+        LocalDateTime lastEmailSubmission = parseTime(limits.get(lastEmailKey));
         if (lastEmailSubmission != null &&
                 lastEmailSubmission.plusMinutes(MIN_MINUTES_BETWEEN_SUBMISSIONS).isAfter(now)) {
-            throw new RuntimeException("Please wait " + MIN_MINUTES_BETWEEN_SUBMISSIONS +
+            throw new SubmissionRateLimitException("Please wait " + MIN_MINUTES_BETWEEN_SUBMISSIONS +
                     " minutes between case submissions");
         }
 
         // Check IP submission limit
-        LocalDateTime lastIpSubmission = ipSubmissionLimit.get(ipAddress);
+        LocalDateTime lastIpSubmission = parseTime(limits.get(lastIpKey));
         if (lastIpSubmission != null &&
                 lastIpSubmission.plusHours(1).isAfter(now)) {
 
-            String key = ipAddress + ":" + now.toLocalDate().toString();
-            int todayCount = dailySubmissionCount.getOrDefault(key, 0);
+            int todayCount = parseCount(limits.get(dailyIpKey));
 
             if (todayCount >= MAX_SUBMISSIONS_PER_IP_PER_HOUR) {
-                throw new RuntimeException("Too many submissions from this IP address. Please try again later.");
+                throw new SubmissionRateLimitException(
+                        "Too many submissions from this IP address. Please try again later.");
             }
         }
 
         // Check daily email limit
-        String emailKey = email + ":" + now.toLocalDate().toString();
-        int emailTodayCount = dailySubmissionCount.getOrDefault(emailKey, 0);
+        int emailTodayCount = parseCount(limits.get(dailyEmailKey));
         if (emailTodayCount >= MAX_SUBMISSIONS_PER_EMAIL_PER_DAY) {
-            throw new RuntimeException("Daily submission limit reached for this email address");
+            throw new SubmissionRateLimitException("Daily submission limit reached for this email address");
         }
     }
 
     private void updateSubmissionLimits(String email, String ipAddress) {
         LocalDateTime now = LocalDateTime.now();
+        String today = now.toLocalDate().toString();
 
-        // Update email submission time
-        emailSubmissionLimit.put(email, now);
-
-        // Update IP submission time
-        ipSubmissionLimit.put(ipAddress, now);
-
-        // Update daily counters
-        String emailKey = email + ":" + now.toLocalDate().toString();
-        String ipKey = ipAddress + ":" + now.toLocalDate().toString();
-
-        dailySubmissionCount.merge(emailKey, 1, Integer::sum);
-        dailySubmissionCount.merge(ipKey, 1, Integer::sum);
+        // Update email and IP submission times (kept for the last 2 days)
+        stateStore.putAll(Map.of(
+                LAST_EMAIL_SUBMISSION_KEY + email, now.toString(),
+                LAST_IP_SUBMISSION_KEY + ipAddress, now.toString()
+        ), LIMIT_RETENTION);
 
-        // Cleanup old entries (keep only last 2 days)
-        cleanupOldLimitEntries();
+        // Update daily counters (kept until 2 days after the day ends)
+        Duration dailyRetention = Duration.between(now, now.toLocalDate().atStartOfDay().plus(LIMIT_RETENTION));
+        stateStore.increment(DAILY_SUBMISSION_KEY + email + ":" + today, 1, dailyRetention);
+        stateStore.increment(DAILY_SUBMISSION_KEY + ipAddress + ":" + today, 1, dailyRetention);
     }
 
     private void checkForDuplicates(CaseReportDto request) {
         if (checkForDuplicates(request, true)) {
-            throw new RuntimeException("A similar case already exists in our database");
+            throw new DuplicateCaseException("A similar case already exists in our database");
         }
     }
 
     private boolean checkForDuplicates(CaseReportDto request, boolean throwException) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean duplicate = false;
+        try {
+            duplicate = findDuplicates(request);
+            return duplicate;
+        } finally {
+            sample.stop(Timer.builder("unveil.case.duplicate_check")
+                    .description("Duplicate case lookup latency")
+                    .tag("result", duplicate ? "duplicate" : "unique")
+                    .register(meterRegistry));
+        }
+    }
+
+    private boolean findDuplicates(CaseReportDto request) {
         // Check for exact email match
         if (request.getCleanEmail() != null) {
             Page<Case> emailMatches = caseRepository.findByEmailContainingIgnoreCase(
@@ -406,23 +487,12 @@ public class CaseService {
         return email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
     }
 
-    private void cleanupOldLimitEntries() {
-        LocalDateTime twoDaysAgo = LocalDateTime.now().minusDays(2);
-        String cutoffDate = twoDaysAgo.toLocalDate().toString();
-
-        // Remove old email submission limits
-        emailSubmissionLimit.entrySet().removeIf(entry ->
-                entry.getValue().isBefore(twoDaysAgo));
-
-        // Remove old IP submission limits
-        ipSubmissionLimit.entrySet().removeIf(entry ->
-                entry.getValue().isBefore(twoDaysAgo));
+    private LocalDateTime parseTime(String value) {
+        return value != null ? LocalDateTime.parse(value) : null;
+    }
 
-        // Remove old daily submission counts
-        dailySubmissionCount.entrySet().removeIf(entry -> {
-            String[] parts = entry.getKey().split(":");
-            return parts.length > 1 && parts[1].compareTo(cutoffDate) < 0;
-        });
+    private int parseCount(String value) {
+        return value != null ? Integer.parseInt(value) : 0;
     }
 
     private Map<String, Object> buildPaginationInfo(Page<Case> page) {
@@ -447,18 +517,25 @@ public class CaseService {
         LocalDateTime now = LocalDateTime.now();
         String today = now.toLocalDate().toString();
 
+        // Today's daily counters, keyed by submitter (email or IP)
+        Map<String, Long> todayCounts = new HashMap<>();
+        stateStore.scan(DAILY_SUBMISSION_KEY).forEach((key, value) -> {
+            if (key.endsWith(":" + today)) {
+                String submitter = key.substring(DAILY_SUBMISSION_KEY.length(), key.length() - today.length() - 1);
+                todayCounts.put(submitter, Long.parseLong(value));
+            }
+        });
+
         // Count submissions today
-        long submissionsToday = dailySubmissionCount.entrySet().stream()
-                .filter(entry -> entry.getKey().endsWith(":" + today))
-                .mapToLong(Map.Entry::getValue)
+        long submissionsToday = todayCounts.values().stream()
+                .mapToLong(Long::longValue)
                 .sum();
 
         // Count unique submitters today
-        long uniqueSubmittersToday = dailySubmissionCount.entrySet().stream()
-                .filter(entry -> entry.getKey().endsWith(":" + today))
-                .filter(entry -> !entry.getKey().startsWith("192.168.") &&
-                        !entry.getKey().startsWith("10.") &&
-                        !entry.getKey().startsWith("172."))
+        long uniqueSubmittersToday = todayCounts.keySet().stream()
+                .filter(submitter -> !submitter.startsWith("192.168.") &&
+                        !submitter.startsWith("10.") &&
+                        !submitter.startsWith("172."))
                 .count();
 
         stats.put("submissionsToday", submissionsToday);
@@ -467,8 +544,8 @@ public class CaseService {
                 (double) submissionsToday / uniqueSubmittersToday : 0.0);
 
         // Rate limiting stats
-        stats.put("emailsInCooldown", emailSubmissionLimit.size());
-        stats.put("ipsInCooldown", ipSubmissionLimit.size());
+        stats.put("emailsInCooldown", stateStore.countByPrefix(LAST_EMAIL_SUBMISSION_KEY));
+        stats.put("ipsInCooldown", stateStore.countByPrefix(LAST_IP_SUBMISSION_KEY));
 
         return stats;
     }
@@ -480,14 +557,13 @@ public class CaseService {
         boolean hadLimits = false;
 
         // Remove email from submission limits
-        if (emailSubmissionLimit.remove(email) != null) {
+        if (stateStore.remove(LAST_EMAIL_SUBMISSION_KEY + email)) {
             hadLimits = true;
         }
 
         // Remove daily submission counts for this email
         String today = LocalDateTime.now().toLocalDate().toString();
-        String emailKey = email + ":" + today;
-        if (dailySubmissionCount.remove(emailKey) != null) {
+        if (stateStore.remove(DAILY_SUBMISSION_KEY + email + ":" + today)) {
             hadLimits = true;
         }
 
@@ -510,7 +586,7 @@ public class CaseService {
 
             // Calculate wait time if possible
             LocalDateTime now = LocalDateTime.now();
-            LocalDateTime lastSubmission = emailSubmissionLimit.get(email);
+            LocalDateTime lastSubmission = parseTime(stateStore.get(LAST_EMAIL_SUBMISSION_KEY + email).orElse(null));
             if (lastSubmission != null) {
                 LocalDateTime nextAllowed = lastSubmission.plusMinutes(MIN_MINUTES_BETWEEN_SUBMISSIONS);
                 if (nextAllowed.isAfter(now)) {
@@ -529,16 +605,39 @@ public class CaseService {
     public Map<String, Object> getSubmissionTrends() {
         Map<String, Object> trends = new HashMap<>();
 
-        // This would typically involve more complex queries
-        // For now, return basic information
         trends.put("totalCases", caseRepository.count());
         trends.put("submissionRateStats", getSubmissionRateStats());
 
-        // Recent activity
-        Pageable recentPageable = PageRequest.of(0, 10, Sort.by("createdAt").descending());
-        Page<Case> recentCases = caseRepository.findAll(recentPageable);
-        trends.put("recentSubmissions", recentCases.getContent().size());
+        // Recent activity (rolling counters, answered from memory)
+        trends.put("recentSubmissions", activityTrendService.countSubmissions(Duration.ofDays(1)));
+        trends.put("submissionsLastHour", activityTrendService.countSubmissions(Duration.ofHours(1)));
+        trends.put("votesLast24h", activityTrendService.countVotes(Duration.ofDays(1)));
+
+        // Trend charts
+        trends.put("submissionsByMinute", activityTrendService.getSubmissionTrend("minute"));
+        trends.put("submissionsByHour", activityTrendService.getSubmissionTrend("hour"));
+        trends.put("submissionsByDay", activityTrendService.getSubmissionTrend("day"));
+        trends.put("votesByHour", activityTrendService.getVoteTrend("hour"));
+        trends.put("votesByDay", activityTrendService.getVoteTrend("day"));
 
         return trends;
     }
+
+    /**
+     * Submission refused: a similar case already exists
+     */
+    public static class DuplicateCaseException extends RuntimeException {
+        public DuplicateCaseException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Submission refused by a per-email or per-IP submission limit
+     */
+    public static class SubmissionRateLimitException extends RuntimeException {
+        public SubmissionRateLimitException(String message) {
+            super(message);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.unveil.service;
+
+import com.unveil.entity.Case;
+import com.unveil.entity.EmailDomainStats;
+import com.unveil.repository.EmailDomainStatsRepository;
+import com.unveil.util.ContactKeys;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Per-email-domain reputation (case count, guilty count, latest case),
+ * maintained in email_domain_stats so domain summaries and top domains
+ * are primary-key / index-ordered reads instead of scans of cases.
+ *
+ * Counts are adjusted in the caller's transaction: on submission, on
+ * case updates that change the email's domain, on deletion, and when a
+ * vote moves a case's verdict across zero. Verdict changes made outside
+ * VoteService (tally reconciliation, journal replay) and races between
+ * concurrent votes on one case are corrected by resync(), which the
+ * housekeeping scheduler runs periodically.
+ */
+@Service
+public class EmailDomainStatsService {
+
+    private final EmailDomainStatsRepository repository;
+
+    public EmailDomainStatsService(EmailDomainStatsRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Count a newly saved case
+     */
+    @Transactional
+    public void caseAdded(Case savedCase) {
+        String domain = savedCase.getEmailDomain();
+        if (domain != null) {
+            repository.addCase(domain, isGuilty(savedCase) ? 1 : 0, savedCase.getId(), savedCase.getCreatedAt());
+        }
+    }
+
+    /**
+     * Move an updated case between domains if its email's domain changed
+     * @param previousDomain the domain stored before the update
+     */
+    @Transactional
+    public void caseUpdated(String previousDomain, Case updatedCase) {
+        String domain = ContactKeys.emailDomain(updatedCase.getEmail());
+        if (Objects.equals(previousDomain, domain)) {
+            return;
+        }
+        if (previousDomain != null) {
+            repository.removeCase(previousDomain, isGuilty(updatedCase) ? 1 : 0);
+            repository.deleteEmpty();
+        }
+        if (domain != null) {
+            repository.addCase(domain, isGuilty(updatedCase) ? 1 : 0, updatedCase.getId(),
+                    updatedCase.getCreatedAt());
+        }
+    }
+
+    /**
+     * Uncount a deleted case (call after the delete is flushed)
+     */
+    @Transactional
+    public void caseRemoved(Case deletedCase) {
+        String domain = deletedCase.getEmailDomain();
+        if (domain != null) {
+            repository.removeCase(domain, isGuilty(deletedCase) ? 1 : 0);
+            repository.deleteEmpty();
+        }
+    }
+
+    /**
+     * Adjust the guilty count if a case's verdict crossed zero
+     */
+    @Transactional
+    public void verdictChanged(String domain, boolean wasGuilty, boolean isGuilty) {
+        if (domain != null && wasGuilty != isGuilty) {
+            repository.adjustGuiltyCount(domain, isGuilty ? 1 : -1);
+        }
+    }
+
+    /**
+     * Aggregate for one domain (an email address or a bare domain)
+     */
+    public Optional<Map<String, Object>> getDomain(String domainOrEmail) {
+        String domain = ContactKeys.domain(domainOrEmail);
+        if (domain == null) {
+            return Optional.empty();
+        }
+        return repository.findById(domain)
+                .filter(stats -> stats.getCaseCount() > 0)
+                .map(this::toMap);
+    }
+
+    /**
+     * Domains ranked by guilty cases ("guilty") or by all cases ("cases")
+     */
+    public List<Map<String, Object>> getTopDomains(int limit, String sort) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<EmailDomainStats> top = "cases".equals(sort)
+                ? repository.findTopByCases(page)
+                : repository.findTopByGuilty(page);
+        return top.stream().map(this::toMap).toList();
+    }
+
+    /**
+     * Rebuild the aggregate from cases
+     * @return domains whose row was corrected, added or removed
+     */
+    @Transactional
+    public int resync() {
+        return repository.resyncFromCases() + repository.deleteOrphans();
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static boolean isGuilty(Case caseEntity) {
+        return caseEntity.getVerdictScore() != null && caseEntity.getVerdictScore() > 0;
+    }
+
+    private Map<String, Object> toMap(EmailDomainStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("domain", stats.getDomain());
+        map.put("caseCount", stats.getCaseCount());
+        map.put("guiltyCount", stats.getGuiltyCount());
+        map.put("guiltyPercentage", stats.getCaseCount() > 0
+                ? Math.round((double) stats.getGuiltyCount() / stats.getCaseCount() * 100 * 100) / 100.0
+                : 0.0);
+        map.put("latestCaseId", stats.getLatestCaseId());
+        map.put("latestCaseAt", stats.getLatestCaseAt());
+        return map;
+    }
+}
@@ -0,0 +1,144 @@
+package com.unveil.service;
+
+import com.unveil.config.DatabaseCapabilities;
+import com.unveil.entity.Case;
+import com.unveil.repository.CaseRepository;
+import com.unveil.validation.ValidationUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Similarity-ranked search for name and company (catches deliberate typos
+ * such as "Micros0ft Support").
+ *
+ * PostgreSQL: pg_trgm "%" operator backed by the GIN trigram indexes.
+ * Other databases (H2 dev profile): prefix candidates via the btree index,
+ * ranked in memory with the same trigram scheme.
+ */
+@Service
+public class FuzzySearchService {
+
+    private final CaseRepository repository;
+    private final DatabaseCapabilities databaseCapabilities;
+
+    @Value("${app.search.fuzzy.default-threshold:0.3}")
+    private double defaultThreshold;
+
+    @Value("${app.search.fuzzy.max-candidates:500}")
+    private int maxCandidates;
+
+    public FuzzySearchService(CaseRepository caseRepository, DatabaseCapabilities databaseCapabilities) {
+        this.repository = caseRepository;
+        this.databaseCapabilities = databaseCapabilities;
+    }
+
+    /**
+     * Search name or company by similarity
+     * @param field "name" or "company"
+     * @param threshold minimum similarity (0.0 - 1.0), null for the configured default
+     */
+    @Transactional(readOnly = true)
+    public Page<Case> searchSimilar(String field, String value, Double threshold, Pageable pageable) {
+        double effectiveThreshold = resolveThreshold(threshold);
+
+        if (databaseCapabilities.isTrigramSearchAvailable()) {
+            // Transaction-local, so pooled connections keep the server default
+            repository.applySimilarityThreshold(String.valueOf(effectiveThreshold));
+            return switch (field) {
+                case "name" -> repository.findByNameSimilarTo(value, pageable);
+                case "company" -> repository.findByCompanySimilarTo(value, pageable);
+                default -> throw new IllegalArgumentException("Fuzzy search is only supported for name and company");
+            };
+        }
+
+        return switch (field) {
+            case "name" -> searchByPrefixFallback(value, effectiveThreshold, pageable,
+                    this::findNameCandidates, Case::getName);
+            case "company" -> searchByPrefixFallback(value, effectiveThreshold, pageable,
+                    this::findCompanyCandidates, Case::getCompany);
+            default -> throw new IllegalArgumentException("Fuzzy search is only supported for name and company");
+        };
+    }
+
+    /**
+     * Get the effective similarity threshold for a request
+     */
+    public double resolveThreshold(Double threshold) {
+        double value = threshold != null ? threshold : defaultThreshold;
+        if (value < 0.05) {
+            return 0.05;
+        }
+        return Math.min(value, 1.0);
+    }
+
+    // ============ FALLBACK (NO pg_trgm) ============
+
+    private Page<Case> searchByPrefixFallback(String value, double threshold, Pageable pageable,
+                                              Function<String, List<Case>> candidateLoader,
+                                              Function<Case, String> fieldAccessor) {
+        List<Case> candidates = candidateLoader.apply(value);
+
+        List<ScoredCase> matches = new ArrayList<>();
+        for (Case candidate : candidates) {
+            double similarity = ValidationUtils.trigramSimilarity(fieldAccessor.apply(candidate), value);
+            if (similarity >= threshold) {
+                matches.add(new ScoredCase(candidate, similarity));
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble(ScoredCase::similarity).reversed());
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        List<Case> pageContent = matches.subList(from, to).stream().map(ScoredCase::caseEntity).toList();
+
+        return new PageImpl<>(pageContent, pageable, matches.size());
+    }
+
+    private List<Case> findNameCandidates(String value) {
+        String[] prefixes = prefixPatterns(value);
+        return repository.findNamePrefixCandidates(prefixes[0], prefixes[1], prefixes[2],
+                PageRequest.of(0, maxCandidates));
+    }
+
+    private List<Case> findCompanyCandidates(String value) {
+        String[] prefixes = prefixPatterns(value);
+        return repository.findCompanyPrefixCandidates(prefixes[0], prefixes[1], prefixes[2],
+                PageRequest.of(0, maxCandidates));
+    }
+
+    /**
+     * LIKE patterns on the first two characters, in the spellings stored data commonly uses.
+     * Typos rarely hit the leading characters, and a bare prefix keeps the btree usable.
+     */
+    private String[] prefixPatterns(String value) {
+        String prefix = value.length() > 2 ? value.substring(0, 2) : value;
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        String capitalized = lower.isEmpty() ? lower
+                : Character.toUpperCase(lower.charAt(0)) + lower.substring(1);
+        return new String[]{
+                escapeLike(prefix) + "%",
+                escapeLike(capitalized) + "%",
+                escapeLike(lower) + "%"
+        };
+    }
+
+    // Literal match for LIKE ... ESCAPE '\'
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record ScoredCase(Case caseEntity, double similarity) {
+    }
+}
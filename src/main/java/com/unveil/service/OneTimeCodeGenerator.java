@@ -0,0 +1,136 @@
+package com.unveil.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 6-digit one-time codes (OTP and email verification) from one shared,
+ * pre-seeded, non-blocking SecureRandom.
+ *
+ * Codes are pre-generated into a lock-free pool that a background thread
+ * tops up in batches once it drops below the refill threshold; request
+ * threads only poll. An empty pool falls back to generating inline.
+ */
+@Service
+public class OneTimeCodeGenerator {
+
+    private static final int CODE_SPACE = 1_000_000;
+    // Largest multiple of 10^6 below 2^32: rejecting above it keeps codes uniform
+    private static final long UNBIASED_LIMIT = (1L << 32) - ((1L << 32) % CODE_SPACE);
+
+    private final SecureRandom random;
+    private final int poolSize;
+    private final int refillThreshold;
+
+    private final ConcurrentLinkedQueue<String> pool = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooled = new AtomicInteger();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "otp-code-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OneTimeCodeGenerator(@Value("${app.codes.pool-size:1024}") int poolSize,
+                                @Value("${app.codes.refill-threshold:256}") int refillThreshold) {
+        this.random = createRandom();
+        this.poolSize = Math.max(1, poolSize);
+        this.refillThreshold = Math.min(Math.max(0, refillThreshold), this.poolSize - 1);
+
+        // Seed now rather than on the first request, then fill the pool
+        random.nextBytes(new byte[32]);
+        refill();
+    }
+
+    /**
+     * Next 6-digit code ("000000" - "999999")
+     */
+    public String nextCode() {
+        String code = pool.poll();
+        if (code == null) {
+            scheduleRefill();
+            return generate(randomInt());
+        }
+        if (pooled.decrementAndGet() < refillThreshold) {
+            scheduleRefill();
+        }
+        return code;
+    }
+
+    public int pooledCodes() {
+        return pooled.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    // ============ HELPER METHODS ============
+
+    private void scheduleRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            try {
+                refiller.execute(() -> {
+                    try {
+                        refill();
+                    } finally {
+                        refilling.set(false);
+                    }
+                });
+            } catch (RuntimeException e) {
+                refilling.set(false); // Executor shut down
+            }
+        }
+    }
+
+    private void refill() {
+        int missing = poolSize - pooled.get();
+        if (missing <= 0) {
+            return;
+        }
+
+        // One bulk draw for the whole batch
+        byte[] bytes = new byte[missing * 4];
+        random.nextBytes(bytes);
+        for (int i = 0; i < missing; i++) {
+            long value = ((bytes[i * 4] & 0xffL) << 24) | ((bytes[i * 4 + 1] & 0xffL) << 16)
+                    | ((bytes[i * 4 + 2] & 0xffL) << 8) | (bytes[i * 4 + 3] & 0xffL);
+            int code = value < UNBIASED_LIMIT ? (int) (value % CODE_SPACE) : randomInt();
+            pool.offer(generate(code));
+            pooled.incrementAndGet();
+        }
+    }
+
+    private int randomInt() {
+        return random.nextInt(CODE_SPACE);
+    }
+
+    // Zero-padded 6 digits without String.format
+    private static String generate(int code) {
+        char[] digits = new char[6];
+        for (int i = 5; i >= 0; i--) {
+            digits[i] = (char) ('0' + code % 10);
+            code /= 10;
+        }
+        return new String(digits);
+    }
+
+    private static SecureRandom createRandom() {
+        try {
+            return SecureRandom.getInstance("NativePRNGNonBlocking");
+        } catch (NoSuchAlgorithmException e) {
+            // e.g. Windows: the platform default does not block
+            return new SecureRandom();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.unveil.service;
 
+import com.unveil.state.StateStore;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -11,21 +14,27 @@ import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
 import jakarta.annotation.PostConstruct;
-import java.security.SecureRandom;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
 
 @Service
 public class OtpService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final StateStore stateStore;
+    private final OneTimeCodeGenerator codeGenerator;
     private SecretKey jwtSecretKey;
 
-    // In-memory storage (use Redis in production)
-    private final Map<String, OtpData> otpStorage = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> rateLimitMap = new ConcurrentHashMap<>();
+    // Shared state keys (any instance can verify an OTP sent by another)
+    private static final String OTP_KEY = "otp:code:";            // value "<otp>:<expiresAtMillis>"
+    private static final String ATTEMPTS_KEY = "otp:attempts:";
+    private static final String RATE_LIMIT_KEY = "otp:rate:";
+    // Entries outlive the OTP briefly so an expired code reports "expired" rather than "not found"
+    private static final Duration EXPIRED_GRACE = Duration.ofMinutes(1);
 
     @Value("${app.otp.expiry-minutes:5}")
     private int otpExpiryMinutes;
@@ -42,8 +51,12 @@ public class OtpService {
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
-    public OtpService(JavaMailSender mailSender) {
+    public OtpService(JavaMailSender mailSender, MeterRegistry meterRegistry, StateStore stateStore,
+                      OneTimeCodeGenerator codeGenerator) {
         this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.stateStore = stateStore;
+        this.codeGenerator = codeGenerator;
     }
 
     @PostConstruct
@@ -68,18 +81,18 @@ public class OtpService {
         // Generate OTP
         String otp = generateOtp();
 
-        // Store OTP
-        OtpData otpData = new OtpData(otp, LocalDateTime.now().plusMinutes(otpExpiryMinutes), 0);
-        otpStorage.put(normalizedEmail, otpData);
+        // Store OTP (a new OTP resets the attempt count)
+        Duration expiry = Duration.ofMinutes(otpExpiryMinutes);
+        long expiresAt = System.currentTimeMillis() + expiry.toMillis();
+        stateStore.put(OTP_KEY + normalizedEmail, otp + ":" + expiresAt, expiry.plus(EXPIRED_GRACE));
+        stateStore.remove(ATTEMPTS_KEY + normalizedEmail);
 
         // Send email
         sendOtpEmail(normalizedEmail, otp);
 
         // Update rate limit
-        rateLimitMap.put(normalizedEmail, LocalDateTime.now());
-
-        // Cleanup expired entries
-        cleanupExpiredOtps();
+        stateStore.put(RATE_LIMIT_KEY + normalizedEmail, String.valueOf(System.currentTimeMillis()),
+                Duration.ofMinutes(rateLimitMinutes));
     }
 
     /**
@@ -88,32 +101,46 @@ public class OtpService {
     public String verifyOtp(String email, String otp, String ipAddress) {
         String normalizedEmail = email.toLowerCase().trim();
 
-        OtpData otpData = otpStorage.get(normalizedEmail);
+        String otpKey = OTP_KEY + normalizedEmail;
+        String attemptsKey = ATTEMPTS_KEY + normalizedEmail;
+
+        // One batched read for the code and its attempt count
+        Map<String, String> state = stateStore.getAll(List.of(otpKey, attemptsKey));
+        String stored = state.get(otpKey);
 
-        if (otpData == null) {
+        if (stored == null) {
             throw new IllegalArgumentException("No OTP found for this email");
         }
 
+        int separator = stored.lastIndexOf(':');
+        String storedOtp = stored.substring(0, separator);
+        long expiresAt = Long.parseLong(stored.substring(separator + 1));
+
         // Check if expired
-        if (LocalDateTime.now().isAfter(otpData.expiryTime)) {
-            otpStorage.remove(normalizedEmail);
+        if (System.currentTimeMillis() > expiresAt) {
+            stateStore.remove(otpKey);
             throw new IllegalArgumentException("OTP has expired");
         }
 
         // Check attempts
-        if (otpData.attempts >= maxAttempts) {
-            otpStorage.remove(normalizedEmail);
+        int attempts = state.containsKey(attemptsKey) ? Integer.parseInt(state.get(attemptsKey)) : 0;
+        if (attempts >= maxAttempts) {
+            stateStore.remove(otpKey);
             throw new IllegalArgumentException("Too many failed attempts");
         }
 
         // Verify OTP
-        if (!otpData.otp.equals(otp)) {
-            otpData.attempts++;
+        if (!storedOtp.equals(otp)) {
+            stateStore.increment(attemptsKey, 1,
+                    Duration.ofMillis(expiresAt - System.currentTimeMillis()).plus(EXPIRED_GRACE));
             throw new IllegalArgumentException("Invalid OTP");
         }
 
-        // OTP is valid - remove from storage and generate token
-        otpStorage.remove(normalizedEmail);
+        // OTP is valid - remove from storage (single use across instances) and generate token
+        if (!stateStore.remove(otpKey, stored)) {
+            throw new IllegalArgumentException("No OTP found for this email");
+        }
+        stateStore.remove(attemptsKey);
         return generateToken(normalizedEmail);
     }
 
@@ -151,19 +178,35 @@ public class OtpService {
         }
     }
 
+    /**
+     * Validate a JWT token and get its email with a single parse
+     * @return empty if the token is invalid or expired
+     */
+    public Optional<String> getVerifiedEmail(String token) {
+        try {
+            Claims claims = Jwts.parser()
+                    .verifyWith(jwtSecretKey)
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+
+            return claims.getExpiration().before(new Date()) ? Optional.empty() : Optional.ofNullable(claims.getSubject());
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+
     // Private helper methods
 
     private void checkRateLimit(String email) {
-        LocalDateTime lastRequest = rateLimitMap.get(email);
-        if (lastRequest != null &&
-                lastRequest.plusMinutes(rateLimitMinutes).isAfter(LocalDateTime.now())) {
+        // The entry lives exactly as long as the rate-limit window
+        if (stateStore.get(RATE_LIMIT_KEY + email).isPresent()) {
             throw new RuntimeException("Please wait " + rateLimitMinutes + " minute(s) before requesting another OTP");
         }
     }
 
     private String generateOtp() {
-        SecureRandom random = new SecureRandom();
-        return String.format("%06d", random.nextInt(1000000));
+        return codeGenerator.nextCode();
     }
 
     private String generateToken(String email) {
@@ -175,6 +218,8 @@ public class OtpService {
     }
 
     private void sendOtpEmail(String email, String otp) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
         try {
             SimpleMailMessage message = new SimpleMailMessage();
             message.setFrom(fromEmail);
@@ -183,8 +228,15 @@ public class OtpService {
             message.setText(createEmailText(otp));
 
             mailSender.send(message);
+            outcome = "sent";
         } catch (Exception e) {
             throw new RuntimeException("Failed to send OTP email: " + e.getMessage());
+        } finally {
+            sample.stop(Timer.builder("unveil.mail.send")
+                    .description("Mail send latency")
+                    .tag("type", "otp")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
@@ -204,24 +256,4 @@ public class OtpService {
     private boolean isValidEmail(String email) {
         return email.matches("^[a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\\.[a-zA-Z]{2,}$");
     }
-
-    private void cleanupExpiredOtps() {
-        LocalDateTime now = LocalDateTime.now();
-        otpStorage.entrySet().removeIf(entry -> now.isAfter(entry.getValue().expiryTime));
-        rateLimitMap.entrySet().removeIf(entry ->
-                now.isAfter(entry.getValue().plusMinutes(rateLimitMinutes * 2L)));
-    }
-
-    // Inner class to store OTP data
-    private static class OtpData {
-        final String otp;
-        final LocalDateTime expiryTime;
-        int attempts;
-
-        OtpData(String otp, LocalDateTime expiryTime, int attempts) {
-            this.otp = otp;
-            this.expiryTime = expiryTime;
-            this.attempts = attempts;
-        }
-    }
 }
\ No newline at end of file
@@ -0,0 +1,274 @@
+package com.unveil.service;
+
+import com.unveil.entity.ScamType;
+import com.unveil.repository.CaseRepository;
+import com.unveil.repository.ScamTypeRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Scam type dictionary with maintained per-type case counts.
+ *
+ * The dictionary is small (tens of types), so it is held in memory and
+ * category listing / top-N are answered in O(#types) without touching
+ * the cases table. Counts are written to scam_types in the caller's
+ * transaction and applied to the in-memory copy after commit. Types and
+ * counts written by other instances are picked up on a cache miss (lookup
+ * by name) and by a periodic reload of scam_types.
+ */
+@Service
+public class ScamTypeService implements ApplicationRunner {
+
+    private final ScamTypeRepository scamTypeRepository;
+    private final CaseRepository caseRepository;
+
+    // normalized name -> entry, id -> entry
+    private final Map<String, ScamTypeEntry> byNormalizedName = new ConcurrentHashMap<>();
+    private final Map<Integer, ScamTypeEntry> byId = new ConcurrentHashMap<>();
+
+    public ScamTypeService(ScamTypeRepository scamTypeRepository, CaseRepository caseRepository) {
+        this.scamTypeRepository = scamTypeRepository;
+        this.caseRepository = caseRepository;
+    }
+
+    /**
+     * Link pre-existing cases to the dictionary, resync counts and load the cache
+     */
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        // Backfill: one grouped query over cases not yet linked
+        for (Object[] row : caseRepository.countUnlinkedActions()) {
+            String actions = (String) row[0];
+            ScamType scamType = findOrCreate(actions);
+            if (scamType != null) {
+                caseRepository.linkScamType(actions, scamType.getId());
+            }
+        }
+
+        // Resync maintained counts from one grouped query
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Object[] row : caseRepository.countCasesByScamType()) {
+            counts.put((Integer) row[0], ((Number) row[1]).longValue());
+        }
+
+        byNormalizedName.clear();
+        byId.clear();
+        for (ScamType scamType : scamTypeRepository.findAll()) {
+            long count = counts.getOrDefault(scamType.getId(), 0L);
+            if (scamType.getCaseCount() == null || scamType.getCaseCount() != count) {
+                scamTypeRepository.updateCaseCount(scamType.getId(), count);
+            }
+            cache(new ScamTypeEntry(scamType.getId(), scamType.getName(), count));
+        }
+    }
+
+    /**
+     * Reload types and maintained counts from scam_types (small), so types created and cases
+     * counted on other instances show up in listings
+     */
+    @Scheduled(fixedDelayString = "${app.scam-types.refresh-interval-ms:60000}",
+            initialDelayString = "${app.scam-types.refresh-interval-ms:60000}")
+    public void refresh() {
+        for (ScamType scamType : scamTypeRepository.findAll()) {
+            long count = scamType.getCaseCount() != null ? scamType.getCaseCount() : 0;
+            ScamTypeEntry entry = byId.get(scamType.getId());
+            if (entry != null) {
+                entry.caseCount.set(count);
+            } else {
+                cache(new ScamTypeEntry(scamType.getId(), scamType.getName(), count));
+            }
+        }
+    }
+
+    /**
+     * Resolve (creating if needed) the scam type id for a case's actions and count the case
+     * Must be called within the transaction that saves the case
+     */
+    @Transactional
+    public Integer assignToNewCase(String actions) {
+        ScamType scamType = findOrCreate(actions);
+        if (scamType == null) {
+            return null;
+        }
+        adjustCount(scamType.getId(), 1);
+        return scamType.getId();
+    }
+
+    /**
+     * Move a case between scam types (case update)
+     * @return the new scam type id
+     */
+    @Transactional
+    public Integer reassign(Integer previousScamTypeId, String newActions) {
+        ScamType scamType = findOrCreate(newActions);
+        Integer newId = scamType != null ? scamType.getId() : null;
+
+        if (!Objects.equals(previousScamTypeId, newId)) {
+            if (previousScamTypeId != null) {
+                adjustCount(previousScamTypeId, -1);
+            }
+            if (newId != null) {
+                adjustCount(newId, 1);
+            }
+        }
+        return newId;
+    }
+
+    /**
+     * Uncount a deleted case
+     */
+    @Transactional
+    public void removeCase(Integer scamTypeId) {
+        if (scamTypeId != null) {
+            adjustCount(scamTypeId, -1);
+        }
+    }
+
+    /**
+     * Find the scam type id for a free-text scam type (exact, case-insensitive)
+     */
+    public Optional<Integer> findId(String actions) {
+        String normalized = ScamType.normalize(actions);
+        if (normalized == null) {
+            return Optional.empty();
+        }
+        ScamTypeEntry entry = byNormalizedName.get(normalized);
+        if (entry != null) {
+            return Optional.of(entry.id);
+        }
+
+        // Possibly created on another instance since the dictionary was loaded
+        Optional<ScamType> stored = scamTypeRepository.findByNormalizedName(normalized);
+        stored.ifPresent(scamType -> cache(new ScamTypeEntry(scamType.getId(), scamType.getName(),
+                scamType.getCaseCount() != null ? scamType.getCaseCount() : 0)));
+        return stored.map(ScamType::getId);
+    }
+
+    /**
+     * All scam type names in alphabetical order
+     */
+    public List<String> getAllNames() {
+        return byId.values().stream()
+                .filter(entry -> entry.caseCount.get() > 0)
+                .map(entry -> entry.name)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .toList();
+    }
+
+    /**
+     * Scam types with the most cases, most first
+     */
+    public List<Map<String, Object>> getTopScamTypes(int limit) {
+        return byId.values().stream()
+                .filter(entry -> entry.caseCount.get() > 0)
+                .sorted(Comparator.comparingLong((ScamTypeEntry entry) -> entry.caseCount.get()).reversed())
+                .limit(limit)
+                .map(ScamTypeEntry::toMap)
+                .toList();
+    }
+
+    /**
+     * All scam types with ids and counts, alphabetical
+     */
+    public List<Map<String, Object>> getAllScamTypes() {
+        return byId.values().stream()
+                .filter(entry -> entry.caseCount.get() > 0)
+                .sorted(Comparator.comparing((ScamTypeEntry entry) -> entry.name, String.CASE_INSENSITIVE_ORDER))
+                .map(ScamTypeEntry::toMap)
+                .toList();
+    }
+
+    // ============ HELPER METHODS ============
+
+    private ScamType findOrCreate(String actions) {
+        String normalized = ScamType.normalize(actions);
+        if (normalized == null) {
+            return null;
+        }
+
+        ScamTypeEntry cached = byNormalizedName.get(normalized);
+        if (cached != null) {
+            ScamType scamType = new ScamType();
+            scamType.setId(cached.id);
+            scamType.setName(cached.name);
+            scamType.setNormalizedName(normalized);
+            return scamType;
+        }
+
+        // New types are rare; serialize creation within this instance, and across
+        // instances through the unique normalized name (insert if absent, then read back)
+        synchronized (this) {
+            Optional<ScamType> existing = scamTypeRepository.findByNormalizedName(normalized);
+            if (existing.isEmpty()) {
+                scamTypeRepository.insertIfAbsent(actions.trim().replaceAll("\\s+", " "), normalized);
+                existing = scamTypeRepository.findByNormalizedName(normalized);
+            }
+
+            ScamType scamType = existing.orElseThrow();
+            afterCommit(() -> cache(new ScamTypeEntry(scamType.getId(), scamType.getName(),
+                    scamType.getCaseCount())));
+            return scamType;
+        }
+    }
+
+    private void adjustCount(Integer scamTypeId, long delta) {
+        scamTypeRepository.adjustCaseCount(scamTypeId, delta);
+        afterCommit(() -> {
+            ScamTypeEntry entry = byId.get(scamTypeId);
+            if (entry != null) {
+                entry.caseCount.addAndGet(delta);
+            }
+        });
+    }
+
+    private void cache(ScamTypeEntry entry) {
+        ScamTypeEntry existing = byId.putIfAbsent(entry.id, entry);
+        if (existing == null) {
+            byNormalizedName.put(ScamType.normalize(entry.name), entry);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // In-memory dictionary entry
+    private static class ScamTypeEntry {
+        final Integer id;
+        final String name;
+        final AtomicLong caseCount;
+
+        ScamTypeEntry(Integer id, String name, long caseCount) {
+            this.id = id;
+            this.name = name;
+            this.caseCount = new AtomicLong(caseCount);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", id);
+            map.put("name", name);
+            map.put("caseCount", caseCount.get());
+            return map;
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.unveil.service;
 
+import com.unveil.cache.CaseCache;
 import com.unveil.entity.Case;
 import com.unveil.repository.CaseRepository;
+import com.unveil.util.ContactKeys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -17,20 +21,67 @@ import java.util.Optional;
 public class SearchService {
 
     private final CaseRepository repository;
-
-    public SearchService(CaseRepository caseRepository) {
+    private final FuzzySearchService fuzzySearchService;
+    private final ScamTypeService scamTypeService;
+    private final EmailDomainStatsService emailDomainStatsService;
+    private final CaseCache caseCache;
+    private final VoteTallyShards voteTallyShards;
+    private final MeterRegistry meterRegistry;
+
+    public SearchService(CaseRepository caseRepository, FuzzySearchService fuzzySearchService,
+                         ScamTypeService scamTypeService, EmailDomainStatsService emailDomainStatsService,
+                         CaseCache caseCache, VoteTallyShards voteTallyShards, MeterRegistry meterRegistry) {
         this.repository = caseRepository;
+        this.fuzzySearchService = fuzzySearchService;
+        this.scamTypeService = scamTypeService;
+        this.emailDomainStatsService = emailDomainStatsService;
+        this.caseCache = caseCache;
+        this.voteTallyShards = voteTallyShards;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
      * Search by specific filter with pagination
      */
     public Page<Case> searchByFilter(String filter, String value, int page, int size) {
-        // Validate filter
+        return searchByFilter(filter, value, page, size, "contains", null);
+    }
+
+    /**
+     * Search by specific filter with pagination and match mode
+     * @param mode "contains" (default) or "fuzzy" (similarity ranked, name/company only)
+     * @param threshold similarity threshold for fuzzy mode, null for the configured default
+     */
+    public Page<Case> searchByFilter(String filter, String value, int page, int size, String mode, Double threshold) {
         String normalizedFilter = filter.toLowerCase().trim();
+        String filterTag = isValidFilter(normalizedFilter) ? normalizedFilter : "unsupported";
+        String modeTag = "fuzzy".equalsIgnoreCase(mode) ? "fuzzy" : "contains";
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Page<Case> results = doSearchByFilter(filter, normalizedFilter, value, page, size, mode, threshold);
+            outcome = results.isEmpty() ? "empty" : "found";
+            return results;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("unveil.search")
+                    .description("Search latency by filter")
+                    .tag("filter", filterTag)
+                    .tag("mode", modeTag)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private Page<Case> doSearchByFilter(String filter, String normalizedFilter, String value, int page, int size,
+                                        String mode, Double threshold) {
+        // Validate filter
         if (!isValidFilter(normalizedFilter)) {
             throw new IllegalArgumentException("Unsupported filter: " + filter +
-                    ". Supported filters: name, email, phone, company, actions, all");
+                    ". Supported filters: name, email, phone, company, actions, domain, all");
         }
 
         // Validate value
@@ -38,6 +89,18 @@ public class SearchService {
             throw new IllegalArgumentException("Search value cannot be empty");
         }
 
+        // Fuzzy mode is ranked by similarity instead of creation date
+        String normalizedMode = mode != null ? mode.toLowerCase().trim() : "contains";
+        if (normalizedMode.equals("fuzzy")) {
+            if (!normalizedFilter.equals("name") && !normalizedFilter.equals("company")) {
+                throw new IllegalArgumentException("Fuzzy mode is only supported for filters: name, company");
+            }
+            return fuzzySearchService.searchSimilar(normalizedFilter, value.trim(), threshold,
+                    PageRequest.of(page, size));
+        } else if (!normalizedMode.equals("contains")) {
+            throw new IllegalArgumentException("Unsupported mode: " + mode + ". Supported modes: contains, fuzzy");
+        }
+
         // Create pageable object (sorted by creation date, newest first)
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
 
@@ -48,6 +111,7 @@ public class SearchService {
             case "phone" -> searchByPhone(value.trim(), pageable);
             case "company" -> searchByCompany(value.trim(), pageable);
             case "actions" -> searchByAction(value.trim(), pageable);
+            case "domain" -> searchByDomain(value.trim(), pageable);
             case "all" -> searchByAll(value.trim(), pageable);
             default -> throw new IllegalArgumentException("Unsupported filter: " + filter);
         };
@@ -57,21 +121,49 @@ public class SearchService {
      * Get Cases by verdict status
      */
     public Page<Case> getCasesByVerdictStatus(String verdictStatus, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("verdictScore").descending());
+        return getCasesByVerdictStatus(verdictStatus, page, size, "score");
+    }
 
-        return switch (verdictStatus.toLowerCase()) {
-            case "guilty" -> repository.findGuiltyCases(pageable);
-            case "not guilty" -> repository.findNotGuiltyCases(pageable);
-            case "pending" -> repository.findOnTrialCases(pageable);
+    /**
+     * Get Cases by verdict status
+     * @param sort "score" (raw verdict score) or "confidence" (Wilson lower bound, index-ordered)
+     */
+    public Page<Case> getCasesByVerdictStatus(String verdictStatus, int page, int size, String sort) {
+        int sign = switch (verdictStatus.toLowerCase()) {
+            case "guilty" -> 1;
+            case "not guilty" -> -1;
+            case "pending" -> 0;
             default -> throw new IllegalArgumentException("Invalid verdict status: " + verdictStatus);
         };
+
+        if ("confidence".equals(sort)) {
+            return repository.findByVerdictSignRanked(sign, PageRequest.of(page, size));
+        }
+
+        Pageable pageable = PageRequest.of(page, size, Sort.by("verdictScore").descending());
+        return switch (sign) {
+            case 1 -> repository.findGuiltyCases(pageable);
+            case -1 -> repository.findNotGuiltyCases(pageable);
+            default -> repository.findOnTrialCases(pageable);
+        };
     }
 
     /**
      * Get controversial Cases (close votes, high engagement)
      */
     public Page<Case> getControversialCases(int page, int size) {
+        return getControversialCases(page, size, "votes");
+    }
+
+    /**
+     * Get controversial Cases
+     * @param sort "votes" (close score, most votes first) or "controversy" (controversy score, index-ordered)
+     */
+    public Page<Case> getControversialCases(int page, int size, String sort) {
         Pageable pageable = PageRequest.of(page, size);
+        if ("controversy".equals(sort)) {
+            return repository.findByControversyRanked(pageable);
+        }
         return repository.findControversialCases(pageable);
     }
 
@@ -187,10 +279,37 @@ public class SearchService {
     }
 
     /**
-     * Search by scam type (partial match, case insensitive)
+     * Search by scam type (exact match on the scam type dictionary, case insensitive)
      */
     private Page<Case> searchByAction(String actions, Pageable pageable) {
-        return repository.findByActionsContainingIgnoreCase(actions, pageable);
+        return scamTypeService.findId(actions)
+                .map(scamTypeId -> repository.findByScamTypeId(scamTypeId, pageable))
+                .orElseGet(() -> Page.empty(pageable));
+    }
+
+    /**
+     * Search by scammer email domain (exact match on the maintained email_domain column)
+     */
+    private Page<Case> searchByDomain(String domain, Pageable pageable) {
+        String normalized = ContactKeys.domain(domain);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Invalid domain: " + domain);
+        }
+        return repository.findByEmailDomain(normalized, pageable);
+    }
+
+    /**
+     * Aggregate for a domain (case count, guilty count, latest case), without scanning cases
+     */
+    public Optional<Map<String, Object>> getDomainStats(String domain) {
+        return emailDomainStatsService.getDomain(domain);
+    }
+
+    /**
+     * Domains with the most guilty cases ("guilty") or the most cases ("cases")
+     */
+    public List<Map<String, Object>> getTopDomains(int limit, String sort) {
+        return emailDomainStatsService.getTopDomains(limit, sort);
     }
 
     /**
@@ -209,6 +328,7 @@ public class SearchService {
                 filter.equals("phone") ||
                 filter.equals("company") ||
                 filter.equals("actions") ||
+                filter.equals("domain") ||
                 filter.equals("all");
     }
 
@@ -229,17 +349,24 @@ public class SearchService {
     }
 
     /**
-     * Get a specific Case by ID
+     * Get a specific Case by ID (cached, read-only)
      */
     public Optional<Case> getCaseById(Long id) {
-        return repository.findById(id);
+        return caseCache.get(id, caseId -> repository.findById(caseId).map(voteTallyShards::withCurrentTally));
     }
 
     /**
      * Get all scam types for frontend filtering
      */
     public List<String> getAllActions() {
-        return repository.findAllActions();
+        return scamTypeService.getAllNames();
+    }
+
+    /**
+     * Get all scam types with ids and case counts
+     */
+    public List<Map<String, Object>> getAllScamTypes() {
+        return scamTypeService.getAllScamTypes();
     }
 
     /**
@@ -265,6 +392,9 @@ public class SearchService {
             caseEntity.setNotGuiltyVotes(0);
         }
 
-        return repository.save(caseEntity);
+        caseEntity.setScamTypeId(scamTypeService.assignToNewCase(caseEntity.getActions()));
+        Case savedCase = repository.save(caseEntity);
+        emailDomainStatsService.caseAdded(savedCase);
+        return savedCase;
     }
 }
\ No newline at end of file
@@ -0,0 +1,123 @@
+package com.unveil.service;
+
+import com.unveil.entity.VerificationCode;
+import com.unveil.repository.VerificationCodeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Active verification codes, keyed by email hash, kept in verification_codes.
+ *
+ * The table is the only copy, so every instance sees the same code and the
+ * same attempt count. Attempts are counted with a conditional UPDATE, so
+ * concurrent guesses on different nodes cannot exceed max_attempts between
+ * them, and a code can be consumed at most once. Expired rows are purged by
+ * the housekeeping scheduler.
+ */
+@Service
+public class VerificationCodeStore {
+
+    private final VerificationCodeRepository repository;
+
+    public VerificationCodeStore(VerificationCodeRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Newest active code for an email hash (may be exhausted; callers check)
+     */
+    @Transactional(readOnly = true)
+    public Optional<ActiveCode> find(String emailHash) {
+        List<VerificationCode> persisted = repository.findActiveCodesByEmailHash(emailHash, LocalDateTime.now());
+        if (persisted.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(ActiveCode.of(persisted.get(0)));
+    }
+
+    /**
+     * Persist a new code (one INSERT)
+     */
+    @Transactional
+    public ActiveCode issue(String emailHash, String code, LocalDateTime expiresAt, String ipAddress, int maxAttempts) {
+        VerificationCode verificationCode = new VerificationCode();
+        verificationCode.setEmailHash(emailHash);
+        verificationCode.setCode(code);
+        verificationCode.setExpiresAt(expiresAt);
+        verificationCode.setAttempts(0);
+        verificationCode.setMaxAttempts(maxAttempts);
+        verificationCode.setIpAddress(ipAddress);
+        verificationCode.setVerified(false);
+
+        return ActiveCode.of(repository.save(verificationCode));
+    }
+
+    /**
+     * Drop a code that was replaced, expired or ran out of attempts
+     */
+    @Transactional
+    public void discard(ActiveCode activeCode) {
+        repository.deleteCodeById(activeCode.id());
+    }
+
+    /**
+     * Count a wrong guess against the code
+     * @return false if the code had no attempts left (or was consumed meanwhile)
+     */
+    @Transactional
+    public boolean recordFailedAttempt(ActiveCode activeCode) {
+        return repository.incrementAttempts(activeCode.id()) > 0;
+    }
+
+    /**
+     * Consume a code after a correct guess (single use, counts as an attempt)
+     * @return false if it was already consumed or has no attempts left
+     */
+    @Transactional
+    public boolean consume(ActiveCode activeCode) {
+        return repository.markVerified(activeCode.id(), LocalDateTime.now()) > 0;
+    }
+
+    /**
+     * Snapshot of an active code as read from verification_codes
+     */
+    public record ActiveCode(Long id, String emailHash, String code, LocalDateTime expiresAt,
+                             LocalDateTime createdAt, int attempts, int maxAttempts) {
+
+        static ActiveCode of(VerificationCode code) {
+            return new ActiveCode(code.getId(), code.getEmailHash(), code.getCode(), code.getExpiresAt(),
+                    code.getCreatedAt() != null ? code.getCreatedAt() : LocalDateTime.now(),
+                    code.getAttempts() != null ? code.getAttempts() : 0,
+                    code.getMaxAttempts() != null ? code.getMaxAttempts() : 5);
+        }
+
+        public boolean isExpired(LocalDateTime now) {
+            return !expiresAt.isAfter(now);
+        }
+
+        public boolean isExhausted() {
+            return attempts >= maxAttempts;
+        }
+
+        public boolean matches(String guess) {
+            return code.equals(guess);
+        }
+
+        /**
+         * Attempts left after this one is counted
+         */
+        public int remainingAfterAttempt() {
+            return Math.max(0, maxAttempts - attempts - 1);
+        }
+
+        @Override
+        public String toString() {
+            // Never log the code itself
+            return "ActiveCode[id=" + id + ", attempts=" + attempts + "/" + maxAttempts + "]";
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.unveil.service;
 
-import com.unveil.entity.VerificationCode;
 import com.unveil.repository.VerificationCodeRepository;
+import com.unveil.state.StateStore;
+import com.unveil.util.HashUtils;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
@@ -15,26 +18,29 @@ import org.springframework.transaction.annotation.Transactional;
 
 import javax.crypto.SecretKey;
 import jakarta.mail.internet.MimeMessage;
-import java.security.MessageDigest;
-import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @Transactional
 public class VerificationService {
 
     private final VerificationCodeRepository verificationCodeRepository;
+    private final VerificationCodeStore verificationCodeStore;
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+    private final StateStore stateStore;
+    private final OneTimeCodeGenerator codeGenerator;
     private final SecretKey jwtSecretKey;
 
-    // Rate limiting maps (in production, use Redis)
-    private final Map<String, LocalDateTime> emailRateLimit = new ConcurrentHashMap<>();
-    private final Map<String, LocalDateTime> ipRateLimit = new ConcurrentHashMap<>();
-    private final Map<String, Integer> ipAttemptCount = new ConcurrentHashMap<>();
+    // Rate limiting state, shared across instances via the state store
+    private static final String EMAIL_RATE_LIMIT_KEY = "verification:rate-email:";
+    private static final String IP_RATE_LIMIT_KEY = "verification:rate-ip:";
+    private static final String IP_ATTEMPTS_KEY = "verification:attempts-ip:";
 
     // Configuration
     @Value("${app.verification.code-expiry-minutes:10}")
@@ -49,19 +55,29 @@ public class VerificationService {
     @Value("${app.verification.rate-limit-minutes:1}")
     private int rateLimitMinutes;
 
+    @Value("${app.verification.attempt-window-minutes:60}")
+    private int attemptWindowMinutes;
+
     @Value("${app.verification.from-email:noreply@unveil.com}")
     private String fromEmail;
 
     @Value("${app.verification.from-name:Unveil}")
     private String fromName;
 
-    @Value("${app.jwt.secret:your-very-secure-jwt-secret-key-that-is-at-least-256-bits-long}")
-    private String jwtSecret;
-
     public VerificationService(VerificationCodeRepository verificationCodeRepository,
-                               JavaMailSender mailSender) {
+                               VerificationCodeStore verificationCodeStore,
+                               JavaMailSender mailSender,
+                               MeterRegistry meterRegistry,
+                               StateStore stateStore,
+                               OneTimeCodeGenerator codeGenerator,
+                               @Value("${app.jwt.secret:your-very-secure-jwt-secret-key-that-is-at-least-256-bits-long}")
+                               String jwtSecret) {
         this.verificationCodeRepository = verificationCodeRepository;
+        this.verificationCodeStore = verificationCodeStore;
         this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
+        this.stateStore = stateStore;
+        this.codeGenerator = codeGenerator;
         this.jwtSecretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
 
@@ -84,32 +100,21 @@ public class VerificationService {
         String code = generateVerificationCode();
         String emailHash = hashEmail(normalizedEmail);
 
-        // Clean up expired codes for this email
-        verificationCodeRepository.deleteExpiredCodesForEmail(emailHash);
-
         // Check if there's a recent valid code
-        Optional<VerificationCode> existingCode = verificationCodeRepository
-                .findActiveCodeByEmailHash(emailHash);
+        LocalDateTime now = LocalDateTime.now();
+        Optional<VerificationCodeStore.ActiveCode> existingCode = verificationCodeStore.find(emailHash);
 
         if (existingCode.isPresent()) {
-            VerificationCode existing = existingCode.get();
-            if (existing.getCreatedAt().plusMinutes(1).isAfter(LocalDateTime.now())) {
+            VerificationCodeStore.ActiveCode existing = existingCode.get();
+            if (!existing.isExpired(now) && existing.createdAt().plusMinutes(1).isAfter(now)) {
                 throw new RuntimeException("A verification code was recently sent. Please wait a minute before requesting another.");
             }
-            // Delete existing code if it's old enough
-            verificationCodeRepository.delete(existing);
+            // Replace the old (or expired) code
+            verificationCodeStore.discard(existing);
         }
 
         // Create new verification code
-        VerificationCode verificationCode = new VerificationCode();
-        verificationCode.setEmailHash(emailHash);
-        verificationCode.setCode(code);
-        verificationCode.setExpiresAt(LocalDateTime.now().plusMinutes(codeExpiryMinutes));
-        verificationCode.setAttempts(0);
-        verificationCode.setIpAddress(ipAddress);
-        verificationCode.setVerified(false);
-
-        verificationCodeRepository.save(verificationCode);
+        verificationCodeStore.issue(emailHash, code, now.plusMinutes(codeExpiryMinutes), ipAddress, maxAttempts);
 
         // Send email
         sendVerificationEmail(normalizedEmail, code);
@@ -124,7 +129,9 @@ public class VerificationService {
 
     /**
      * Verify code and return token
+     * Rejections still commit, so counted attempts and discarded codes persist
      */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
     public Map<String, Object> verifyCode(String email, String code, String ipAddress) {
         String normalizedEmail = email.toLowerCase().trim();
         String emailHash = hashEmail(normalizedEmail);
@@ -133,50 +140,49 @@ public class VerificationService {
         checkVerificationAttemptLimit(ipAddress);
 
         // Find verification code
-        Optional<VerificationCode> verificationCodeOpt = verificationCodeRepository
-                .findActiveCodeByEmailHash(emailHash);
+        Optional<VerificationCodeStore.ActiveCode> verificationCodeOpt = verificationCodeStore.find(emailHash);
 
         if (verificationCodeOpt.isEmpty()) {
             incrementAttemptCount(ipAddress);
             throw new IllegalArgumentException("Verification code has expired or does not exist. Please request a new code.");
         }
 
-        VerificationCode verificationCode = verificationCodeOpt.get();
+        VerificationCodeStore.ActiveCode verificationCode = verificationCodeOpt.get();
 
         // Check if expired
-        if (verificationCode.getExpiresAt().isBefore(LocalDateTime.now())) {
-            verificationCodeRepository.delete(verificationCode);
+        if (verificationCode.isExpired(LocalDateTime.now())) {
+            verificationCodeStore.discard(verificationCode);
             incrementAttemptCount(ipAddress);
             throw new IllegalArgumentException("Verification code has expired. Please request a new code.");
         }
 
         // Check attempt limit
-        if (verificationCode.getAttempts() >= maxAttempts) {
-            verificationCodeRepository.delete(verificationCode);
+        if (verificationCode.isExhausted()) {
             incrementAttemptCount(ipAddress);
-            throw new IllegalArgumentException("Too many failed attempts. Please request a new verification code.");
+            rejectExhausted(verificationCode);
         }
 
-        // Verify code
-        if (!verificationCode.getCode().equals(code)) {
-            verificationCode.setAttempts(verificationCode.getAttempts() + 1);
-            verificationCodeRepository.save(verificationCode);
+        // Verify code (attempts are counted on the row, so the limit holds across instances)
+        if (!verificationCode.matches(code)) {
             incrementAttemptCount(ipAddress);
+            if (!verificationCodeStore.recordFailedAttempt(verificationCode)) {
+                rejectExhausted(verificationCode);
+            }
 
-            int remainingAttempts = maxAttempts - verificationCode.getAttempts();
+            int remainingAttempts = verificationCode.remainingAfterAttempt();
             throw new IllegalArgumentException("Invalid verification code. " + remainingAttempts + " attempts remaining.");
         }
 
-        // Mark as verified
-        verificationCode.setVerified(true);
-        verificationCode.setVerifiedAt(LocalDateTime.now());
-        verificationCodeRepository.save(verificationCode);
+        // Mark as verified (single use: a concurrent correct guess loses, and so does one past the limit)
+        if (!verificationCodeStore.consume(verificationCode)) {
+            throw new IllegalArgumentException("Verification code has expired or does not exist. Please request a new code.");
+        }
 
         // Generate JWT token
         String token = generateVerificationToken(normalizedEmail);
 
         // Clear attempt count for this IP
-        ipAttemptCount.remove(ipAddress);
+        stateStore.remove(IP_ATTEMPTS_KEY + ipAddress);
 
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
@@ -258,43 +264,47 @@ public class VerificationService {
     // ============ PRIVATE HELPER METHODS ============
 
     private void checkRateLimit(String email, String ipAddress) {
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime rateLimitTime = now.minusMinutes(rateLimitMinutes);
+        // Entries live exactly as long as the rate-limit window; one batched read
+        Map<String, String> limits = stateStore.getAll(List.of(EMAIL_RATE_LIMIT_KEY + email, IP_RATE_LIMIT_KEY + ipAddress));
 
         // Check email rate limit
-        LocalDateTime lastEmailRequest = emailRateLimit.get(email);
-        if (lastEmailRequest != null && lastEmailRequest.isAfter(rateLimitTime)) {
+        if (limits.containsKey(EMAIL_RATE_LIMIT_KEY + email)) {
             throw new RuntimeException("Too many requests for this email. Please wait " + rateLimitMinutes + " minute(s) before requesting another code.");
         }
 
         // Check IP rate limit
-        LocalDateTime lastIpRequest = ipRateLimit.get(ipAddress);
-        if (lastIpRequest != null && lastIpRequest.isAfter(rateLimitTime)) {
+        if (limits.containsKey(IP_RATE_LIMIT_KEY + ipAddress)) {
             throw new RuntimeException("Too many requests from this IP. Please wait " + rateLimitMinutes + " minute(s) before requesting another code.");
         }
     }
 
     private void updateRateLimit(String email, String ipAddress) {
-        LocalDateTime now = LocalDateTime.now();
-        emailRateLimit.put(email, now);
-        ipRateLimit.put(ipAddress, now);
+        String now = LocalDateTime.now().toString();
+        stateStore.putAll(Map.of(
+                EMAIL_RATE_LIMIT_KEY + email, now,
+                IP_RATE_LIMIT_KEY + ipAddress, now
+        ), Duration.ofMinutes(rateLimitMinutes));
     }
 
     private void checkVerificationAttemptLimit(String ipAddress) {
-        Integer attempts = ipAttemptCount.getOrDefault(ipAddress, 0);
+        int attempts = stateStore.get(IP_ATTEMPTS_KEY + ipAddress).map(Integer::parseInt).orElse(0);
         if (attempts >= 10) { // 10 attempts per IP before blocking
             throw new RuntimeException("Too many verification attempts from this IP. Please try again later.");
         }
     }
 
     private void incrementAttemptCount(String ipAddress) {
-        ipAttemptCount.merge(ipAddress, 1, Integer::sum);
+        // Failed attempts are forgotten after a quiet window since the last failure
+        stateStore.increment(IP_ATTEMPTS_KEY + ipAddress, 1, Duration.ofMinutes(attemptWindowMinutes));
+    }
+
+    private void rejectExhausted(VerificationCodeStore.ActiveCode verificationCode) {
+        verificationCodeStore.discard(verificationCode);
+        throw new IllegalArgumentException("Too many failed attempts. Please request a new verification code.");
     }
 
     private String generateVerificationCode() {
-        SecureRandom random = new SecureRandom();
-        int code = 100000 + random.nextInt(900000); // 6-digit code
-        return String.valueOf(code);
+        return codeGenerator.nextCode(); // 6-digit code
     }
 
     private String generateVerificationToken(String email) {
@@ -310,21 +320,7 @@ public class VerificationService {
     }
 
     private String hashEmail(String email) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(email.getBytes("UTF-8"));
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1) {
-                    hexString.append('0');
-                }
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to hash email", e);
-        }
+        return HashUtils.sha256Hex(email);
     }
 
     private boolean isValidEmail(String email) {
@@ -332,6 +328,8 @@ public class VerificationService {
     }
 
     private void sendVerificationEmail(String email, String code) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
         try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
@@ -347,9 +345,16 @@ public class VerificationService {
             helper.setText(textContent, htmlContent);
 
             mailSender.send(message);
+            outcome = "sent";
 
         } catch (Exception e) {
             throw new RuntimeException("Failed to send verification email", e);
+        } finally {
+            sample.stop(Timer.builder("unveil.mail.send")
+                    .description("Mail send latency")
+                    .tag("type", "verification")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
         }
     }
 
@@ -1,32 +1,92 @@
 package com.unveil.service;
 
+import com.unveil.cache.CaseCache;
+import com.unveil.dto.BatchVoteRequestDto;
 import com.unveil.entity.Case;
+import com.unveil.entity.Vote;
+import com.unveil.journal.VoteJournal;
+import com.unveil.journal.VoteRecord;
 import com.unveil.repository.CaseRepository;
+import com.unveil.repository.VoteRepository;
+import com.unveil.state.StateStore;
+import com.unveil.util.HashUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.UUID;
 
 @Service
 public class VoteService {
 
-    private final CaseRepository repository;
-
-    // Enhanced vote tracking: supports both IP and email-based voting
-    // Format: "email:user@example.com" or "ip:192.168.1.1"
-    private final Map<String, Set<Long>> voterCaseMap = new ConcurrentHashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(VoteService.class);
 
-    public VoteService(CaseRepository caseRepository) {
+    private final CaseRepository repository;
+    private final VoteRepository voteRepository;
+    private final VoteWriter voteWriter;
+    private final VoteTallyShards voteTallyShards;
+    private final EmailDomainStatsService emailDomainStatsService;
+    private final CaseCache caseCache;
+    private final ActivityTrendService activityTrendService;
+    private final MeterRegistry meterRegistry;
+    private final StateStore stateStore;
+    private final VoteJournal journal;
+    private final long journalTimeoutMillis;
+    private final Duration voteMarkerTtl;
+
+    // Enhanced vote tracking: supports both IP and email-based voting, shared across instances
+    // Voter identifier format: "email:user@example.com" or "ip:192.168.1.1"; tracked as the
+    // hashed voter reference "email:<sha256 hex>" / "ip:<sha256 hex>" also written to the journal
+    private static final String VOTE_KEY = "vote:";                 // + "<caseId>#<voter>", expires (votes table decides)
+
+    // Voter statistics, counted from the votes table at most once per max age
+    private final long voterCountsMaxAgeMillis;
+    private volatile VoterCounts cachedVoterCounts;
+    private volatile long cachedVoterCountsAt;
+
+    public VoteService(CaseRepository caseRepository, VoteRepository voteRepository, VoteWriter voteWriter,
+                       VoteTallyShards voteTallyShards,
+                       EmailDomainStatsService emailDomainStatsService, CaseCache caseCache,
+                       ActivityTrendService activityTrendService, MeterRegistry meterRegistry, StateStore stateStore,
+                       VoteJournal journal,
+                       @Value("${app.journal.commit-timeout-ms:1000}") long journalTimeoutMillis,
+                       @Value("${app.votes.marker-ttl-hours:24}") long voteMarkerTtlHours,
+                       @Value("${app.votes.stats-max-age-ms:10000}") long voterCountsMaxAgeMillis) {
         this.repository = caseRepository;
+        this.voteRepository = voteRepository;
+        this.voteWriter = voteWriter;
+        this.voteTallyShards = voteTallyShards;
+        this.emailDomainStatsService = emailDomainStatsService;
+        this.caseCache = caseCache;
+        this.activityTrendService = activityTrendService;
+        this.meterRegistry = meterRegistry;
+        this.stateStore = stateStore;
+        this.journal = journal;
+        this.journalTimeoutMillis = journalTimeoutMillis;
+        this.voteMarkerTtl = Duration.ofHours(voteMarkerTtlHours);
+        this.voterCountsMaxAgeMillis = voterCountsMaxAgeMillis;
     }
 
     /**
@@ -38,6 +98,28 @@ public class VoteService {
      */
     @Transactional
     public Case castVoteWithVerification(Long caseId, String vote, String voterIdentifier, boolean isEmailVerified) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Case result = doCastVote(caseId, vote, voterIdentifier, isEmailVerified);
+            outcome = result != null ? "accepted" : "not_found";
+            return result;
+        } catch (IllegalStateException e) {
+            outcome = "duplicate";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("unveil.vote.cast")
+                    .description("Vote casting latency by outcome and voter kind")
+                    .tag("outcome", outcome)
+                    .tag("voter", isEmailVerified ? "email" : "ip")
+                    .register(meterRegistry));
+        }
+    }
+
+    private Case doCastVote(Long caseId, String vote, String voterIdentifier, boolean isEmailVerified) {
         Optional<Case> caseOpt = repository.findById(caseId);
 
         if (caseOpt.isEmpty()) {
@@ -46,31 +128,189 @@ public class VoteService {
 
         Case caseEntity = caseOpt.get();
 
-        // Enhanced duplicate vote prevention
-        if (hasVoterVotedOnCase(voterIdentifier, caseId)) {
-            String errorMessage = isEmailVerified
-                    ? "You have already voted on this case with this email address."
-                    : "This IP address has already voted on this case.";
-            throw new IllegalStateException(errorMessage);
-        }
-
         // Validate vote type
         if (!"guilty".equalsIgnoreCase(vote) && !"not_guilty".equalsIgnoreCase(vote)) {
             throw new IllegalArgumentException("Invalid vote type: " + vote);
         }
 
-        // Update Case vote counts
-        if ("guilty".equalsIgnoreCase(vote)) {
-            caseEntity.addGuiltyVote();
-        } else {
-            caseEntity.addNotGuiltyVote();
+        VoteRecord.VoterKind voterKind = VoteRecord.VoterKind.ofIdentifier(voterIdentifier);
+        byte[] voterHash = VoteRecord.hashVoter(voterIdentifier);
+        String voter = VoteRecord.voterRef(voterKind, voterHash);
+        boolean guilty = "guilty".equalsIgnoreCase(vote);
+
+        String duplicateMessage = isEmailVerified
+                ? "You have already voted on this case with this email address."
+                : "This IP address has already voted on this case.";
+
+        // Fast path: vote already known to the (shared) state store
+        if (stateStore.get(voteKey(caseId, voter)).isPresent()) {
+            throw new IllegalStateException(duplicateMessage);
         }
 
-        // Track the vote to prevent duplicates
-        recordVote(voterIdentifier, caseId);
+        // Enhanced duplicate vote prevention: the unique index on votes decides,
+        // so concurrent requests on any instance cannot both record a vote.
+        // The row is written in this transaction, so any failure below rolls it back
+        String voterHashHex = HashUtils.toHex(voterHash);
+        if (voteWriter.insert(caseId, toVoterKind(voterKind), voterHashHex, guilty) == VoteWriter.Outcome.DUPLICATE) {
+            stateStore.putIfAbsent(voteKey(caseId, voter), "1", voteMarkerTtl);
+            throw new IllegalStateException(duplicateMessage);
+        }
 
-        // Save and return updated Case
-        return repository.save(caseEntity);
+        // Write-ahead: the vote is durable in the journal before the tally commits
+        VoteRecord record = VoteRecord.vote(caseId, voterKind, voterHash, guilty, System.currentTimeMillis());
+        journal.appendAndAwait(record, journalTimeoutMillis);
+
+        // Track (and mark committed in the journal) only once committed, so a rolled-back vote
+        // never blocks a retry nor comes back on replay
+        afterCommit(() -> {
+            recordVote(voter, caseId);
+            journalCommitted(List.of(record));
+        });
+
+        // Feed the rolling vote counters
+        activityTrendService.recordVotes(1);
+        Counter.builder("unveil.votes")
+                .description("Accepted votes by verdict")
+                .tag("vote", guilty ? "guilty" : "not_guilty")
+                .register(meterRegistry)
+                .increment();
+
+        // Count the vote in one of the case's tally shards (folded into the case row shortly)
+        voteTallyShards.add(caseId, guilty ? 1 : 0, guilty ? 0 : 1);
+        caseCache.invalidate(caseId);
+        return voteTallyShards.withCurrentTally(caseEntity);
+    }
+
+    /**
+     * Cast votes on several cases for one voter
+     * Cases are loaded with one query, known votes come from one state store read,
+     * new votes are inserted as one batch and journaled with one group commit, and
+     * the updated tallies are written as one batched upsert
+     * @return per-item results in request order; status is accepted, duplicate,
+     *         not_found or invalid (a case repeated within the batch counts once)
+     */
+    @Transactional
+    public List<Map<String, Object>> castVotes(List<BatchVoteRequestDto.Item> votes, String voterIdentifier,
+                                               boolean isEmailVerified) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            List<Map<String, Object>> results = doCastVotes(votes, voterIdentifier);
+            outcome = "accepted";
+            return results;
+        } finally {
+            sample.stop(batchTimer(outcome, isEmailVerified));
+        }
+    }
+
+    private List<Map<String, Object>> doCastVotes(List<BatchVoteRequestDto.Item> votes, String voterIdentifier) {
+        VoteRecord.VoterKind voterKind = VoteRecord.VoterKind.ofIdentifier(voterIdentifier);
+        byte[] voterHash = VoteRecord.hashVoter(voterIdentifier);
+        String voter = VoteRecord.voterRef(voterKind, voterHash);
+        String voterHashHex = HashUtils.toHex(voterHash);
+
+        // First valid item per case: caseId -> guilty
+        Map<Long, Boolean> requested = new LinkedHashMap<>();
+        for (BatchVoteRequestDto.Item item : votes) {
+            if (item.getCaseId() != null && isValidVote(item.getVote())) {
+                requested.putIfAbsent(item.getCaseId(), "guilty".equalsIgnoreCase(item.getVote()));
+            }
+        }
+
+        Map<Long, Case> cases = new HashMap<>();
+        for (Case caseEntity : repository.findAllById(requested.keySet())) {
+            cases.put(caseEntity.getId(), caseEntity);
+        }
+
+        // Votes already known to the (shared) state store, one batched read
+        List<String> keys = cases.keySet().stream().map(caseId -> voteKey(caseId, voter)).toList();
+        Map<String, String> known = stateStore.getAll(keys);
+
+        Map<Long, String> statuses = new HashMap<>();
+        List<VoteWriter.NewVote> newVotes = new ArrayList<>();
+        requested.forEach((caseId, guilty) -> {
+            if (!cases.containsKey(caseId)) {
+                statuses.put(caseId, "not_found");
+            } else if (known.containsKey(voteKey(caseId, voter))) {
+                statuses.put(caseId, "duplicate");
+            } else {
+                newVotes.add(new VoteWriter.NewVote(caseId, toVoterKind(voterKind), voterHashHex, guilty));
+            }
+        });
+
+        // One insert statement in this transaction; the unique index on votes decides duplicates
+        List<Long> accepted = new ArrayList<>();
+        List<VoteWriter.Outcome> outcomes = voteWriter.insertAll(newVotes);
+        for (int i = 0; i < newVotes.size(); i++) {
+            Long caseId = newVotes.get(i).caseId();
+            if (outcomes.get(i) == VoteWriter.Outcome.DUPLICATE) {
+                stateStore.putIfAbsent(voteKey(caseId, voter), "1", voteMarkerTtl);
+                statuses.put(caseId, "duplicate");
+            } else {
+                accepted.add(caseId);
+            }
+        }
+
+        // Write-ahead: all accepted votes are durable in the journal before the tallies commit;
+        // a failure rolls back the inserted vote rows with the transaction
+        List<VoteRecord> journaled = new ArrayList<>(accepted.size());
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < accepted.size(); i++) {
+            Long caseId = accepted.get(i);
+            VoteRecord record = VoteRecord.vote(caseId, voterKind, voterHash, requested.get(caseId), now);
+            journaled.add(record);
+            if (i == accepted.size() - 1) {
+                journal.appendAndAwait(record, journalTimeoutMillis);
+            } else {
+                journal.append(record);
+            }
+        }
+
+        afterCommit(() -> {
+            accepted.forEach(caseId -> recordVote(voter, caseId));
+            journalCommitted(journaled);
+        });
+
+        // Count the votes in tally shards, as one batched upsert
+        Map<Long, Boolean> sharded = new HashMap<>();
+        int guiltyCount = 0;
+        for (Long caseId : accepted) {
+            boolean guilty = requested.get(caseId);
+            if (guilty) {
+                guiltyCount++;
+            }
+            sharded.put(caseId, guilty);
+            statuses.put(caseId, "accepted");
+        }
+        voteTallyShards.addAll(sharded);
+        sharded.keySet().forEach(caseCache::invalidate);
+        cases.putAll(voteTallyShards.withCurrentTally(accepted.stream().map(cases::get).toList()));
+
+        activityTrendService.recordVotes(accepted.size());
+        countVotes("guilty", guiltyCount);
+        countVotes("not_guilty", accepted.size() - guiltyCount);
+
+        // Per-item results in request order
+        List<Map<String, Object>> results = new ArrayList<>(votes.size());
+        Set<Long> reported = new HashSet<>();
+        for (BatchVoteRequestDto.Item item : votes) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("caseId", item.getCaseId());
+            result.put("vote", item.getVote());
+            if (item.getCaseId() == null || !isValidVote(item.getVote())) {
+                result.put("status", "invalid");
+            } else if (!reported.add(item.getCaseId())) {
+                result.put("status", "duplicate");
+            } else {
+                String status = statuses.get(item.getCaseId());
+                result.put("status", status);
+                if ("accepted".equals(status)) {
+                    result.put("verdict", cases.get(item.getCaseId()).getVerdictSummary());
+                }
+            }
+            results.add(result);
+        }
+        return results;
     }
 
     /**
@@ -85,8 +325,11 @@ public class VoteService {
      * Check if a voter has already voted on a specific case
      */
     public boolean hasVoterVotedOnCase(String voterIdentifier, Long caseId) {
-        Set<Long> votedCases = voterCaseMap.get(voterIdentifier);
-        return votedCases != null && votedCases.contains(caseId);
+        VoteRecord.VoterKind voterKind = VoteRecord.VoterKind.ofIdentifier(voterIdentifier);
+        byte[] voterHash = VoteRecord.hashVoter(voterIdentifier);
+        return stateStore.get(voteKey(caseId, VoteRecord.voterRef(voterKind, voterHash))).isPresent()
+                || voteRepository.existsByCaseEntityIdAndVoterKindAndVoterHash(caseId, toVoterKind(voterKind),
+                HashUtils.toHex(voterHash));
     }
 
     /**
@@ -102,16 +345,28 @@ public class VoteService {
 
         Case caseEntity = caseOpt.get();
 
-        // Add the votes
-        for (int i = 0; i < guiltyVotes; i++) {
-            caseEntity.addGuiltyVote();
+        // Store and journal as anonymous votes: batched inserts and one group commit
+        long now = System.currentTimeMillis();
+        List<VoteWriter.NewVote> newVotes = new ArrayList<>();
+        List<VoteRecord> journaled = new ArrayList<>();
+        for (int i = 0; i < guiltyVotes + notGuiltyVotes; i++) {
+            newVotes.add(new VoteWriter.NewVote(caseId, Vote.VoterKind.ANONYMOUS,
+                    HashUtils.sha256Hex(UUID.randomUUID().toString()), i < guiltyVotes));
+            VoteRecord record = VoteRecord.vote(caseId, VoteRecord.VoterKind.NONE, null, i < guiltyVotes, now);
+            journaled.add(record);
+            if (i == guiltyVotes + notGuiltyVotes - 1) {
+                journal.appendAndAwait(record, journalTimeoutMillis);
+            } else {
+                journal.append(record);
+            }
         }
+        voteWriter.insertAll(newVotes);
+        afterCommit(() -> journalCommitted(journaled));
 
-        for (int i = 0; i < notGuiltyVotes; i++) {
-            caseEntity.addNotGuiltyVote();
-        }
-
-        return repository.save(caseEntity);
+        // Add the votes
+        voteTallyShards.add(caseId, guiltyVotes, notGuiltyVotes);
+        caseCache.invalidate(caseId);
+        return voteTallyShards.withCurrentTally(caseEntity);
     }
 
     /**
@@ -128,15 +383,25 @@ public class VoteService {
         Case caseEntity = caseOpt.get();
 
         // Reset all vote counts
+        emailDomainStatsService.verdictChanged(caseEntity.getEmailDomain(), isGuilty(caseEntity), false);
         caseEntity.setVerdictScore(0);
         caseEntity.setTotalVotes(0);
         caseEntity.setGuiltyVotes(0);
         caseEntity.setNotGuiltyVotes(0);
+        caseEntity.setLegacyGuiltyVotes(0);
+        caseEntity.setLegacyNotGuiltyVotes(0);
         caseEntity.setLastVotedAt(null);
+        caseEntity.setVotesResetAt(LocalDateTime.now());
 
-        // Clear vote tracking for this case
-        clearCaseVoteTracking(caseId);
+        // Clear stored votes and vote tracking for this case
+        voteRepository.deleteByCaseId(caseId);
+        afterCommit(() -> {
+            clearCaseVoteTracking(caseId);
+            journalCommitted(List.of(VoteRecord.reset(caseId, System.currentTimeMillis())));
+        });
+        voteTallyShards.discard(caseId);
 
+        caseCache.invalidate(caseId);
         return repository.save(caseEntity);
     }
 
@@ -183,17 +448,11 @@ public class VoteService {
         }
 
         // Enhanced statistics with email verification info
-        long emailVerifiedVoters = voterCaseMap.keySet().stream()
-                .mapToLong(key -> key.startsWith("email:") ? 1 : 0)
-                .sum();
-
-        long ipBasedVoters = voterCaseMap.keySet().stream()
-                .mapToLong(key -> key.startsWith("ip:") ? 1 : 0)
-                .sum();
+        VoterCounts voterCounts = getVoterCounts();
 
-        stats.put("emailVerifiedVoters", emailVerifiedVoters);
-        stats.put("ipBasedVoters", ipBasedVoters);
-        stats.put("totalUniqueVoters", voterCaseMap.size());
+        stats.put("emailVerifiedVoters", voterCounts.emailVoters());
+        stats.put("ipBasedVoters", voterCounts.ipVoters());
+        stats.put("totalUniqueVoters", voterCounts.totalVoters());
 
         return stats;
     }
@@ -249,24 +508,23 @@ public class VoteService {
         activity.put("needingVotes", needingVotes.getContent());
 
         // Enhanced voter statistics
-        long emailVerifiedVoters = voterCaseMap.keySet().stream()
-                .mapToLong(key -> key.startsWith("email:") ? 1 : 0)
-                .sum();
-
-        long ipBasedVoters = voterCaseMap.keySet().stream()
-                .mapToLong(key -> key.startsWith("ip:") ? 1 : 0)
-                .sum();
+        VoterCounts voterCounts = getVoterCounts();
 
         Map<String, Object> voterStats = new HashMap<>();
-        voterStats.put("totalActiveVoters", voterCaseMap.size());
-        voterStats.put("emailVerifiedVoters", emailVerifiedVoters);
-        voterStats.put("ipBasedVoters", ipBasedVoters);
-        voterStats.put("verificationRate", voterCaseMap.size() > 0
-                ? Math.round((double) emailVerifiedVoters / voterCaseMap.size() * 100 * 100) / 100.0
+        voterStats.put("totalActiveVoters", voterCounts.totalVoters());
+        voterStats.put("emailVerifiedVoters", voterCounts.emailVoters());
+        voterStats.put("ipBasedVoters", voterCounts.ipVoters());
+        voterStats.put("verificationRate", voterCounts.totalVoters() > 0
+                ? Math.round((double) voterCounts.emailVoters() / voterCounts.totalVoters() * 100 * 100) / 100.0
                 : 0.0);
 
         activity.put("voterStats", voterStats);
 
+        // Rolling vote counts (answered from memory)
+        activity.put("votesLastHour", activityTrendService.countVotes(Duration.ofHours(1)));
+        activity.put("votesLast24h", activityTrendService.countVotes(Duration.ofDays(1)));
+        activity.put("votesByHour", activityTrendService.getVoteTrend("hour"));
+
         // Overall stats
         activity.put("stats", getVerdictStatistics());
 
@@ -279,13 +537,9 @@ public class VoteService {
     public Map<String, Object> getCaseVoterInfo(Long caseId) {
         Map<String, Object> info = new HashMap<>();
 
-        long emailVoters = voterCaseMap.entrySet().stream()
-                .mapToLong(entry -> entry.getKey().startsWith("email:") && entry.getValue().contains(caseId) ? 1 : 0)
-                .sum();
-
-        long ipVoters = voterCaseMap.entrySet().stream()
-                .mapToLong(entry -> entry.getKey().startsWith("ip:") && entry.getValue().contains(caseId) ? 1 : 0)
-                .sum();
+        // Counted from the votes table: vote markers expire
+        long emailVoters = voteRepository.countByCaseEntityIdAndVoterKind(caseId, Vote.VoterKind.EMAIL);
+        long ipVoters = voteRepository.countByCaseEntityIdAndVoterKind(caseId, Vote.VoterKind.IP);
 
         info.put("caseId", caseId);
         info.put("emailVerifiedVotes", emailVoters);
@@ -296,26 +550,140 @@ public class VoteService {
     }
 
     /**
-     * Get a specific Case by ID
+     * Get a specific Case by ID (cached, read-only)
      */
     public Optional<Case> getCaseById(Long id) {
-        return repository.findById(id);
+        return caseCache.get(id, caseId -> repository.findById(caseId).map(voteTallyShards::withCurrentTally));
+    }
+
+    /**
+     * Track votes restored from the vote journal (call once they are committed)
+     */
+    public void trackRestoredVotes(Long caseId, Collection<String> voters) {
+        voters.forEach(voter -> recordVote(voter, caseId));
     }
 
     // ============ HELPER METHODS ============
 
     /**
      * Record that a voter has voted on a case
+     * @return false if the voter had already voted on it
      */
-    private void recordVote(String voterIdentifier, Long caseId) {
-        voterCaseMap.computeIfAbsent(voterIdentifier, k -> ConcurrentHashMap.newKeySet()).add(caseId);
+    private boolean recordVote(String voter, Long caseId) {
+        return stateStore.putIfAbsent(voteKey(caseId, voter), "1", voteMarkerTtl);
     }
 
     /**
      * Clear vote tracking for a specific case
      */
     private void clearCaseVoteTracking(Long caseId) {
-        voterCaseMap.values().forEach(caseSet -> caseSet.remove(caseId));
+        stateStore.removeByPrefix(VOTE_KEY + caseId + "#");
+    }
+
+    /**
+     * Journal commit markers for votes (or a reset) that have committed; not awaited, as the
+     * database already holds them. A marker lost in a crash only keeps replay from re-inserting
+     * a vote the votes table has anyway
+     */
+    private void journalCommitted(List<VoteRecord> records) {
+        try {
+            long now = System.currentTimeMillis();
+            for (VoteRecord record : records) {
+                journal.append(record.type() == VoteRecord.Type.VOTE ? VoteRecord.commit(record, now) : record);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Vote journal: could not mark {} record(s) committed: {}", records.size(), e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private boolean isGuilty(Case caseEntity) {
+        return caseEntity.getVerdictScore() > 0;
+    }
+
+    private boolean isValidVote(String vote) {
+        return "guilty".equalsIgnoreCase(vote) || "not_guilty".equalsIgnoreCase(vote);
+    }
+
+    private void countVotes(String vote, int count) {
+        if (count > 0) {
+            Counter.builder("unveil.votes")
+                    .description("Accepted votes by verdict")
+                    .tag("vote", vote)
+                    .register(meterRegistry)
+                    .increment(count);
+        }
+    }
+
+    private Timer batchTimer(String outcome, boolean isEmailVerified) {
+        return Timer.builder("unveil.vote.batch")
+                .description("Batch vote latency by outcome and voter kind")
+                .tag("outcome", outcome)
+                .tag("voter", isEmailVerified ? "email" : "ip")
+                .register(meterRegistry);
+    }
+
+    private String voteKey(Long caseId, String voter) {
+        return VOTE_KEY + caseId + "#" + voter;
+    }
+
+    private Vote.VoterKind toVoterKind(VoteRecord.VoterKind voterKind) {
+        return switch (voterKind) {
+            case EMAIL -> Vote.VoterKind.EMAIL;
+            case IP -> Vote.VoterKind.IP;
+            case NONE -> Vote.VoterKind.ANONYMOUS;
+        };
+    }
+
+    /**
+     * Distinct voters and recorded votes by kind, counted from the votes table (one grouped query)
+     * rather than kept in shared counters every vote would update; reused for up to stats-max-age-ms
+     */
+    private VoterCounts getVoterCounts() {
+        VoterCounts counts = cachedVoterCounts;
+        long now = System.currentTimeMillis();
+        if (counts != null && now - cachedVoterCountsAt < voterCountsMaxAgeMillis) {
+            return counts;
+        }
+
+        long emailVoters = 0;
+        long ipVoters = 0;
+        long emailVotes = 0;
+        long ipVotes = 0;
+        // Rows of [voterKind, votes, distinct voters]
+        for (Object[] row : voteRepository.countVotesAndVotersByKind()) {
+            long votes = ((Number) row[1]).longValue();
+            long voters = ((Number) row[2]).longValue();
+            if (row[0] == Vote.VoterKind.EMAIL) {
+                emailVotes = votes;
+                emailVoters = voters;
+            } else if (row[0] == Vote.VoterKind.IP) {
+                ipVotes = votes;
+                ipVoters = voters;
+            }
+        }
+        counts = new VoterCounts(emailVoters, ipVoters, emailVotes, ipVotes);
+        cachedVoterCounts = counts;
+        cachedVoterCountsAt = now;
+        return counts;
+    }
+
+    private record VoterCounts(long emailVoters, long ipVoters, long emailVotes, long ipVotes) {
+        long totalVoters() {
+            return emailVoters + ipVoters;
+        }
     }
 
     /**
@@ -340,12 +708,10 @@ public class VoteService {
     public void cleanupVoteTracking() {
         // In production, implement cleanup logic for old vote tracking data
         // For now, just log the current statistics
-        long emailVoters = voterCaseMap.keySet().stream().mapToLong(key -> key.startsWith("email:") ? 1 : 0).sum();
-        long ipVoters = voterCaseMap.keySet().stream().mapToLong(key -> key.startsWith("ip:") ? 1 : 0).sum();
+        VoterCounts voterCounts = getVoterCounts();
 
-        System.out.println("Vote tracking cleanup - Email verified voters: " + emailVoters +
-                ", IP-based voters: " + ipVoters +
-                ", Total entries: " + voterCaseMap.size());
+        log.info("Vote tracking cleanup - Email verified voters: {}, IP-based voters: {}, Total entries: {}",
+                voterCounts.emailVoters(), voterCounts.ipVoters(), voterCounts.totalVoters());
     }
 
     /**
@@ -354,13 +720,9 @@ public class VoteService {
     public Map<String, Object> getVotingMethodDistribution() {
         Map<String, Object> distribution = new HashMap<>();
 
-        long emailVerifiedVotes = voterCaseMap.entrySet().stream()
-                .mapToLong(entry -> entry.getKey().startsWith("email:") ? entry.getValue().size() : 0)
-                .sum();
-
-        long ipBasedVotes = voterCaseMap.entrySet().stream()
-                .mapToLong(entry -> entry.getKey().startsWith("ip:") ? entry.getValue().size() : 0)
-                .sum();
+        VoterCounts voterCounts = getVoterCounts();
+        long emailVerifiedVotes = voterCounts.emailVotes();
+        long ipBasedVotes = voterCounts.ipVotes();
 
         long totalVotes = emailVerifiedVotes + ipBasedVotes;
 
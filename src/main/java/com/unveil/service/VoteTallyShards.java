@@ -0,0 +1,292 @@
+package com.unveil.service;
+
+import com.unveil.entity.Case;
+import com.unveil.util.VerdictRanking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Vote tallies striped over case_vote_shards rows.
+ *
+ * A vote adds to one of its case's shard-count shard rows, picked at
+ * random and created on first use, in the vote transaction. Concurrent votes
+ * on one case therefore lock different rows instead of all queueing on its
+ * cases row. Shard rows hold votes not yet in the case's tallies: single-case
+ * reads add them (withCurrentTally), and a fold every fold-interval-ms moves
+ * them into cases.guilty_votes / not_guilty_votes, recomputing the ranking
+ * columns and adjusting the domain aggregate. Listings order by the folded
+ * columns, so they trail by up to one fold interval.
+ *
+ * The fold locks a case's shard rows, deletes exactly those and adds their
+ * sums to the case row in one transaction. A concurrent vote either waits for
+ * it on a locked row or goes to a row created after the lock, which the next
+ * fold picks up, so no vote is lost or counted twice, also with several
+ * instances folding at once.
+ */
+@Service
+public class VoteTallyShards {
+
+    private static final String UPSERT_SHARD =
+            "INSERT INTO case_vote_shards (case_id, shard, guilty_votes, not_guilty_votes, last_voted_at) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (case_id, shard) DO UPDATE SET " +
+            "guilty_votes = case_vote_shards.guilty_votes + EXCLUDED.guilty_votes, " +
+            "not_guilty_votes = case_vote_shards.not_guilty_votes + EXCLUDED.not_guilty_votes, " +
+            "last_voted_at = EXCLUDED.last_voted_at";
+    private static final String UPDATE_SHARD =
+            "UPDATE case_vote_shards SET guilty_votes = guilty_votes + ?, not_guilty_votes = not_guilty_votes + ?, " +
+            "last_voted_at = ? WHERE case_id = ? AND shard = ?";
+    private static final String INSERT_SHARD =
+            "INSERT INTO case_vote_shards (case_id, shard, guilty_votes, not_guilty_votes, last_voted_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+    // One statement, so the case row and its shards come from the same snapshot
+    private static final String CURRENT_TALLIES =
+            "SELECT c.id, c.guilty_votes + COALESCE(SUM(s.guilty_votes), 0), " +
+            "c.not_guilty_votes + COALESCE(SUM(s.not_guilty_votes), 0), c.last_voted_at, MAX(s.last_voted_at) " +
+            "FROM cases c LEFT JOIN case_vote_shards s ON s.case_id = c.id " +
+            "WHERE c.id IN (%s) GROUP BY c.id, c.guilty_votes, c.not_guilty_votes, c.last_voted_at";
+    private static final String PENDING_CASES = "SELECT DISTINCT case_id FROM case_vote_shards LIMIT ?";
+    private static final String LOCK_SHARDS =
+            "SELECT shard, guilty_votes, not_guilty_votes, last_voted_at FROM case_vote_shards " +
+            "WHERE case_id = ? FOR UPDATE";
+    private static final String DELETE_SHARD = "DELETE FROM case_vote_shards WHERE case_id = ? AND shard = ?";
+    private static final String LOCK_CASE =
+            "SELECT guilty_votes, not_guilty_votes, last_voted_at, email_domain FROM cases WHERE id = ?";
+    private static final String UPDATE_TALLY =
+            "UPDATE cases SET guilty_votes = ?, not_guilty_votes = ?, total_votes = ?, verdict_score = ?, " +
+            "verdict_sign = ?, verdict_wilson = ?, controversy_score = ?, last_voted_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EmailDomainStatsService emailDomainStatsService;
+    private final MeterRegistry meterRegistry;
+    private final int shardCount;
+    private final int foldBatchSize;
+    private final Timer foldTimer;
+    private final AtomicBoolean folding = new AtomicBoolean();
+
+    private volatile boolean postgres;
+
+    public VoteTallyShards(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           EmailDomainStatsService emailDomainStatsService, MeterRegistry meterRegistry,
+                           @Value("${app.votes.shards.count:8}") int shardCount,
+                           @Value("${app.votes.shards.fold-batch-size:500}") int foldBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.emailDomainStatsService = emailDomainStatsService;
+        this.meterRegistry = meterRegistry;
+        // shard is a SMALLINT
+        this.shardCount = Math.min(Math.max(1, shardCount), Short.MAX_VALUE);
+        this.foldBatchSize = Math.max(1, foldBatchSize);
+        this.foldTimer = Timer.builder("unveil.votes.shards.fold")
+                .description("Time to fold tally shards into case tallies")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Detect the database (PostgreSQL upserts shard rows in one statement)
+     */
+    @PostConstruct
+    public void detectDatabase() {
+        String productName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = productName != null && productName.toLowerCase().contains("postgres");
+    }
+
+    /**
+     * Add votes to a random shard of a case (joins the caller's transaction)
+     */
+    public void add(Long caseId, int guilty, int notGuilty) {
+        int shard = ThreadLocalRandom.current().nextInt(shardCount);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (postgres) {
+            jdbcTemplate.update(UPSERT_SHARD, caseId, shard, guilty, notGuilty, now);
+            return;
+        }
+        // Other databases: update the row, else create it (a concurrent creator wins: update it)
+        if (jdbcTemplate.update(UPDATE_SHARD, guilty, notGuilty, now, caseId, shard) == 0) {
+            try {
+                jdbcTemplate.update(INSERT_SHARD, caseId, shard, guilty, notGuilty, now);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(UPDATE_SHARD, guilty, notGuilty, now, caseId, shard);
+            }
+        }
+    }
+
+    /**
+     * Add one vote per case (caseId -> guilty), as one batch on PostgreSQL
+     */
+    public void addAll(Map<Long, Boolean> votes) {
+        // Shard rows locked in case id order, so concurrent batches cannot deadlock
+        Map<Long, Boolean> ordered = new TreeMap<>(votes);
+        if (!postgres) {
+            ordered.forEach((caseId, guilty) -> add(caseId, guilty ? 1 : 0, guilty ? 0 : 1));
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ordered.size());
+        ordered.forEach((caseId, guilty) -> rows.add(new Object[]{caseId,
+                ThreadLocalRandom.current().nextInt(shardCount), guilty ? 1 : 0, guilty ? 0 : 1, now}));
+        jdbcTemplate.batchUpdate(UPSERT_SHARD, rows);
+    }
+
+    /**
+     * Detached copy of a case with its current tallies: folded plus pending shard votes
+     */
+    public Case withCurrentTally(Case caseEntity) {
+        return withCurrentTally(List.of(caseEntity)).getOrDefault(caseEntity.getId(), caseEntity);
+    }
+
+    /**
+     * Detached copies of cases with their current tallies, by id (one query)
+     */
+    public Map<Long, Case> withCurrentTally(Collection<Case> cases) {
+        if (cases.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = cases.stream().map(Case::getId).toList();
+        Map<Long, Object[]> tallies = new HashMap<>();
+        jdbcTemplate.query(String.format(CURRENT_TALLIES, String.join(", ", Collections.nCopies(ids.size(), "?"))),
+                rs -> {
+                    Timestamp shardVotedAt = rs.getTimestamp(5);
+                    Timestamp votedAt = shardVotedAt != null ? shardVotedAt : rs.getTimestamp(4);
+                    tallies.put(rs.getLong(1), new Object[]{rs.getInt(2), rs.getInt(3),
+                            votedAt != null ? votedAt.toLocalDateTime() : null});
+                }, ids.toArray());
+
+        Map<Long, Case> current = new LinkedHashMap<>();
+        for (Case caseEntity : cases) {
+            Object[] tally = tallies.get(caseEntity.getId());
+            current.put(caseEntity.getId(), tally == null ? caseEntity
+                    : withTally(caseEntity, (Integer) tally[0], (Integer) tally[1], (LocalDateTime) tally[2]));
+        }
+        return current;
+    }
+
+    /**
+     * Drop a case's pending votes (its votes are being reset)
+     */
+    public void discard(Long caseId) {
+        jdbcTemplate.update("DELETE FROM case_vote_shards WHERE case_id = ?", caseId);
+    }
+
+    /**
+     * Fold the shard rows of up to fold-batch-size cases into their tallies.
+     * One batch per run, so sustained voting cannot keep a run going; the
+     * rest waits for the next run
+     * @return number of cases folded
+     */
+    @Scheduled(fixedDelayString = "${app.votes.shards.fold-interval-ms:1000}")
+    public int fold() {
+        if (!folding.compareAndSet(false, true)) {
+            return 0;
+        }
+        try {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int folded = 0;
+            List<Long> caseIds = jdbcTemplate.queryForList(PENDING_CASES, Long.class, foldBatchSize);
+            for (Long caseId : caseIds) {
+                Integer votes = transactionTemplate.execute(status -> foldCase(caseId));
+                if (votes != null && votes > 0) {
+                    folded++;
+                    Counter.builder("unveil.votes.shards.folded")
+                            .description("Votes moved from tally shards into case tallies")
+                            .register(meterRegistry)
+                            .increment(votes);
+                }
+            }
+            sample.stop(foldTimer);
+            return folded;
+        } finally {
+            folding.set(false);
+        }
+    }
+
+    // ============ HELPER METHODS ============
+
+    // @return votes folded (0 if another fold got there first)
+    private int foldCase(Long caseId) {
+        List<Object[]> shards = jdbcTemplate.query(LOCK_SHARDS, (rs, rowNum) -> new Object[]{
+                rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getTimestamp(4)}, caseId);
+        if (shards.isEmpty()) {
+            return 0;
+        }
+
+        int addGuilty = 0;
+        int addNotGuilty = 0;
+        Timestamp lastVotedAt = null;
+        List<Object[]> deletes = new ArrayList<>(shards.size());
+        for (Object[] shard : shards) {
+            addGuilty += (Integer) shard[1];
+            addNotGuilty += (Integer) shard[2];
+            Timestamp votedAt = (Timestamp) shard[3];
+            if (votedAt != null && (lastVotedAt == null || votedAt.after(lastVotedAt))) {
+                lastVotedAt = votedAt;
+            }
+            deletes.add(new Object[]{caseId, shard[0]});
+        }
+        // Exactly the locked rows: a shard created meanwhile belongs to the next fold
+        jdbcTemplate.batchUpdate(DELETE_SHARD, deletes);
+
+        // NO KEY UPDATE on PostgreSQL: does not wait for vote transactions holding the row's foreign key share lock
+        List<Object[]> rows = jdbcTemplate.query(LOCK_CASE + (postgres ? " FOR NO KEY UPDATE" : " FOR UPDATE"),
+                (rs, rowNum) -> new Object[]{rs.getInt(1), rs.getInt(2), rs.getTimestamp(3), rs.getString(4)},
+                caseId);
+        if (rows.isEmpty()) {
+            return 0; // Case deleted
+        }
+        int wasGuilty = (Integer) rows.get(0)[0];
+        int wasNotGuilty = (Integer) rows.get(0)[1];
+        Timestamp caseVotedAt = (Timestamp) rows.get(0)[2];
+        if (lastVotedAt == null || (caseVotedAt != null && caseVotedAt.after(lastVotedAt))) {
+            lastVotedAt = caseVotedAt;
+        }
+
+        int guilty = wasGuilty + addGuilty;
+        int notGuilty = wasNotGuilty + addNotGuilty;
+        jdbcTemplate.update(UPDATE_TALLY, guilty, notGuilty, guilty + notGuilty, guilty - notGuilty,
+                VerdictRanking.sign(guilty, notGuilty), VerdictRanking.confidence(guilty, notGuilty),
+                VerdictRanking.controversy(guilty, notGuilty), lastVotedAt, caseId);
+        emailDomainStatsService.verdictChanged((String) rows.get(0)[3], wasGuilty > wasNotGuilty, guilty > notGuilty);
+        // Cached cases need no invalidation: folded plus pending votes are unchanged
+        return addGuilty + addNotGuilty;
+    }
+
+    /**
+     * Detached copy of a case with the given tallies (and ranking columns to match)
+     */
+    static Case withTally(Case caseEntity, int guilty, int notGuilty, LocalDateTime lastVotedAt) {
+        Case copy = new Case();
+        BeanUtils.copyProperties(caseEntity, copy);
+        copy.setGuiltyVotes(guilty);
+        copy.setNotGuiltyVotes(notGuilty);
+        copy.setTotalVotes(guilty + notGuilty);
+        copy.setVerdictScore(guilty - notGuilty);
+        copy.setLastVotedAt(lastVotedAt);
+        copy.updateRanking();
+        return copy;
+    }
+}
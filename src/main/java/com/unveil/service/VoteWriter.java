@@ -0,0 +1,147 @@
+package com.unveil.service;
+
+import com.unveil.entity.Vote;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes votes to the votes table, several rows per statement.
+ *
+ * Runs on the caller's transaction and connection, so a vote row commits or
+ * rolls back together with the tally update and journal write around it, and
+ * a vote never needs a second pooled connection. The unique index on
+ * (case_id, voter_kind, voter_hash) decides duplicates: on PostgreSQL a
+ * multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING reports which rows
+ * went in (a conflict does not abort the transaction); elsewhere rows are
+ * inserted one by one, treating a duplicate key error as an already cast vote.
+ */
+@Service
+public class VoteWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO votes (case_id, voter_kind, voter_hash, vote_type, created_at) VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?)";
+
+    public enum Outcome {
+        INSERTED, DUPLICATE
+    }
+
+    /**
+     * A vote to insert
+     */
+    public record NewVote(Long caseId, Vote.VoterKind voterKind, String voterHash, boolean guilty) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean postgres;
+
+    public VoteWriter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                      @Value("${app.votes.writer.batch-size:256}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // PostgreSQL allows 65535 bind parameters per statement (5 per row)
+        this.batchSize = Math.min(Math.max(1, batchSize), 10_000);
+        this.batchSizes = DistributionSummary.builder("unveil.votes.write.batch")
+                .description("Votes per INSERT statement")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void detectDatabase() {
+        String productName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        postgres = productName != null && productName.toLowerCase().contains("postgres");
+    }
+
+    /**
+     * Insert one vote
+     * @return INSERTED, or DUPLICATE if this voter already voted on the case
+     */
+    @Transactional
+    public Outcome insert(Long caseId, Vote.VoterKind voterKind, String voterHash, boolean guilty) {
+        return insertAll(List.of(new NewVote(caseId, voterKind, voterHash, guilty))).get(0);
+    }
+
+    /**
+     * Insert votes, up to batch-size rows per statement
+     * @return one outcome per vote, in order (the same voter twice on a case: the first wins)
+     */
+    @Transactional
+    public List<Outcome> insertAll(List<NewVote> votes) {
+        List<Outcome> outcomes = new ArrayList<>(votes.size());
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < votes.size(); from += batchSize) {
+            List<NewVote> batch = votes.subList(from, Math.min(votes.size(), from + batchSize));
+            batchSizes.record(batch.size());
+            if (postgres) {
+                outcomes.addAll(writeReturning(batch, createdAt));
+            } else {
+                batch.forEach(vote -> outcomes.add(writeOne(vote, createdAt)));
+            }
+        }
+        return outcomes;
+    }
+
+    // ============ HELPER METHODS ============
+
+    // PostgreSQL: one multi-row INSERT; RETURNING lists exactly the rows that were inserted
+    private List<Outcome> writeReturning(List<NewVote> batch, Timestamp createdAt) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        Object[] args = new Object[batch.size() * 5];
+        for (int i = 0; i < batch.size(); i++) {
+            NewVote vote = batch.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW);
+            args[i * 5] = vote.caseId();
+            args[i * 5 + 1] = vote.voterKind().name();
+            args[i * 5 + 2] = vote.voterHash();
+            args[i * 5 + 3] = voteType(vote).name();
+            args[i * 5 + 4] = createdAt;
+        }
+        sql.append(" ON CONFLICT DO NOTHING RETURNING case_id, voter_kind, voter_hash");
+
+        Set<String> inserted = new HashSet<>(jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> key(rs.getLong(1), rs.getString(2), rs.getString(3)), args));
+        // The same voter twice in one batch: the first is inserted, the rest are duplicates
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        for (NewVote vote : batch) {
+            boolean wasInserted = inserted.remove(key(vote.caseId(), vote.voterKind().name(), vote.voterHash()));
+            outcomes.add(wasInserted ? Outcome.INSERTED : Outcome.DUPLICATE);
+        }
+        return outcomes;
+    }
+
+    // Other databases: a duplicate key fails only its own statement
+    private Outcome writeOne(NewVote vote, Timestamp createdAt) {
+        try {
+            jdbcTemplate.update(INSERT_PREFIX + ROW,
+                    vote.caseId(), vote.voterKind().name(), vote.voterHash(), voteType(vote).name(), createdAt);
+            return Outcome.INSERTED;
+        } catch (DuplicateKeyException e) {
+            return Outcome.DUPLICATE;
+        }
+    }
+
+    private static Vote.VoteType voteType(NewVote vote) {
+        return vote.guilty() ? Vote.VoteType.GUILTY : Vote.VoteType.NOT_GUILTY;
+    }
+
+    private static String key(long caseId, String voterKind, String voterHash) {
+        return caseId + "#" + voterKind + ":" + voterHash;
+    }
+}
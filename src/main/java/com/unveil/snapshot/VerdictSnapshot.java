@@ -0,0 +1,351 @@
+package com.unveil.snapshot;
+
+import com.unveil.util.ContactKeys;
+import com.unveil.util.HashUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Compact binary snapshot of known scam identifiers and their verdicts,
+ * for clients that check identifiers locally (browser extension, partners).
+ *
+ * Identifiers are never stored in clear: a key is the first 128 bits of
+ * SHA-256("email:" / "phone:" / "domain:" + normalized identifier, see
+ * ContactKeys). Entries are fixed-size and sorted by key, so a memory-mapped
+ * file is binary searched in place; the Bloom filter in front of them
+ * answers most misses without touching the entries.
+ *
+ * <pre>
+ *  0  int    magic "UVSN"
+ *  4  short  format version (1)
+ *  6  byte   type        0 full, 1 delta
+ *  7  byte   reserved
+ *  8  long   generation (of the full snapshot; see generationOf)
+ * 16  long   base generation (delta: the generation it applies to; full: 0)
+ * 24  long   built at (epoch millis)
+ * 32  int    entry count
+ * 36  int    Bloom filter size in 64-bit words
+ * 40  int    Bloom hash functions
+ * 44  int    reserved
+ * 48  long[] Bloom filter words
+ *  .  entries, 24 bytes each, ascending by key (unsigned):
+ *       0 long key high, 8 long key low, 16 byte kind, 17 byte status,
+ *      18 short reserved, 20 int case count
+ *  .  int    CRC32C of all preceding bytes
+ * </pre>
+ *
+ * All values are big-endian. A delta holds the entries that changed since
+ * its base generation, with status REMOVED for identifiers that are gone;
+ * merge(base, delta) gives the next full snapshot.
+ *
+ * A generation is derived from the entries alone, so it names the same
+ * content on every server instance and in every client.
+ */
+public final class VerdictSnapshot {
+
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 48;
+    public static final int ENTRY_SIZE = 24;
+
+    static final int MAGIC = 0x5556534E;
+    static final int BLOOM_BITS_PER_ENTRY = 10;
+    static final int BLOOM_HASHES = 7;
+
+    private static final Pattern GENERATION = Pattern.compile("[0-9a-f]{16}");
+
+    private VerdictSnapshot() {
+    }
+
+    public enum Type {
+        FULL(0), DELTA(1);
+
+        final byte code;
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    public enum Kind {
+        EMAIL(1, "email"), PHONE(2, "phone"), DOMAIN(3, "domain");
+
+        final byte code;
+        final String prefix;
+
+        Kind(int code, String prefix) {
+            this.code = (byte) code;
+            this.prefix = prefix;
+        }
+
+        static Kind of(byte code) {
+            for (Kind kind : values()) {
+                if (kind.code == code) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Normalized form of an identifier of this kind (null if it is not one)
+         */
+        public String normalize(String identifier) {
+            return switch (this) {
+                case EMAIL -> ContactKeys.email(identifier);
+                case PHONE -> ContactKeys.phoneDigits(identifier);
+                case DOMAIN -> ContactKeys.domain(identifier);
+            };
+        }
+    }
+
+    public enum Status {
+        REMOVED(0), GUILTY(1), NOT_GUILTY(2), PENDING(3);
+
+        final byte code;
+
+        Status(int code) {
+            this.code = (byte) code;
+        }
+
+        static Status of(byte code) {
+            for (Status status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Status for a summed verdict score (same rule as Case.getVerdictStatus)
+         */
+        public static Status ofScore(long verdictScore) {
+            return verdictScore > 0 ? GUILTY : verdictScore < 0 ? NOT_GUILTY : PENDING;
+        }
+    }
+
+    /**
+     * 128-bit identifier key, ordered as an unsigned number
+     */
+    public record Key(long high, long low) implements Comparable<Key> {
+
+        /**
+         * Key for a raw identifier, or null if it does not normalize
+         */
+        public static Key of(Kind kind, String identifier) {
+            String normalized = kind.normalize(identifier);
+            return normalized != null ? ofNormalized(kind, normalized) : null;
+        }
+
+        static Key ofNormalized(Kind kind, String normalized) {
+            ByteBuffer digest = ByteBuffer.wrap(HashUtils.sha256(kind.prefix + ":" + normalized));
+            return new Key(digest.getLong(), digest.getLong());
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int byHigh = Long.compareUnsigned(high, other.high);
+            return byHigh != 0 ? byHigh : Long.compareUnsigned(low, other.low);
+        }
+    }
+
+    public record Entry(Key key, Kind kind, Status status, int cases) {
+    }
+
+    public record Header(Type type, long generation, long baseGeneration, long builtAtMillis, int entryCount) {
+
+        public static Header full(long generation, long builtAtMillis, int entryCount) {
+            return new Header(Type.FULL, generation, 0, builtAtMillis, entryCount);
+        }
+
+        public static Header delta(long baseGeneration, long generation, long builtAtMillis, int entryCount) {
+            return new Header(Type.DELTA, generation, baseGeneration, builtAtMillis, entryCount);
+        }
+    }
+
+    /**
+     * Encode a snapshot
+     * @param entries sorted by key, one per key
+     */
+    public static byte[] encode(Header header, List<Entry> entries) {
+        int words = bloomWords(entries.size());
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + words * 8 + entries.size() * ENTRY_SIZE + 4);
+
+        buffer.putInt(MAGIC);
+        buffer.putShort((short) VERSION);
+        buffer.put(header.type().code);
+        buffer.put((byte) 0);
+        buffer.putLong(header.generation());
+        buffer.putLong(header.baseGeneration());
+        buffer.putLong(header.builtAtMillis());
+        buffer.putInt(entries.size());
+        buffer.putInt(words);
+        buffer.putInt(BLOOM_HASHES);
+        buffer.putInt(0);
+
+        long[] bloom = new long[words];
+        for (Entry entry : entries) {
+            long bits = words * 64L;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                long bit = bloomBit(entry.key(), i, bits);
+                bloom[(int) (bit >>> 6)] |= 1L << (bit & 63);
+            }
+        }
+        for (long word : bloom) {
+            buffer.putLong(word);
+        }
+
+        Key previous = null;
+        for (Entry entry : entries) {
+            if (previous != null && previous.compareTo(entry.key()) >= 0) {
+                throw new IllegalArgumentException("Snapshot entries must be sorted by key, without duplicates");
+            }
+            previous = entry.key();
+            putEntry(buffer, entry);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Generation of a full snapshot: the first 64 bits of SHA-256 over its
+     * encoded entries (the build time is left out)
+     * @param entries sorted by key, one per key
+     */
+    public static long generationOf(List<Entry> entries) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        ByteBuffer encoded = ByteBuffer.allocate(ENTRY_SIZE);
+        for (Entry entry : entries) {
+            putEntry(encoded.clear(), entry);
+            digest.update(encoded.array());
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong();
+    }
+
+    /**
+     * A generation as exchanged with clients (ETag, X-Snapshot-Generation, ?since=): 16 hex digits
+     */
+    public static String formatGeneration(long generation) {
+        return String.format("%016x", generation);
+    }
+
+    /**
+     * Parse a generation written by formatGeneration
+     * @return empty if the text is not one
+     */
+    public static OptionalLong parseGeneration(String text) {
+        if (text == null || !GENERATION.matcher(text).matches()) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(Long.parseUnsignedLong(text, 16));
+    }
+
+    /**
+     * Write a snapshot file atomically (temp file + rename)
+     */
+    public static void write(Path path, Header header, List<Entry> entries) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.write(temp, encode(header, entries));
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Entries that turn base into next: new or changed entries, and REMOVED for keys only in base
+     * Both lists sorted by key
+     */
+    public static List<Entry> diff(List<Entry> base, List<Entry> next) {
+        List<Entry> changes = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < base.size() || j < next.size()) {
+            int order = i == base.size() ? 1 : j == next.size() ? -1 : base.get(i).key().compareTo(next.get(j).key());
+            if (order < 0) {
+                Entry removed = base.get(i++);
+                changes.add(new Entry(removed.key(), removed.kind(), Status.REMOVED, 0));
+            } else if (order > 0) {
+                changes.add(next.get(j++));
+            } else {
+                if (!base.get(i).equals(next.get(j))) {
+                    changes.add(next.get(j));
+                }
+                i++;
+                j++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Apply a delta's entries to a full snapshot's entries
+     * Both lists sorted by key
+     */
+    public static List<Entry> merge(List<Entry> base, List<Entry> delta) {
+        List<Entry> merged = new ArrayList<>(base.size() + delta.size());
+        int i = 0;
+        int j = 0;
+        while (i < base.size() || j < delta.size()) {
+            int order = i == base.size() ? 1 : j == delta.size() ? -1 : base.get(i).key().compareTo(delta.get(j).key());
+            if (order < 0) {
+                merged.add(base.get(i++));
+            } else {
+                Entry change = delta.get(j++);
+                if (order == 0) {
+                    i++;
+                }
+                if (change.status() != Status.REMOVED) {
+                    merged.add(change);
+                }
+            }
+        }
+        return merged;
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static void putEntry(ByteBuffer buffer, Entry entry) {
+        buffer.putLong(entry.key().high());
+        buffer.putLong(entry.key().low());
+        buffer.put(entry.kind().code);
+        buffer.put(entry.status().code);
+        buffer.putShort((short) 0);
+        buffer.putInt(entry.cases());
+    }
+
+    static int bloomWords(int entryCount) {
+        long bits = Math.max(64L, (long) entryCount * BLOOM_BITS_PER_ENTRY);
+        return (int) Math.min((bits + 63) / 64, Integer.MAX_VALUE / 8);
+    }
+
+    // Double hashing over the two halves of the (already uniform) key
+    static long bloomBit(Key key, int i, long bits) {
+        return Long.remainderUnsigned(key.high() + i * (key.low() | 1L), bits);
+    }
+}
@@ -0,0 +1,209 @@
+package com.unveil.snapshot;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Read-only view of a snapshot file (see VerdictSnapshot for the layout).
+ *
+ * The file is memory-mapped and checked once (magic, version, size, CRC);
+ * lookups then test the Bloom filter and binary search the entries in the
+ * mapping, without copying the file onto the heap. The mapping outlives the
+ * file: a reader opened before the file was deleted or replaced keeps
+ * serving its content until it is garbage collected.
+ */
+public final class VerdictSnapshotReader {
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final VerdictSnapshot.Header header;
+    private final int bloomWords;
+    private final int bloomHashes;
+    private final int entriesOffset;
+
+    private VerdictSnapshotReader(Path path, ByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+
+        int size = buffer.capacity();
+        if (size < VerdictSnapshot.HEADER_SIZE + 4 || buffer.getInt(0) != VerdictSnapshot.MAGIC) {
+            throw new IOException("Not a verdict snapshot: " + path);
+        }
+        if (buffer.getShort(4) != VerdictSnapshot.VERSION) {
+            throw new IOException("Unsupported verdict snapshot version " + buffer.getShort(4) + ": " + path);
+        }
+        VerdictSnapshot.Type type = VerdictSnapshot.Type.of(buffer.get(6));
+        int entryCount = buffer.getInt(32);
+        this.bloomWords = buffer.getInt(36);
+        this.bloomHashes = buffer.getInt(40);
+        this.entriesOffset = VerdictSnapshot.HEADER_SIZE + bloomWords * 8;
+
+        long expected = (long) entriesOffset + (long) entryCount * VerdictSnapshot.ENTRY_SIZE + 4;
+        if (type == null || entryCount < 0 || bloomWords < 1 || expected != size) {
+            throw new IOException("Truncated or malformed verdict snapshot: " + path);
+        }
+
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(size - 4));
+        if ((int) crc.getValue() != buffer.getInt(size - 4)) {
+            throw new IOException("Verdict snapshot failed its checksum: " + path);
+        }
+
+        this.header = new VerdictSnapshot.Header(type, buffer.getLong(8), buffer.getLong(16), buffer.getLong(24),
+                entryCount);
+    }
+
+    /**
+     * Map and verify a snapshot file
+     */
+    public static VerdictSnapshotReader open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Verdict snapshot too large: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new VerdictSnapshotReader(path, mapped);
+        }
+    }
+
+    /**
+     * Verify an encoded snapshot held in memory (e.g. a downloaded delta)
+     */
+    public static VerdictSnapshotReader of(byte[] bytes) throws IOException {
+        return new VerdictSnapshotReader(null, ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public VerdictSnapshot.Header header() {
+        return header;
+    }
+
+    public int sizeBytes() {
+        return buffer.capacity();
+    }
+
+    /**
+     * The whole snapshot as a stream, read from this reader's buffer rather than from its path
+     */
+    public InputStream openStream() {
+        ByteBuffer view = buffer.duplicate().clear();
+        return new InputStream() {
+            @Override
+            public int read() {
+                return view.hasRemaining() ? view.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) {
+                Objects.checkFromIndexSize(offset, length, bytes.length);
+                if (length == 0) {
+                    return 0;
+                }
+                if (!view.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, view.remaining());
+                view.get(bytes, offset, count);
+                return count;
+            }
+
+            @Override
+            public int available() {
+                return view.remaining();
+            }
+        };
+    }
+
+    /**
+     * Bloom filter test: false means the key is certainly absent
+     */
+    public boolean mightContain(VerdictSnapshot.Key key) {
+        long bits = bloomWords * 64L;
+        for (int i = 0; i < bloomHashes; i++) {
+            long bit = VerdictSnapshot.bloomBit(key, i, bits);
+            long word = buffer.getLong(VerdictSnapshot.HEADER_SIZE + (int) (bit >>> 6) * 8);
+            if ((word & (1L << (bit & 63))) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Entry for a raw identifier (normalized first)
+     */
+    public Optional<VerdictSnapshot.Entry> find(VerdictSnapshot.Kind kind, String identifier) {
+        VerdictSnapshot.Key key = VerdictSnapshot.Key.of(kind, identifier);
+        return key != null ? find(key) : Optional.empty();
+    }
+
+    public Optional<VerdictSnapshot.Entry> find(VerdictSnapshot.Key key) {
+        if (!mightContain(key)) {
+            return Optional.empty();
+        }
+        int low = 0;
+        int high = header.entryCount() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int order = keyAt(mid).compareTo(key);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return Optional.of(entryAt(mid));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * All entries in key order, decoded on access
+     */
+    public List<VerdictSnapshot.Entry> entries() {
+        return new AbstractList<>() {
+            @Override
+            public VerdictSnapshot.Entry get(int index) {
+                if (index < 0 || index >= header.entryCount()) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return entryAt(index);
+            }
+
+            @Override
+            public int size() {
+                return header.entryCount();
+            }
+        };
+    }
+
+    // ============ HELPER METHODS ============
+
+    private VerdictSnapshot.Key keyAt(int index) {
+        int offset = entriesOffset + index * VerdictSnapshot.ENTRY_SIZE;
+        return new VerdictSnapshot.Key(buffer.getLong(offset), buffer.getLong(offset + 8));
+    }
+
+    private VerdictSnapshot.Entry entryAt(int index) {
+        int offset = entriesOffset + index * VerdictSnapshot.ENTRY_SIZE;
+        return new VerdictSnapshot.Entry(
+                new VerdictSnapshot.Key(buffer.getLong(offset), buffer.getLong(offset + 8)),
+                VerdictSnapshot.Kind.of(buffer.get(offset + 16)),
+                VerdictSnapshot.Status.of(buffer.get(offset + 17)),
+                buffer.getInt(offset + 20));
+    }
+}
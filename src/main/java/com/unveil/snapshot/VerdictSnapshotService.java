@@ -0,0 +1,245 @@
+package com.unveil.snapshot;
+
+import com.unveil.repository.CaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Builds the downloadable verdict snapshot from cases in the background.
+ *
+ * A snapshot's generation is derived from its entries (see
+ * VerdictSnapshot.generationOf), so instances building from the same cases
+ * publish the same generation, and a generation or ETag a client got from
+ * one instance means the same content on any other.
+ *
+ * Each build that changes anything is written as a new file
+ * (verdicts-00c0ffee12345678.snap); the last few are kept open, so a client
+ * holding any of them can be sent a delta instead of the whole file. Deltas
+ * are computed on first request and cached until the next build. A client
+ * whose generation the instance it reaches does not hold simply downloads
+ * in full.
+ *
+ * Downloads stream from the open readers rather than re-opening files by
+ * path, so a download still in progress when its file is pruned completes
+ * from the mapping.
+ */
+@Service
+public class VerdictSnapshotService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(VerdictSnapshotService.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("verdicts-([0-9a-f]{16})\\.snap");
+    // Files numbered per instance (verdicts-000000000042.snap) by earlier versions
+    private static final Pattern NUMBERED_FILE_NAME = Pattern.compile("verdicts-\\d{12}\\.snap");
+
+    private final CaseRepository caseRepository;
+    private final boolean enabled;
+    private final Path directory;
+    private final int retain;
+
+    // Readers of the kept files by generation, latest included
+    private final Map<Long, VerdictSnapshotReader> retained = new ConcurrentHashMap<>();
+
+    private volatile Published latest;
+
+    public VerdictSnapshotService(CaseRepository caseRepository,
+                                  @Value("${app.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${app.snapshot.dir:data/snapshots}") String directory,
+                                  @Value("${app.snapshot.retain:8}") int retain) {
+        this.caseRepository = caseRepository;
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.retain = Math.max(1, retain);
+    }
+
+    /**
+     * Pick up the readable snapshots left by a previous run; the newest built becomes the latest
+     */
+    @Override
+    public synchronized void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        // No delta can be served from them: clients holding one download in full
+        for (Path path : listFiles(NUMBERED_FILE_NAME)) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete old verdict snapshot {}: {}", path, e.getMessage());
+            }
+        }
+        for (Path path : listFiles(FILE_NAME)) {
+            try {
+                VerdictSnapshotReader reader = VerdictSnapshotReader.open(path);
+                retained.put(reader.header().generation(), reader);
+            } catch (IOException e) {
+                log.warn("Skipping unreadable verdict snapshot {}: {}", path, e.getMessage());
+            }
+        }
+        retained.values().stream()
+                .max(Comparator.comparingLong(reader -> reader.header().builtAtMillis()))
+                .ifPresent(reader -> {
+                    latest = new Published(reader);
+                    log.info("Verdict snapshot generation {} loaded ({} entries)",
+                            VerdictSnapshot.formatGeneration(reader.header().generation()),
+                            reader.header().entryCount());
+                });
+        prune();
+    }
+
+    /**
+     * Rebuild from cases; publishes a new generation only if anything changed
+     */
+    @Scheduled(fixedDelayString = "${app.snapshot.interval-ms:900000}",
+            initialDelayString = "${app.snapshot.initial-delay-ms:30000}")
+    public void scheduledRebuild() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Verdict snapshot build failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return true if a new generation was published
+     */
+    public synchronized boolean rebuild() {
+        List<VerdictSnapshot.Entry> entries = collectEntries();
+        long generation = VerdictSnapshot.generationOf(entries);
+
+        Published current = latest;
+        if (current != null && current.reader().header().generation() == generation) {
+            return false;
+        }
+
+        // Back to the content of a kept generation: rewritten, so its build time orders it as the newest
+        Path path = pathOf(generation);
+        try {
+            Files.createDirectories(directory);
+            VerdictSnapshot.write(path,
+                    VerdictSnapshot.Header.full(generation, System.currentTimeMillis(), entries.size()), entries);
+            VerdictSnapshotReader reader = VerdictSnapshotReader.open(path);
+            retained.put(generation, reader);
+            latest = new Published(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write verdict snapshot " + path, e);
+        }
+
+        prune();
+        log.info("Verdict snapshot generation {} published ({} entries, {} bytes)",
+                VerdictSnapshot.formatGeneration(generation), entries.size(), latest.reader().sizeBytes());
+        return true;
+    }
+
+    public Optional<VerdictSnapshotReader> latest() {
+        Published current = latest;
+        return current != null ? Optional.of(current.reader()) : Optional.empty();
+    }
+
+    /**
+     * Encoded delta from a kept generation to the latest one
+     * @return empty if there is no snapshot yet, the generation is the latest or it is not kept
+     */
+    public Optional<byte[]> deltaSince(long generation) {
+        Published current = latest;
+        if (current == null || generation == current.reader().header().generation()) {
+            return Optional.empty();
+        }
+        VerdictSnapshotReader base = retained.get(generation);
+        if (base == null) {
+            return Optional.empty();
+        }
+        return Optional.of(current.deltas().computeIfAbsent(generation, baseGeneration -> {
+            VerdictSnapshot.Header header = current.reader().header();
+            List<VerdictSnapshot.Entry> changes = VerdictSnapshot.diff(base.entries(), current.reader().entries());
+            return VerdictSnapshot.encode(VerdictSnapshot.Header.delta(baseGeneration, header.generation(),
+                    header.builtAtMillis(), changes.size()), changes);
+        }));
+    }
+
+    // ============ HELPER METHODS ============
+
+    // Summed per normalized key, sorted by key
+    private List<VerdictSnapshot.Entry> collectEntries() {
+        Map<VerdictSnapshot.Key, long[]> totals = new HashMap<>();
+        Map<VerdictSnapshot.Key, VerdictSnapshot.Kind> kinds = new HashMap<>();
+        for (Object[] row : caseRepository.summarizeAllContactKeys()) {
+            VerdictSnapshot.Kind kind = VerdictSnapshot.Kind.valueOf(((String) row[0]).toUpperCase(Locale.ROOT));
+            VerdictSnapshot.Key key = VerdictSnapshot.Key.of(kind, (String) row[1]);
+            if (key == null) {
+                continue;
+            }
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0] += ((Number) row[2]).longValue();
+            total[1] += ((Number) row[3]).longValue();
+            kinds.put(key, kind);
+        }
+
+        List<VerdictSnapshot.Entry> entries = new ArrayList<>(totals.size());
+        totals.forEach((key, total) -> entries.add(new VerdictSnapshot.Entry(key, kinds.get(key),
+                VerdictSnapshot.Status.ofScore(total[1]), (int) Math.min(total[0], Integer.MAX_VALUE))));
+        entries.sort(Comparator.comparing(VerdictSnapshot.Entry::key));
+        return entries;
+    }
+
+    // Oldest built first; the latest is never dropped. Readers still serving a download keep their mapping
+    private void prune() {
+        Published current = latest;
+        List<VerdictSnapshotReader> oldestFirst = retained.values().stream()
+                .sorted(Comparator.comparingLong(reader -> reader.header().builtAtMillis()))
+                .toList();
+        for (int i = 0; i < oldestFirst.size() - retain; i++) {
+            VerdictSnapshotReader reader = oldestFirst.get(i);
+            if (current != null && reader == current.reader()) {
+                continue;
+            }
+            retained.remove(reader.header().generation(), reader);
+            try {
+                Files.deleteIfExists(reader.path());
+            } catch (IOException e) {
+                log.warn("Could not delete old verdict snapshot {}: {}", reader.path(), e.getMessage());
+            }
+        }
+    }
+
+    private List<Path> listFiles(Pattern fileName) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> fileName.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list verdict snapshots in " + directory, e);
+        }
+    }
+
+    private Path pathOf(long generation) {
+        return directory.resolve("verdicts-" + VerdictSnapshot.formatGeneration(generation) + ".snap");
+    }
+
+    // A published generation and the deltas served against it
+    private record Published(VerdictSnapshotReader reader, Map<Long, byte[]> deltas) {
+        Published(VerdictSnapshotReader reader) {
+            this(reader, new ConcurrentHashMap<>());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.unveil.state;
+
+import com.unveil.housekeeping.TimingWheel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-JVM state store (single instance deployments and dev).
+ * Expiry is driven by the housekeeping timing wheel; reads also check it.
+ */
+@Component
+@ConditionalOnProperty(name = "app.state.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryStateStore implements StateStore {
+
+    private final TimingWheel expiryWheel;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public InMemoryStateStore(TimingWheel expiryWheel) {
+        this.expiryWheel = expiryWheel;
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        Entry entry = live(key, System.currentTimeMillis());
+        return entry != null ? Optional.of(entry.value) : Optional.empty();
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        long now = System.currentTimeMillis();
+        Map<String, String> result = new HashMap<>();
+        for (String key : keys) {
+            Entry entry = live(key, now);
+            if (entry != null) {
+                result.put(key, entry.value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        store(key, new Entry(value, expiresAt(ttl)));
+    }
+
+    @Override
+    public void putAll(Map<String, String> values, Duration ttl) {
+        long expiresAt = expiresAt(ttl);
+        values.forEach((key, value) -> store(key, new Entry(value, expiresAt)));
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        Entry created = new Entry(value, expiresAt(ttl));
+        Entry result = entries.compute(key, (k, existing) ->
+                existing != null && !existing.isExpired(now) ? existing : created);
+        if (result == created) {
+            scheduleExpiry(key, created);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(String key) {
+        Entry removed = entries.remove(key);
+        return removed != null && !removed.isExpired(System.currentTimeMillis());
+    }
+
+    @Override
+    public boolean remove(String key, String expectedValue) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        return entry != null && !entry.isExpired(now) && entry.value.equals(expectedValue)
+                && entries.remove(key, entry);
+    }
+
+    @Override
+    public long increment(String key, long delta, Duration ttl) {
+        long now = System.currentTimeMillis();
+        long expiresAt = expiresAt(ttl);
+        Entry updated = entries.compute(key, (k, existing) -> {
+            long current = existing != null && !existing.isExpired(now) ? Long.parseLong(existing.value) : 0;
+            return new Entry(String.valueOf(current + delta), expiresAt);
+        });
+        scheduleExpiry(key, updated);
+        return Long.parseLong(updated.value);
+    }
+
+    @Override
+    public Map<String, String> scan(String prefix) {
+        long now = System.currentTimeMillis();
+        Map<String, String> result = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            if (key.startsWith(prefix) && !entry.isExpired(now)) {
+                result.put(key, entry.value);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public long countByPrefix(String prefix) {
+        long now = System.currentTimeMillis();
+        return entries.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix) && !e.getValue().isExpired(now))
+                .count();
+    }
+
+    @Override
+    public int removeByPrefix(String prefix) {
+        int removed = 0;
+        for (String key : entries.keySet()) {
+            if (key.startsWith(prefix) && entries.remove(key) != null) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public int purgeExpired() {
+        // The timing wheel expires entries as they come due
+        return 0;
+    }
+
+    @Override
+    public String name() {
+        return "memory";
+    }
+
+    // ============ HELPER METHODS ============
+
+    private Entry live(String key, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(now)) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private void store(String key, Entry entry) {
+        entries.put(key, entry);
+        scheduleExpiry(key, entry);
+    }
+
+    private void scheduleExpiry(String key, Entry entry) {
+        if (entry.expiresAt != Long.MAX_VALUE) {
+            expiryWheel.schedule("state:" + key, entry.expiresAt, () -> entries.remove(key, entry));
+        } else {
+            expiryWheel.cancel("state:" + key);
+        }
+    }
+
+    private long expiresAt(Duration ttl) {
+        return ttl != null ? System.currentTimeMillis() + ttl.toMillis() : Long.MAX_VALUE;
+    }
+
+    private record Entry(String value, long expiresAt) {
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
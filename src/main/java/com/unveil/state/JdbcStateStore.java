@@ -0,0 +1,192 @@
+package com.unveil.state;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * PostgreSQL-backed state store shared by all instances (app_state table).
+ *
+ * Writes are single-statement upserts (INSERT ... ON CONFLICT), so
+ * putIfAbsent / increment are atomic across instances; batched reads use one
+ * IN query and batched writes one JDBC batch. Expired rows stay invisible
+ * to reads until the housekeeping sweep deletes them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.state.store", havingValue = "jdbc")
+public class JdbcStateStore implements StateStore {
+
+    private static final String LIVE = "(expires_at IS NULL OR expires_at > :now)";
+
+    private static final String UPSERT =
+            "INSERT INTO app_state (state_key, state_value, expires_at) VALUES (?, ?, ?) " +
+            "ON CONFLICT (state_key) DO UPDATE SET state_value = EXCLUDED.state_value, expires_at = EXCLUDED.expires_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Value("${app.state.jdbc.purge-batch-size:1000}")
+    private int purgeBatchSize = 1000;
+
+    public JdbcStateStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+    }
+
+    /**
+     * Create app_state if missing (normally done by the V3 migration; used by
+     * tests that point the store at a database Flyway has not run against)
+     */
+    public void createSchemaIfMissing() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/postgresql/V3__app_state.sql"))
+                .execute(Objects.requireNonNull(jdbcTemplate.getDataSource()));
+    }
+
+    @Override
+    public Optional<String> get(String key) {
+        List<String> values = namedJdbcTemplate.queryForList(
+                "SELECT state_value FROM app_state WHERE state_key = :key AND " + LIVE,
+                params().addValue("key", key), String.class);
+        return values.isEmpty() ? Optional.empty() : Optional.of(values.get(0));
+    }
+
+    @Override
+    public Map<String, String> getAll(Collection<String> keys) {
+        Map<String, String> result = new HashMap<>();
+        if (keys.isEmpty()) {
+            return result;
+        }
+        namedJdbcTemplate.query(
+                "SELECT state_key, state_value FROM app_state WHERE state_key IN (:keys) AND " + LIVE,
+                params().addValue("keys", new ArrayList<>(new LinkedHashSet<>(keys))),
+                rs -> {
+                    result.put(rs.getString(1), rs.getString(2));
+                });
+        return result;
+    }
+
+    @Override
+    public void put(String key, String value, Duration ttl) {
+        jdbcTemplate.update(UPSERT, key, value, expiresAt(ttl));
+    }
+
+    @Override
+    public void putAll(Map<String, String> entries, Duration ttl) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Long expiresAt = expiresAt(ttl);
+        List<Object[]> batch = new ArrayList<>(entries.size());
+        entries.forEach((key, value) -> batch.add(new Object[]{key, value, expiresAt}));
+        jdbcTemplate.batchUpdate(UPSERT, batch);
+    }
+
+    @Override
+    public boolean putIfAbsent(String key, String value, Duration ttl) {
+        // Inserts, or takes over an expired row; a live row makes the WHERE false (0 rows)
+        int updated = jdbcTemplate.update(
+                "INSERT INTO app_state (state_key, state_value, expires_at) VALUES (?, ?, ?) " +
+                "ON CONFLICT (state_key) DO UPDATE SET state_value = EXCLUDED.state_value, " +
+                "expires_at = EXCLUDED.expires_at " +
+                "WHERE app_state.expires_at IS NOT NULL AND app_state.expires_at <= ?",
+                key, value, expiresAt(ttl), System.currentTimeMillis());
+        return updated > 0;
+    }
+
+    @Override
+    public boolean remove(String key) {
+        return namedJdbcTemplate.update(
+                "DELETE FROM app_state WHERE state_key = :key AND " + LIVE,
+                params().addValue("key", key)) > 0;
+    }
+
+    @Override
+    public boolean remove(String key, String expectedValue) {
+        return namedJdbcTemplate.update(
+                "DELETE FROM app_state WHERE state_key = :key AND state_value = :value AND " + LIVE,
+                params().addValue("key", key).addValue("value", expectedValue)) > 0;
+    }
+
+    @Override
+    public long increment(String key, long delta, Duration ttl) {
+        String value = jdbcTemplate.queryForObject(
+                "INSERT INTO app_state (state_key, state_value, expires_at) VALUES (?, ?, ?) " +
+                "ON CONFLICT (state_key) DO UPDATE SET state_value = CASE " +
+                "WHEN app_state.expires_at IS NOT NULL AND app_state.expires_at <= ? THEN EXCLUDED.state_value " +
+                "ELSE CAST(CAST(app_state.state_value AS BIGINT) + ? AS VARCHAR) END, " +
+                "expires_at = EXCLUDED.expires_at " +
+                "RETURNING state_value",
+                String.class,
+                key, String.valueOf(delta), expiresAt(ttl), System.currentTimeMillis(), delta);
+        return Long.parseLong(value);
+    }
+
+    @Override
+    public Map<String, String> scan(String prefix) {
+        Map<String, String> result = new HashMap<>();
+        namedJdbcTemplate.query(
+                "SELECT state_key, state_value FROM app_state WHERE state_key LIKE :pattern ESCAPE '\\' AND " + LIVE,
+                params().addValue("pattern", likePrefix(prefix)),
+                rs -> {
+                    result.put(rs.getString(1), rs.getString(2));
+                });
+        return result;
+    }
+
+    @Override
+    public long countByPrefix(String prefix) {
+        Long count = namedJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM app_state WHERE state_key LIKE :pattern ESCAPE '\\' AND " + LIVE,
+                params().addValue("pattern", likePrefix(prefix)), Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public int removeByPrefix(String prefix) {
+        return namedJdbcTemplate.update(
+                "DELETE FROM app_state WHERE state_key LIKE :pattern ESCAPE '\\'",
+                params().addValue("pattern", likePrefix(prefix)));
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = System.currentTimeMillis();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM app_state WHERE state_key IN (" +
+                    "SELECT state_key FROM app_state WHERE expires_at <= ? LIMIT ?)",
+                    now, purgeBatchSize);
+            total += deleted;
+        } while (deleted >= purgeBatchSize);
+        return total;
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    // ============ HELPER METHODS ============
+
+    private MapSqlParameterSource params() {
+        return new MapSqlParameterSource("now", System.currentTimeMillis());
+    }
+
+    private Long expiresAt(Duration ttl) {
+        return ttl != null ? System.currentTimeMillis() + ttl.toMillis() : null;
+    }
+
+    private String likePrefix(String prefix) {
+        return prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,79 @@
+package com.unveil.state;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Key/value store for short-lived coordination state (OTPs, rate limits,
+ * vote de-duplication) that must be shared by every instance behind the
+ * load balancer.
+ *
+ * Values are strings; callers own the encoding. A {@code null} TTL means the
+ * entry never expires. Expired entries are invisible to every read, even
+ * before {@link #purgeExpired()} physically removes them.
+ *
+ * Implementations: {@link InMemoryStateStore} (single instance, default) and
+ * {@link JdbcStateStore} (PostgreSQL, shared), selected by app.state.store.
+ */
+public interface StateStore {
+
+    Optional<String> get(String key);
+
+    /**
+     * Batched read; missing or expired keys are absent from the result
+     */
+    Map<String, String> getAll(Collection<String> keys);
+
+    void put(String key, String value, Duration ttl);
+
+    /**
+     * Batched write, all entries sharing one TTL
+     */
+    void putAll(Map<String, String> entries, Duration ttl);
+
+    /**
+     * Atomically create the entry unless a live one exists
+     * @return true if this call created it
+     */
+    boolean putIfAbsent(String key, String value, Duration ttl);
+
+    /**
+     * @return true if a live entry was removed
+     */
+    boolean remove(String key);
+
+    /**
+     * Remove only if the live value still equals {@code expectedValue} (single-use tokens)
+     * @return true if this call removed it
+     */
+    boolean remove(String key, String expectedValue);
+
+    /**
+     * Atomically add {@code delta} to a numeric entry (missing or expired counts as 0)
+     * and set its expiry to now + ttl
+     * @return the new value
+     */
+    long increment(String key, long delta, Duration ttl);
+
+    /**
+     * Live entries whose key starts with {@code prefix}
+     */
+    Map<String, String> scan(String prefix);
+
+    long countByPrefix(String prefix);
+
+    int removeByPrefix(String prefix);
+
+    /**
+     * Physically remove expired entries
+     * @return number removed
+     */
+    int purgeExpired();
+
+    /**
+     * Implementation name for health/diagnostics
+     */
+    String name();
+}
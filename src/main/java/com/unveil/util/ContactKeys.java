@@ -0,0 +1,64 @@
+package com.unveil.util;
+
+import java.util.Locale;
+
+/**
+ * Normalized lookup keys for contact details, shared by the maintained
+ * cases columns (email_domain, phone_digits) and the lookup endpoint, so
+ * stored and requested values compare equal whatever their formatting.
+ *
+ * - email: trimmed and lower-cased
+ * - domain: lower-cased part after the last '@' (or the value itself)
+ * - phone: digits only, "+1 (555) 010-9999" -> "15550109999"
+ */
+public final class ContactKeys {
+
+    // Shorter digit strings are too ambiguous to match on
+    public static final int MIN_PHONE_DIGITS = 6;
+
+    private ContactKeys() {
+    }
+
+    public static String email(String email) {
+        if (email == null) {
+            return null;
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        int at = normalized.lastIndexOf('@');
+        return at > 0 && at < normalized.length() - 1 ? normalized : null;
+    }
+
+    public static String emailDomain(String email) {
+        String normalized = email(email);
+        return normalized != null ? normalized.substring(normalized.lastIndexOf('@') + 1) : null;
+    }
+
+    /**
+     * Domain from either an email address or a bare domain ("@example.com", "Example.com")
+     */
+    public static String domain(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        int at = normalized.lastIndexOf('@');
+        if (at >= 0) {
+            normalized = normalized.substring(at + 1);
+        }
+        return normalized.isEmpty() || normalized.indexOf('.') < 0 ? null : normalized;
+    }
+
+    public static String phoneDigits(String phone) {
+        if (phone == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char ch = phone.charAt(i);
+            if (ch >= '0' && ch <= '9') {
+                digits.append(ch);
+            }
+        }
+        return digits.length() >= MIN_PHONE_DIGITS ? digits.toString() : null;
+    }
+}
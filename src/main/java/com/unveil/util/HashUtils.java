@@ -0,0 +1,119 @@
+package com.unveil.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashing for hot paths (email hashes, voter hashes).
+ *
+ * Each thread keeps one MessageDigest plus scratch buffers, so hashing an
+ * ASCII string allocates only the returned String: input bytes, digest
+ * output and hex characters are all written into reused arrays.
+ */
+public final class HashUtils {
+
+    public static final int SHA256_BYTES = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<Sha256State> STATE = ThreadLocal.withInitial(Sha256State::new);
+
+    private HashUtils() {
+    }
+
+    /**
+     * Lowercase hex SHA-256 of the UTF-8 encoding of {@code input}
+     */
+    public static String sha256Hex(String input) {
+        Sha256State state = STATE.get();
+        state.digestInto(input, state.hash, 0);
+        toHex(state.hash, 0, SHA256_BYTES, state.hex, 0);
+        return new String(state.hex, 0, SHA256_BYTES * 2);
+    }
+
+    /**
+     * SHA-256 of the UTF-8 encoding of {@code input}, written to {@code out} at {@code offset}
+     */
+    public static void sha256(String input, byte[] out, int offset) {
+        STATE.get().digestInto(input, out, offset);
+    }
+
+    /**
+     * SHA-256 of the UTF-8 encoding of {@code input}
+     */
+    public static byte[] sha256(String input) {
+        byte[] out = new byte[SHA256_BYTES];
+        sha256(input, out, 0);
+        return out;
+    }
+
+    /**
+     * Lowercase hex of {@code bytes}
+     */
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        toHex(bytes, 0, bytes.length, chars, 0);
+        return new String(chars);
+    }
+
+    /**
+     * Lookup-table hex encoding into a caller-supplied array (2 chars per byte)
+     */
+    public static void toHex(byte[] bytes, int offset, int length, char[] out, int outOffset) {
+        for (int i = 0; i < length; i++) {
+            int value = bytes[offset + i] & 0xff;
+            out[outOffset++] = HEX[value >>> 4];
+            out[outOffset++] = HEX[value & 0x0f];
+        }
+    }
+
+    // Per-thread digest and scratch buffers
+    private static final class Sha256State {
+        final MessageDigest digest;
+        final byte[] hash = new byte[SHA256_BYTES];
+        final char[] hex = new char[SHA256_BYTES * 2];
+        byte[] input = new byte[128];
+
+        Sha256State() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        void digestInto(String value, byte[] out, int offset) {
+            int length = value.length();
+            if (isAscii(value, length)) {
+                // ASCII fast path: UTF-8 bytes are the chars themselves
+                if (input.length < length) {
+                    input = new byte[Math.max(length, input.length * 2)];
+                }
+                for (int i = 0; i < length; i++) {
+                    input[i] = (byte) value.charAt(i);
+                }
+                digest.update(input, 0, length);
+            } else {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+
+            try {
+                digest.digest(out, offset, SHA256_BYTES);
+            } catch (DigestException e) {
+                digest.reset();
+                throw new IllegalArgumentException("Output buffer too small for SHA-256", e);
+            }
+        }
+
+        private static boolean isAscii(String value, int length) {
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
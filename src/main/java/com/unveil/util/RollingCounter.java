@@ -0,0 +1,105 @@
+package com.unveil.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Fixed-size ring buffer of time buckets (e.g. 60 x 1 minute).
+ *
+ * Each slot remembers which absolute bucket it currently holds, so stale
+ * slots are reset lazily on write and skipped on read; there is no
+ * background rotation. Reads and writes are O(1) / O(buckets).
+ */
+public class RollingCounter {
+
+    private final long bucketMillis;
+    private final long[] counts;
+    private final long[] bucketIndexes;
+
+    public RollingCounter(Duration bucketSize, int buckets) {
+        this.bucketMillis = bucketSize.toMillis();
+        this.counts = new long[buckets];
+        this.bucketIndexes = new long[buckets];
+        Arrays.fill(bucketIndexes, -1L);
+    }
+
+    /**
+     * Add to the bucket containing the given time (ignored if older than the buffer)
+     */
+    public synchronized void add(long epochMillis, long amount) {
+        long bucketIndex = epochMillis / bucketMillis;
+        int slot = slot(bucketIndex);
+
+        if (bucketIndexes[slot] != bucketIndex) {
+            if (bucketIndexes[slot] > bucketIndex) {
+                return; // Slot already reused by a newer bucket
+            }
+            bucketIndexes[slot] = bucketIndex;
+            counts[slot] = 0;
+        }
+        counts[slot] += amount;
+    }
+
+    /**
+     * Sum of the most recent buckets, including the current (partial) one
+     */
+    public synchronized long sum(long nowMillis, int buckets) {
+        long currentIndex = nowMillis / bucketMillis;
+        int limit = Math.min(buckets, counts.length);
+
+        long total = 0;
+        for (int i = 0; i < limit; i++) {
+            long bucketIndex = currentIndex - i;
+            int slot = slot(bucketIndex);
+            if (bucketIndexes[slot] == bucketIndex) {
+                total += counts[slot];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Sum over a time window, rounded up to whole buckets
+     */
+    public long sum(long nowMillis, Duration window) {
+        int buckets = (int) Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis);
+        return sum(nowMillis, buckets);
+    }
+
+    /**
+     * Per-bucket counts for the most recent buckets, oldest first
+     */
+    public synchronized List<Bucket> series(long nowMillis, int buckets) {
+        long currentIndex = nowMillis / bucketMillis;
+        int limit = Math.min(buckets, counts.length);
+
+        List<Bucket> series = new ArrayList<>(limit);
+        for (int i = limit - 1; i >= 0; i--) {
+            long bucketIndex = currentIndex - i;
+            int slot = slot(bucketIndex);
+            long count = bucketIndexes[slot] == bucketIndex ? counts[slot] : 0;
+            series.add(new Bucket(bucketIndex * bucketMillis, count));
+        }
+        return series;
+    }
+
+    public int capacity() {
+        return counts.length;
+    }
+
+    public Duration bucketSize() {
+        return Duration.ofMillis(bucketMillis);
+    }
+
+    private int slot(long bucketIndex) {
+        return (int) Math.floorMod(bucketIndex, (long) counts.length);
+    }
+
+    /**
+     * One bucket of a series
+     */
+    public record Bucket(long startEpochMillis, long count) {
+    }
+}
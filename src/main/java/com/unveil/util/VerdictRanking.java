@@ -0,0 +1,55 @@
+package com.unveil.util;
+
+/**
+ * Ranking keys derived from a case's guilty / not guilty tallies.
+ *
+ * - sign: +1 guilty, -1 not guilty, 0 pending (same as the verdict score)
+ * - confidence: Wilson score lower bound (95%) of the leading side's share,
+ *   so 3-0 ranks below 40-5 instead of above it
+ * - controversy: total^(minority/majority), high when many votes are split
+ *   evenly, 0 when either side has no votes
+ *
+ * Stored on cases so verdict and controversial listings are index-ordered.
+ */
+public final class VerdictRanking {
+
+    // z for a two-sided 95% interval
+    private static final double Z = 1.959963984540054;
+    private static final double Z2 = Z * Z;
+
+    private VerdictRanking() {
+    }
+
+    public static int sign(long guilty, long notGuilty) {
+        return Long.signum(guilty - notGuilty);
+    }
+
+    /**
+     * Wilson lower bound of the leading side's share (0 with no votes)
+     */
+    public static double confidence(long guilty, long notGuilty) {
+        return wilsonLowerBound(Math.max(guilty, notGuilty), guilty + notGuilty);
+    }
+
+    /**
+     * Wilson score interval lower bound for positive / total at 95%
+     */
+    public static double wilsonLowerBound(long positive, long total) {
+        if (total <= 0) {
+            return 0.0;
+        }
+        double n = total;
+        double p = positive / n;
+        double centre = p + Z2 / (2 * n);
+        double margin = Z * Math.sqrt((p * (1 - p) + Z2 / (4 * n)) / n);
+        return Math.max(0.0, (centre - margin) / (1 + Z2 / n));
+    }
+
+    public static double controversy(long guilty, long notGuilty) {
+        if (guilty <= 0 || notGuilty <= 0) {
+            return 0.0;
+        }
+        double balance = (double) Math.min(guilty, notGuilty) / Math.max(guilty, notGuilty);
+        return Math.pow(guilty + notGuilty, balance);
+    }
+}
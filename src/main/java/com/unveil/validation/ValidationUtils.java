@@ -264,4 +264,44 @@ public class ValidationUtils {
         double similarity = (double) intersection.size() / union.size();
         return similarity >= threshold;
     }
+
+    /**
+     * Trigram similarity between two strings (same scheme as PostgreSQL pg_trgm)
+     * Each lowercased word is padded as "  word " and split into 3-character grams;
+     * the result is |shared| / |union| in the range 0.0 - 1.0
+     */
+    public static double trigramSimilarity(String a, String b) {
+        if (a == null || b == null) {
+            return 0.0;
+        }
+
+        Set<String> trigramsA = trigrams(a);
+        Set<String> trigramsB = trigrams(b);
+        if (trigramsA.isEmpty() || trigramsB.isEmpty()) {
+            return 0.0;
+        }
+
+        int shared = 0;
+        for (String trigram : trigramsA) {
+            if (trigramsB.contains(trigram)) {
+                shared++;
+            }
+        }
+
+        return (double) shared / (trigramsA.size() + trigramsB.size() - shared);
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (String word : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
 }
\ No newline at end of file
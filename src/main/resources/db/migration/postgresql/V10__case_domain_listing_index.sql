@@ -0,0 +1,8 @@
+-- filter=domain: email_domain = ? ORDER BY created_at DESC, an index-ordered
+-- top-N scan. Replaces the single-column index, which the batch lookup
+-- (email_domain IN (...)) can use as the leading column of this one.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_email_domain_created
+    ON cases (email_domain, created_at DESC);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_case_email_domain;
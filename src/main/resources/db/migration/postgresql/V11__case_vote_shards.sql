@@ -0,0 +1,13 @@
+-- Striped vote tallies (see VoteTallyShards): each vote adds to one of a
+-- case's shard rows instead of its cases row, so concurrent votes on one case
+-- contend on up to app.votes.shards.count rows. Rows hold votes not yet
+-- folded into cases.guilty_votes / not_guilty_votes and are deleted by the fold.
+
+CREATE TABLE IF NOT EXISTS case_vote_shards (
+    case_id          BIGINT   NOT NULL REFERENCES cases (id) ON DELETE CASCADE,
+    shard            SMALLINT NOT NULL,
+    guilty_votes     INTEGER  NOT NULL DEFAULT 0,
+    not_guilty_votes INTEGER  NOT NULL DEFAULT 0,
+    last_voted_at    TIMESTAMP(6),
+    PRIMARY KEY (case_id, shard)
+) WITH (fillfactor = 70);  -- Room for in-page (HOT) updates: shard rows are updated on every vote
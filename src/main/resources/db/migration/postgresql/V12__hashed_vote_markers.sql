@@ -0,0 +1,21 @@
+-- Vote de-duplication markers in app_state (app.state.store=jdbc) used to be
+-- keyed by the raw voter ("vote:<caseId>#email:<address>", "voter:ip:<address>").
+-- They are now keyed by the hashed voter reference written to the vote journal
+-- ("vote:<caseId>#email:<sha256 hex>", see VoteRecord.hashVoter). Re-key the old
+-- markers so votes recorded before the change keep blocking repeat votes; their
+-- expiry (none) is kept, as no votes row exists for them.
+
+INSERT INTO app_state (state_key, state_value, expires_at)
+SELECT prefix || encode(sha256(convert_to(substr(state_key, length(prefix) + 1), 'UTF8')), 'hex'),
+       state_value,
+       expires_at
+FROM (SELECT state_key, state_value, expires_at,
+             substring(state_key from '^((?:vote:[0-9]+#|voter:)(?:email|ip):)') AS prefix
+      FROM app_state) markers
+WHERE prefix IS NOT NULL
+  AND substr(state_key, length(prefix) + 1) !~ '^[0-9a-f]{64}$'
+ON CONFLICT (state_key) DO NOTHING;
+
+DELETE FROM app_state
+WHERE state_key ~ '^(vote:[0-9]+#|voter:)(email|ip):'
+  AND state_key !~ '^(vote:[0-9]+#|voter:)(email|ip):[0-9a-f]{64}$';
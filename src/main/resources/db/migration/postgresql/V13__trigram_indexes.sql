@@ -0,0 +1,37 @@
+-- Trigram indexes for fuzzy name / company search (FuzzySearchService).
+-- The expression indexes match the lower(...) % lower(?) predicates of
+-- CaseRepository. Databases that already got them from the former startup
+-- script (db/postgres/trigram-indexes.sql) keep them (IF NOT EXISTS).
+--
+-- CREATE EXTENSION needs CREATE privilege on the database; without it (or
+-- without the contrib package) the migration still succeeds, no index is
+-- built and fuzzy search keeps the prefix fallback (DatabaseCapabilities).
+-- The indexes are built in the migration's transaction rather than
+-- CONCURRENTLY, as they depend on the extension created alongside them.
+
+DO $$
+BEGIN
+    CREATE EXTENSION IF NOT EXISTS pg_trgm;
+EXCEPTION
+    WHEN insufficient_privilege OR undefined_file OR feature_not_supported THEN
+        RAISE WARNING 'pg_trgm unavailable, fuzzy search uses prefix fallback: %', SQLERRM;
+END
+$$;
+
+-- The operator class is qualified: the extension may live outside the migrated schema
+DO $$
+DECLARE
+    trgm_schema name;
+BEGIN
+    SELECT n.nspname INTO trgm_schema
+    FROM pg_extension e JOIN pg_namespace n ON n.oid = e.extnamespace
+    WHERE e.extname = 'pg_trgm';
+
+    IF trgm_schema IS NOT NULL THEN
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_case_name_trgm ON cases USING gin (lower(name) %I.gin_trgm_ops)',
+                       trgm_schema);
+        EXECUTE format('CREATE INDEX IF NOT EXISTS idx_case_company_trgm ON cases USING gin (lower(company) %I.gin_trgm_ops)',
+                       trgm_schema);
+    END IF;
+END
+$$;
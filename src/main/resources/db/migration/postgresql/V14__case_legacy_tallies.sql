@@ -0,0 +1,35 @@
+-- Votes cast before the votes table existed are counted in the case tallies
+-- but have no vote rows. legacy_guilty_votes / legacy_not_guilty_votes hold
+-- that part, so the tally reconciliation (VoteTallyReconciler) compares
+-- guilty_votes with legacy_guilty_votes + vote rows, not with vote rows alone.
+--
+-- Set once here: whatever the tallies (plus shard deltas not yet folded)
+-- exceed the vote rows by is taken to be legacy. A vote reset clears it.
+
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS legacy_guilty_votes INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS legacy_not_guilty_votes INTEGER NOT NULL DEFAULT 0;
+
+WITH vote_rows AS (
+    SELECT case_id,
+           count(*) FILTER (WHERE vote_type = 'GUILTY') AS guilty,
+           count(*) FILTER (WHERE vote_type = 'NOT_GUILTY') AS not_guilty
+    FROM votes
+    GROUP BY case_id
+), pending AS (
+    SELECT case_id, sum(guilty_votes) AS guilty, sum(not_guilty_votes) AS not_guilty
+    FROM case_vote_shards
+    GROUP BY case_id
+), legacy AS (
+    SELECT c.id,
+           greatest(0, c.guilty_votes + coalesce(p.guilty, 0) - coalesce(r.guilty, 0)) AS guilty,
+           greatest(0, c.not_guilty_votes + coalesce(p.not_guilty, 0) - coalesce(r.not_guilty, 0)) AS not_guilty
+    FROM cases c
+    LEFT JOIN vote_rows r ON r.case_id = c.id
+    LEFT JOIN pending p ON p.case_id = c.id
+)
+UPDATE cases
+SET legacy_guilty_votes = legacy.guilty,
+    legacy_not_guilty_votes = legacy.not_guilty
+FROM legacy
+WHERE cases.id = legacy.id
+  AND (legacy.guilty > 0 OR legacy.not_guilty > 0);
@@ -0,0 +1,5 @@
+-- When a case's votes were last reset. Shared by all instances, so a vote
+-- journal replay skips votes journaled before a reset made on another
+-- instance (VoteJournalReplayer); each journal only holds its own resets.
+
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS votes_reset_at TIMESTAMP;
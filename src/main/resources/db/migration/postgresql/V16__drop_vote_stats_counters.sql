@@ -0,0 +1,8 @@
+-- Voter statistics are counted from the votes table when read (VoteService),
+-- no longer kept in app_state counters that every vote incremented
+-- ("vote-stats:votes:<kind>", "vote-stats:voters:<kind>") along with one
+-- first-vote marker per voter ("voter:<kind>:<sha256 hex>"). Drop the rows.
+
+DELETE FROM app_state
+WHERE state_key LIKE 'vote-stats:%'
+   OR state_key LIKE 'voter:%';
@@ -0,0 +1,88 @@
+-- Schema as previously created by Hibernate (ddl-auto: update).
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate),
+-- so this script only runs against empty databases.
+
+CREATE TABLE IF NOT EXISTS users (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    linkedin_id     VARCHAR(255) NOT NULL UNIQUE,
+    first_name      VARCHAR(255) NOT NULL,
+    last_name       VARCHAR(255) NOT NULL,
+    email           VARCHAR(255) NOT NULL,
+    profile_picture VARCHAR(255),
+    headline        VARCHAR(255),
+    is_active       BOOLEAN,
+    created_at      TIMESTAMP(6) NOT NULL,
+    updated_at      TIMESTAMP(6),
+    last_login_at   TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_user_linkedin_id ON users (linkedin_id);
+CREATE INDEX IF NOT EXISTS idx_user_email ON users (email);
+
+CREATE TABLE IF NOT EXISTS cases (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name             VARCHAR(255),
+    email            VARCHAR(255),
+    phone            VARCHAR(50),
+    company          VARCHAR(255),
+    description      TEXT,
+    reported_by      VARCHAR(100),
+    actions          VARCHAR(300),
+    verdict_score    INTEGER NOT NULL,
+    total_votes      INTEGER NOT NULL,
+    guilty_votes     INTEGER NOT NULL,
+    not_guilty_votes INTEGER NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    last_voted_at    TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_case_name ON cases (name);
+CREATE INDEX IF NOT EXISTS idx_case_email ON cases (email);
+CREATE INDEX IF NOT EXISTS idx_case_phone ON cases (phone);
+CREATE INDEX IF NOT EXISTS idx_case_verdict ON cases (verdict_score);
+
+CREATE TABLE IF NOT EXISTS votes (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES users (id),
+    case_id    BIGINT NOT NULL REFERENCES cases (id),
+    vote_type  VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    ip_address VARCHAR(255)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_vote_user_case ON votes (user_id, case_id);
+CREATE INDEX IF NOT EXISTS idx_vote_case ON votes (case_id);
+CREATE INDEX IF NOT EXISTS idx_vote_user ON votes (user_id);
+
+CREATE TABLE IF NOT EXISTS bad_actors (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255),
+    email       VARCHAR(255),
+    phone       VARCHAR(50),
+    company     VARCHAR(255),
+    description TEXT,
+    reported_by VARCHAR(100),
+    actions     VARCHAR(300),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_badactor_name ON bad_actors (name);
+CREATE INDEX IF NOT EXISTS idx_badactor_email ON bad_actors (email);
+CREATE INDEX IF NOT EXISTS idx_badactor_phone ON bad_actors (phone);
+
+CREATE TABLE IF NOT EXISTS verification_codes (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email_hash   VARCHAR(64) NOT NULL,
+    code         VARCHAR(6) NOT NULL,
+    expires_at   TIMESTAMP(6) NOT NULL,
+    attempts     INTEGER NOT NULL,
+    max_attempts INTEGER NOT NULL,
+    verified     BOOLEAN NOT NULL,
+    verified_at  TIMESTAMP(6),
+    ip_address   VARCHAR(45),
+    created_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_verification_email_hash ON verification_codes (email_hash);
+CREATE INDEX IF NOT EXISTS idx_verification_expires_at ON verification_codes (expires_at);
+CREATE INDEX IF NOT EXISTS idx_verification_ip ON verification_codes (ip_address);
@@ -0,0 +1,16 @@
+-- Normalized scam type dictionary with maintained case counts (see ScamTypeService)
+
+CREATE TABLE IF NOT EXISTS scam_types (
+    id              INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(300) NOT NULL,
+    normalized_name VARCHAR(300) NOT NULL UNIQUE,
+    case_count      BIGINT NOT NULL,
+    created_at      TIMESTAMP(6) NOT NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_scam_type_normalized_name ON scam_types (normalized_name);
+CREATE INDEX IF NOT EXISTS idx_scam_type_case_count ON scam_types (case_count);
+
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS scam_type_id INTEGER;
+
+CREATE INDEX IF NOT EXISTS idx_case_scam_type ON cases (scam_type_id, created_at);
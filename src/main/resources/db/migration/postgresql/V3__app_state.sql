@@ -0,0 +1,14 @@
+-- Shared coordination state for multi-instance deployments (app.state.store=jdbc)
+-- expires_at is epoch milliseconds; NULL never expires
+
+CREATE TABLE IF NOT EXISTS app_state (
+    state_key   VARCHAR(512)  PRIMARY KEY,
+    state_value VARCHAR(2048) NOT NULL,
+    expires_at  BIGINT
+);
+
+-- Prefix scans (LIKE 'prefix%') regardless of database collation
+CREATE INDEX IF NOT EXISTS idx_app_state_key_pattern ON app_state (state_key text_pattern_ops);
+
+-- Purge sweep
+CREATE INDEX IF NOT EXISTS idx_app_state_expires_at ON app_state (expires_at) WHERE expires_at IS NOT NULL;
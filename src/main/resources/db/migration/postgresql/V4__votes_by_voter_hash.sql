@@ -0,0 +1,20 @@
+-- Votes are keyed by hashed voter (voter_kind, voter_hash) instead of a user.
+-- No vote rows were written before this change, so nothing is migrated.
+
+ALTER TABLE votes ADD COLUMN IF NOT EXISTS voter_kind VARCHAR(16);
+ALTER TABLE votes ADD COLUMN IF NOT EXISTS voter_hash VARCHAR(64);
+
+DELETE FROM votes WHERE voter_kind IS NULL OR voter_hash IS NULL;
+
+ALTER TABLE votes ALTER COLUMN voter_kind SET NOT NULL;
+ALTER TABLE votes ALTER COLUMN voter_hash SET NOT NULL;
+
+-- Also drops idx_vote_user_case, idx_vote_user and the users foreign key
+ALTER TABLE votes DROP COLUMN IF EXISTS user_id;
+
+-- One vote per voter per case; VoteWriter relies on this for de-duplication
+CREATE UNIQUE INDEX IF NOT EXISTS idx_vote_case_voter ON votes (case_id, voter_kind, voter_hash);
+CREATE INDEX IF NOT EXISTS idx_vote_created_at ON votes (created_at);
+
+-- Leading column of idx_vote_case_voter
+DROP INDEX IF EXISTS idx_vote_case;
@@ -0,0 +1,9 @@
+-- Maintained ranking keys (see VerdictRanking); existing rows are filled in
+-- by VerdictRankingBackfill at startup
+
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS verdict_sign INTEGER;
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS verdict_wilson DOUBLE PRECISION;
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS controversy_score DOUBLE PRECISION;
+
+CREATE INDEX IF NOT EXISTS idx_case_verdict_rank ON cases (verdict_sign, verdict_wilson DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_case_controversy ON cases (controversy_score DESC, id DESC);
@@ -0,0 +1,28 @@
+-- Indexes shaped after the CaseRepository listing queries, so each one is an
+-- index-ordered top-N scan instead of a full sort of cases.
+-- CONCURRENTLY keeps cases writable while they build; Flyway runs this
+-- script outside a transaction because every statement is non-transactional.
+
+-- findAllByOrderByCreatedAtDesc
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_created_at
+    ON cases (created_at DESC);
+
+-- findRecentlyVotedCases: last_voted_at IS NOT NULL ORDER BY last_voted_at DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_recently_voted
+    ON cases (last_voted_at DESC) WHERE last_voted_at IS NOT NULL;
+
+-- findCasesNeedingVotes: total_votes < 5 ORDER BY created_at DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_needing_votes
+    ON cases (created_at DESC) WHERE total_votes < 5;
+
+-- findMostVotedCases: total_votes > 0 ORDER BY total_votes DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_most_voted
+    ON cases (total_votes DESC) WHERE total_votes > 0;
+
+-- findControversialCases: total_votes >= 5 AND ABS(verdict_score) <= 2 ORDER BY total_votes DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_close_votes
+    ON cases (total_votes DESC) WHERE total_votes >= 5 AND abs(verdict_score) <= 2;
+
+-- Covering index for the vote tally aggregate (index-only GROUP BY case_id, vote_type)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vote_case_type
+    ON votes (case_id) INCLUDE (vote_type);
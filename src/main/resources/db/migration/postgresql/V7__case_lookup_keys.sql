@@ -0,0 +1,13 @@
+-- Normalized lookup keys for batch lookups (see ContactKeys); maintained by
+-- the Case entity on every save, backfilled here for existing rows
+
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS email_domain VARCHAR(255);
+ALTER TABLE cases ADD COLUMN IF NOT EXISTS phone_digits VARCHAR(50);
+
+UPDATE cases
+SET email_domain = lower(substring(trim(email) FROM '^.+@([^@]+)$')),
+    phone_digits = CASE
+        WHEN length(regexp_replace(phone, '[^0-9]', '', 'g')) >= 6 THEN regexp_replace(phone, '[^0-9]', '', 'g')
+    END
+WHERE email_domain IS NULL AND phone_digits IS NULL
+  AND (email IS NOT NULL OR phone IS NOT NULL);
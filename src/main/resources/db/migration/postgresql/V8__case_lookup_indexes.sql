@@ -0,0 +1,10 @@
+-- Indexes for CaseLookupRepository: lower(email) / email_domain / phone_digits IN (...)
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_email_lower
+    ON cases (lower(email));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_email_domain
+    ON cases (email_domain);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_case_phone_digits
+    ON cases (phone_digits);
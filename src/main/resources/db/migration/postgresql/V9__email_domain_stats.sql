@@ -0,0 +1,28 @@
+-- Maintained per-email-domain aggregate (see EmailDomainStatsService): kept
+-- in step on case submission, update, deletion and verdict changes, and
+-- rebuilt from cases by a periodic housekeeping sweep; filled in here
+
+CREATE TABLE IF NOT EXISTS email_domain_stats (
+    domain         VARCHAR(255) PRIMARY KEY,
+    case_count     BIGINT NOT NULL,
+    guilty_count   BIGINT NOT NULL,
+    latest_case_id BIGINT,
+    latest_case_at TIMESTAMP(6),
+    updated_at     TIMESTAMP(6) NOT NULL
+);
+
+-- /domains/top: ORDER BY guilty_count DESC, case_count DESC / case_count DESC
+CREATE INDEX IF NOT EXISTS idx_domain_stats_guilty ON email_domain_stats (guilty_count DESC, case_count DESC);
+CREATE INDEX IF NOT EXISTS idx_domain_stats_cases ON email_domain_stats (case_count DESC);
+
+INSERT INTO email_domain_stats (domain, case_count, guilty_count, latest_case_id, latest_case_at, updated_at)
+SELECT email_domain,
+       count(*),
+       count(*) FILTER (WHERE verdict_score > 0),
+       (array_agg(id ORDER BY created_at DESC, id DESC))[1],
+       max(created_at),
+       now()
+FROM cases
+WHERE email_domain IS NOT NULL
+GROUP BY email_domain
+ON CONFLICT (domain) DO NOTHING;
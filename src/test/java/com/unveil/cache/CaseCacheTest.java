@@ -0,0 +1,132 @@
+package com.unveil.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.unveil.entity.Case;
+import com.unveil.housekeeping.TimingWheel;
+import com.unveil.state.InMemoryStateStore;
+import com.unveil.state.StateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Near / shared tier behaviour and version-based invalidation, with two
+ * caches over one state store standing in for two instances.
+ */
+class CaseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private StateStore sharedStore;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger loads;
+    private int guiltyVotes;
+
+    @BeforeEach
+    void setUp() {
+        sharedStore = new InMemoryStateStore(new TimingWheel(Duration.ofMillis(100), System.currentTimeMillis()));
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        guiltyVotes = 3;
+    }
+
+    @Test
+    void nearTierServesRepeatedReads() {
+        CaseCache cache = cache(60_000, false);
+
+        assertEquals(3, cache.get(42L, loader()).orElseThrow().getGuiltyVotes());
+        assertEquals(3, cache.get(42L, loader()).orElseThrow().getGuiltyVotes());
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.counter("unveil.cache.cases", "result", "near_hit").count());
+        assertEquals(1.0, meterRegistry.counter("unveil.cache.cases", "result", "miss").count());
+    }
+
+    @Test
+    void invalidationReloads() {
+        CaseCache cache = cache(60_000, false);
+        cache.get(42L, loader());
+
+        guiltyVotes = 4;
+        cache.invalidate(42L);
+
+        assertEquals(4, cache.get(42L, loader()).orElseThrow().getGuiltyVotes());
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.counter("unveil.cache.cases.evictions", "cause", "invalidated").count());
+    }
+
+    @Test
+    void sharedTierIsFilledOnceAndInvalidatedForEveryInstance() {
+        // Near TTL 0: every read revalidates against the shared version
+        CaseCache first = cache(0, true);
+        CaseCache second = cache(0, true);
+
+        first.get(42L, loader());
+        assertEquals(3, second.get(42L, loader()).orElseThrow().getGuiltyVotes());
+        assertEquals(1, loads.get());
+
+        guiltyVotes = 4;
+        first.invalidate(42L);
+
+        assertEquals(4, second.get(42L, loader()).orElseThrow().getGuiltyVotes());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotServedAfterwards() {
+        CaseCache cache = cache(60_000, true);
+
+        // The case changes while it is being loaded: the stale copy must not stick
+        cache.get(42L, id -> {
+            Optional<Case> stale = loader().apply(id);
+            guiltyVotes = 4;
+            cache.invalidate(id);
+            return stale;
+        });
+
+        assertEquals(4, cache.get(42L, loader()).orElseThrow().getGuiltyVotes());
+    }
+
+    @Test
+    void missingCasesAreNotCached() {
+        CaseCache cache = cache(60_000, false);
+
+        assertTrue(cache.get(7L, id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        }).isEmpty());
+        cache.get(7L, loader());
+
+        assertEquals(2, loads.get());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private CaseCache cache(long nearTtlMillis, boolean shared) {
+        return new CaseCache(sharedStore, objectMapper, meterRegistry, true, 100, nearTtlMillis, shared, 60_000);
+    }
+
+    private Function<Long, Optional<Case>> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            Case caseEntity = new Case();
+            caseEntity.setId(id);
+            caseEntity.setName("John Scammer");
+            caseEntity.setEmail("support@fake-microsoft.com");
+            caseEntity.setGuiltyVotes(guiltyVotes);
+            caseEntity.setNotGuiltyVotes(1);
+            caseEntity.setTotalVotes(guiltyVotes + 1);
+            caseEntity.setVerdictScore(guiltyVotes - 1);
+            caseEntity.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+            return Optional.of(caseEntity);
+        };
+    }
+}
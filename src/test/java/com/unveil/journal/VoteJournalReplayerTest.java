@@ -0,0 +1,72 @@
+package com.unveil.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which journaled votes a replay would try to restore: the current committed
+ * vote of each identified voter since the case's last RESET. Inserting them
+ * against the votes table is left to the unique index (see VoteWriter).
+ */
+class VoteJournalReplayerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void foldKeepsEachVotersCommittedVoteSinceTheLastReset() {
+        byte[] alice = VoteRecord.hashVoter("email:alice@example.com");
+        byte[] bob = VoteRecord.hashVoter("ip:10.0.0.2");
+        byte[] carol = VoteRecord.hashVoter("ip:10.0.0.3");
+        byte[] dave = VoteRecord.hashVoter("ip:10.0.0.4");
+
+        VoteRecord aliceGuilty = VoteRecord.vote(1, VoteRecord.VoterKind.EMAIL, alice, true, 2);
+        VoteRecord anonymous = VoteRecord.vote(1, VoteRecord.VoterKind.NONE, null, false, 4);
+        VoteRecord bobGuilty = VoteRecord.vote(2, VoteRecord.VoterKind.IP, bob, true, 5);
+        VoteRecord carolNotGuilty = VoteRecord.vote(2, VoteRecord.VoterKind.IP, carol, false, 7);
+
+        VoteJournal journal = new VoteJournal(true, directory.toString(), 1, 0);
+        for (VoteRecord record : List.of(
+                VoteRecord.baseline(1, 5, 3, 1),
+                aliceGuilty,
+                VoteRecord.commit(aliceGuilty, 2),
+                VoteRecord.vote(1, VoteRecord.VoterKind.EMAIL, alice, false, 3),
+                anonymous,
+                VoteRecord.commit(anonymous, 4),
+                bobGuilty,
+                VoteRecord.commit(bobGuilty, 5),
+                VoteRecord.reset(2, 6),
+                carolNotGuilty,
+                // Rolled back: never committed
+                VoteRecord.vote(2, VoteRecord.VoterKind.IP, dave, true, 7),
+                VoteRecord.commit(carolNotGuilty, 8))) {
+            journal.appendAndAwait(record, 10_000);
+        }
+        journal.close();
+
+        VoteJournalReplayer.Replay replay = VoteJournalReplayer.fold(consumer -> VoteJournal.read(directory, consumer));
+        assertEquals(12, replay.result().records());
+        assertFalse(replay.result().corrupt());
+        assertEquals(1, replay.duplicates());
+        assertEquals(1, replay.uncommitted());
+
+        VoteJournalReplayer.CaseTally first = replay.cases().get(1L);
+        assertEquals(List.of(VoteRecord.voterRef(VoteRecord.VoterKind.EMAIL, alice)), List.copyOf(first.votes.keySet()));
+        assertTrue(first.votes.values().iterator().next().guilty());
+        assertEquals(1, first.anonymousVotes);
+        assertEquals(6, first.guilty);
+        assertEquals(4, first.notGuilty);
+
+        VoteJournalReplayer.CaseTally second = replay.cases().get(2L);
+        assertEquals(List.of(VoteRecord.voterRef(VoteRecord.VoterKind.IP, carol)), List.copyOf(second.votes.keySet()));
+        assertEquals(0, second.guilty);
+        assertEquals(1, second.notGuilty);
+    }
+}
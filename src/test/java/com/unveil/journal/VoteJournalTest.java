@@ -0,0 +1,158 @@
+package com.unveil.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoteJournalTest {
+
+    // 1 MB segments hold 16384 records
+    private static final int RECORDS_PER_SEGMENT = 1024 * 1024 / VoteRecord.SIZE;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void concurrentAppendsShareOneForce() throws Exception {
+        int voters = 64;
+        VoteJournal journal = open(20);
+        ExecutorService executor = Executors.newFixedThreadPool(voters);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int i = 0; i < voters; i++) {
+                long caseId = i;
+                appends.add(executor.submit(() -> {
+                    start.await();
+                    journal.appendAndAwait(VoteRecord.vote(caseId, VoteRecord.VoterKind.IP,
+                            VoteRecord.hashVoter("ip:10.0.0." + caseId), true, 1L), 10_000);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> append : appends) {
+                append.get(30, TimeUnit.SECONDS);
+            }
+            assertTrue(journal.forces() < voters, "forces: " + journal.forces());
+        } finally {
+            executor.shutdownNow();
+            journal.close();
+        }
+
+        Set<Long> caseIds = new TreeSet<>();
+        VoteJournal.ReadResult result = VoteJournal.read(directory, record -> caseIds.add(record.caseId()));
+        assertEquals(voters, result.records());
+        assertEquals(voters, caseIds.size());
+        assertFalse(result.corrupt());
+    }
+
+    @Test
+    void fullSegmentRollsOverToTheNext() {
+        int total = RECORDS_PER_SEGMENT + 100;
+        VoteJournal journal = open(0);
+        for (int i = 0; i < total - 1; i++) {
+            journal.append(VoteRecord.reset(i, 1L));
+        }
+        journal.appendAndAwait(VoteRecord.reset(total - 1, 1L), 10_000);
+        journal.close();
+
+        assertTrue(Files.exists(directory.resolve("votes-000001.log")));
+        List<Long> caseIds = new ArrayList<>();
+        VoteJournal.ReadResult result = VoteJournal.read(directory, record -> caseIds.add(record.caseId()));
+        assertEquals(total, result.records());
+        assertEquals(2, result.segments());
+        assertFalse(result.corrupt());
+        for (int i = 0; i < total; i++) {
+            assertEquals(i, (long) caseIds.get(i));
+        }
+
+        // Reopening continues in the last segment
+        VoteJournal reopened = open(0);
+        reopened.appendAndAwait(VoteRecord.reset(total, 1L), 10_000);
+        reopened.close();
+        assertEquals(total + 1, VoteJournal.read(directory, record -> { }).records());
+    }
+
+    @Test
+    void tornTailIsDiscardedOnOpen() throws IOException {
+        VoteJournal journal = open(0);
+        appendResets(journal, 10);
+        journal.close();
+
+        // Half a record after the last acknowledged one
+        writeAt(segment(0), 10 * VoteRecord.SIZE, new byte[]{0x56, 0x4F, 0x54, 0x45, 1, 0, 0, 0, 42, 42, 42, 42});
+        VoteJournal.ReadResult torn = VoteJournal.read(directory, record -> { });
+        assertEquals(10, torn.records());
+        assertTrue(torn.corrupt());
+
+        VoteJournal reopened = open(0);
+        reopened.appendAndAwait(VoteRecord.reset(10, 1L), 10_000);
+        reopened.close();
+
+        List<Long> caseIds = new ArrayList<>();
+        VoteJournal.ReadResult result = VoteJournal.read(directory, record -> caseIds.add(record.caseId()));
+        assertEquals(11, result.records());
+        assertFalse(result.corrupt());
+        assertEquals(10, (long) caseIds.get(10));
+    }
+
+    @Test
+    void checksumMismatchStopsReading() throws IOException {
+        VoteJournal journal = open(0);
+        appendResets(journal, 10);
+        journal.close();
+
+        // Flip one bit of the sixth record's case id
+        Path segment = segment(0);
+        int offset = 5 * VoteRecord.SIZE + 8;
+        byte[] original = Files.readAllBytes(segment);
+        writeAt(segment, offset, new byte[]{(byte) (original[offset] ^ 1)});
+
+        List<VoteRecord> records = new ArrayList<>();
+        VoteJournal.ReadResult result = VoteJournal.read(directory, records::add);
+        assertEquals(5, result.records());
+        assertEquals(5, records.size());
+        assertTrue(result.corrupt());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private VoteJournal open(long flushIntervalMillis) {
+        return new VoteJournal(true, directory.toString(), 1, flushIntervalMillis);
+    }
+
+    private static void appendResets(VoteJournal journal, int count) {
+        for (int i = 0; i < count; i++) {
+            journal.appendAndAwait(VoteRecord.reset(i, 1L), 10_000);
+        }
+    }
+
+    private Path segment(int index) {
+        return directory.resolve(String.format("votes-%06d.log", index));
+    }
+
+    private static void writeAt(Path file, int offset, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(bytes), offset);
+        }
+    }
+}
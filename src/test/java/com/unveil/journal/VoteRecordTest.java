@@ -0,0 +1,69 @@
+package com.unveil.journal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoteRecordTest {
+
+    private final byte[] scratch = new byte[VoteRecord.SIZE];
+    private final CRC32C crc = new CRC32C();
+
+    @Test
+    void recordsSurviveEncodeAndDecode() {
+        for (VoteRecord record : new VoteRecord[]{
+                VoteRecord.vote(7, VoteRecord.VoterKind.EMAIL, VoteRecord.hashVoter("email:a@example.com"), true, 1000),
+                VoteRecord.vote(7, VoteRecord.VoterKind.IP, VoteRecord.hashVoter("ip:10.0.0.1"), false, 1001),
+                VoteRecord.vote(8, VoteRecord.VoterKind.NONE, null, true, 1002),
+                VoteRecord.commit(VoteRecord.vote(7, VoteRecord.VoterKind.IP, VoteRecord.hashVoter("ip:10.0.0.1"),
+                        false, 1001), 1005),
+                VoteRecord.reset(9, 1003),
+                VoteRecord.baseline(10, 12, 5, 1004)}) {
+            VoteRecord decoded = roundTrip(record);
+            // The anonymous vote decodes with an all-zero hash
+            if (record.voterHash() != null || record.type() != VoteRecord.Type.VOTE) {
+                assertEquals(record, decoded);
+                assertEquals(record.hashCode(), decoded.hashCode());
+            }
+            assertEquals(record.type(), decoded.type());
+            assertEquals(record.caseId(), decoded.caseId());
+            assertEquals(record.voterRef(), decoded.voterRef());
+        }
+    }
+
+    @Test
+    void equalityComparesVoterHashBytes() {
+        VoteRecord first = VoteRecord.vote(1, VoteRecord.VoterKind.IP, VoteRecord.hashVoter("ip:10.0.0.1"), true, 5);
+        VoteRecord same = VoteRecord.vote(1, VoteRecord.VoterKind.IP, VoteRecord.hashVoter("ip:10.0.0.1"), true, 5);
+        VoteRecord other = VoteRecord.vote(1, VoteRecord.VoterKind.IP, VoteRecord.hashVoter("ip:10.0.0.2"), true, 5);
+
+        assertEquals(first, same);
+        assertEquals(first.hashCode(), same.hashCode());
+        assertNotEquals(first, other);
+    }
+
+    @Test
+    void corruptOrEmptySlotsDoNotDecode() {
+        VoteRecord.reset(3, 1000).encode(scratch, crc);
+        ByteBuffer buffer = ByteBuffer.allocate(VoteRecord.SIZE * 2).put(scratch);
+        buffer.put(12, (byte) (buffer.get(12) ^ 0x10));
+
+        assertNull(VoteRecord.decode(buffer, 0, new byte[VoteRecord.SIZE], crc));
+        assertNull(VoteRecord.decode(buffer, VoteRecord.SIZE, new byte[VoteRecord.SIZE], crc));
+        assertTrue(VoteRecord.isEmpty(buffer, VoteRecord.SIZE));
+    }
+
+    // ============ HELPER METHODS ============
+
+    private VoteRecord roundTrip(VoteRecord record) {
+        record.encode(scratch, crc);
+        ByteBuffer buffer = ByteBuffer.wrap(scratch.clone());
+        return VoteRecord.decode(buffer, 0, new byte[VoteRecord.SIZE], crc);
+    }
+}
@@ -0,0 +1,243 @@
+package com.unveil.repository;
+
+import com.unveil.entity.Vote;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Plans of the SQL Hibernate generates for the CaseRepository / VoteRepository
+ * / EmailDomainStatsRepository queries, against the schema built by the Flyway
+ * migrations, so a query change that no longer matches its index (or a
+ * dropped index) fails here instead of in production.
+ *
+ * Each case calls the repository method; a StatementInspector captures the
+ * SQL it runs, which is then prepared and EXPLAINed as a generic plan (the
+ * plan PostgreSQL reuses for any parameter values). The test migrates into a
+ * throwaway schema of a local PostgreSQL database, seeds a few thousand rows
+ * and disables sequential scans and sorts: the planner still falls back to
+ * them when no index fits, which is what is asserted.
+ *
+ * Run with e.g. QUERY_PLAN_TEST_DB_URL=jdbc:postgresql://localhost:5432/unveil
+ * (plus QUERY_PLAN_TEST_DB_USERNAME / QUERY_PLAN_TEST_DB_PASSWORD).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "QUERY_PLAN_TEST_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CaseQueryPlanTest {
+
+    private static final String SCHEMA = "query_plan_" + System.nanoTime();
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    private static final Pageable NEWEST_FIRST = PageRequest.of(0, 20, Sort.by("createdAt").descending());
+    private static final Pattern SQL_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+
+    @Autowired
+    private CaseRepository caseRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private EmailDomainStatsRepository emailDomainStatsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CapturedStatements capturedStatements;
+
+    // Migrated by the application's Flyway settings (application.yaml) into SCHEMA
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("QUERY_PLAN_TEST_DB_URL"));
+        registry.add("spring.datasource.username",
+                () -> System.getenv().getOrDefault("QUERY_PLAN_TEST_DB_USERNAME", ""));
+        registry.add("spring.datasource.password",
+                () -> System.getenv().getOrDefault("QUERY_PLAN_TEST_DB_PASSWORD", ""));
+        registry.add("spring.datasource.hikari.schema", () -> SCHEMA);
+        registry.add("spring.flyway.schemas", () -> SCHEMA);
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        CapturedStatements capturedStatements() {
+            return new CapturedStatements();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementInspector(CapturedStatements capturedStatements) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, capturedStatements);
+        }
+    }
+
+    /**
+     * Every SQL statement Hibernate prepares, as sent to the driver
+     */
+    static class CapturedStatements implements StatementInspector {
+
+        private final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    // Committed outside the per-test transactions, so every case plans against the same rows
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.update("INSERT INTO cases (name, email, email_domain, verdict_score, total_votes, guilty_votes, " +
+                "not_guilty_votes, created_at, last_voted_at, scam_type_id, verdict_sign, verdict_wilson, controversy_score) " +
+                "SELECT 'name ' || i, 'user' || i || '@d' || (i % 500) || '.example.com', 'd' || (i % 500) || '.example.com', " +
+                "(i % 7) - 3, i % 12, (i % 12) / 2, (i % 12) - (i % 12) / 2, " +
+                "now() - i * interval '1 minute', CASE WHEN i % 3 = 0 THEN now() - i * interval '1 second' END, " +
+                "i % 10, sign((i % 7) - 3), (i % 100) / 100.0, (i % 50) / 10.0 " +
+                "FROM generate_series(1, 5000) AS i");
+        jdbcTemplate.update("INSERT INTO votes (case_id, voter_kind, voter_hash, vote_type, created_at) " +
+                "SELECT c.id, 'IP', md5(c.id || ':' || v), CASE WHEN v % 2 = 0 THEN 'GUILTY' ELSE 'NOT_GUILTY' END, now() " +
+                "FROM cases c, generate_series(1, 4) AS v");
+        jdbcTemplate.update("INSERT INTO email_domain_stats (domain, case_count, guilty_count, latest_case_id, " +
+                "latest_case_at, updated_at) " +
+                "SELECT email_domain, count(*), count(*) FILTER (WHERE verdict_score > 0), max(id), max(created_at), now() " +
+                "FROM cases GROUP BY email_domain");
+        jdbcTemplate.execute("ANALYZE cases");
+        jdbcTemplate.execute("ANALYZE votes");
+        jdbcTemplate.execute("ANALYZE email_domain_stats");
+    }
+
+    @AfterAll
+    void dropSchema() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    // Inside the test transaction: SET LOCAL ends with its rollback
+    @BeforeEach
+    void restrictPlanner() {
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_sort = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+    }
+
+    // Ordered top-N listings: must be an index scan in the requested order
+    Stream<Arguments> orderedListings() {
+        return Stream.of(
+                query("findAllByOrderByCreatedAtDesc", () -> caseRepository.findAllByOrderByCreatedAtDesc(FIRST_PAGE)),
+                query("findRecentlyVotedCases", () -> caseRepository.findRecentlyVotedCases(FIRST_PAGE)),
+                query("findCasesNeedingVotes", () -> caseRepository.findCasesNeedingVotes(FIRST_PAGE)),
+                query("findMostVotedCases", () -> caseRepository.findMostVotedCases(FIRST_PAGE)),
+                query("findControversialCases", () -> caseRepository.findControversialCases(FIRST_PAGE)),
+                query("findByVerdictSignRanked", () -> caseRepository.findByVerdictSignRanked(1, FIRST_PAGE)),
+                query("findByControversyRanked", () -> caseRepository.findByControversyRanked(FIRST_PAGE)),
+                query("findByScamTypeId", () -> caseRepository.findByScamTypeId(3, NEWEST_FIRST)),
+                query("findByEmailDomain", () -> caseRepository.findByEmailDomain("d3.example.com", NEWEST_FIRST)),
+                query("findTopByGuilty", () -> emailDomainStatsRepository.findTopByGuilty(FIRST_PAGE)),
+                query("findTopByCases", () -> emailDomainStatsRepository.findTopByCases(FIRST_PAGE)));
+    }
+
+    // Lookups and aggregates: must not read the whole table
+    Stream<Arguments> indexedLookups() {
+        return Stream.of(
+                query("existsByCaseEntityIdAndVoterKindAndVoterHash",
+                        () -> voteRepository.existsByCaseEntityIdAndVoterKindAndVoterHash(42L, Vote.VoterKind.IP, "abc")),
+                query("countByCaseEntityIdAndVoterKind",
+                        () -> voteRepository.countByCaseEntityIdAndVoterKind(42L, Vote.VoterKind.EMAIL)),
+                query("deleteByCaseId", () -> voteRepository.deleteByCaseId(42L)),
+                query("findTallyDriftInRange",
+                        () -> voteRepository.findTallyDriftInRange(1000L, 1999L, LocalDateTime.now().minusMinutes(1))),
+                query("countVotesPerMinuteSince",
+                        () -> voteRepository.countVotesPerMinuteSince(LocalDateTime.now().minusHours(1))),
+                query("summarizeByContactKeys (email)", () -> caseRepository.summarizeByContactKeys(
+                        List.of("user1@d1.example.com", "user2@d2.example.com"), List.of(), List.of())),
+                query("summarizeByContactKeys (phone)", () -> caseRepository.summarizeByContactKeys(
+                        List.of(), List.of("15550100001", "15550100002"), List.of())),
+                query("summarizeByContactKeys (domain)", () -> caseRepository.summarizeByContactKeys(
+                        List.of(), List.of(), List.of("d1.example.com", "d2.example.com"))));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("orderedListings")
+    void orderedListingIsServedInIndexOrder(String query, Runnable call) {
+        String sql = capture(query, call);
+        String plan = explain(sql);
+        assertFalse(plan.contains("Seq Scan"), query + " scans the whole table:\n" + sql + "\n" + plan);
+        assertFalse(plan.contains("Sort"), query + " sorts instead of reading an index in order:\n" + sql + "\n" + plan);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexedLookups")
+    void lookupUsesAnIndex(String query, Runnable call) {
+        String sql = capture(query, call);
+        String plan = explain(sql);
+        assertFalse(plan.contains("Seq Scan"), query + " scans the whole table:\n" + sql + "\n" + plan);
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static Arguments query(String name, Runnable call) {
+        return Arguments.of(name, call);
+    }
+
+    // The first statement the call runs (a page's count query follows it)
+    private String capture(String query, Runnable call) {
+        capturedStatements.statements.clear();
+        call.run();
+        assertFalse(capturedStatements.statements.isEmpty(), query + " ran no SQL");
+        return capturedStatements.statements.get(0);
+    }
+
+    // Hibernate's ? placeholders become $1, $2, ...; plan_cache_mode makes EXECUTE show the generic plan
+    private String explain(String sql) {
+        String statement = SQL_COMMENT.matcher(sql).replaceAll("").trim();
+        StringBuilder numbered = new StringBuilder(statement.length() + 16);
+        int parameters = 0;
+        boolean quoted = false;
+        for (char c : statement.toCharArray()) {
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            if (c == '?' && !quoted) {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        jdbcTemplate.execute("PREPARE plan_check AS " + numbered);
+        String arguments = parameters == 0 ? "" : "(" + String.join(", ", Collections.nCopies(parameters, "NULL")) + ")";
+        List<String> lines = jdbcTemplate.queryForList("EXPLAIN EXECUTE plan_check" + arguments, String.class);
+        jdbcTemplate.execute("DEALLOCATE plan_check");
+        return String.join("\n", lines);
+    }
+}
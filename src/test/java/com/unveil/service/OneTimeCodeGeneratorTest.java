@@ -0,0 +1,80 @@
+package com.unveil.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OneTimeCodeGeneratorTest {
+
+    private final OneTimeCodeGenerator generator = new OneTimeCodeGenerator(1024, 256);
+
+    @AfterEach
+    void tearDown() {
+        generator.shutdown();
+    }
+
+    @Test
+    void codesAreSixZeroPaddedDigits() {
+        for (int i = 0; i < 5000; i++) {
+            String code = generator.nextCode();
+            assertEquals(6, code.length(), code);
+            assertTrue(code.chars().allMatch(Character::isDigit), code);
+        }
+    }
+
+    @Test
+    void concurrentCallersDrainAndRefillThePool() throws Exception {
+        int threads = 16;
+        int codesPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> distinct = ConcurrentHashMap.newKeySet();
+
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int valid = 0;
+                    for (int i = 0; i < codesPerThread; i++) {
+                        String code = generator.nextCode();
+                        if (code.length() == 6) {
+                            valid++;
+                        }
+                        distinct.add(code);
+                    }
+                    return valid;
+                }));
+            }
+
+            long began = System.nanoTime();
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get(60, TimeUnit.SECONDS);
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+
+            assertEquals(threads * codesPerThread, total);
+            // 320k draws from 10^6 values: a healthy generator covers well over 200k distinct codes
+            assertTrue(distinct.size() > 200_000, "distinct codes: " + distinct.size());
+            // Loose bound: the pool must not serialize callers behind the refill
+            assertTrue(seconds < 30, String.format("%d codes took %.3fs", total, seconds));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Background refill tops the pool back up
+        long deadline = System.currentTimeMillis() + 5000;
+        while (generator.pooledCodes() < 256 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(generator.pooledCodes() >= 256, "pooled: " + generator.pooledCodes());
+    }
+}
@@ -0,0 +1,209 @@
+package com.unveil.service;
+
+import com.unveil.entity.Case;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many concurrent votes on one case, spread over its tally shards while two
+ * VoteTallyShards instances (standing in for two application nodes) keep
+ * folding them into the case row: every vote must end up in the tallies
+ * exactly once.
+ *
+ * Migrates into a throwaway schema of a local PostgreSQL database. Run with
+ * e.g. VOTE_SHARDS_TEST_DB_URL=jdbc:postgresql://localhost:5432/unveil
+ * (plus VOTE_SHARDS_TEST_DB_USERNAME / VOTE_SHARDS_TEST_DB_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "VOTE_SHARDS_TEST_DB_URL", matches = ".+")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class VoteTallyShardsConcurrencyTest {
+
+    private static final String SCHEMA = "vote_shards_" + System.nanoTime();
+    private static final int VOTERS = 16;
+    private static final int VOTES_PER_VOTER = 250;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private VoteTallyShards nodeA;
+    private VoteTallyShards nodeB;
+    private final AtomicInteger verdictFlips = new AtomicInteger();
+
+    @BeforeAll
+    void migrate() {
+        String url = System.getenv("VOTE_SHARDS_TEST_DB_URL");
+        String username = System.getenv().getOrDefault("VOTE_SHARDS_TEST_DB_USERNAME", "");
+        String password = System.getenv().getOrDefault("VOTE_SHARDS_TEST_DB_PASSWORD", "");
+
+        // Same settings as spring.flyway in application.yaml
+        Flyway.configure()
+                .dataSource(url, username, password)
+                .schemas(SCHEMA)
+                .locations("classpath:db/migration/postgresql")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setSchema(SCHEMA);
+        dataSource.setMaximumPoolSize(VOTERS + 4);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Only verdict flips matter here; the domain aggregate itself is not under test
+        EmailDomainStatsService domainStats = new EmailDomainStatsService(null) {
+            @Override
+            public void verdictChanged(String domain, boolean wasGuilty, boolean isGuilty) {
+                if (wasGuilty != isGuilty) {
+                    verdictFlips.incrementAndGet();
+                }
+            }
+        };
+        nodeA = new VoteTallyShards(jdbcTemplate, transactionManager, domainStats, new SimpleMeterRegistry(), 4, 100);
+        nodeB = new VoteTallyShards(jdbcTemplate, transactionManager, domainStats, new SimpleMeterRegistry(), 4, 100);
+        nodeA.detectDatabase();
+        nodeB.detectDatabase();
+    }
+
+    @AfterAll
+    void dropSchema() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test
+    void concurrentVotesAndFoldsLoseNoVote() throws Exception {
+        long caseId = insertCase();
+        AtomicBoolean voting = new AtomicBoolean(true);
+        AtomicInteger folds = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(VOTERS + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            // Two nodes folding while votes keep arriving
+            List<Future<?>> folders = new ArrayList<>();
+            for (VoteTallyShards node : List.of(nodeA, nodeB)) {
+                folders.add(executor.submit(() -> {
+                    start.await();
+                    while (voting.get()) {
+                        folds.addAndGet(node.fold());
+                    }
+                    return null;
+                }));
+            }
+
+            // Each vote in its own transaction, as in the vote path, alternating nodes; two of three guilty
+            List<Future<?>> voters = new ArrayList<>();
+            for (int v = 0; v < VOTERS; v++) {
+                voters.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < VOTES_PER_VOTER; i++) {
+                        VoteTallyShards node = i % 2 == 0 ? nodeA : nodeB;
+                        boolean guilty = i % 3 != 0;
+                        transactionTemplate.executeWithoutResult(status ->
+                                node.add(caseId, guilty ? 1 : 0, guilty ? 0 : 1));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> voter : voters) {
+                voter.get(60, TimeUnit.SECONDS);
+            }
+            voting.set(false);
+            for (Future<?> folder : folders) {
+                folder.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        nodeA.fold();
+
+        int guilty = VOTERS * (VOTES_PER_VOTER - (VOTES_PER_VOTER + 2) / 3);
+        int notGuilty = VOTERS * VOTES_PER_VOTER - guilty;
+        Map<String, Object> row = jdbcTemplate.queryForMap("SELECT guilty_votes, not_guilty_votes, total_votes, " +
+                "verdict_score, last_voted_at FROM cases WHERE id = ?", caseId);
+        assertEquals(guilty, ((Number) row.get("guilty_votes")).intValue());
+        assertEquals(notGuilty, ((Number) row.get("not_guilty_votes")).intValue());
+        assertEquals(guilty + notGuilty, ((Number) row.get("total_votes")).intValue());
+        assertEquals(guilty - notGuilty, ((Number) row.get("verdict_score")).intValue());
+        assertNotNull(row.get("last_voted_at"));
+        assertEquals(0, countShards(caseId));
+        assertTrue(folds.get() > 0, "folds ran while votes arrived");
+    }
+
+    @Test
+    void currentTallyIncludesVotesNotYetFolded() {
+        long caseId = insertCase();
+        Case caseEntity = new Case();
+        caseEntity.setId(caseId);
+
+        transactionTemplate.executeWithoutResult(status -> nodeA.add(caseId, 3, 1));
+        transactionTemplate.executeWithoutResult(status -> nodeB.add(caseId, 0, 1));
+
+        Case current = nodeA.withCurrentTally(caseEntity);
+        assertEquals(3, current.getGuiltyVotes());
+        assertEquals(2, current.getNotGuiltyVotes());
+        assertEquals(1, current.getVerdictScore());
+        assertTrue(countShards(caseId) > 0);
+
+        int flips = verdictFlips.get();
+        nodeB.fold();
+        assertEquals(0, countShards(caseId));
+        assertEquals(flips + 1, verdictFlips.get(), "folding 3:2 makes the case guilty");
+
+        // Folding moves votes without changing what readers see
+        Case folded = nodeB.withCurrentTally(caseEntity);
+        assertEquals(3, folded.getGuiltyVotes());
+        assertEquals(2, folded.getNotGuiltyVotes());
+        assertEquals(5, folded.getTotalVotes());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private long insertCase() {
+        return jdbcTemplate.queryForObject("INSERT INTO cases (name, email, email_domain, verdict_score, " +
+                "total_votes, guilty_votes, not_guilty_votes, created_at, verdict_sign, verdict_wilson, " +
+                "controversy_score) " +
+                "VALUES ('hot case', 'scammer@example.com', 'example.com', 0, 0, 0, 0, now(), 0, 0, 0) RETURNING id",
+                Long.class);
+    }
+
+    private int countShards(long caseId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM case_vote_shards WHERE case_id = ?", Integer.class,
+                caseId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.unveil.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round trips of the snapshot file format: encode, map and look up,
+ * and delta diff / merge.
+ */
+class VerdictSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenSnapshotFindsEveryEntryByRawIdentifier() throws IOException {
+        List<VerdictSnapshot.Entry> entries = sorted(List.of(
+                entry(VerdictSnapshot.Kind.EMAIL, "scammer@example.com", VerdictSnapshot.Status.GUILTY, 3),
+                entry(VerdictSnapshot.Kind.PHONE, "15550109999", VerdictSnapshot.Status.PENDING, 1),
+                entry(VerdictSnapshot.Kind.DOMAIN, "example.com", VerdictSnapshot.Status.NOT_GUILTY, 2)));
+        Path path = directory.resolve("verdicts-000000000001.snap");
+
+        VerdictSnapshot.write(path, VerdictSnapshot.Header.full(1, 1000, entries.size()), entries);
+        VerdictSnapshotReader reader = VerdictSnapshotReader.open(path);
+
+        assertEquals(1, reader.header().generation());
+        assertEquals(entries, reader.entries());
+        // Lookups normalize the raw identifier the same way as the server
+        assertEquals(VerdictSnapshot.Status.GUILTY,
+                reader.find(VerdictSnapshot.Kind.EMAIL, " Scammer@Example.COM ").orElseThrow().status());
+        assertEquals(1, reader.find(VerdictSnapshot.Kind.PHONE, "+1 (555) 010-9999").orElseThrow().cases());
+        assertTrue(reader.find(VerdictSnapshot.Kind.DOMAIN, "@example.com").isPresent());
+        assertTrue(reader.find(VerdictSnapshot.Kind.EMAIL, "someone@example.com").isEmpty());
+        // Same identifier under another kind is a different key
+        assertTrue(reader.find(VerdictSnapshot.Kind.DOMAIN, "scammer@example.org").isEmpty());
+    }
+
+    @Test
+    void bloomFilterRejectsMostAbsentKeys() throws IOException {
+        List<VerdictSnapshot.Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            entries.add(entry(VerdictSnapshot.Kind.EMAIL, "user" + i + "@example.com", VerdictSnapshot.Status.GUILTY, 1));
+        }
+        VerdictSnapshotReader reader = VerdictSnapshotReader.of(
+                VerdictSnapshot.encode(VerdictSnapshot.Header.full(1, 0, entries.size()), sorted(entries)));
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (reader.mightContain(VerdictSnapshot.Key.of(VerdictSnapshot.Kind.EMAIL, "other" + i + "@example.com"))) {
+                falsePositives++;
+            }
+        }
+        // 10 bits per entry, 7 hashes: about 1%
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void deltaAppliedToBaseGivesNextSnapshot() throws IOException {
+        VerdictSnapshot.Entry kept = entry(VerdictSnapshot.Kind.EMAIL, "a@example.com", VerdictSnapshot.Status.GUILTY, 1);
+        VerdictSnapshot.Entry removed = entry(VerdictSnapshot.Kind.EMAIL, "b@example.com", VerdictSnapshot.Status.GUILTY, 1);
+        VerdictSnapshot.Entry changed = entry(VerdictSnapshot.Kind.PHONE, "15550100000", VerdictSnapshot.Status.PENDING, 1);
+        VerdictSnapshot.Entry added = entry(VerdictSnapshot.Kind.DOMAIN, "example.net", VerdictSnapshot.Status.GUILTY, 4);
+
+        List<VerdictSnapshot.Entry> base = sorted(List.of(kept, removed, changed));
+        List<VerdictSnapshot.Entry> next = sorted(List.of(kept,
+                new VerdictSnapshot.Entry(changed.key(), changed.kind(), VerdictSnapshot.Status.NOT_GUILTY, 2), added));
+
+        List<VerdictSnapshot.Entry> changes = VerdictSnapshot.diff(base, next);
+        assertEquals(3, changes.size());
+
+        // Through the wire format, as a client would receive it
+        VerdictSnapshotReader delta = VerdictSnapshotReader.of(
+                VerdictSnapshot.encode(VerdictSnapshot.Header.delta(1, 2, 0, changes.size()), changes));
+        assertEquals(VerdictSnapshot.Type.DELTA, delta.header().type());
+        assertEquals(VerdictSnapshot.Status.REMOVED, delta.find(removed.key()).orElseThrow().status());
+
+        assertEquals(next, VerdictSnapshot.merge(base, delta.entries()));
+    }
+
+    @Test
+    void generationIsDerivedFromEntriesOnly() {
+        List<VerdictSnapshot.Entry> entries = sorted(List.of(
+                entry(VerdictSnapshot.Kind.EMAIL, "a@example.com", VerdictSnapshot.Status.GUILTY, 1),
+                entry(VerdictSnapshot.Kind.DOMAIN, "example.com", VerdictSnapshot.Status.PENDING, 2)));
+        List<VerdictSnapshot.Entry> changed = sorted(List.of(
+                entry(VerdictSnapshot.Kind.EMAIL, "a@example.com", VerdictSnapshot.Status.GUILTY, 2),
+                entry(VerdictSnapshot.Kind.DOMAIN, "example.com", VerdictSnapshot.Status.PENDING, 2)));
+
+        // Another instance building the same entries gets the same generation
+        long generation = VerdictSnapshot.generationOf(entries);
+        assertEquals(generation, VerdictSnapshot.generationOf(new ArrayList<>(entries)));
+        assertNotEquals(generation, VerdictSnapshot.generationOf(changed));
+
+        String text = VerdictSnapshot.formatGeneration(generation);
+        assertEquals(16, text.length());
+        assertEquals(generation, VerdictSnapshot.parseGeneration(text).orElseThrow());
+        assertEquals(-1L, VerdictSnapshot.parseGeneration("ffffffffffffffff").orElseThrow());
+        assertTrue(VerdictSnapshot.parseGeneration("42").isEmpty());
+    }
+
+    @Test
+    void streamOutlivesTheDeletedFile() throws IOException {
+        List<VerdictSnapshot.Entry> entries = List.of(
+                entry(VerdictSnapshot.Kind.EMAIL, "a@example.com", VerdictSnapshot.Status.GUILTY, 1));
+        Path path = directory.resolve("verdicts-0000000000000001.snap");
+        VerdictSnapshot.write(path, VerdictSnapshot.Header.full(1, 0, 1), entries);
+        byte[] written = Files.readAllBytes(path);
+
+        VerdictSnapshotReader reader = VerdictSnapshotReader.open(path);
+        Files.delete(path);
+
+        try (InputStream stream = reader.openStream()) {
+            assertArrayEquals(written, stream.readAllBytes());
+        }
+    }
+
+    @Test
+    void corruptFileIsRejected() throws IOException {
+        List<VerdictSnapshot.Entry> entries = List.of(
+                entry(VerdictSnapshot.Kind.EMAIL, "a@example.com", VerdictSnapshot.Status.GUILTY, 1));
+        byte[] bytes = VerdictSnapshot.encode(VerdictSnapshot.Header.full(1, 0, 1), entries);
+        bytes[bytes.length - 10] ^= 1;
+        Path path = Files.write(directory.resolve("corrupt.snap"), bytes);
+
+        assertThrows(IOException.class, () -> VerdictSnapshotReader.open(path));
+    }
+
+    // ============ HELPER METHODS ============
+
+    private static VerdictSnapshot.Entry entry(VerdictSnapshot.Kind kind, String identifier,
+                                               VerdictSnapshot.Status status, int cases) {
+        return new VerdictSnapshot.Entry(VerdictSnapshot.Key.of(kind, identifier), kind, status, cases);
+    }
+
+    private static List<VerdictSnapshot.Entry> sorted(List<VerdictSnapshot.Entry> entries) {
+        List<VerdictSnapshot.Entry> copy = new ArrayList<>(entries);
+        copy.sort(Comparator.comparing(VerdictSnapshot.Entry::key));
+        return copy;
+    }
+}
@@ -0,0 +1,149 @@
+package com.unveil.state;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two JdbcStateStore instances over separate connections to one local
+ * PostgreSQL database, standing in for two application nodes.
+ *
+ * Run with e.g. STATE_STORE_TEST_DB_URL=jdbc:postgresql://localhost:5432/unveil
+ * (plus STATE_STORE_TEST_DB_USERNAME / STATE_STORE_TEST_DB_PASSWORD).
+ */
+@EnabledIfEnvironmentVariable(named = "STATE_STORE_TEST_DB_URL", matches = ".+")
+class JdbcStateStoreMultiInstanceTest {
+
+    private static final String PREFIX = "it:" + System.nanoTime() + ":";
+
+    private JdbcStateStore nodeA;
+    private JdbcStateStore nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = newNode();
+        nodeB = newNode();
+        nodeA.createSchemaIfMissing();
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.removeByPrefix(PREFIX);
+    }
+
+    @Test
+    void otpWrittenOnOneNodeIsVerifiableOnTheOther() {
+        nodeA.put(PREFIX + "otp:code:user@example.com", "123456:999", Duration.ofMinutes(5));
+
+        assertEquals("123456:999", nodeB.get(PREFIX + "otp:code:user@example.com").orElseThrow());
+
+        // Single use: only one node can consume it
+        assertTrue(nodeB.remove(PREFIX + "otp:code:user@example.com", "123456:999"));
+        assertFalse(nodeA.remove(PREFIX + "otp:code:user@example.com", "123456:999"));
+        assertTrue(nodeA.get(PREFIX + "otp:code:user@example.com").isEmpty());
+    }
+
+    @Test
+    void concurrentPutIfAbsentHasExactlyOneWinnerAcrossNodes() throws Exception {
+        String key = PREFIX + "vote:1#ip:10.0.0.1";
+        AtomicInteger winners = new AtomicInteger();
+
+        runConcurrently(40, i -> {
+            JdbcStateStore node = i % 2 == 0 ? nodeA : nodeB;
+            if (node.putIfAbsent(key, "1", null)) {
+                winners.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    void concurrentIncrementsAcrossNodesAreNotLost() throws Exception {
+        String key = PREFIX + "case:daily:10.0.0.1:2024-01-01";
+
+        runConcurrently(100, i -> (i % 2 == 0 ? nodeA : nodeB).increment(key, 1, Duration.ofHours(1)));
+
+        assertEquals("100", nodeA.get(key).orElseThrow());
+    }
+
+    @Test
+    void expiredEntriesAreInvisibleAndCanBeReclaimed() throws Exception {
+        String key = PREFIX + "otp:rate:user@example.com";
+        nodeA.put(key, "x", Duration.ofMillis(50));
+        Thread.sleep(100);
+
+        assertTrue(nodeB.get(key).isEmpty());
+        assertTrue(nodeB.putIfAbsent(key, "y", Duration.ofMinutes(1)));
+        assertEquals(1, nodeB.increment(PREFIX + "expired-counter", 1, Duration.ofMillis(1)));
+        Thread.sleep(10);
+        assertEquals(1, nodeA.increment(PREFIX + "expired-counter", 1, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void batchedWritesAreReadBackInOneCall() {
+        nodeA.putAll(Map.of(
+                PREFIX + "case:last-email:a@example.com", "t1",
+                PREFIX + "case:last-ip:10.0.0.1", "t2"
+        ), Duration.ofMinutes(5));
+
+        Map<String, String> values = nodeB.getAll(List.of(
+                PREFIX + "case:last-email:a@example.com",
+                PREFIX + "case:last-ip:10.0.0.1",
+                PREFIX + "case:last-ip:missing"));
+
+        assertEquals(2, values.size());
+        assertEquals("t2", values.get(PREFIX + "case:last-ip:10.0.0.1"));
+        assertEquals(1, nodeB.countByPrefix(PREFIX + "case:last-email:"));
+        assertEquals(2, nodeB.scan(PREFIX + "case:").size());
+    }
+
+    // ============ HELPER METHODS ============
+
+    private JdbcStateStore newNode() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("STATE_STORE_TEST_DB_URL"),
+                System.getenv().getOrDefault("STATE_STORE_TEST_DB_USERNAME", "postgres"),
+                System.getenv().getOrDefault("STATE_STORE_TEST_DB_PASSWORD", "postgres"));
+        return new JdbcStateStore(new JdbcTemplate(dataSource));
+    }
+
+    private void runConcurrently(int tasks, IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(index);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int index);
+    }
+}